@@ -0,0 +1,71 @@
+package com.fnw.benchmark;
+
+import com.fnw.model.NeuralNetwork;
+import com.fnw.train.BaseTrainer;
+import com.fnw.train.HebbianTrainer;
+import com.fnw.train.SimpleDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 训练分配基准测试
+ * 与GC分析器一起运行，gc.alloc.rate.norm 即每轮分配的字节数，
+ * 除以 边数 × 样本数 得到每次边更新分配的字节数：
+ * java -jar target/benchmarks.jar AllocationBenchmark -prof gc
+ * 不依赖JMH的独立统计见 {@link AllocationProfiler}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllocationBenchmark {
+    
+    @Param({"10000"})
+    public int neurons;
+    
+    @Param({"10"})
+    public int degree;
+    
+    @Param({"200"})
+    public int samples;
+    
+    private NeuralNetwork network;
+    
+    private SimpleDataset dataset;
+    
+    private BaseTrainer base;
+    
+    private HebbianTrainer hebbian;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = BenchmarkData.smallWorld(neurons, degree);
+        dataset = BenchmarkData.dataset(network, samples, 50);
+        base = new BaseTrainer();
+        hebbian = new HebbianTrainer(0.001);
+    }
+    
+    @Benchmark
+    public void baseEpoch() {
+        base.trainEpoch(network, dataset);
+    }
+    
+    @Benchmark
+    public void hebbianEpoch() {
+        hebbian.trainEpoch(network, dataset);
+    }
+}
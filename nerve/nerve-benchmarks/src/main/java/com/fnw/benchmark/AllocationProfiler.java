@@ -0,0 +1,208 @@
+package com.fnw.benchmark;
+
+import com.fnw.model.NeuralNetwork;
+import com.fnw.train.BaseTrainer;
+import com.fnw.train.Dataset;
+import com.fnw.train.HebbianTrainer;
+import com.fnw.train.Trainer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 训练过程的内存分配与GC统计
+ * 在标准训练负载（小世界网络 + 固定种子数据集）上分别运行 BaseTrainer 和 HebbianTrainer，
+ * 报告每轮、每个样本、每次边更新分配的字节数、分配速率，以及年轻代GC次数和停顿总时间。
+ * 分配字节数来自当前线程的分配计数，不受其他线程影响。
+ * 指定 --budget 时，HebbianTrainer 每次边更新的分配字节数超过预算则以状态码1退出，
+ * 供 allocation-budget 构建配置使构建失败。
+ * 运行：java -cp target/benchmarks.jar com.fnw.benchmark.AllocationProfiler [--neurons N] [--degree D]
+ * [--samples S] [--warmup W] [--epochs E] [--budget 字节]
+ */
+public class AllocationProfiler {
+    
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    public static void main(String[] args) {
+        int neurons = 10000;
+        int degree = 10;
+        int samples = 200;
+        int warmup = 5;
+        int epochs = 20;
+        double budget = Double.NaN;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--neurons":
+                    neurons = Integer.parseInt(value);
+                    break;
+                case "--degree":
+                    degree = Integer.parseInt(value);
+                    break;
+                case "--samples":
+                    samples = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--epochs":
+                    epochs = Integer.parseInt(value);
+                    break;
+                case "--budget":
+                    budget = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知的参数: " + args[i]);
+            }
+        }
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.err.println("当前JVM不支持线程分配统计");
+            System.exit(2);
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        
+        System.out.printf(Locale.ROOT, "workload: neurons=%d degree=%d samples=%d warmup=%d epochs=%d%n",
+                neurons, degree, samples, warmup, epochs);
+        Report base = measure("BaseTrainer", new BaseTrainer(), neurons, degree, samples, warmup, epochs);
+        Report hebbian = measure("HebbianTrainer", new HebbianTrainer(0.001), neurons, degree, samples, warmup, epochs);
+        System.out.println(base);
+        System.out.println(hebbian);
+        
+        if (!Double.isNaN(budget)) {
+            double perUpdate = hebbian.bytesPerEdgeUpdate();
+            if (perUpdate > budget) {
+                System.out.printf(Locale.ROOT, "FAILED: %.4f bytes/edge update exceeds budget %.4f%n", perUpdate, budget);
+                System.exit(1);
+            }
+            System.out.printf(Locale.ROOT, "OK: %.4f bytes/edge update within budget %.4f%n", perUpdate, budget);
+        }
+    }
+    
+    /**
+     * 预热后训练若干轮，统计分配和GC
+     */
+    static Report measure(String name, Trainer trainer, int neurons, int degree, int samples, int warmup, int epochs) {
+        NeuralNetwork network = BenchmarkData.smallWorld(neurons, degree);
+        Dataset dataset = BenchmarkData.dataset(network, samples, 50);
+        for (int i = 0; i < warmup; i++) {
+            trainer.trainEpoch(network, dataset);
+        }
+        
+        long threadId = Thread.currentThread().getId();
+        GcSnapshot gcBefore = GcSnapshot.take();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < epochs; i++) {
+            trainer.trainEpoch(network, dataset);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        GcSnapshot gcAfter = GcSnapshot.take();
+        
+        // 只有设置了学习规则的训练器才更新边，每个样本更新每条边一次
+        boolean updatesEdges = trainer instanceof BaseTrainer && ((BaseTrainer) trainer).getLearningRule() != null;
+        long edgeUpdates = updatesEdges ? (long) network.getEdges().size() * samples * epochs : 0L;
+        return new Report(name, epochs, (long) samples * epochs, edgeUpdates, allocated, elapsed,
+                gcAfter.youngCount - gcBefore.youngCount, gcAfter.youngMillis - gcBefore.youngMillis,
+                gcAfter.oldCount - gcBefore.oldCount, gcAfter.oldMillis - gcBefore.oldMillis);
+    }
+    
+    /**
+     * 所有垃圾收集器的累计次数和时间，按年轻代和老年代分别汇总
+     */
+    private static class GcSnapshot {
+        
+        long youngCount;
+        
+        long youngMillis;
+        
+        long oldCount;
+        
+        long oldMillis;
+        
+        static GcSnapshot take() {
+            GcSnapshot snapshot = new GcSnapshot();
+            List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+            for (GarbageCollectorMXBean collector : collectors) {
+                long count = Math.max(0L, collector.getCollectionCount());
+                long millis = Math.max(0L, collector.getCollectionTime());
+                if (isYoung(collector.getName())) {
+                    snapshot.youngCount += count;
+                    snapshot.youngMillis += millis;
+                } else {
+                    snapshot.oldCount += count;
+                    snapshot.oldMillis += millis;
+                }
+            }
+            return snapshot;
+        }
+        
+        // G1、Parallel、Serial、CMS 的年轻代收集器名称
+        private static boolean isYoung(String name) {
+            return name.contains("Young") || name.contains("Scavenge") || name.equals("Copy") || name.equals("ParNew");
+        }
+    }
+    
+    /**
+     * 一个训练器的统计结果
+     */
+    static class Report {
+        
+        final String name;
+        
+        final int epochs;
+        
+        final long samples;
+        
+        final long edgeUpdates;
+        
+        final long allocatedBytes;
+        
+        final long elapsedNanos;
+        
+        final long youngCollections;
+        
+        final long youngPauseMillis;
+        
+        final long oldCollections;
+        
+        final long oldPauseMillis;
+        
+        Report(String name, int epochs, long samples, long edgeUpdates, long allocatedBytes, long elapsedNanos,
+               long youngCollections, long youngPauseMillis, long oldCollections, long oldPauseMillis) {
+            this.name = name;
+            this.epochs = epochs;
+            this.samples = samples;
+            this.edgeUpdates = edgeUpdates;
+            this.allocatedBytes = allocatedBytes;
+            this.elapsedNanos = elapsedNanos;
+            this.youngCollections = youngCollections;
+            this.youngPauseMillis = youngPauseMillis;
+            this.oldCollections = oldCollections;
+            this.oldPauseMillis = oldPauseMillis;
+        }
+        
+        double bytesPerEdgeUpdate() {
+            return edgeUpdates > 0 ? (double) allocatedBytes / edgeUpdates : Double.NaN;
+        }
+        
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format(Locale.ROOT,
+                    "%s: %.1f bytes/epoch, %.1f bytes/sample, %.4f bytes/edge update, %.1f MB/s, "
+                            + "young GC %d (%d ms), old GC %d (%d ms), %.1f ms/epoch",
+                    name,
+                    (double) allocatedBytes / epochs,
+                    (double) allocatedBytes / samples,
+                    bytesPerEdgeUpdate(),
+                    allocatedBytes / 1e6 / seconds,
+                    youngCollections, youngPauseMillis,
+                    oldCollections, oldPauseMillis,
+                    elapsedNanos / 1e6 / epochs);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.fnw.benchmark;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.train.SimpleDataset;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试使用的合成数据
+ * 所有数据都由固定种子生成，不同提交之间的结果可以直接比较。
+ */
+final class BenchmarkData {
+    
+    static final long SEED = 42L;
+    
+    private BenchmarkData() {
+    }
+    
+    /**
+     * 创建小世界网络
+     * @param neurons 神经元数量
+     * @param degree 每个神经元的平均度数（偶数）
+     * @return 神经网络
+     */
+    static NeuralNetwork smallWorld(int neurons, int degree) {
+        return new WattsStrogatzGenerator(neurons, degree, 0.1, SEED).generateNetwork();
+    }
+    
+    /**
+     * 创建数据集，每个样本给出若干随机神经元的状态，其中约四分之一被激活
+     * @param network 神经网络
+     * @param samples 样本数量
+     * @param neuronsPerSample 每个样本包含的神经元数量
+     * @return 数据集
+     */
+    static SimpleDataset dataset(NeuralNetwork network, int samples, int neuronsPerSample) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        SimpleDataset dataset = new SimpleDataset();
+        for (int s = 0; s < samples; s++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            for (int k = 0; k < neuronsPerSample; k++) {
+                sample.put(network.getNeuron(random.nextInt(network.getNeuronCount())).getId(), random.nextInt(4) == 0);
+            }
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+}
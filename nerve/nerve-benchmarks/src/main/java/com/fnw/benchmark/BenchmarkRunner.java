@@ -0,0 +1,45 @@
+package com.fnw.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * 基准测试入口
+ * 接受与 JMH 相同的命令行参数，未指定结果格式时把结果写成 JSON（默认 jmh-result.json），
+ * 便于保存每次提交的结果并比较回归，例如：
+ * java -jar target/benchmarks.jar TrainingBenchmark -rff results/$(git rev-parse --short HEAD).json
+ */
+public class BenchmarkRunner {
+    
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+    
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList() || commandLine.shouldListWithParams() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            // 列出基准测试等信息的命令直接交给 JMH 处理
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
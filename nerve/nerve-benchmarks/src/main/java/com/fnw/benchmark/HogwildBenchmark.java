@@ -0,0 +1,132 @@
+package com.fnw.benchmark;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.train.HebbianTrainer;
+import com.fnw.train.HogwildTrainer;
+import com.fnw.train.SimpleDataset;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hogwild训练基准测试
+ * 比较顺序 HebbianTrainer 与不同线程数的 HogwildTrainer 每轮的耗时，
+ * hogwildEpoch 的结果中附带同一初始网络训练一轮后两者权重的相对误差（relativeError）。
+ * 运行：java -jar target/benchmarks.jar HogwildBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HogwildBenchmark {
+    
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+    
+    @Param({"500"})
+    public int samples;
+    
+    private NeuralNetwork network;
+    
+    private SimpleDataset dataset;
+    
+    private HebbianTrainer sequential;
+    
+    private HogwildTrainer hogwild;
+    
+    private final double learningRate = 0.0001;
+    
+    // 与顺序训练相比的权重相对L1误差，每组参数计算一次
+    private double relativeError;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = createNetwork();
+        SplittableRandom random = new SplittableRandom(42L);
+        dataset = new SimpleDataset();
+        for (int s = 0; s < samples; s++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            for (int k = 0; k < 200; k++) {
+                sample.put(network.getNeuron(random.nextInt(network.getNeuronCount())).getId(), random.nextInt(4) != 0);
+            }
+            dataset.addSample(sample);
+        }
+        sequential = new HebbianTrainer(learningRate);
+        hogwild = new HogwildTrainer(learningRate, threads);
+        relativeError = relativeError();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hogwild.close();
+    }
+    
+    private static NeuralNetwork createNetwork() {
+        return new WattsStrogatzGenerator(20000, 10, 0.1, 42L).generateNetwork();
+    }
+    
+    @Benchmark
+    public void sequentialEpoch() {
+        sequential.trainEpoch(network, dataset);
+    }
+    
+    @Benchmark
+    public void hogwildEpoch(Quality quality) {
+        hogwild.trainEpoch(network, dataset);
+        quality.relativeError = relativeError;
+    }
+    
+    /**
+     * 从相同的初始网络各训练一轮，计算权重的相对L1误差
+     */
+    private double relativeError() {
+        NeuralNetwork expected = createNetwork();
+        new HebbianTrainer(learningRate).trainEpoch(expected, dataset);
+        NeuralNetwork actual = createNetwork();
+        try (HogwildTrainer trainer = new HogwildTrainer(learningRate, threads)) {
+            trainer.trainEpoch(actual, dataset);
+        }
+        
+        List<Edge> expectedEdges = expected.getEdges();
+        List<Edge> actualEdges = actual.getEdges();
+        double error = 0.0;
+        double scale = 0.0;
+        for (int i = 0; i < expectedEdges.size(); i++) {
+            double weight = expectedEdges.get(i).getWeight(0.0);
+            error += Math.abs(weight - actualEdges.get(i).getWeight(0.0));
+            scale += Math.abs(weight);
+        }
+        return error / scale;
+    }
+    
+    /**
+     * 随耗时一起输出到结果中的附加指标
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Quality {
+        
+        public double relativeError;
+    }
+}
@@ -0,0 +1,148 @@
+package com.fnw.benchmark;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import com.fnw.train.BcmRule;
+import com.fnw.train.EdgeBatch;
+import com.fnw.train.HebbianRule;
+import com.fnw.train.LearningRule;
+import com.fnw.train.OjaRule;
+import com.fnw.train.StdpRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 学习规则基准测试
+ * 比较逐条边更新（原 HebbianTrainer 的实现）与批量规则的吞吐量，
+ * 并在调用点见过所有规则之后测量Hebb规则，确认新增规则不会拖慢Hebb规则。
+ * 运行：java -jar target/benchmarks.jar LearningRuleBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LearningRuleBenchmark {
+    
+    @Param({"10000", "100000"})
+    public int neurons;
+    
+    private NeuralNetwork network;
+    
+    private EdgeBatch batch;
+    
+    private LearningRule hebbian;
+    
+    private LearningRule oja;
+    
+    private LearningRule bcm;
+    
+    private LearningRule stdp;
+    
+    private final double learningRate = 0.01;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = new WattsStrogatzGenerator(neurons, 10, 0.1, 42L).generateNetwork();
+        SplittableRandom random = new SplittableRandom(42L);
+        for (Neuron neuron : network.getNeurons()) {
+            neuron.setActivated(random.nextInt(10) == 0);
+        }
+        batch = EdgeBatch.compile(network);
+        hebbian = new HebbianRule();
+        oja = new OjaRule();
+        bcm = new BcmRule();
+        stdp = new StdpRule();
+        
+        // 让 applyRule 的调用点在编译前记录到所有规则
+        LearningRule[] rules = {hebbian, oja, bcm, stdp};
+        for (int i = 0; i < 2000; i++) {
+            applyRule(rules[i % rules.length]);
+        }
+    }
+    
+    private void applyRule(LearningRule rule) {
+        rule.apply(batch, learningRate);
+    }
+    
+    /**
+     * 原实现：逐条边读取神经元对象的激活状态，装箱写回权重
+     */
+    @Benchmark
+    public void hebbianPerEdge() {
+        for (Edge edge : network.getEdges()) {
+            Object currentInfo = edge.getInformation();
+            double weight = currentInfo instanceof Number ? ((Number) currentInfo).doubleValue() : 0.0;
+            boolean from = edge.getFromNeuron().isActivated();
+            boolean to = edge.getToNeuron().isActivated();
+            if (from && to) {
+                weight += learningRate;
+            } else if (from || to) {
+                weight -= learningRate * 0.5;
+            } else {
+                weight -= learningRate * 0.1;
+            }
+            edge.setInformation(Math.max(-1.0, Math.min(1.0, weight)));
+        }
+    }
+    
+    @Benchmark
+    public double[] hebbianBatched() {
+        hebbian.apply(batch, learningRate);
+        return batch.getWeights();
+    }
+    
+    /**
+     * 通过一个见过所有规则的接口调用点执行Hebb规则
+     * 内层循环在各规则内部，调用点多态只影响每批一次的接口调用，结果应与 hebbianBatched 相当
+     */
+    @Benchmark
+    public double[] hebbianPolymorphicCallSite() {
+        applyRule(hebbian);
+        return batch.getWeights();
+    }
+    
+    @Benchmark
+    public double[] ojaBatched() {
+        oja.apply(batch, learningRate);
+        return batch.getWeights();
+    }
+    
+    @Benchmark
+    public double[] bcmBatched() {
+        bcm.apply(batch, learningRate);
+        return batch.getWeights();
+    }
+    
+    @Benchmark
+    public double[] stdpBatched() {
+        stdp.apply(batch, learningRate);
+        return batch.getWeights();
+    }
+    
+    /**
+     * 包含编译边批次和写回权重的完整一轮
+     */
+    @Benchmark
+    public void hebbianEpoch() {
+        EdgeBatch epoch = EdgeBatch.compile(network);
+        hebbian.apply(epoch, learningRate);
+        epoch.writeBack();
+    }
+}
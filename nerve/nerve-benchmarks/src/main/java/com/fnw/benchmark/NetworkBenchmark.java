@@ -0,0 +1,78 @@
+package com.fnw.benchmark;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网络结构操作基准测试
+ * 测量在小世界网络上创建连接和查询邻接边的耗时，按网络规模和密度参数化。
+ * 运行：java -jar target/benchmarks.jar NetworkBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+    
+    @Param({"1000", "10000", "100000"})
+    public int neurons;
+    
+    // 平均度数，决定网络密度
+    @Param({"4", "16"})
+    public int degree;
+    
+    private NeuralNetwork network;
+    
+    private String[] ids;
+    
+    private SplittableRandom random;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(BenchmarkData.SEED);
+    }
+    
+    /**
+     * 每次迭代重新生成网络，避免 createConnection 让网络持续增长
+     */
+    @Setup(Level.Iteration)
+    public void createNetwork() {
+        network = BenchmarkData.smallWorld(neurons, degree);
+        ids = new String[neurons];
+        for (int i = 0; i < neurons; i++) {
+            ids[i] = network.getNeuron(i).getId();
+        }
+    }
+    
+    @Benchmark
+    public boolean createConnection() {
+        String from = ids[random.nextInt(neurons)];
+        String to = ids[random.nextInt(neurons)];
+        return network.createConnection(from, to, Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+    }
+    
+    @Benchmark
+    public List<Edge> getEdgesForNeuron() {
+        Neuron neuron = network.getNeuron(random.nextInt(neurons));
+        return network.getEdgesForNeuron(neuron);
+    }
+}
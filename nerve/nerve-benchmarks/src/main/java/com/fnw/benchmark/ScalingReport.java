@@ -0,0 +1,162 @@
+package com.fnw.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 扩展性测试报告
+ * CSV每个规模、存储和线程数一行；HTML包含结果表和三张双对数坐标的折线图
+ * （训练吞吐量、查询p99延迟、估计堆占用），每种存储和线程数一条曲线，不依赖外部脚本。
+ */
+final class ScalingReport {
+    
+    static final String CSV_HEADER = "engine,neurons,edges,threads,status,load_ms,estimated_bytes,peak_heap_bytes,"
+            + "peak_rss_bytes,edge_updates_per_second,queries_per_second,p50_us,p90_us,p99_us,max_us";
+    
+    private static final String[] COLORS = {"#1f77b4", "#d62728", "#2ca02c", "#ff7f0e", "#9467bd", "#8c564b"};
+    
+    private static final int WIDTH = 640;
+    
+    private static final int HEIGHT = 360;
+    
+    private static final int MARGIN = 60;
+    
+    private ScalingReport() {
+    }
+    
+    static String toCsv(List<ScalingSuite.ScalingResult> results) {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        for (ScalingSuite.ScalingResult r : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%s,%s,%d,%d,%d,%s,%s,%s,%s,%s,%s%n",
+                    r.engine, r.neurons, r.edges, r.threads, r.status,
+                    r.loadNanos >= 0 ? format(r.loadNanos / 1e6) : "", r.estimatedBytes, r.peakHeapBytes,
+                    r.peakRssBytes, format(r.edgeUpdatesPerSecond), format(r.queriesPerSecond),
+                    micros(r.p50Nanos), micros(r.p90Nanos), micros(r.p99Nanos), micros(r.maxNanos)));
+        }
+        return csv.toString();
+    }
+    
+    static String toHtml(List<ScalingSuite.ScalingResult> results) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>扩展性测试</title>\n")
+                .append("<style>body{font-family:sans-serif;margin:24px}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+                .append(".skipped,.oom{color:#999}</style></head><body>\n")
+                .append("<h1>扩展性测试</h1>\n");
+        html.append(chart("训练吞吐量（边更新/秒）", results, r -> r.edgeUpdatesPerSecond, false));
+        html.append(chart("两跳回忆查询 p99 延迟（微秒）", results, r -> r.p99Nanos / 1e3, false));
+        html.append(chart("估计堆占用（MB，未运行的规模为预估值）", results, r -> r.estimatedBytes / 1e6, true));
+        
+        html.append("<table>\n<tr>");
+        for (String column : CSV_HEADER.split(",")) {
+            html.append("<th>").append(column).append("</th>");
+        }
+        html.append("</tr>\n");
+        for (String line : toCsv(results).split("\n")) {
+            if (line.startsWith("engine,")) {
+                continue;
+            }
+            String[] cells = line.split(",", -1);
+            html.append("<tr class=\"").append(cells[4]).append("\">");
+            for (String cell : cells) {
+                html.append("<td>").append(cell).append("</td>");
+            }
+            html.append("</tr>\n");
+        }
+        html.append("</table>\n</body></html>\n");
+        return html.toString();
+    }
+    
+    /**
+     * 生成双对数坐标的折线图，横轴为边数量，只画大于0的有效点
+     * @param includeSkipped 是否包含未运行的规模（只有预估值）
+     */
+    private static String chart(String title, List<ScalingSuite.ScalingResult> results,
+                                ToDoubleFunction<ScalingSuite.ScalingResult> metric, boolean includeSkipped) {
+        Map<String, List<double[]>> series = new LinkedHashMap<>();
+        double minX = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (ScalingSuite.ScalingResult r : results) {
+            if (!r.isOk() && !includeSkipped) {
+                continue;
+            }
+            double value = metric.applyAsDouble(r);
+            if (!(value > 0) || Double.isInfinite(value)) {
+                continue;
+            }
+            double x = Math.log10(r.edges);
+            double y = Math.log10(value);
+            series.computeIfAbsent(r.engine + " / " + r.threads + " 线程", key -> new ArrayList<>()).add(new double[]{x, y});
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+        
+        StringBuilder svg = new StringBuilder("<h2>").append(title).append("</h2>\n");
+        if (series.isEmpty()) {
+            return svg.append("<p>没有数据</p>\n").toString();
+        }
+        minX = Math.floor(minX);
+        maxX = Math.max(minX + 1, Math.ceil(maxX));
+        minY = Math.floor(minY);
+        maxY = Math.max(minY + 1, Math.ceil(maxY));
+        
+        svg.append(String.format(Locale.ROOT, "<svg width=\"%d\" height=\"%d\" xmlns=\"http://www.w3.org/2000/svg\">%n",
+                WIDTH + 200, HEIGHT));
+        int plotWidth = WIDTH - 2 * MARGIN;
+        int plotHeight = HEIGHT - 2 * MARGIN;
+        // 坐标轴和10的整数次幂刻度
+        for (int e = (int) minX; e <= maxX; e++) {
+            double px = MARGIN + (e - minX) / (maxX - minX) * plotWidth;
+            svg.append(String.format(Locale.ROOT,
+                    "<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"#eee\"/>"
+                            + "<text x=\"%.1f\" y=\"%d\" font-size=\"11\" text-anchor=\"middle\">1e%d</text>%n",
+                    px, MARGIN, px, HEIGHT - MARGIN, px, HEIGHT - MARGIN + 16, e));
+        }
+        for (int e = (int) minY; e <= maxY; e++) {
+            double py = HEIGHT - MARGIN - (e - minY) / (maxY - minY) * plotHeight;
+            svg.append(String.format(Locale.ROOT,
+                    "<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"#eee\"/>"
+                            + "<text x=\"%d\" y=\"%.1f\" font-size=\"11\" text-anchor=\"end\">1e%d</text>%n",
+                    MARGIN, py, WIDTH - MARGIN, py, MARGIN - 6, py + 4, e));
+        }
+        svg.append(String.format(Locale.ROOT,
+                "<text x=\"%d\" y=\"%d\" font-size=\"12\" text-anchor=\"middle\">边数量</text>%n",
+                WIDTH / 2, HEIGHT - 16));
+        
+        int index = 0;
+        for (Map.Entry<String, List<double[]>> entry : series.entrySet()) {
+            String color = COLORS[index % COLORS.length];
+            StringBuilder points = new StringBuilder();
+            for (double[] point : entry.getValue()) {
+                double px = MARGIN + (point[0] - minX) / (maxX - minX) * plotWidth;
+                double py = HEIGHT - MARGIN - (point[1] - minY) / (maxY - minY) * plotHeight;
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ", px, py));
+                svg.append(String.format(Locale.ROOT, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"3\" fill=\"%s\"/>%n",
+                        px, py, color));
+            }
+            svg.append(String.format(Locale.ROOT, "<polyline points=\"%s\" fill=\"none\" stroke=\"%s\"/>%n",
+                    points.toString().trim(), color));
+            svg.append(String.format(Locale.ROOT,
+                    "<text x=\"%d\" y=\"%d\" font-size=\"12\" fill=\"%s\">%s</text>%n",
+                    WIDTH - MARGIN + 16, MARGIN + 18 * index, color, entry.getKey()));
+            index++;
+        }
+        return svg.append("</svg>\n").toString();
+    }
+    
+    private static String format(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.1f", value);
+    }
+    
+    private static String micros(long nanos) {
+        return nanos >= 0 ? String.format(Locale.ROOT, "%.1f", nanos / 1e3) : "";
+    }
+}
@@ -0,0 +1,603 @@
+package com.fnw.benchmark;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.metrics.Histogram;
+import com.fnw.model.CompactGraph;
+import com.fnw.model.MemoryEstimator;
+import com.fnw.model.MemoryFootprint;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.query.Query;
+import com.fnw.query.QueryEngine;
+import com.fnw.train.Dataset;
+import com.fnw.train.HebbianTrainer;
+import com.fnw.train.HogwildTrainer;
+import com.fnw.train.Trainer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 端到端扩展性测试
+ * 对每个规模（边数量）生成小世界网络，分别在对象模型和紧凑图上测量加载时间、堆占用和两跳回忆查询的延迟；
+ * 对象模型还用 HebbianTrainer（多线程时为 HogwildTrainer）训练若干轮，测量每秒边更新次数。
+ * 预估堆内存超过可用堆的规模不运行，在报告中标记为 skipped，由此可以看出每种存储在多大规模时不再可用。
+ * 每个规模的每种存储在单独的子JVM中运行（使用与当前JVM相同的参数），峰值常驻内存（VmHWM）是进程级的最大值，
+ * 只有这样各行的峰值才互不影响；同一规模的各个线程数从相同的初始权重和激活状态开始训练。
+ * 结果写成 scaling.csv 和带折线图的 scaling.html。
+ * 运行：java -Xmx8g -cp target/benchmarks.jar com.fnw.benchmark.ScalingSuite [--sizes 10000,100000,...]
+ * [--threads 1,4] [--degree D] [--epochs E] [--samples S] [--queries Q] [--output 目录]
+ */
+public class ScalingSuite {
+    
+    // 构建对象模型时构建器和网络各持有一份边列表，预留的堆余量
+    private static final double HEADROOM = 1.25;
+    
+    // 每次计时前不计入结果的查询数量
+    private static final int WARMUP_QUERIES = 200;
+    
+    private final int degree;
+    
+    private final int epochs;
+    
+    private final int samples;
+    
+    private final int queries;
+    
+    private final int[] threads;
+    
+    private final MemoryEstimator estimator;
+    
+    ScalingSuite(int degree, int epochs, int samples, int queries, int[] threads) {
+        if (degree < 2 || degree % 2 != 0) {
+            throw new IllegalArgumentException("平均度数必须是不小于2的偶数: " + degree);
+        }
+        this.degree = degree;
+        this.epochs = epochs;
+        this.samples = samples;
+        this.queries = queries;
+        this.threads = threads;
+        this.estimator = MemoryEstimator.forCurrentJvm();
+    }
+    
+    // 子JVM参数：只运行一种存储，并把结果写到指定文件
+    private static final String ENGINE_ARG = "--engine";
+    
+    private static final String RESULT_ARG = "--result";
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long[] sizes = {10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L};
+        int[] threads = {1, Runtime.getRuntime().availableProcessors()};
+        int degree = 10;
+        int epochs = 2;
+        int samples = 20;
+        int queries = 2000;
+        Path output = Paths.get("scaling-report");
+        String engine = null;
+        Path result = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = parseList(value).stream().mapToLong(Long::longValue).toArray();
+                    break;
+                case "--threads":
+                    threads = parseList(value).stream().mapToInt(Long::intValue).distinct().toArray();
+                    break;
+                case "--degree":
+                    degree = Integer.parseInt(value);
+                    break;
+                case "--epochs":
+                    epochs = Integer.parseInt(value);
+                    break;
+                case "--samples":
+                    samples = Integer.parseInt(value);
+                    break;
+                case "--queries":
+                    queries = Integer.parseInt(value);
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                case ENGINE_ARG:
+                    engine = value;
+                    break;
+                case RESULT_ARG:
+                    result = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知的参数: " + args[i]);
+            }
+        }
+        
+        ScalingSuite suite = new ScalingSuite(degree, epochs, samples, queries, threads);
+        if (engine != null) {
+            // 子JVM：只运行一个规模的一种存储
+            if (sizes.length != 1 || result == null) {
+                throw new IllegalArgumentException(ENGINE_ARG + " 需要一个规模和 " + RESULT_ARG);
+            }
+            List<ScalingResult> results = suite.run(engine, sizes[0]);
+            StringBuilder encoded = new StringBuilder();
+            for (ScalingResult row : results) {
+                encoded.append(row.encode()).append('\n');
+            }
+            Files.write(result, encoded.toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        
+        List<ScalingResult> results = new ArrayList<>();
+        for (long size : sizes) {
+            for (String each : new String[]{"object", "compact"}) {
+                for (ScalingResult row : suite.fork(each, size)) {
+                    System.out.println(row);
+                    results.add(row);
+                }
+            }
+        }
+        
+        Files.createDirectories(output);
+        Path csv = output.resolve("scaling.csv");
+        Path html = output.resolve("scaling.html");
+        Files.write(csv, ScalingReport.toCsv(results).getBytes(StandardCharsets.UTF_8));
+        Files.write(html, ScalingReport.toHtml(results).getBytes(StandardCharsets.UTF_8));
+        System.out.println("report: " + csv + ", " + html);
+    }
+    
+    private static List<Long> parseList(String value) {
+        List<Long> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            long parsed = Long.parseLong(part.trim().replace("_", ""));
+            if (parsed <= 0) {
+                throw new IllegalArgumentException("取值必须为正数: " + part);
+            }
+            values.add(parsed);
+        }
+        return values;
+    }
+    
+    /**
+     * 在新的JVM中测量一个规模的一种存储
+     * 子JVM使用与当前JVM相同的启动参数和类路径；子JVM没有写出结果（例如被系统杀掉）时记为内存不足
+     */
+    private List<ScalingResult> fork(String engine, long edges) throws IOException, InterruptedException {
+        Path result = Files.createTempFile("scaling-", ".txt");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ScalingSuite.class.getName());
+            command.addAll(Arrays.asList("--sizes", String.valueOf(edges), "--threads", joinThreads(),
+                    "--degree", String.valueOf(degree), "--epochs", String.valueOf(epochs),
+                    "--samples", String.valueOf(samples), "--queries", String.valueOf(queries),
+                    ENGINE_ARG, engine, RESULT_ARG, result.toString()));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            int exit = process.waitFor();
+            List<ScalingResult> results = new ArrayList<>();
+            if (exit == 0) {
+                for (String line : Files.readAllLines(result, StandardCharsets.UTF_8)) {
+                    if (!line.isEmpty()) {
+                        results.add(ScalingResult.decode(line));
+                    }
+                }
+            }
+            if (results.isEmpty()) {
+                WattsStrogatzGenerator generator = generator(edges);
+                MemoryFootprint projected = project(engine, generator);
+                for (int threadCount : threads) {
+                    results.add(ScalingResult.failed(engine, generator.getNeuronCount(), generator.edgeCount(),
+                            threadCount, projected.getTotalBytes()));
+                }
+            }
+            return results;
+        } finally {
+            Files.deleteIfExists(result);
+        }
+    }
+    
+    private String joinThreads() {
+        StringBuilder joined = new StringBuilder();
+        for (int threadCount : threads) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(threadCount);
+        }
+        return joined.toString();
+    }
+    
+    /**
+     * 在当前JVM中测量一个规模的一种存储
+     * @param engine object 或 compact
+     */
+    List<ScalingResult> run(String engine, long edges) {
+        switch (engine) {
+            case "object":
+                return runObjectModel(edges);
+            case "compact":
+                return runCompactGraph(edges);
+            default:
+                throw new IllegalArgumentException("未知的存储: " + engine);
+        }
+    }
+    
+    private MemoryFootprint project(String engine, WattsStrogatzGenerator generator) {
+        return "object".equals(engine)
+                ? estimator.projectObjectMode(generator.getNeuronCount(), generator.edgeCount())
+                : estimator.projectCompactMode(generator.getNeuronCount(), generator.edgeCount());
+    }
+    
+    /**
+     * 在对象模型上测量一个规模，每个线程数一行结果
+     */
+    List<ScalingResult> runObjectModel(long edges) {
+        WattsStrogatzGenerator generator = generator(edges);
+        int neurons = generator.getNeuronCount();
+        MemoryFootprint projected = estimator.projectObjectMode(neurons, generator.edgeCount());
+        List<ScalingResult> results = new ArrayList<>();
+        if (!fits(projected)) {
+            for (int threadCount : threads) {
+                results.add(ScalingResult.skipped("object", neurons, generator.edgeCount(), threadCount, projected.getTotalBytes()));
+            }
+            return results;
+        }
+        
+        try {
+            resetPeaks();
+            long start = System.nanoTime();
+            NeuralNetwork network = generator.generateNetwork();
+            long loadNanos = System.nanoTime() - start;
+            long estimated = network.estimateMemory().getTotalBytes();
+            Dataset dataset = BenchmarkData.dataset(network, samples, 50);
+            QueryEngine engine = new QueryEngine(network);
+            List<Query> recall = recallQueries(network);
+            
+            for (int t = 0; t < threads.length; t++) {
+                int threadCount = threads[t];
+                if (t > 0) {
+                    // 每个线程数都在新生成的相同网络上训练，各行结果可以比较；先释放上一个网络，不抬高堆峰值
+                    network = null;
+                    engine = null;
+                    network = generator.generateNetwork();
+                    engine = new QueryEngine(network);
+                }
+                Trainer trainer = threadCount == 1 ? new HebbianTrainer(0.001) : new HogwildTrainer(0.001, threadCount);
+                start = System.nanoTime();
+                try {
+                    trainer.train(network, dataset, epochs);
+                } finally {
+                    if (trainer instanceof HogwildTrainer) {
+                        ((HogwildTrainer) trainer).close();
+                    }
+                }
+                double trainSeconds = (System.nanoTime() - start) / 1e9;
+                double edgeUpdates = (double) network.getEdgeCount() * samples * epochs;
+                
+                QueryEngine current = engine;
+                Histogram latency = new Histogram();
+                double querySeconds = runQueries(threadCount, latency, index -> {
+                    Iterator<?> iterator = current.execute(recall.get(index % recall.size()));
+                    while (iterator.hasNext()) {
+                        iterator.next();
+                    }
+                });
+                results.add(new ScalingResult("object", neurons, network.getEdgeCount(), threadCount, "ok",
+                        loadNanos, estimated, peakHeap(), peakRss(), edgeUpdates / trainSeconds,
+                        queries / querySeconds, latency));
+            }
+        } catch (OutOfMemoryError e) {
+            results.clear();
+            for (int threadCount : threads) {
+                results.add(ScalingResult.failed("object", neurons, generator.edgeCount(), threadCount, projected.getTotalBytes()));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * 在紧凑图上测量一个规模，紧凑图没有训练器，只测量加载和沿出边的两跳回忆
+     */
+    List<ScalingResult> runCompactGraph(long edges) {
+        WattsStrogatzGenerator generator = generator(edges);
+        int neurons = generator.getNeuronCount();
+        MemoryFootprint projected = estimator.projectCompactMode(neurons, generator.edgeCount());
+        List<ScalingResult> results = new ArrayList<>();
+        if (!fits(projected)) {
+            for (int threadCount : threads) {
+                results.add(ScalingResult.skipped("compact", neurons, generator.edgeCount(), threadCount, projected.getTotalBytes()));
+            }
+            return results;
+        }
+        
+        try {
+            resetPeaks();
+            long start = System.nanoTime();
+            CompactGraph graph = generator.generateCompact();
+            long loadNanos = System.nanoTime() - start;
+            long estimated = estimator.estimate(graph).getTotalBytes();
+            int[] sources = recallSources(neurons);
+            // 累加到达的神经元数量，避免遍历被优化掉
+            LongAdder reached = new LongAdder();
+            
+            for (int threadCount : threads) {
+                Histogram latency = new Histogram();
+                double querySeconds = runQueries(threadCount, latency,
+                        index -> reached.add(twoHops(graph, sources[index % sources.length])));
+                results.add(new ScalingResult("compact", neurons, graph.getEdgeCount(), threadCount, "ok",
+                        loadNanos, estimated, peakHeap(), peakRss(), Double.NaN, queries / querySeconds, latency));
+            }
+        } catch (OutOfMemoryError e) {
+            results.clear();
+            for (int threadCount : threads) {
+                results.add(ScalingResult.failed("compact", neurons, generator.edgeCount(), threadCount, projected.getTotalBytes()));
+            }
+        }
+        return results;
+    }
+    
+    private WattsStrogatzGenerator generator(long edges) {
+        long neurons = Math.max(degree + 1L, 2 * edges / degree);
+        if (neurons > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("神经元数量超出范围: " + neurons);
+        }
+        return new WattsStrogatzGenerator((int) neurons, degree, 0.1, BenchmarkData.SEED);
+    }
+    
+    /**
+     * 预估占用加上余量是否能放进当前可用的堆
+     */
+    private static boolean fits(MemoryFootprint projected) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return projected.getTotalBytes() * HEADROOM < available;
+    }
+    
+    /**
+     * 两跳回忆查询：从随机神经元出发，经任意关系到达的神经元再经任意关系到达的神经元
+     */
+    private List<Query> recallQueries(NeuralNetwork network) {
+        List<Query> result = new ArrayList<>();
+        for (int source : recallSources(network.getNeuronCount())) {
+            result.add(Query.parse(network.getNeuron(source).getId() + " -[]-> ?x, ?x -[]-> ?y"));
+        }
+        return result;
+    }
+    
+    private int[] recallSources(int neurons) {
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        int[] sources = new int[Math.min(queries, 1024)];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(neurons);
+        }
+        return sources;
+    }
+    
+    private static long twoHops(CompactGraph graph, int source) {
+        long count = 0;
+        for (int e = graph.offset(source); e < graph.offset(source + 1); e++) {
+            int middle = graph.target(e);
+            count += graph.outDegree(middle);
+        }
+        return count;
+    }
+    
+    /**
+     * 先预热一部分查询，再用若干线程平分执行查询，记录每次查询的延迟
+     * @return 全部查询的墙钟时间（秒）
+     */
+    private double runQueries(int threadCount, Histogram latency, QueryTask task) {
+        for (int i = 0; i < Math.min(queries, WARMUP_QUERIES); i++) {
+            task.run(i);
+        }
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            int index;
+            while ((index = next.getAndIncrement()) < queries) {
+                long start = System.nanoTime();
+                task.run(index);
+                latency.record(System.nanoTime() - start);
+            }
+        };
+        long start = System.nanoTime();
+        if (threadCount == 1) {
+            worker.run();
+        } else {
+            Thread[] workers = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                workers[t] = new Thread(worker, "scaling-query-" + t);
+                workers[t].start();
+            }
+            for (Thread thread : workers) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("查询线程被中断", e);
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+    
+    private static void resetPeaks() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+    
+    /**
+     * 自上次重置以来各个堆内存池峰值之和
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+    
+    /**
+     * 进程的峰值常驻内存（Linux的VmHWM），无法读取时返回-1
+     */
+    static long peakRss() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmHWM:")) {
+                    String[] parts = line.substring(6).trim().split("\\s+");
+                    return Long.parseLong(parts[0]) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+    
+    /**
+     * 一次查询
+     */
+    private interface QueryTask {
+        
+        void run(int index);
+    }
+    
+    /**
+     * 一个规模、一种存储、一个线程数的测量结果
+     */
+    static class ScalingResult {
+        
+        final String engine;
+        
+        final int neurons;
+        
+        final long edges;
+        
+        final int threads;
+        
+        // ok、skipped（预估超过可用堆）或 oom（运行中内存不足）
+        final String status;
+        
+        final long loadNanos;
+        
+        // 运行时为估计的堆占用，未运行时为预估的堆占用
+        final long estimatedBytes;
+        
+        final long peakHeapBytes;
+        
+        final long peakRssBytes;
+        
+        final double edgeUpdatesPerSecond;
+        
+        final double queriesPerSecond;
+        
+        final long p50Nanos;
+        
+        final long p90Nanos;
+        
+        final long p99Nanos;
+        
+        final long maxNanos;
+        
+        ScalingResult(String engine, int neurons, long edges, int threads, String status, long loadNanos,
+                      long estimatedBytes, long peakHeapBytes, long peakRssBytes, double edgeUpdatesPerSecond,
+                      double queriesPerSecond, Histogram latency) {
+            this(engine, neurons, edges, threads, status, loadNanos, estimatedBytes, peakHeapBytes, peakRssBytes,
+                    edgeUpdatesPerSecond, queriesPerSecond,
+                    latency != null ? latency.getValueAtPercentile(50) : -1,
+                    latency != null ? latency.getValueAtPercentile(90) : -1,
+                    latency != null ? latency.getValueAtPercentile(99) : -1,
+                    latency != null ? latency.getMax() : -1);
+        }
+        
+        private ScalingResult(String engine, int neurons, long edges, int threads, String status, long loadNanos,
+                              long estimatedBytes, long peakHeapBytes, long peakRssBytes, double edgeUpdatesPerSecond,
+                              double queriesPerSecond, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+            this.engine = engine;
+            this.neurons = neurons;
+            this.edges = edges;
+            this.threads = threads;
+            this.status = status;
+            this.loadNanos = loadNanos;
+            this.estimatedBytes = estimatedBytes;
+            this.peakHeapBytes = peakHeapBytes;
+            this.peakRssBytes = peakRssBytes;
+            this.edgeUpdatesPerSecond = edgeUpdatesPerSecond;
+            this.queriesPerSecond = queriesPerSecond;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+        
+        /**
+         * 编码为一行文本，用于从子JVM传回结果，不损失精度
+         */
+        String encode() {
+            return engine + "," + neurons + "," + edges + "," + threads + "," + status + "," + loadNanos + ","
+                    + estimatedBytes + "," + peakHeapBytes + "," + peakRssBytes + "," + edgeUpdatesPerSecond + ","
+                    + queriesPerSecond + "," + p50Nanos + "," + p90Nanos + "," + p99Nanos + "," + maxNanos;
+        }
+        
+        static ScalingResult decode(String line) {
+            String[] f = line.split(",");
+            if (f.length != 15) {
+                throw new IllegalArgumentException("无法解析的结果: " + line);
+            }
+            return new ScalingResult(f[0], Integer.parseInt(f[1]), Long.parseLong(f[2]), Integer.parseInt(f[3]), f[4],
+                    Long.parseLong(f[5]), Long.parseLong(f[6]), Long.parseLong(f[7]), Long.parseLong(f[8]),
+                    Double.parseDouble(f[9]), Double.parseDouble(f[10]), Long.parseLong(f[11]), Long.parseLong(f[12]),
+                    Long.parseLong(f[13]), Long.parseLong(f[14]));
+        }
+        
+        static ScalingResult skipped(String engine, int neurons, long edges, int threads, long projectedBytes) {
+            return new ScalingResult(engine, neurons, edges, threads, "skipped", -1, projectedBytes, -1, -1,
+                    Double.NaN, Double.NaN, null);
+        }
+        
+        static ScalingResult failed(String engine, int neurons, long edges, int threads, long projectedBytes) {
+            return new ScalingResult(engine, neurons, edges, threads, "oom", -1, projectedBytes, -1, -1,
+                    Double.NaN, Double.NaN, null);
+        }
+        
+        boolean isOk() {
+            return "ok".equals(status);
+        }
+        
+        @Override
+        public String toString() {
+            if (!isOk()) {
+                return String.format(Locale.ROOT, "%s edges=%d threads=%d: %s (projected %.1f MB)",
+                        engine, edges, threads, status, estimatedBytes / 1e6);
+            }
+            return String.format(Locale.ROOT,
+                    "%s edges=%d threads=%d: load %.1f ms, heap %.1f MB (peak %.1f MB), %.3g edge updates/s, "
+                            + "%.1f queries/s, p50 %.1f us, p99 %.1f us",
+                    engine, edges, threads, loadNanos / 1e6, estimatedBytes / 1e6, peakHeapBytes / 1e6,
+                    edgeUpdatesPerSecond, queriesPerSecond, p50Nanos / 1e3, p99Nanos / 1e3);
+        }
+    }
+}
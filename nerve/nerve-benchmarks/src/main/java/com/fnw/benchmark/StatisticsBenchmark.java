@@ -0,0 +1,125 @@
+package com.fnw.benchmark;
+
+import com.fnw.analysis.NetworkStatistics;
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网络统计基准测试
+ * 比较一次并行遍历得到全部统计（fused）与每项统计各自串行遍历一遍（separate）的耗时，
+ * 两者得到的统计相同。边数量足够大时前者应接近内存带宽上限。
+ * 运行：java -jar target/benchmarks.jar StatisticsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StatisticsBenchmark {
+    
+    @Param({"100000", "1000000"})
+    public int neurons;
+    
+    // 平均度数，边数量为 neurons * degree / 2
+    @Param({"16"})
+    public int degree;
+    
+    private CompactGraph graph;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new WattsStrogatzGenerator(neurons, degree, 0.1, BenchmarkData.SEED).generateCompact();
+    }
+    
+    @Benchmark
+    public NetworkStatistics fused() {
+        return NetworkStatistics.compute(graph);
+    }
+    
+    /**
+     * 与fused得到相同的统计，每项统计单独遍历一遍
+     */
+    @Benchmark
+    public void separate(Blackhole blackhole) {
+        int edges = graph.getEdgeCount();
+        int types = Edge.RelationshipType.values().length;
+        
+        // 各关系类型的边数量
+        long[] counts = new long[types];
+        for (int e = 0; e < edges; e++) {
+            counts[graph.relationshipType(e).ordinal()]++;
+        }
+        blackhole.consume(counts);
+        
+        // 各方向性的边数量
+        long[] directions = new long[Edge.Direction.values().length];
+        for (int e = 0; e < edges; e++) {
+            directions[graph.direction(e).ordinal()]++;
+        }
+        blackhole.consume(directions);
+        
+        // 各关系类型的平均、最小和最大权重
+        double[] sums = new double[types];
+        double[] mins = new double[types];
+        double[] maxs = new double[types];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        for (int e = 0; e < edges; e++) {
+            int type = graph.relationshipType(e).ordinal();
+            float weight = graph.weight(e);
+            sums[type] += weight;
+            mins[type] = Math.min(mins[type], weight);
+            maxs[type] = Math.max(maxs[type], weight);
+        }
+        blackhole.consume(sums);
+        blackhole.consume(mins);
+        blackhole.consume(maxs);
+        
+        // 各关系类型的权重直方图
+        long[][] bins = new long[types][NetworkStatistics.WEIGHT_BINS];
+        for (int e = 0; e < edges; e++) {
+            int bin = (int) Math.floor((graph.weight(e) + 1.0) * NetworkStatistics.WEIGHT_BINS / 2);
+            bins[graph.relationshipType(e).ordinal()][Math.max(0, Math.min(NetworkStatistics.WEIGHT_BINS - 1, bin))]++;
+        }
+        blackhole.consume(bins);
+        
+        // 度分布和孤立神经元
+        int[] degrees = new int[neurons];
+        for (int i = 0; i < neurons; i++) {
+            for (int e = graph.offset(i); e < graph.offset(i + 1); e++) {
+                int target = graph.target(e);
+                degrees[i]++;
+                if (target != i) {
+                    degrees[target]++;
+                }
+            }
+        }
+        int maxDegree = 0;
+        for (int d : degrees) {
+            maxDegree = Math.max(maxDegree, d);
+        }
+        long[] distribution = new long[maxDegree + 1];
+        for (int d : degrees) {
+            distribution[d]++;
+        }
+        blackhole.consume(distribution[0]);
+    }
+}
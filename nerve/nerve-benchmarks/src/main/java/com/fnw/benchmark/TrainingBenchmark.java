@@ -0,0 +1,124 @@
+package com.fnw.benchmark;
+
+import com.fnw.metrics.MetricsRegistry;
+import com.fnw.metrics.NetworkMetrics;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.train.HebbianTrainer;
+import com.fnw.train.MetricsTrainingListener;
+import com.fnw.train.SimpleDataset;
+import com.fnw.train.TrainingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 训练基准测试
+ * 测量 HebbianTrainer 一轮训练（随机激活和使用数据集两种方式）、评估以及遍历数据集的耗时，
+ * 按网络规模和密度参数化。
+ * 运行：java -jar target/benchmarks.jar TrainingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingBenchmark {
+    
+    @Param({"1000", "10000"})
+    public int neurons;
+    
+    @Param({"4", "16"})
+    public int degree;
+    
+    @Param({"100"})
+    public int samples;
+    
+    private NeuralNetwork network;
+    
+    private SimpleDataset dataset;
+    
+    private HebbianTrainer trainer;
+    
+    // 发布全部训练指标的训练器，与 trainer 比较指标开销
+    private HebbianTrainer instrumented;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = BenchmarkData.smallWorld(neurons, degree);
+        dataset = BenchmarkData.dataset(network, samples, 50);
+        trainer = new HebbianTrainer(0.001);
+        
+        MetricsRegistry registry = new MetricsRegistry();
+        NetworkMetrics.bind(registry, network, "network");
+        instrumented = new HebbianTrainer(0.001);
+        instrumented.addListener(new MetricsTrainingListener(registry));
+    }
+    
+    @Benchmark
+    public void trainEpoch() {
+        trainer.trainEpoch(network);
+    }
+    
+    @Benchmark
+    public void trainEpochWithDataset() {
+        trainer.trainEpoch(network, dataset);
+    }
+    
+    /**
+     * 通过 train 训练一轮，与 trainWithMetrics 比较指标开销
+     */
+    @Benchmark
+    public void train() {
+        trainer.train(network, dataset, 1);
+    }
+    
+    @Benchmark
+    public void trainWithMetrics() {
+        instrumented.train(network, dataset, 1);
+    }
+    
+    /**
+     * 训练器增量维护的指标，正常训练过程中的评估开销
+     */
+    @Benchmark
+    public double evaluate() {
+        return trainer.evaluate(network);
+    }
+    
+    /**
+     * 从头扫描网络计算指标，训练器以外修改网络后的评估开销
+     */
+    @Benchmark
+    public double evaluateRebuild() {
+        TrainingMetrics metrics = new TrainingMetrics();
+        metrics.rebuild(network);
+        return metrics.getMeanWeight();
+    }
+    
+    /**
+     * 遍历数据集并解析神经元ID，不更新权重
+     */
+    @Benchmark
+    public void datasetIteration(Blackhole blackhole) {
+        for (int i = 0; i < dataset.size(); i++) {
+            for (Map.Entry<String, Boolean> entry : dataset.getSample(i).entrySet()) {
+                blackhole.consume(network.indexOf(entry.getKey()));
+                blackhole.consume(entry.getValue().booleanValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.fnw.analysis;
+
+import com.fnw.model.CompactGraph;
+import com.fnw.model.GraphView;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * 连通分量计算
+ * 忽略边的方向，用无锁并查集并行合并所有边的两个端点。
+ * 合并时总是把下标较大的根挂到下标较小的根下，因此每个分量的根是其中最小的神经元下标，
+ * 并发合并不会形成环。整体时间接近线性。
+ */
+public class ConnectedComponents {
+    
+    private ConnectedComponents() {
+    }
+    
+    /**
+     * 计算神经网络或子图视图的连通分量
+     * @param network 神经网络或子图视图
+     * @return 连通分量划分
+     */
+    public static Partition compute(GraphView network) {
+        return compute(EdgeList.of(network));
+    }
+    
+    /**
+     * 计算紧凑图的连通分量
+     * @param graph 紧凑图
+     * @return 连通分量划分
+     */
+    public static Partition compute(CompactGraph graph) {
+        int n = graph.getNeuronCount();
+        AtomicIntegerArray parent = newForest(n);
+        IntStream.range(0, n).parallel().forEach(i -> {
+            for (int e = graph.offset(i); e < graph.offset(i + 1); e++) {
+                union(parent, i, graph.target(e));
+            }
+        });
+        return collect(parent, n);
+    }
+    
+    static Partition compute(EdgeList edges) {
+        int n = edges.neuronCount;
+        AtomicIntegerArray parent = newForest(n);
+        IntStream.range(0, edges.size()).parallel().forEach(e -> {
+            if (edges.from[e] >= 0) {
+                union(parent, edges.from[e], edges.to[e]);
+            }
+        });
+        return collect(parent, n);
+    }
+    
+    private static AtomicIntegerArray newForest(int n) {
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.lazySet(i, i);
+        }
+        return parent;
+    }
+    
+    /**
+     * 查找根节点，同时做路径减半
+     */
+    private static int find(AtomicIntegerArray parent, int x) {
+        int p = parent.get(x);
+        while (p != x) {
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = p;
+            p = parent.get(x);
+        }
+        return x;
+    }
+    
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA == rootB) {
+                return;
+            }
+            int high = Math.max(rootA, rootB);
+            int low = Math.min(rootA, rootB);
+            if (parent.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+    
+    private static Partition collect(AtomicIntegerArray parent, int n) {
+        int[] roots = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> roots[i] = find(parent, i));
+        return Partition.fromLabels(roots);
+    }
+}
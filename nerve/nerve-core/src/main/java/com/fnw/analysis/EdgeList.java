@@ -0,0 +1,107 @@
+package com.fnw.analysis;
+
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import com.fnw.model.GraphView;
+import com.fnw.model.NeuralNetwork;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * 按神经元下标表示的边列表
+ * 分析算法统一在原始类型数组上运行，不区分数据来自对象模型还是紧凑图。
+ */
+class EdgeList {
+    
+    // 神经元数量
+    final int neuronCount;
+    
+    // 边的起始神经元下标，端点不在网络中的边和已删除的边为-1
+    final int[] from;
+    
+    // 边的目标神经元下标
+    final int[] to;
+    
+    // 边的权重
+    final float[] weights;
+    
+    private EdgeList(int neuronCount, int[] from, int[] to, float[] weights) {
+        this.neuronCount = neuronCount;
+        this.from = from;
+        this.to = to;
+        this.weights = weights;
+    }
+    
+    int size() {
+        return from.length;
+    }
+    
+    /**
+     * 从对象模型提取边列表
+     * 边上的信息为数字时作为权重，否则视为权重1
+     */
+    static EdgeList of(NeuralNetwork network) {
+        int size = network.getEdgeSlotCount();
+        int[] from = new int[size];
+        int[] to = new int[size];
+        float[] weights = new float[size];
+        IntStream.range(0, size).parallel().forEach(e -> {
+            Edge edge = network.getEdgeSlot(e);
+            int source = edge != null ? network.indexOf(edge.getFromNeuron().getId()) : -1;
+            int target = edge != null ? network.indexOf(edge.getToNeuron().getId()) : -1;
+            if (source < 0 || target < 0) {
+                from[e] = -1;
+                return;
+            }
+            from[e] = source;
+            to[e] = target;
+            weights[e] = (float) edge.getWeight(1.0);
+        });
+        return new EdgeList(network.getNeuronCount(), from, to, weights);
+    }
+    
+    /**
+     * 从图视图提取边列表
+     * 完整的神经网络并行提取，子图视图按视图的遍历顺序提取
+     */
+    static EdgeList of(GraphView view) {
+        if (view instanceof NeuralNetwork) {
+            return of((NeuralNetwork) view);
+        }
+        int size = 0;
+        int[] from = new int[16];
+        int[] to = new int[16];
+        float[] weights = new float[16];
+        for (Edge edge : view.edges()) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            from[size] = view.indexOf(edge.getFromNeuron().getId());
+            to[size] = view.indexOf(edge.getToNeuron().getId());
+            weights[size] = (float) edge.getWeight(1.0);
+            size++;
+        }
+        return new EdgeList(view.getNeuronCount(), Arrays.copyOf(from, size), Arrays.copyOf(to, size), Arrays.copyOf(weights, size));
+    }
+    
+    /**
+     * 从紧凑图提取边列表
+     */
+    static EdgeList of(CompactGraph graph) {
+        int size = graph.getEdgeCount();
+        int[] from = new int[size];
+        int[] to = new int[size];
+        float[] weights = new float[size];
+        IntStream.range(0, graph.getNeuronCount()).parallel().forEach(i -> {
+            for (int e = graph.offset(i); e < graph.offset(i + 1); e++) {
+                from[e] = i;
+                to[e] = graph.target(e);
+                weights[e] = graph.weight(e);
+            }
+        });
+        return new EdgeList(graph.getNeuronCount(), from, to, weights);
+    }
+}
@@ -0,0 +1,276 @@
+package com.fnw.analysis;
+
+import com.fnw.model.CompactGraph;
+import com.fnw.model.GraphView;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * 标签传播社区发现
+ * 每个神经元初始属于自己的社区，之后反复把神经元的标签改为邻居中权重之和最大的标签，
+ * 直到没有标签变化或达到最大轮数。每轮时间与边数成线性关系。
+ * 神经元先按种子决定的顺序贪心着色，同色的神经元互不相邻，每轮依次处理各颜色类，
+ * 同一颜色类内的更新并行进行且只读取其他颜色类的标签，因此相同种子得到的社区与线程数和调度无关。
+ * 权重不大于0的边（被训练削弱的联结）不参与传播，边的方向被忽略。
+ */
+public class LabelPropagation {
+    
+    // 最大迭代轮数
+    private int maxIterations;
+    
+    // 随机数种子，决定着色顺序和每轮各颜色类的处理顺序
+    private long seed;
+    
+    public LabelPropagation() {
+        this.maxIterations = 20;
+        this.seed = 0L;
+    }
+    
+    public LabelPropagation(int maxIterations, long seed) {
+        this.maxIterations = maxIterations;
+        this.seed = seed;
+    }
+    
+    /**
+     * 发现神经网络或子图视图中的社区
+     * @param network 神经网络或子图视图
+     * @return 社区划分
+     */
+    public Partition detect(GraphView network) {
+        return detect(EdgeList.of(network));
+    }
+    
+    /**
+     * 发现紧凑图中的社区
+     * @param graph 紧凑图
+     * @return 社区划分
+     */
+    public Partition detect(CompactGraph graph) {
+        return detect(EdgeList.of(graph));
+    }
+    
+    Partition detect(EdgeList edges) {
+        int n = edges.neuronCount;
+        
+        // 构建无向邻接表
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < edges.size(); e++) {
+            if (isUsable(edges, e)) {
+                offsets[edges.from[e] + 1]++;
+                offsets[edges.to[e] + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] neighbors = new int[offsets[n]];
+        float[] weights = new float[offsets[n]];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < edges.size(); e++) {
+            if (isUsable(edges, e)) {
+                int a = edges.from[e];
+                int b = edges.to[e];
+                neighbors[cursor[a]] = b;
+                weights[cursor[a]++] = edges.weights[e];
+                neighbors[cursor[b]] = a;
+                weights[cursor[b]++] = edges.weights[e];
+            }
+        }
+        
+        int[] labels = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] order = labels.clone();
+        shuffle(order, random);
+        
+        // 按颜色分组，classOffsets[c] 到 classOffsets[c + 1] 是第c个颜色类的神经元
+        int[] colors = color(order, offsets, neighbors);
+        int colorCount = 0;
+        for (int color : colors) {
+            colorCount = Math.max(colorCount, color + 1);
+        }
+        int[] classOffsets = new int[colorCount + 1];
+        for (int color : colors) {
+            classOffsets[color + 1]++;
+        }
+        for (int c = 0; c < colorCount; c++) {
+            classOffsets[c + 1] += classOffsets[c];
+        }
+        int[] members = new int[n];
+        int[] classCursor = Arrays.copyOf(classOffsets, colorCount);
+        for (int v : order) {
+            members[classCursor[colors[v]]++] = v;
+        }
+        int[] classOrder = new int[colorCount];
+        for (int c = 0; c < colorCount; c++) {
+            classOrder[c] = c;
+        }
+        ThreadLocal<LabelAccumulator> accumulators = ThreadLocal.withInitial(LabelAccumulator::new);
+        
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            shuffle(classOrder, random);
+            LongAdder changes = new LongAdder();
+            for (int c : classOrder) {
+                IntStream.range(classOffsets[c], classOffsets[c + 1]).parallel().forEach(k -> {
+                    int v = members[k];
+                    if (offsets[v] == offsets[v + 1]) {
+                        return;
+                    }
+                    LabelAccumulator accumulator = accumulators.get();
+                    for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                        accumulator.add(labels[neighbors[j]], weights[j]);
+                    }
+                    int best = accumulator.best(labels[v]);
+                    accumulator.clear();
+                    if (best != labels[v]) {
+                        labels[v] = best;
+                        changes.increment();
+                    }
+                });
+            }
+            if (changes.sum() == 0) {
+                break;
+            }
+        }
+        return Partition.fromLabels(labels);
+    }
+    
+    private static boolean isUsable(EdgeList edges, int e) {
+        return edges.from[e] >= 0 && edges.from[e] != edges.to[e] && edges.weights[e] > 0.0f;
+    }
+    
+    /**
+     * 按给定顺序贪心着色，每个神经元取邻居未使用的最小颜色，颜色数量不超过最大度数加一
+     */
+    private static int[] color(int[] order, int[] offsets, int[] neighbors) {
+        int n = order.length;
+        int[] colors = new int[n];
+        Arrays.fill(colors, -1);
+        // taken[c] == v 表示颜色c已被v的某个邻居使用
+        int[] taken = new int[n + 1];
+        Arrays.fill(taken, -1);
+        for (int v : order) {
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                int color = colors[neighbors[j]];
+                if (color >= 0) {
+                    taken[color] = v;
+                }
+            }
+            int color = 0;
+            while (taken[color] == v) {
+                color++;
+            }
+            colors[v] = color;
+        }
+        return colors;
+    }
+    
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+    
+    // Getter and Setter methods
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+    
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * 按标签累加邻居权重的开放寻址哈希表，每个线程复用一个实例
+     */
+    private static class LabelAccumulator {
+        
+        private int[] keys = new int[16];
+        
+        private double[] values = new double[16];
+        
+        private int[] used = new int[16];
+        
+        private int size;
+        
+        LabelAccumulator() {
+            Arrays.fill(keys, -1);
+        }
+        
+        void add(int label, double weight) {
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = (label * 0x9E3779B9) >>> 1 & mask;
+            while (keys[slot] != -1 && keys[slot] != label) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == -1) {
+                keys[slot] = label;
+                used[size++] = slot;
+            }
+            values[slot] += weight;
+        }
+        
+        /**
+         * 选出权重之和最大的标签，并列时优先保留当前标签，其次选编号最小的标签
+         */
+        int best(int current) {
+            int bestLabel = current;
+            double bestWeight = -1.0;
+            for (int k = 0; k < size; k++) {
+                int slot = used[k];
+                int label = keys[slot];
+                double weight = values[slot];
+                if (weight > bestWeight
+                        || (weight == bestWeight && label != bestLabel
+                            && (label == current || (bestLabel != current && label < bestLabel)))) {
+                    bestLabel = label;
+                    bestWeight = weight;
+                }
+            }
+            return bestLabel;
+        }
+        
+        void clear() {
+            for (int k = 0; k < size; k++) {
+                int slot = used[k];
+                keys[slot] = -1;
+                values[slot] = 0.0;
+            }
+            size = 0;
+        }
+        
+        private void resize() {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            int[] oldUsed = used;
+            int oldSize = size;
+            keys = new int[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            used = new int[oldKeys.length * 2];
+            size = 0;
+            Arrays.fill(keys, -1);
+            for (int k = 0; k < oldSize; k++) {
+                add(oldKeys[oldUsed[k]], oldValues[oldUsed[k]]);
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.fnw.analysis;
+
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 网络统计
+ * 边和神经元各并行遍历一次，同时得到度分布、孤立神经元数量、激活比例、各方向的边数量和各关系类型的权重直方图，
+ * 不必为每项统计分别遍历一遍神经元或边。
+ * 遍历按下标区间分块，每块使用自己的累加器，最后合并，内层循环中没有共享写入。
+ * 度数忽略边的方向，自环只计一次；权重直方图把 [-1, 1] 等分为 {@link #WEIGHT_BINS} 个区间，
+ * 超出范围的权重计入两端的区间，最小值和最大值仍按实际权重统计。
+ */
+public class NetworkStatistics {
+    
+    // 权重直方图的区间数量
+    public static final int WEIGHT_BINS = 20;
+    
+    private static final Edge.Direction[] DIRECTIONS = Edge.Direction.values();
+    
+    private static final Edge.RelationshipType[] RELATIONSHIP_TYPES = Edge.RelationshipType.values();
+    
+    // 未设置关系类型的边所在位置
+    private static final int UNTYPED = RELATIONSHIP_TYPES.length;
+    
+    // 每个线程分到的块数，块越多负载越均衡
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    private final int neuronCount;
+    
+    private final long edgeCount;
+    
+    private final int activatedCount;
+    
+    private final int isolatedCount;
+    
+    // 按度数索引的神经元数量
+    private final long[] degreeDistribution;
+    
+    // 按方向性序号索引的边数量，最后一项为未设置方向性的边
+    private final long[] directionCounts;
+    
+    // 按关系类型序号索引的权重直方图，最后一项为未设置关系类型的边
+    private final WeightHistogram[] weightHistograms;
+    
+    private NetworkStatistics(int neuronCount, NeuronPass neurons, EdgePass edges) {
+        this.neuronCount = neuronCount;
+        this.edgeCount = edges.edges;
+        this.activatedCount = neurons.activated;
+        this.isolatedCount = neurons.isolated;
+        this.degreeDistribution = Arrays.copyOf(neurons.degrees, neurons.maxDegree + 1);
+        this.directionCounts = edges.directions;
+        this.weightHistograms = edges.histograms();
+    }
+    
+    /**
+     * 统计神经网络
+     * 神经元的度数取自邻接表，边按槽位分块只遍历一次，不复制边集合
+     * @param network 神经网络
+     * @return 统计结果
+     */
+    public static NetworkStatistics compute(NeuralNetwork network) {
+        int n = network.getNeuronCount();
+        EdgePass edgePass = chunked(network.getEdgeSlotCount(), EdgePass::new, (pass, from, to) -> {
+            for (int e = from; e < to; e++) {
+                Edge edge = network.getEdgeSlot(e);
+                if (edge == null) {
+                    continue;
+                }
+                Edge.RelationshipType type = edge.getRelationshipType();
+                Edge.Direction direction = edge.getDirection();
+                int d = direction != null ? direction.ordinal() : DIRECTIONS.length;
+                int t = type != null ? type.ordinal() : UNTYPED;
+                if (edge.hasWeight()) {
+                    pass.add(d, t, edge.getWeight(0.0));
+                } else {
+                    pass.addUnweighted(d, t);
+                }
+            }
+        }, EdgePass::merge);
+        NeuronPass neuronPass = chunked(n, NeuronPass::new, (pass, from, to) -> {
+            for (int i = from; i < to; i++) {
+                pass.add(network.getDegree(i), network.getNeuron(i).isActivated());
+            }
+        }, NeuronPass::merge);
+        return new NetworkStatistics(n, neuronPass, edgePass);
+    }
+    
+    /**
+     * 统计紧凑图
+     * 按起始神经元分块遍历边数组一次，入度在遍历中原子累加；紧凑图没有激活状态，激活数量为0
+     * @param graph 紧凑图
+     * @return 统计结果
+     */
+    public static NetworkStatistics compute(CompactGraph graph) {
+        int n = graph.getNeuronCount();
+        AtomicIntegerArray inDegrees = new AtomicIntegerArray(n);
+        EdgePass edgePass = chunked(n, EdgePass::new, (pass, from, to) -> {
+            for (int i = from; i < to; i++) {
+                for (int e = graph.offset(i); e < graph.offset(i + 1); e++) {
+                    int target = graph.target(e);
+                    if (target != i) {
+                        inDegrees.getAndIncrement(target);
+                    }
+                    byte attributes = graph.attributes(e);
+                    pass.add(attributes >>> 2, attributes & 0x3, graph.weight(e));
+                }
+            }
+        }, EdgePass::merge);
+        NeuronPass neuronPass = chunked(n, NeuronPass::new, (pass, from, to) -> {
+            for (int i = from; i < to; i++) {
+                pass.add(graph.outDegree(i) + inDegrees.get(i), false);
+            }
+        }, NeuronPass::merge);
+        return new NetworkStatistics(n, neuronPass, edgePass);
+    }
+    
+    /**
+     * 把 [0, size) 分块并行处理，每块使用新的累加器，最后两两合并
+     */
+    private static <T> T chunked(int size, Supplier<T> supplier, RangeConsumer<T> body, BinaryOperator<T> merge) {
+        int chunks = Math.max(1, Math.min(size, ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD));
+        long chunkSize = ((long) size + chunks - 1) / chunks;
+        return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            T partial = supplier.get();
+            int from = (int) Math.min(size, chunk * chunkSize);
+            int to = (int) Math.min(size, from + chunkSize);
+            body.accept(partial, from, to);
+            return partial;
+        }).reduce(merge).orElseGet(supplier);
+    }
+    
+    /**
+     * 处理下标区间的累加函数
+     */
+    @FunctionalInterface
+    private interface RangeConsumer<T> {
+        void accept(T partial, int from, int to);
+    }
+    
+    /**
+     * 神经元遍历的累加器
+     */
+    private static final class NeuronPass {
+        
+        private long[] degrees = new long[16];
+        
+        private int maxDegree;
+        
+        private int activated;
+        
+        private int isolated;
+        
+        void add(int degree, boolean active) {
+            if (degree >= degrees.length) {
+                degrees = Arrays.copyOf(degrees, Math.max(degree + 1, degrees.length * 2));
+            }
+            degrees[degree]++;
+            maxDegree = Math.max(maxDegree, degree);
+            if (active) {
+                activated++;
+            }
+            if (degree == 0) {
+                isolated++;
+            }
+        }
+        
+        NeuronPass merge(NeuronPass other) {
+            if (other.degrees.length > degrees.length) {
+                degrees = Arrays.copyOf(degrees, other.degrees.length);
+            }
+            for (int d = 0; d <= other.maxDegree; d++) {
+                degrees[d] += other.degrees[d];
+            }
+            maxDegree = Math.max(maxDegree, other.maxDegree);
+            activated += other.activated;
+            isolated += other.isolated;
+            return this;
+        }
+    }
+    
+    /**
+     * 边遍历的累加器
+     * 各关系类型的计数按类型序号存放在平铺的原始类型数组中，直方图按 类型 * 区间数 + 区间 排列
+     */
+    private static final class EdgePass {
+        
+        private long edges;
+        
+        private final long[] directions = new long[DIRECTIONS.length + 1];
+        
+        private final long[] counts = new long[UNTYPED + 1];
+        
+        private final long[] weighted = new long[UNTYPED + 1];
+        
+        private final double[] sums = new double[UNTYPED + 1];
+        
+        private final double[] mins = new double[UNTYPED + 1];
+        
+        private final double[] maxs = new double[UNTYPED + 1];
+        
+        private final long[] bins = new long[(UNTYPED + 1) * WEIGHT_BINS];
+        
+        EdgePass() {
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+        
+        void add(int direction, int type, double weight) {
+            addUnweighted(direction, type);
+            weighted[type]++;
+            sums[type] += weight;
+            if (weight < mins[type]) {
+                mins[type] = weight;
+            }
+            if (weight > maxs[type]) {
+                maxs[type] = weight;
+            }
+            bins[type * WEIGHT_BINS + WeightHistogram.binOf(weight)]++;
+        }
+        
+        void addUnweighted(int direction, int type) {
+            edges++;
+            directions[direction]++;
+            counts[type]++;
+        }
+        
+        EdgePass merge(EdgePass other) {
+            edges += other.edges;
+            for (int d = 0; d < directions.length; d++) {
+                directions[d] += other.directions[d];
+            }
+            for (int t = 0; t <= UNTYPED; t++) {
+                counts[t] += other.counts[t];
+                weighted[t] += other.weighted[t];
+                sums[t] += other.sums[t];
+                mins[t] = Math.min(mins[t], other.mins[t]);
+                maxs[t] = Math.max(maxs[t], other.maxs[t]);
+            }
+            for (int b = 0; b < bins.length; b++) {
+                bins[b] += other.bins[b];
+            }
+            return this;
+        }
+        
+        WeightHistogram[] histograms() {
+            WeightHistogram[] histograms = new WeightHistogram[UNTYPED + 1];
+            for (int t = 0; t <= UNTYPED; t++) {
+                histograms[t] = new WeightHistogram(counts[t], weighted[t], sums[t], mins[t], maxs[t],
+                        Arrays.copyOfRange(bins, t * WEIGHT_BINS, (t + 1) * WEIGHT_BINS));
+            }
+            return histograms;
+        }
+    }
+    
+    // Getter methods
+    public int getNeuronCount() {
+        return neuronCount;
+    }
+    
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+    
+    public int getActivatedCount() {
+        return activatedCount;
+    }
+    
+    /**
+     * 获取激活神经元的比例，没有神经元时为0
+     * @return 激活比例
+     */
+    public double getActivationRatio() {
+        return neuronCount > 0 ? (double) activatedCount / neuronCount : 0.0;
+    }
+    
+    /**
+     * 获取没有任何边的神经元数量
+     * @return 孤立神经元数量
+     */
+    public int getIsolatedCount() {
+        return isolatedCount;
+    }
+    
+    /**
+     * 获取度分布
+     * 返回内部数组，调用方不应修改
+     * @return 按度数索引的神经元数量，长度为最大度数加1
+     */
+    public long[] getDegreeDistribution() {
+        return degreeDistribution;
+    }
+    
+    public int getMaxDegree() {
+        return degreeDistribution.length - 1;
+    }
+    
+    /**
+     * 获取平均度数
+     * @return 平均度数，没有神经元时为0
+     */
+    public double getMeanDegree() {
+        long sum = 0;
+        for (int d = 0; d < degreeDistribution.length; d++) {
+            sum += d * degreeDistribution[d];
+        }
+        return neuronCount > 0 ? (double) sum / neuronCount : 0.0;
+    }
+    
+    /**
+     * 获取指定方向性的边数量
+     * @param direction 方向性，为null时返回未设置方向性的边数量
+     * @return 边数量
+     */
+    public long getDirectionCount(Edge.Direction direction) {
+        return directionCounts[direction != null ? direction.ordinal() : DIRECTIONS.length];
+    }
+    
+    /**
+     * 获取指定关系类型的权重直方图
+     * @param relationshipType 关系类型，为null时返回未设置关系类型的边的直方图
+     * @return 权重直方图
+     */
+    public WeightHistogram getWeightHistogram(Edge.RelationshipType relationshipType) {
+        return weightHistograms[relationshipType != null ? relationshipType.ordinal() : UNTYPED];
+    }
+    
+    /**
+     * 获取所有带权重的边的平均权重
+     * @return 平均权重，没有带权重的边时为0
+     */
+    public double getMeanWeight() {
+        long count = 0;
+        double sum = 0.0;
+        for (WeightHistogram histogram : weightHistograms) {
+            count += histogram.weightedCount;
+            sum += histogram.sum;
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+    
+    @Override
+    public String toString() {
+        return "NetworkStatistics{" +
+                "neurons=" + neuronCount +
+                ", edges=" + edgeCount +
+                ", activationRatio=" + getActivationRatio() +
+                ", isolated=" + isolatedCount +
+                ", maxDegree=" + getMaxDegree() +
+                ", meanWeight=" + getMeanWeight() +
+                '}';
+    }
+    
+    /**
+     * 一种关系类型的权重直方图
+     * 信息不是数字的边只计入边数量，不计入直方图
+     */
+    public static class WeightHistogram {
+        
+        private final long count;
+        
+        private final long weightedCount;
+        
+        private final double sum;
+        
+        private final double min;
+        
+        private final double max;
+        
+        private final long[] bins;
+        
+        WeightHistogram(long count, long weightedCount, double sum, double min, double max, long[] bins) {
+            this.count = count;
+            this.weightedCount = weightedCount;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+            this.bins = bins;
+        }
+        
+        /**
+         * 获取权重所在的区间，超出 [-1, 1] 的权重计入两端的区间
+         * @param weight 权重
+         * @return 区间序号
+         */
+        static int binOf(double weight) {
+            // 小于-1的权重取整后不大于0，同样落在最低的区间
+            int bin = (int) ((weight + 1.0) * (WEIGHT_BINS / 2));
+            return bin < 0 ? 0 : bin >= WEIGHT_BINS ? WEIGHT_BINS - 1 : bin;
+        }
+        
+        /**
+         * 获取区间的下界
+         * @param bin 区间序号
+         * @return 下界
+         */
+        public static double lowerBound(int bin) {
+            return -1.0 + bin * (2.0 / WEIGHT_BINS);
+        }
+        
+        // Getter methods
+        public long getCount() {
+            return count;
+        }
+        
+        public long getWeightedCount() {
+            return weightedCount;
+        }
+        
+        public double getMean() {
+            return weightedCount > 0 ? sum / weightedCount : 0.0;
+        }
+        
+        /**
+         * 获取最小权重
+         * @return 最小权重，没有带权重的边时为NaN
+         */
+        public double getMin() {
+            return weightedCount > 0 ? min : Double.NaN;
+        }
+        
+        /**
+         * 获取最大权重
+         * @return 最大权重，没有带权重的边时为NaN
+         */
+        public double getMax() {
+            return weightedCount > 0 ? max : Double.NaN;
+        }
+        
+        /**
+         * 获取各区间的边数量
+         * 返回内部数组，调用方不应修改
+         * @return 按区间序号索引的边数量
+         */
+        public long[] getBins() {
+            return bins;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.fnw.analysis;
+
+import java.util.Arrays;
+
+/**
+ * 神经元划分结果
+ * 按神经元下标记录每个神经元所属的分组（连通分量或社区），
+ * 分组编号从0开始连续编号，按分组中最小神经元下标的顺序排列。
+ */
+public class Partition {
+    
+    // 每个神经元所属的分组，按神经元下标索引
+    private final int[] componentOf;
+    
+    // 分组数量
+    private final int count;
+    
+    Partition(int[] componentOf, int count) {
+        this.componentOf = componentOf;
+        this.count = count;
+    }
+    
+    /**
+     * 根据任意标签生成连续编号的划分
+     * @param labels 每个神经元的标签，会被原地改写为分组编号
+     * @return 划分结果
+     */
+    static Partition fromLabels(int[] labels) {
+        int[] mapping = new int[labels.length];
+        Arrays.fill(mapping, -1);
+        int count = 0;
+        for (int i = 0; i < labels.length; i++) {
+            int label = labels[i];
+            if (mapping[label] < 0) {
+                mapping[label] = count++;
+            }
+            labels[i] = mapping[label];
+        }
+        return new Partition(labels, count);
+    }
+    
+    /**
+     * 获取每个神经元所属的分组
+     * 返回内部数组，调用方不应修改
+     * @return 按神经元下标索引的分组编号
+     */
+    public int[] getComponentOf() {
+        return componentOf;
+    }
+    
+    /**
+     * 获取神经元所属的分组
+     * @param neuron 神经元下标
+     * @return 分组编号
+     */
+    public int componentOf(int neuron) {
+        return componentOf[neuron];
+    }
+    
+    /**
+     * 获取分组数量
+     * @return 分组数量
+     */
+    public int getCount() {
+        return count;
+    }
+    
+    /**
+     * 获取每个分组的神经元数量
+     * @return 按分组编号索引的神经元数量
+     */
+    public int[] getSizes() {
+        int[] sizes = new int[count];
+        for (int component : componentOf) {
+            sizes[component]++;
+        }
+        return sizes;
+    }
+    
+    @Override
+    public String toString() {
+        return "Partition{" +
+                "neurons=" + componentOf.length +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.fnw.generator;
+
+import com.fnw.model.EdgeSink;
+
+import java.util.SplittableRandom;
+
+/**
+ * Barabási–Albert无标度网络生成器
+ * 从 attachments+1 个神经元的完全图开始，之后每个新神经元按优先连接规则
+ * 连接 attachments 个不同的已有神经元（被连接概率与度数成正比）。
+ * 优先连接通过随机选取已有边的一个端点实现，只需保存每条边的目标神经元，
+ * 起始神经元可以由边的序号直接算出。
+ */
+public class BarabasiAlbertGenerator extends NetworkGenerator {
+    
+    // 每个新神经元连接的已有神经元数量
+    private final int attachments;
+    
+    public BarabasiAlbertGenerator(int neuronCount, int attachments, long seed) {
+        super(neuronCount, seed);
+        if (attachments < 1 || attachments >= neuronCount) {
+            throw new IllegalArgumentException("连接数必须在[1, 神经元数量)之间: " + attachments);
+        }
+        this.attachments = attachments;
+    }
+    
+    @Override
+    public long edgeCount() {
+        return initialEdgeCount() + (long) (neuronCount - attachments - 1) * attachments;
+    }
+    
+    private long initialEdgeCount() {
+        return (long) attachments * (attachments + 1) / 2;
+    }
+    
+    @Override
+    protected void generateEdges(EdgeSink sink, SplittableRandom random) {
+        long total = edgeCount();
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("边数量过多: " + total);
+        }
+        int initialEdges = (int) initialEdgeCount();
+        int[] sources = new int[initialEdges];
+        int[] targets = new int[(int) total];
+        int size = 0;
+        
+        // 初始完全图，边从编号大的神经元指向编号小的神经元
+        for (int i = 1; i <= attachments; i++) {
+            for (int j = 0; j < i; j++) {
+                sources[size] = i;
+                targets[size] = j;
+                size++;
+                emit(sink, random, i, j);
+            }
+        }
+        
+        int[] chosen = new int[attachments];
+        for (int t = attachments + 1; t < neuronCount; t++) {
+            int existing = size;
+            for (int k = 0; k < attachments; k++) {
+                int target;
+                do {
+                    int edge = random.nextInt(existing);
+                    if (random.nextBoolean()) {
+                        target = targets[edge];
+                    } else {
+                        target = edge < initialEdges ? sources[edge] : attachments + 1 + (edge - initialEdges) / attachments;
+                    }
+                } while (contains(chosen, k, target));
+                chosen[k] = target;
+                targets[size++] = target;
+                emit(sink, random, t, target);
+            }
+        }
+    }
+    
+    private static boolean contains(int[] values, int length, int value) {
+        for (int k = 0; k < length; k++) {
+            if (values[k] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int getAttachments() {
+        return attachments;
+    }
+}
@@ -0,0 +1,132 @@
+package com.fnw.generator;
+
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import com.fnw.model.EdgeSink;
+import com.fnw.model.NetworkBuilder;
+import com.fnw.model.NeuralNetwork;
+
+import java.util.SplittableRandom;
+
+/**
+ * 网络生成器基类
+ * 用固定种子生成可复现的合成网络，用于基准测试和压力测试。
+ * 生成结果可以写入对象模型（NeuralNetwork），也可以直接写入紧凑图（CompactGraph），
+ * 后者不创建任何Edge对象。
+ */
+public abstract class NetworkGenerator {
+    
+    // 神经元数量
+    protected final int neuronCount;
+    
+    // 随机数种子
+    protected long seed;
+    
+    // 可选的方向性，每条边从中均匀随机选取
+    protected Edge.Direction[] directions = {Edge.Direction.UNDIRECTED};
+    
+    // 可选的关系类型，每条边从中均匀随机选取
+    protected Edge.RelationshipType[] relationshipTypes = {Edge.RelationshipType.ASSOCIATION};
+    
+    // 初始权重范围
+    protected double minWeight = 0.0;
+    
+    protected double maxWeight = 0.0;
+    
+    protected NetworkGenerator(int neuronCount, long seed) {
+        if (neuronCount < 0) {
+            throw new IllegalArgumentException("神经元数量不能为负数: " + neuronCount);
+        }
+        this.neuronCount = neuronCount;
+        this.seed = seed;
+    }
+    
+    /**
+     * 生成的边数量
+     * @return 边数量
+     */
+    public abstract long edgeCount();
+    
+    /**
+     * 将边写入接收器
+     * 对同一个种子和参数，生成的边序列完全相同
+     * @param sink 边接收器
+     */
+    public void generate(EdgeSink sink) {
+        sink.begin(neuronCount, edgeCount());
+        generateEdges(sink, new SplittableRandom(seed));
+    }
+    
+    /**
+     * 生成边，由子类实现具体的网络模型
+     * @param sink 边接收器
+     * @param random 随机数生成器
+     */
+    protected abstract void generateEdges(EdgeSink sink, SplittableRandom random);
+    
+    /**
+     * 生成对象模型的神经网络
+     * @return 神经网络
+     */
+    public NeuralNetwork generateNetwork() {
+        NetworkBuilder builder = new NetworkBuilder();
+        generate(builder);
+        return builder.build();
+    }
+    
+    /**
+     * 生成紧凑图
+     * @return 紧凑图
+     */
+    public CompactGraph generateCompact() {
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        generate(builder);
+        return builder.build();
+    }
+    
+    /**
+     * 按配置的方向性、关系类型和权重范围输出一条边
+     */
+    protected final void emit(EdgeSink sink, SplittableRandom random, int from, int to) {
+        Edge.Direction direction = directions.length == 1 ? directions[0] : directions[random.nextInt(directions.length)];
+        Edge.RelationshipType relationshipType = relationshipTypes.length == 1
+                ? relationshipTypes[0] : relationshipTypes[random.nextInt(relationshipTypes.length)];
+        double weight = minWeight == maxWeight ? minWeight : minWeight + (maxWeight - minWeight) * random.nextDouble();
+        sink.accept(from, to, direction, relationshipType, weight);
+    }
+    
+    // Getter and Setter methods
+    public int getNeuronCount() {
+        return neuronCount;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    public void setDirections(Edge.Direction... directions) {
+        if (directions.length == 0) {
+            throw new IllegalArgumentException("至少需要一种方向性");
+        }
+        this.directions = directions.clone();
+    }
+    
+    public void setRelationshipTypes(Edge.RelationshipType... relationshipTypes) {
+        if (relationshipTypes.length == 0) {
+            throw new IllegalArgumentException("至少需要一种关系类型");
+        }
+        this.relationshipTypes = relationshipTypes.clone();
+    }
+    
+    public void setWeightRange(double minWeight, double maxWeight) {
+        if (minWeight > maxWeight) {
+            throw new IllegalArgumentException("权重范围无效: [" + minWeight + ", " + maxWeight + "]");
+        }
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+}
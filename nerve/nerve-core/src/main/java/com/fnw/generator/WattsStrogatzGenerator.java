@@ -0,0 +1,74 @@
+package com.fnw.generator;
+
+import com.fnw.model.EdgeSink;
+
+import java.util.SplittableRandom;
+
+/**
+ * Watts–Strogatz小世界网络生成器
+ * 先把神经元排成环形格子，每个神经元连接其后 degree/2 个邻居，
+ * 再以 rewiringProbability 的概率把每条边的目标改为随机神经元。
+ * 边按起始神经元有序输出，可以直接写入紧凑图。
+ */
+public class WattsStrogatzGenerator extends NetworkGenerator {
+    
+    // 每个神经元的平均度数（偶数）
+    private final int degree;
+    
+    // 重连概率
+    private final double rewiringProbability;
+    
+    public WattsStrogatzGenerator(int neuronCount, int degree, double rewiringProbability, long seed) {
+        super(neuronCount, seed);
+        if (degree < 2 || degree % 2 != 0 || degree >= neuronCount) {
+            throw new IllegalArgumentException("度数必须是小于神经元数量的正偶数: " + degree);
+        }
+        if (rewiringProbability < 0.0 || rewiringProbability > 1.0) {
+            throw new IllegalArgumentException("重连概率必须在[0, 1]之间: " + rewiringProbability);
+        }
+        this.degree = degree;
+        this.rewiringProbability = rewiringProbability;
+    }
+    
+    @Override
+    public long edgeCount() {
+        return (long) neuronCount * (degree / 2);
+    }
+    
+    @Override
+    protected void generateEdges(EdgeSink sink, SplittableRandom random) {
+        int half = degree / 2;
+        int[] chosen = new int[half];
+        for (int i = 0; i < neuronCount; i++) {
+            for (int j = 1; j <= half; j++) {
+                int target = i + j < neuronCount ? i + j : i + j - neuronCount;
+                boolean rewire = rewiringProbability > 0.0 && random.nextDouble() < rewiringProbability;
+                if (rewire || contains(chosen, j - 1, target)) {
+                    // 避免自环以及同一神经元的重复出边
+                    do {
+                        target = random.nextInt(neuronCount);
+                    } while (target == i || contains(chosen, j - 1, target));
+                }
+                chosen[j - 1] = target;
+                emit(sink, random, i, target);
+            }
+        }
+    }
+    
+    private static boolean contains(int[] values, int length, int value) {
+        for (int k = 0; k < length; k++) {
+            if (values[k] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int getDegree() {
+        return degree;
+    }
+    
+    public double getRewiringProbability() {
+        return rewiringProbability;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fnw.jfr;
+
+/**
+ * JFR事件支持检测
+ * 事件类继承自 jdk.jfr.Event，在没有JFR的JDK 8（8u272之前）上无法加载，
+ * 调用方先检查 {@link #AVAILABLE} 再使用事件类。
+ * 事件在录制未开启时只有一次开关判断的开销，可以长期保留在生产代码中，
+ * 录制时可以把训练轮次、样本处理和查询与GC、锁竞争和CPU采样对照分析。
+ */
+public final class FlightEvents {
+    
+    /**
+     * 当前JVM是否支持JFR事件
+     */
+    public static final boolean AVAILABLE = detect();
+    
+    private FlightEvents() {
+    }
+    
+    private static boolean detect() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.fnw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 结构查询事件
+ * 持续时间从开始执行到结果迭代完为止，中途放弃的查询不产生事件。
+ */
+@Name("com.fnw.Query")
+@Label("结构查询")
+@Category({"Nerve", "Query"})
+@Description("一次结构查询的模式数量、结果数量和检查的候选边数量")
+@StackTrace(false)
+public class QueryEvent extends Event {
+    
+    @Label("模式数量")
+    int patterns;
+    
+    @Label("结果数量")
+    long results;
+    
+    @Label("检查的边数量")
+    long edgesTouched;
+    
+    /**
+     * 开始记录一次查询
+     * @param patterns 模式数量
+     * @return 事件，未开启录制时为null
+     */
+    public static QueryEvent start(int patterns) {
+        QueryEvent event = new QueryEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.patterns = patterns;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * 结果迭代完时结束查询，超过录制阈值时提交事件
+     * @param results 结果数量
+     * @param edgesTouched 检查的候选边数量
+     */
+    public void finish(long results, long edgesTouched) {
+        end();
+        if (shouldCommit()) {
+            this.results = results;
+            this.edgesTouched = edgesTouched;
+            commit();
+        }
+    }
+}
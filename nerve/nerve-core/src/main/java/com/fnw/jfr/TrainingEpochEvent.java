@@ -0,0 +1,63 @@
+package com.fnw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 训练轮次事件
+ * 每轮训练一个事件，直接调用 trainEpoch 时同样生成；持续时间为整轮训练的耗时，在 train 中还包含剪枝。
+ */
+@Name("com.fnw.TrainingEpoch")
+@Label("训练轮次")
+@Category({"Nerve", "Training"})
+@Description("一轮训练的样本数量和更新的边数量")
+@StackTrace(false)
+public class TrainingEpochEvent extends Event {
+    
+    @Label("训练器")
+    Class<?> trainer;
+    
+    @Label("轮次")
+    int epoch;
+    
+    @Label("样本数量")
+    int samples;
+    
+    @Label("更新的边数量")
+    long edgesTouched;
+    
+    /**
+     * 开始记录一轮训练
+     * @param trainer 训练器类
+     * @param epoch 轮次
+     * @return 事件，未开启录制时为null
+     */
+    public static TrainingEpochEvent start(Class<?> trainer, int epoch) {
+        TrainingEpochEvent event = new TrainingEpochEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.trainer = trainer;
+        event.epoch = epoch;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * 结束本轮训练，超过录制阈值时提交事件
+     * @param samples 样本数量
+     * @param edgesTouched 更新的边数量
+     */
+    public void finish(int samples, long edgesTouched) {
+        end();
+        if (shouldCommit()) {
+            this.samples = samples;
+            this.edgesTouched = edgesTouched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fnw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 训练样本事件
+ * 持续时间为对一个样本应用学习规则的耗时。
+ * 样本事件数量很多，默认不开启，需要在录制配置中启用 com.fnw.TrainingSample。
+ */
+@Name("com.fnw.TrainingSample")
+@Label("训练样本")
+@Category({"Nerve", "Training"})
+@Description("对一个样本应用学习规则")
+@Enabled(false)
+@StackTrace(false)
+public class TrainingSampleEvent extends Event {
+    
+    @Label("轮次")
+    int epoch;
+    
+    @Label("样本位置")
+    int sample;
+    
+    @Label("更新的边数量")
+    long edgesTouched;
+    
+    /**
+     * 判断当前是否在录制样本事件
+     * 每轮判断一次，未录制时样本循环中不创建事件
+     * @return 是否在录制
+     */
+    public static boolean isRecording() {
+        return EventType.getEventType(TrainingSampleEvent.class).isEnabled();
+    }
+    
+    /**
+     * 开始记录一个样本
+     * @param epoch 轮次
+     * @param sample 样本在本轮中的位置
+     * @return 事件，未开启录制时为null
+     */
+    public static TrainingSampleEvent start(int epoch, int sample) {
+        TrainingSampleEvent event = new TrainingSampleEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.epoch = epoch;
+        event.sample = sample;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * 结束样本处理，超过录制阈值时提交事件
+     * @param edgesTouched 更新的边数量
+     */
+    public void finish(long edgesTouched) {
+        end();
+        if (shouldCommit()) {
+            this.edgesTouched = edgesTouched;
+            commit();
+        }
+    }
+}
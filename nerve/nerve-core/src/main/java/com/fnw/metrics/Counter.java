@@ -0,0 +1,24 @@
+package com.fnw.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 计数器
+ * 只增不减，多个线程同时累加时没有竞争。
+ */
+public class Counter {
+    
+    private final LongAdder value = new LongAdder();
+    
+    public void increment() {
+        value.increment();
+    }
+    
+    public void add(long amount) {
+        value.add(amount);
+    }
+    
+    public long get() {
+        return value.sum();
+    }
+}
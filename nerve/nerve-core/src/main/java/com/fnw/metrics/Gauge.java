@@ -0,0 +1,49 @@
+package com.fnw.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * 度量值
+ * 保存最近一次设置的值，或者在读取时从给定的函数计算，可以在任意线程读取。
+ */
+public class Gauge {
+    
+    private volatile double value;
+    
+    // 读取时计算值的函数，为null时使用设置的值
+    private volatile DoubleSupplier supplier;
+    
+    public Gauge() {
+        this(null);
+    }
+    
+    public Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+    
+    public void set(double value) {
+        if (supplier != null) {
+            throw new IllegalStateException("由函数计算的度量值不能设置");
+        }
+        this.value = value;
+    }
+    
+    public double get() {
+        DoubleSupplier current = supplier;
+        return current != null ? current.getAsDouble() : value;
+    }
+    
+    /**
+     * 是否由函数计算
+     */
+    boolean isComputed() {
+        return supplier != null;
+    }
+    
+    /**
+     * 替换计算值的函数，只用于由函数计算的度量值
+     */
+    void setSupplier(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+}
@@ -0,0 +1,107 @@
+package com.fnw.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 直方图
+ * 与HDR直方图相同的对数线性分桶：小于32的值各占一个桶，其余每个2的幂区间再分成32个子桶，
+ * 任意分位数的相对误差不超过1/32，内存固定（约15KB），记录一个值只需要几次原子加法。
+ * 只记录非负整数，通常是纳秒为单位的耗时。
+ */
+public class Histogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    // 最高位从第5位到第62位，每个最高位对应32个子桶
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    
+    private final LongAdder count = new LongAdder();
+    
+    private final LongAdder sum = new LongAdder();
+    
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+    
+    /**
+     * 记录一个值，负数按0记录
+     * @param value 值
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+    
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highest = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highest - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+    
+    // 桶中的最大值
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+    
+    /**
+     * 获取分位数
+     * @param percentile 百分位，0到100
+     * @return 不小于该比例记录值的最小桶上界，没有记录时返回0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("百分位必须在0到100之间: " + percentile);
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public long getSum() {
+        return sum.sum();
+    }
+    
+    public double getMean() {
+        long n = count.sum();
+        return n > 0 ? (double) sum.sum() / n : 0.0;
+    }
+    
+    public long getMax() {
+        return max.get();
+    }
+}
@@ -0,0 +1,108 @@
+package com.fnw.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * JMX导出
+ * 把指标注册表注册为一个只读的动态MBean，每个指标是一个属性（直方图展开为多个属性），
+ * 之后新增的指标也会出现在属性列表中。
+ */
+public final class JmxExporter {
+    
+    public static final String DEFAULT_NAME = "com.fnw:type=Metrics";
+    
+    private JmxExporter() {
+    }
+    
+    /**
+     * 注册到平台MBean服务器
+     * @param registry 指标注册表
+     * @param name MBean名称，例如 com.fnw:type=Metrics
+     * @return MBean名称
+     * @throws JMException 名称无效或已被注册
+     */
+    public static ObjectName register(MetricsRegistry registry, String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(registry), objectName);
+        return objectName;
+    }
+    
+    /**
+     * 从平台MBean服务器注销
+     * @param name MBean名称
+     * @throws JMException 没有注册
+     */
+    public static void unregister(ObjectName name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.unregisterMBean(name);
+    }
+    
+    private static class MetricsMBean implements DynamicMBean {
+        
+        private final MetricsRegistry registry;
+        
+        MetricsMBean(MetricsRegistry registry) {
+            this.registry = registry;
+        }
+        
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = registry.snapshot().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+        
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("指标是只读的: " + attribute.getName());
+        }
+        
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Number> snapshot = registry.snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Number value = snapshot.get(attribute);
+                if (value != null) {
+                    list.add(new Attribute(attribute, value));
+                }
+            }
+            return list;
+        }
+        
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+        
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName), "不支持操作: " + actionName);
+        }
+        
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            Map<String, Number> snapshot = registry.snapshot();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> entry : snapshot.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        entry.getKey(), true, false, false);
+            }
+            return new MBeanInfo(getClass().getName(), "nerve 运行指标", attributes, null, null, null);
+        }
+    }
+}
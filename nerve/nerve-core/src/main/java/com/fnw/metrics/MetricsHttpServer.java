@@ -0,0 +1,56 @@
+package com.fnw.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 指标HTTP端点
+ * 使用JDK自带的HTTP服务器，在 /metrics 路径以文本格式输出所有指标，不需要额外依赖。
+ */
+public class MetricsHttpServer implements Closeable {
+    
+    private final HttpServer server;
+    
+    private MetricsHttpServer(HttpServer server) {
+        this.server = server;
+    }
+    
+    /**
+     * 启动HTTP端点
+     * @param registry 指标注册表
+     * @param address 监听地址，端口为0时自动选择
+     * @return 已启动的服务器
+     * @throws IOException 无法监听
+     */
+    public static MetricsHttpServer start(MetricsRegistry registry, InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> {
+            try {
+                byte[] body = TextExposition.format(registry).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", TextExposition.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return new MetricsHttpServer(server);
+    }
+    
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
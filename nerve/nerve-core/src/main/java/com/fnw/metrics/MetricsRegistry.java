@@ -0,0 +1,112 @@
+package com.fnw.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 指标注册表
+ * 按名称保存计数器、度量值和直方图，同名指标只创建一次，供训练、查询等模块上报运行状态。
+ * 可以通过 {@link JmxExporter} 注册为MBean，或通过 {@link TextExposition} 输出文本格式。
+ */
+public class MetricsRegistry {
+    
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取计数器，不存在时创建
+     * @param name 指标名称
+     * @return 计数器
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+    
+    /**
+     * 获取度量值，不存在时创建
+     * @param name 指标名称
+     * @return 度量值
+     * @throws IllegalStateException 同名度量值由函数计算
+     */
+    public Gauge gauge(String name) {
+        Gauge gauge = gauges.computeIfAbsent(name, key -> new Gauge());
+        if (gauge.isComputed()) {
+            throw new IllegalStateException("度量值 " + name + " 由函数计算，不能设置");
+        }
+        return gauge;
+    }
+    
+    /**
+     * 注册读取时计算的度量值
+     * 同名度量值已存在时替换其计算函数，不再引用原函数及其读取的对象
+     * @param name 指标名称
+     * @param supplier 计算值的函数
+     * @return 度量值
+     * @throws IllegalStateException 同名度量值是可设置的度量值
+     */
+    public Gauge gauge(String name, DoubleSupplier supplier) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("计算函数不能为空");
+        }
+        Gauge gauge = gauges.computeIfAbsent(name, key -> new Gauge(supplier));
+        if (!gauge.isComputed()) {
+            throw new IllegalStateException("度量值 " + name + " 已注册为可设置的度量值");
+        }
+        gauge.setSupplier(supplier);
+        return gauge;
+    }
+    
+    /**
+     * 获取直方图，不存在时创建
+     * @param name 指标名称
+     * @return 直方图
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+    
+    /**
+     * 获取所有指标的当前值，按名称排序
+     * 直方图展开为 .count、.mean、.p50、.p99 和 .max 五个值
+     * @return 指标名称到值的映射
+     */
+    public Map<String, Number> snapshot() {
+        Map<String, Number> result = new TreeMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            result.put(entry.getKey() + ".count", histogram.getCount());
+            result.put(entry.getKey() + ".mean", histogram.getMean());
+            result.put(entry.getKey() + ".p50", histogram.getValueAtPercentile(50.0));
+            result.put(entry.getKey() + ".p99", histogram.getValueAtPercentile(99.0));
+            result.put(entry.getKey() + ".max", histogram.getMax());
+        }
+        return result;
+    }
+    
+    // Getter methods
+    public SortedMap<String, Counter> getCounters() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(counters));
+    }
+    
+    public SortedMap<String, Gauge> getGauges() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(gauges));
+    }
+    
+    public SortedMap<String, Histogram> getHistograms() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(histograms));
+    }
+}
@@ -0,0 +1,25 @@
+package com.fnw.metrics;
+
+import com.fnw.model.NeuralNetwork;
+
+/**
+ * 网络规模指标
+ * 注册读取时计算的神经元数量和边数量，不在修改网络时增加任何开销。
+ */
+public final class NetworkMetrics {
+    
+    private NetworkMetrics() {
+    }
+    
+    /**
+     * 注册网络的规模指标
+     * 同一前缀再次绑定时改为读取新的网络
+     * @param registry 指标注册表
+     * @param network 神经网络
+     * @param prefix 指标名称前缀，例如 network
+     */
+    public static void bind(MetricsRegistry registry, NeuralNetwork network, String prefix) {
+        registry.gauge(prefix + ".neurons", network::getNeuronCount);
+        registry.gauge(prefix + ".edges", network::getEdgeCount);
+    }
+}
@@ -0,0 +1,93 @@
+package com.fnw.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 文本格式输出
+ * 使用Prometheus文本格式（0.0.4）：名称中的点和其他非法字符替换为下划线，
+ * 计数器输出为counter，度量值输出为gauge，直方图输出为包含分位数、总和与数量的summary。
+ */
+public final class TextExposition {
+    
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    
+    private TextExposition() {
+    }
+    
+    /**
+     * 输出所有指标
+     * @param registry 指标注册表
+     * @param writer 输出
+     * @throws IOException 写入失败
+     */
+    public static void write(MetricsRegistry registry, Writer writer) throws IOException {
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            String name = sanitize(entry.getKey());
+            writer.write("# TYPE " + name + " counter\n");
+            writer.write(name + " " + entry.getValue().get() + "\n");
+        }
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            String name = sanitize(entry.getKey());
+            writer.write("# TYPE " + name + " gauge\n");
+            writer.write(name + " " + format(entry.getValue().get()) + "\n");
+        }
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            String name = sanitize(entry.getKey());
+            Histogram histogram = entry.getValue();
+            writer.write("# TYPE " + name + " summary\n");
+            for (double quantile : QUANTILES) {
+                writer.write(String.format(Locale.ROOT, "%s{quantile=\"%s\"} %d\n",
+                        name, quantile, histogram.getValueAtPercentile(quantile * 100.0)));
+            }
+            writer.write(name + "_sum " + histogram.getSum() + "\n");
+            writer.write(name + "_count " + histogram.getCount() + "\n");
+        }
+    }
+    
+    /**
+     * 以字符串形式输出所有指标
+     * @param registry 指标注册表
+     * @return 文本
+     */
+    public static String format(MetricsRegistry registry) {
+        StringWriter writer = new StringWriter();
+        try {
+            write(registry, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+    
+    static String sanitize(String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':' || digit;
+            // 名称不能以数字开头
+            if (i == 0 && digit) {
+                builder.append('_');
+            }
+            builder.append(valid ? c : '_');
+        }
+        return builder.toString();
+    }
+    
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,452 @@
+package com.fnw.model;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑图（CSR格式）
+ * 用原始类型数组按起始神经元分组存储边，不为每条边创建对象，
+ * 适合上亿条边的合成网络和批量计算。
+ * 神经元用下标 0 ~ neuronCount-1 表示，第 i 个神经元的出边位于 [offset(i), offset(i + 1)) 区间。
+ * 数组默认位于堆内，可以通过 {@link #toOffHeap(OffHeapArena)} 复制到堆外。
+ */
+public class CompactGraph {
+    
+    private static final Edge.Direction[] DIRECTIONS = Edge.Direction.values();
+    
+    private static final Edge.RelationshipType[] RELATIONSHIP_TYPES = Edge.RelationshipType.values();
+    
+    // 数组长度上限（部分JVM会在数组头部保留若干字）
+    static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+    
+    // 神经元数量
+    private final int neuronCount;
+    
+    // 边数组的存储，位于堆内或堆外
+    private final Storage storage;
+    
+    CompactGraph(int neuronCount, int[] offsets, int[] targets, float[] weights, byte[] attributes) {
+        this(neuronCount, new ArrayStorage(offsets, targets, weights, attributes));
+    }
+    
+    private CompactGraph(int neuronCount, Storage storage) {
+        this.neuronCount = neuronCount;
+        this.storage = storage;
+    }
+    
+    /**
+     * 创建构建器
+     * @param neuronCount 神经元数量
+     * @param expectedEdges 预计边数量
+     * @return 构建器
+     */
+    public static Builder builder(int neuronCount, long expectedEdges) {
+        Builder builder = new Builder();
+        builder.begin(neuronCount, expectedEdges);
+        return builder;
+    }
+    
+    /**
+     * 编码边的属性
+     * @param direction 边的方向性
+     * @param relationshipType 关系类型
+     * @return 属性字节
+     */
+    public static byte encodeAttributes(Edge.Direction direction, Edge.RelationshipType relationshipType) {
+        return (byte) ((direction.ordinal() << 2) | relationshipType.ordinal());
+    }
+    
+    /**
+     * 从属性字节解码方向性
+     * @param attributes 属性字节
+     * @return 边的方向性
+     */
+    public static Edge.Direction decodeDirection(byte attributes) {
+        return DIRECTIONS[attributes >>> 2];
+    }
+    
+    /**
+     * 从属性字节解码关系类型
+     * @param attributes 属性字节
+     * @return 关系类型
+     */
+    public static Edge.RelationshipType decodeRelationshipType(byte attributes) {
+        return RELATIONSHIP_TYPES[attributes & 0x3];
+    }
+    
+    public int getNeuronCount() {
+        return neuronCount;
+    }
+    
+    public int getEdgeCount() {
+        return storage.offset(neuronCount);
+    }
+    
+    /**
+     * 获取神经元出边的起始位置
+     * @param neuron 神经元下标
+     * @return 起始位置
+     */
+    public int offset(int neuron) {
+        return storage.offset(neuron);
+    }
+    
+    /**
+     * 获取神经元的出度
+     * @param neuron 神经元下标
+     * @return 出度
+     */
+    public int outDegree(int neuron) {
+        return storage.offset(neuron + 1) - storage.offset(neuron);
+    }
+    
+    public int target(int edge) {
+        return storage.target(edge);
+    }
+    
+    public float weight(int edge) {
+        return storage.weight(edge);
+    }
+    
+    public void setWeight(int edge, float weight) {
+        storage.setWeight(edge, weight);
+    }
+    
+    /**
+     * 获取边的属性字节，可用 {@link #decodeDirection(byte)} 和 {@link #decodeRelationshipType(byte)} 解码
+     * @param edge 边下标
+     * @return 属性字节
+     */
+    public byte attributes(int edge) {
+        return storage.attributes(edge);
+    }
+    
+    public Edge.Direction direction(int edge) {
+        return decodeDirection(storage.attributes(edge));
+    }
+    
+    public Edge.RelationshipType relationshipType(int edge) {
+        return decodeRelationshipType(storage.attributes(edge));
+    }
+    
+    /**
+     * 将紧凑图展开为对象模型
+     * 神经元ID为其下标的字符串形式，边上的信息为权重
+     * @return 神经网络
+     */
+    public NeuralNetwork toNetwork() {
+        NetworkBuilder builder = new NetworkBuilder();
+        builder.begin(neuronCount, getEdgeCount());
+        for (int i = 0; i < neuronCount; i++) {
+            for (int e = offset(i); e < offset(i + 1); e++) {
+                builder.accept(i, target(e), direction(e), relationshipType(e), weight(e));
+            }
+        }
+        return builder.build();
+    }
+    
+    /**
+     * 把紧凑图复制到堆外内存
+     * 复制后的图不再占用堆内的边数组，GC不需要扫描或移动这些数据；
+     * 遍历和分析接口与堆内的图相同，区域关闭后不能再访问。
+     * @param arena 堆外内存区域，负责释放复制后的数组
+     * @return 堆外的紧凑图
+     */
+    public CompactGraph toOffHeap(OffHeapArena arena) {
+        int edgeCount = getEdgeCount();
+        OffHeapSegment offsets = arena.allocateInts(neuronCount + 1L);
+        OffHeapSegment targets = arena.allocateInts(edgeCount);
+        OffHeapSegment weights = arena.allocateFloats(edgeCount);
+        OffHeapSegment attributes = arena.allocateBytes(edgeCount);
+        if (storage instanceof ArrayStorage) {
+            ArrayStorage arrays = (ArrayStorage) storage;
+            offsets.copyFrom(arrays.offsets);
+            targets.copyFrom(arrays.targets);
+            weights.copyFrom(arrays.weights);
+            attributes.copyFrom(arrays.attributes);
+        } else {
+            for (int i = 0; i <= neuronCount; i++) {
+                offsets.setInt(i, storage.offset(i));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                targets.setInt(e, storage.target(e));
+                weights.setFloat(e, storage.weight(e));
+                attributes.setByte(e, storage.attributes(e));
+            }
+        }
+        return new CompactGraph(neuronCount, new OffHeapStorage(offsets, targets, weights, attributes));
+    }
+    
+    /**
+     * 判断边数组是否位于堆外
+     * @return 是否位于堆外
+     */
+    public boolean isOffHeap() {
+        return storage instanceof OffHeapStorage;
+    }
+    
+    /**
+     * 获取边数组占用的堆外字节数，位于堆内时为0
+     * @return 字节数
+     */
+    public long getOffHeapBytes() {
+        if (!(storage instanceof OffHeapStorage)) {
+            return 0;
+        }
+        OffHeapStorage segments = (OffHeapStorage) storage;
+        return segments.offsets.byteSize() + segments.targets.byteSize()
+                + segments.weights.byteSize() + segments.attributes.byteSize();
+    }
+    
+    @Override
+    public String toString() {
+        return "CompactGraph{" +
+                "neurons=" + neuronCount +
+                ", edges=" + getEdgeCount() +
+                '}';
+    }
+    
+    /**
+     * 边数组的存储
+     * 堆内和堆外两种实现，调用点最多只有两种类型，JIT仍可以内联
+     */
+    private interface Storage {
+        
+        int offset(int neuron);
+        
+        int target(int edge);
+        
+        float weight(int edge);
+        
+        void setWeight(int edge, float weight);
+        
+        byte attributes(int edge);
+    }
+    
+    /**
+     * 堆内数组存储
+     */
+    private static final class ArrayStorage implements Storage {
+        
+        private final int[] offsets;
+        
+        private final int[] targets;
+        
+        private final float[] weights;
+        
+        // 边的属性：高位为方向性，低两位为关系类型
+        private final byte[] attributes;
+        
+        ArrayStorage(int[] offsets, int[] targets, float[] weights, byte[] attributes) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.attributes = attributes;
+        }
+        
+        @Override
+        public int offset(int neuron) {
+            return offsets[neuron];
+        }
+        
+        @Override
+        public int target(int edge) {
+            return targets[edge];
+        }
+        
+        @Override
+        public float weight(int edge) {
+            return weights[edge];
+        }
+        
+        @Override
+        public void setWeight(int edge, float weight) {
+            weights[edge] = weight;
+        }
+        
+        @Override
+        public byte attributes(int edge) {
+            return attributes[edge];
+        }
+    }
+    
+    /**
+     * 堆外存储，数组段由 {@link OffHeapArena} 分配和释放
+     */
+    private static final class OffHeapStorage implements Storage {
+        
+        private final OffHeapSegment offsets;
+        
+        private final OffHeapSegment targets;
+        
+        private final OffHeapSegment weights;
+        
+        private final OffHeapSegment attributes;
+        
+        OffHeapStorage(OffHeapSegment offsets, OffHeapSegment targets, OffHeapSegment weights,
+                       OffHeapSegment attributes) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.attributes = attributes;
+        }
+        
+        @Override
+        public int offset(int neuron) {
+            return offsets.getInt(neuron);
+        }
+        
+        @Override
+        public int target(int edge) {
+            return targets.getInt(edge);
+        }
+        
+        @Override
+        public float weight(int edge) {
+            return weights.getFloat(edge);
+        }
+        
+        @Override
+        public void setWeight(int edge, float weight) {
+            weights.setFloat(edge, weight);
+        }
+        
+        @Override
+        public byte attributes(int edge) {
+            return attributes.getByte(edge);
+        }
+    }
+    
+    /**
+     * 紧凑图构建器
+     * 按起始神经元有序写入时直接生成CSR数组；
+     * 一旦出现乱序，改为记录起始神经元并在构建时做一次计数排序。
+     */
+    public static class Builder implements EdgeSink {
+        
+        private int neuronCount;
+        
+        // 每个神经元的出度
+        private int[] degrees;
+        
+        // 乱序写入时记录每条边的起始神经元
+        private int[] sources;
+        
+        private int[] targets;
+        
+        private float[] weights;
+        
+        private byte[] attributes;
+        
+        private int size;
+        
+        private int lastSource;
+        
+        @Override
+        public void begin(int neuronCount, long expectedEdges) {
+            if (neuronCount < 0) {
+                throw new IllegalArgumentException("神经元数量不能为负数: " + neuronCount);
+            }
+            if (expectedEdges < 0 || expectedEdges > MAX_EDGES) {
+                throw new IllegalArgumentException("边数量超出紧凑图容量: " + expectedEdges);
+            }
+            int capacity = (int) expectedEdges;
+            this.neuronCount = neuronCount;
+            this.degrees = new int[neuronCount];
+            this.sources = null;
+            this.targets = new int[capacity];
+            this.weights = new float[capacity];
+            this.attributes = new byte[capacity];
+            this.size = 0;
+            this.lastSource = 0;
+        }
+        
+        @Override
+        public void accept(int from, int to, Edge.Direction direction, Edge.RelationshipType relationshipType, double weight) {
+            if (from < 0 || from >= neuronCount || to < 0 || to >= neuronCount) {
+                throw new IndexOutOfBoundsException("神经元下标超出范围: " + from + " -> " + to);
+            }
+            if (size == targets.length) {
+                grow();
+            }
+            if (sources == null && from < lastSource) {
+                sources = recordSources(targets.length);
+            }
+            if (sources != null) {
+                sources[size] = from;
+            }
+            lastSource = Math.max(lastSource, from);
+            degrees[from]++;
+            targets[size] = to;
+            weights[size] = (float) weight;
+            attributes[size] = encodeAttributes(direction, relationshipType);
+            size++;
+        }
+        
+        /**
+         * 构建紧凑图
+         * @return 紧凑图
+         */
+        public CompactGraph build() {
+            int[] offsets = new int[neuronCount + 1];
+            for (int i = 0; i < neuronCount; i++) {
+                offsets[i + 1] = offsets[i] + degrees[i];
+            }
+            
+            if (sources == null) {
+                return new CompactGraph(neuronCount, offsets, trim(targets), trim(weights), trim(attributes));
+            }
+            
+            // 乱序写入：按起始神经元做稳定的计数排序
+            int[] cursor = Arrays.copyOf(offsets, neuronCount);
+            int[] sortedTargets = new int[size];
+            float[] sortedWeights = new float[size];
+            byte[] sortedAttributes = new byte[size];
+            for (int e = 0; e < size; e++) {
+                int position = cursor[sources[e]]++;
+                sortedTargets[position] = targets[e];
+                sortedWeights[position] = weights[e];
+                sortedAttributes[position] = attributes[e];
+            }
+            return new CompactGraph(neuronCount, offsets, sortedTargets, sortedWeights, sortedAttributes);
+        }
+        
+        /**
+         * 根据已写入的有序前缀还原每条边的起始神经元
+         */
+        private int[] recordSources(int capacity) {
+            int[] recorded = new int[capacity];
+            int position = 0;
+            for (int i = 0; i < neuronCount && position < size; i++) {
+                for (int d = 0; d < degrees[i]; d++) {
+                    recorded[position++] = i;
+                }
+            }
+            return recorded;
+        }
+        
+        private void grow() {
+            if (targets.length >= MAX_EDGES) {
+                throw new IllegalStateException("边数量超出紧凑图容量");
+            }
+            int capacity = (int) Math.min(MAX_EDGES, Math.max(16L, targets.length + (targets.length >> 1)));
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+            if (sources != null) {
+                sources = Arrays.copyOf(sources, capacity);
+            }
+        }
+        
+        private int[] trim(int[] array) {
+            return array.length == size ? array : Arrays.copyOf(array, size);
+        }
+        
+        private float[] trim(float[] array) {
+            return array.length == size ? array : Arrays.copyOf(array, size);
+        }
+        
+        private byte[] trim(byte[] array) {
+            return array.length == size ? array : Arrays.copyOf(array, size);
+        }
+    }
+}
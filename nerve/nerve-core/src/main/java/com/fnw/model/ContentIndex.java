@@ -0,0 +1,326 @@
+package com.fnw.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 神经元信息内容索引
+ * 以神经元信息的字符串形式为键，支持精确匹配、前缀匹配和n元（n-gram）匹配。
+ * n元匹配按字符（码点）切分，单个字符和相邻两个字符各建一份倒排表，适合不分词的中文文本，
+ * 扩展区的汉字（代理对）作为一个字符处理。
+ * 倒排表保存有序的神经元下标，多个倒排表求交集即可得到候选集合。
+ */
+public class ContentIndex {
+    
+    /**
+     * 匹配方式枚举
+     */
+    public enum MatchMode {
+        EXACT,   // 精确匹配
+        PREFIX,  // 前缀匹配
+        NGRAM    // 包含查询文本
+    }
+    
+    private static final int[] EMPTY = new int[0];
+    
+    // 内容到神经元下标的有序索引，用于精确匹配和前缀匹配
+    private final TreeMap<String, PostingList> byContent;
+    
+    // 单字和双字到神经元下标的倒排表
+    private final Map<String, PostingList> byGram;
+    
+    // 每个神经元当前被索引的内容，按神经元下标排列
+    private String[] indexedContent;
+    
+    public ContentIndex() {
+        this.byContent = new TreeMap<>();
+        this.byGram = new HashMap<>();
+        this.indexedContent = new String[16];
+    }
+    
+    /**
+     * 获取信息对应的索引内容
+     * @param information 神经元信息
+     * @return 索引内容，信息为空时返回null
+     */
+    static String contentOf(Object information) {
+        return information != null ? information.toString() : null;
+    }
+    
+    /**
+     * 更新神经元的索引内容
+     * @param neuron 神经元下标
+     * @param information 新的神经元信息
+     */
+    public void update(int neuron, Object information) {
+        if (neuron >= indexedContent.length) {
+            indexedContent = Arrays.copyOf(indexedContent, Math.max(neuron + 1, indexedContent.length * 2));
+        }
+        String content = contentOf(information);
+        String previous = indexedContent[neuron];
+        if (previous != null && previous.equals(content)) {
+            return;
+        }
+        if (previous != null) {
+            remove(byContent, previous, neuron);
+            for (String gram : grams(previous)) {
+                remove(byGram, gram, neuron);
+            }
+        }
+        indexedContent[neuron] = content;
+        if (content != null) {
+            byContent.computeIfAbsent(content, key -> new PostingList()).add(neuron);
+            for (String gram : grams(content)) {
+                byGram.computeIfAbsent(gram, key -> new PostingList()).add(neuron);
+            }
+        }
+    }
+    
+    /**
+     * 把神经元的索引内容移到另一个下标，原下标不再被索引
+     * 删除神经元后用最后一个神经元填补空位时调用
+     * @param from 原下标
+     * @param to 新下标
+     */
+    public void move(int from, int to) {
+        String content = from < indexedContent.length ? indexedContent[from] : null;
+        update(from, null);
+        update(to, content);
+    }
+    
+    /**
+     * 查找内容匹配的神经元
+     * @param query 查询文本
+     * @param mode 匹配方式
+     * @return 按下标升序排列的神经元下标
+     */
+    public int[] find(String query, MatchMode mode) {
+        switch (mode) {
+            case EXACT:
+                return exact(query);
+            case PREFIX:
+                return prefix(query);
+            case NGRAM:
+                return ngram(query);
+            default:
+                throw new IllegalArgumentException("未知的匹配方式: " + mode);
+        }
+    }
+    
+    private int[] exact(String query) {
+        PostingList list = byContent.get(query);
+        return list != null ? list.toArray() : EMPTY;
+    }
+    
+    private int[] prefix(String query) {
+        if (query.isEmpty()) {
+            return EMPTY;
+        }
+        NavigableMap<String, PostingList> range = byContent.subMap(query, true, query + Character.MAX_VALUE, false);
+        // 各个内容的倒排表先依次拼接，最后统一排序去重，避免逐个插入有序列表
+        int[] result = EMPTY;
+        int count = 0;
+        for (PostingList list : range.values()) {
+            if (count + list.size > result.length) {
+                result = Arrays.copyOf(result, Math.max(count + list.size, result.length * 2));
+            }
+            System.arraycopy(list.values, 0, result, count, list.size);
+            count += list.size;
+        }
+        Arrays.sort(result, 0, count);
+        int distinct = 0;
+        for (int k = 0; k < count; k++) {
+            if (distinct == 0 || result[k] != result[distinct - 1]) {
+                result[distinct++] = result[k];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+    
+    private int[] ngram(String query) {
+        if (query.isEmpty()) {
+            return EMPTY;
+        }
+        if (query.codePointCount(0, query.length()) == 1) {
+            PostingList list = byGram.get(query);
+            return list != null ? list.toArray() : EMPTY;
+        }
+        
+        // 取各个双字倒排表的交集，从最短的倒排表开始
+        String[] grams = bigrams(query);
+        PostingList[] lists = new PostingList[grams.length];
+        for (int k = 0; k < grams.length; k++) {
+            lists[k] = byGram.get(grams[k]);
+            if (lists[k] == null) {
+                return EMPTY;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = lists[0].toArray();
+        int count = candidates.length;
+        for (int k = 1; k < lists.length && count > 0; k++) {
+            count = lists[k].retainAll(candidates, count);
+        }
+        
+        // 双字都出现不代表按顺序相连，最后逐个确认
+        int matched = 0;
+        for (int k = 0; k < count; k++) {
+            if (indexedContent[candidates[k]].contains(query)) {
+                candidates[matched++] = candidates[k];
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+    
+    /**
+     * 获取索引中的内容数量
+     * @return 不同内容的数量
+     */
+    public int size() {
+        return byContent.size();
+    }
+    
+    /**
+     * 估计占用的堆内存
+     * 信息本身是字符串时，索引内容就是该信息对象，已计入信息，不重复计算
+     * @param estimator 内存估计器
+     * @param neurons 按下标排列的神经元
+     * @return 字节数
+     */
+    long estimateMemory(MemoryEstimator estimator, List<Neuron> neurons) {
+        long bytes = estimator.objectBytes(3, 0) + estimator.referenceArrayBytes(indexedContent.length);
+        for (int i = 0; i < indexedContent.length; i++) {
+            String content = indexedContent[i];
+            if (content != null && (i >= neurons.size() || content != neurons.get(i).getInformation())) {
+                bytes += estimator.stringBytes(content);
+            }
+        }
+        bytes += estimator.treeMapBytes(byContent.size());
+        for (PostingList list : byContent.values()) {
+            bytes += list.estimateMemory(estimator);
+        }
+        bytes += estimator.hashMapBytes(byGram.size());
+        for (Map.Entry<String, PostingList> entry : byGram.entrySet()) {
+            bytes += estimator.stringBytes(entry.getKey()) + entry.getValue().estimateMemory(estimator);
+        }
+        return bytes;
+    }
+    
+    private static void remove(Map<String, PostingList> index, String key, int neuron) {
+        PostingList list = index.get(key);
+        if (list != null && list.remove(neuron) && list.size == 0) {
+            index.remove(key);
+        }
+    }
+    
+    /**
+     * 切分出所有不重复的单字和双字
+     */
+    private static String[] grams(String content) {
+        int[] offsets = charOffsets(content);
+        int chars = offsets.length - 1;
+        String[] unigrams = new String[chars];
+        for (int i = 0; i < chars; i++) {
+            unigrams[i] = content.substring(offsets[i], offsets[i + 1]);
+        }
+        String[] bigrams = bigrams(content, offsets);
+        String[] all = Arrays.copyOf(unigrams, unigrams.length + bigrams.length);
+        System.arraycopy(bigrams, 0, all, unigrams.length, bigrams.length);
+        return Arrays.stream(all).distinct().toArray(String[]::new);
+    }
+    
+    private static String[] bigrams(String content) {
+        return bigrams(content, charOffsets(content));
+    }
+    
+    private static String[] bigrams(String content, int[] offsets) {
+        int chars = offsets.length - 1;
+        if (chars < 2) {
+            return new String[0];
+        }
+        String[] result = new String[chars - 1];
+        for (int i = 0; i + 1 < chars; i++) {
+            result[i] = content.substring(offsets[i], offsets[i + 2]);
+        }
+        return result;
+    }
+    
+    /**
+     * 每个码点在字符串中的起始位置，最后一项为字符串长度
+     */
+    private static int[] charOffsets(String content) {
+        int[] offsets = new int[content.codePointCount(0, content.length()) + 1];
+        int position = 0;
+        for (int i = 0; i + 1 < offsets.length; i++) {
+            offsets[i] = position;
+            position = content.offsetByCodePoints(position, 1);
+        }
+        offsets[offsets.length - 1] = content.length();
+        return offsets;
+    }
+    
+    /**
+     * 有序的神经元下标列表
+     */
+    private static class PostingList {
+        
+        private int[] values = new int[2];
+        
+        private int size;
+        
+        void add(int value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+        }
+        
+        boolean remove(int value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, size - position - 1);
+            size--;
+            return true;
+        }
+        
+        /**
+         * 只保留同时出现在本列表中的候选项
+         * @return 保留后的候选项数量
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int cursor = 0;
+            for (int k = 0; k < count; k++) {
+                int candidate = candidates[k];
+                while (cursor < size && values[cursor] < candidate) {
+                    cursor++;
+                }
+                if (cursor < size && values[cursor] == candidate) {
+                    candidates[kept++] = candidate;
+                }
+            }
+            return kept;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+        
+        long estimateMemory(MemoryEstimator estimator) {
+            return estimator.objectBytes(1, 4) + estimator.arrayBytes(values.length, 4);
+        }
+    }
+}
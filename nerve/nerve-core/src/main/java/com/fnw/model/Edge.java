@@ -8,8 +8,28 @@ package com.fnw.model;
  * 2. 关系类型，边表示一种关系，这种关系有几个类型，包括等价关系、因果关系、相似关系、关联关系等。
  */
 public class Edge {
-    // 边存储的信息
-    private Object information;
+    
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    private static final RelationshipType[] RELATIONSHIP_TYPES = RelationshipType.values();
+    
+    /**
+     * 记录的连续未使用轮数的上限，达到后不再增加
+     */
+    public static final int MAX_IDLE_EPOCHS = Short.MAX_VALUE;
+    
+    // 信息的存放方式
+    private static final byte NONE = 0;
+    
+    private static final byte WEIGHT = 1;
+    
+    private static final byte LABEL = 2;
+    
+    private static final byte OBJECT = 3;
+    
+    // 边存储的信息：权重直接以原始类型保存，关系描述保存 LabelTable 中的编码，其他信息保存旁表中的槽位。
+    // 关系描述和其他信息都在起始神经元所属网络的旁表（PayloadTable）中，边对象不持有信息对象的引用，保持32字节
+    private long payload;
     
     // 起始神经元
     private Neuron fromNeuron;
@@ -17,11 +37,14 @@ public class Edge {
     // 目标神经元
     private Neuron toNeuron;
     
-    // 边的方向性
-    private Direction direction;
+    // 连续没有被使用（两端神经元同时激活）的训练轮数，不超过 MAX_IDLE_EPOCHS
+    private short idleEpochs;
     
-    // 关系类型
-    private RelationshipType relationshipType;
+    // 信息的存放方式
+    private byte payloadKind;
+    
+    // 方向性和关系类型：低2位为方向性的序号加1，其上为关系类型的序号加1，0表示未设置
+    private byte relation;
     
     public Edge() {
     }
@@ -29,33 +52,170 @@ public class Edge {
     public Edge(Neuron fromNeuron, Neuron toNeuron, Direction direction, RelationshipType relationshipType) {
         this.fromNeuron = fromNeuron;
         this.toNeuron = toNeuron;
-        this.direction = direction;
-        this.relationshipType = relationshipType;
+        setDirection(direction);
+        setRelationshipType(relationshipType);
     }
     
     public Edge(Neuron fromNeuron, Neuron toNeuron, Direction direction, RelationshipType relationshipType, Object information) {
-        this.fromNeuron = fromNeuron;
-        this.toNeuron = toNeuron;
-        this.direction = direction;
-        this.relationshipType = relationshipType;
-        this.information = information;
+        this(fromNeuron, toNeuron, direction, relationshipType);
+        setInformation(information);
     }
     
     // Getter and Setter methods
+    /**
+     * 获取边的信息
+     * 权重每次读取都会装箱，热点路径应使用 {@link #getWeight(double)} 和 {@link #getLabel()}
+     * @return 信息
+     */
     public Object getInformation() {
-        return information;
+        switch (payloadKind) {
+            case WEIGHT:
+                return Double.longBitsToDouble(payload);
+            case LABEL:
+                return fromNeuron.payloads().label((int) payload);
+            case OBJECT:
+                return fromNeuron.payloads().get((int) payload);
+            default:
+                return null;
+        }
     }
     
+    /**
+     * 设置边的信息
+     * Double按权重保存，其他信息（包括字符串）按对象保存在旁表中，需要先设置起始神经元；关系描述应使用 {@link #setLabel(String)}
+     * @param information 信息
+     */
     public void setInformation(Object information) {
-        this.information = information;
+        if (information instanceof Double) {
+            setWeight((Double) information);
+        } else if (information == null) {
+            release();
+            this.payload = 0L;
+            this.payloadKind = NONE;
+        } else if (payloadKind == OBJECT) {
+            fromNeuron.payloads().replace((int) payload, information);
+        } else {
+            this.payload = table().store(information);
+            this.payloadKind = OBJECT;
+        }
+    }
+    
+    /**
+     * 设置边的关系描述，替换原有的信息
+     * 不超过 {@link LabelTable#MAX_LABEL_LENGTH} 个字符的描述按编码保存在起始神经元所属网络的字符串表中，
+     * 表中的字符串随网络一起回收，因此只应用于取值有限的关系描述，任意文本应使用 {@link #setInformation(Object)}
+     * @param label 关系描述
+     */
+    public void setLabel(String label) {
+        if (label != null && LabelTable.accepts(label)) {
+            int code = table().labels().intern(label);
+            release();
+            this.payload = code;
+            this.payloadKind = LABEL;
+        } else {
+            setInformation(label);
+        }
+    }
+    
+    /**
+     * 获取边的权重
+     * 训练器把权重存放在边的信息中，信息不是数字时返回默认值
+     * @param defaultWeight 默认权重
+     * @return 边的权重
+     */
+    public double getWeight(double defaultWeight) {
+        if (payloadKind == WEIGHT) {
+            return Double.longBitsToDouble(payload);
+        }
+        Object information = getObjectPayload();
+        return information instanceof Number ? ((Number) information).doubleValue() : defaultWeight;
+    }
+    
+    /**
+     * 设置边的权重，替换原有的信息
+     * @param weight 权重
+     */
+    public void setWeight(double weight) {
+        release();
+        this.payload = Double.doubleToRawLongBits(weight);
+        this.payloadKind = WEIGHT;
+    }
+    
+    /**
+     * 判断边的信息是否为数字（权重）
+     * @return 是否有权重
+     */
+    public boolean hasWeight() {
+        return payloadKind == WEIGHT || getObjectPayload() instanceof Number;
+    }
+    
+    /**
+     * 获取边的关系描述，不创建新对象
+     * @return 信息为字符串时返回该字符串，否则返回null
+     */
+    public String getLabel() {
+        if (payloadKind == LABEL) {
+            return fromNeuron.payloads().label((int) payload);
+        }
+        Object information = getObjectPayload();
+        return information instanceof String ? (String) information : null;
+    }
+    
+    /**
+     * 获取按对象保存的信息，权重和已编码的关系描述返回null
+     */
+    Object getObjectPayload() {
+        return payloadKind == OBJECT ? fromNeuron.payloads().get((int) payload) : null;
+    }
+    
+    /**
+     * 获取保存关系描述和信息对象的旁表
+     */
+    private PayloadTable table() {
+        if (fromNeuron == null) {
+            throw new IllegalStateException("边没有起始神经元，无法保存信息");
+        }
+        return fromNeuron.payloads();
+    }
+    
+    /**
+     * 释放按对象保存的信息占用的槽位
+     */
+    private void release() {
+        if (payloadKind == OBJECT) {
+            fromNeuron.payloads().release((int) payload);
+        }
     }
     
     public Neuron getFromNeuron() {
         return fromNeuron;
     }
     
+    /**
+     * 设置起始神经元
+     * 关系描述和信息对象保存在起始神经元所属网络的旁表中，更换到另一张旁表时随之迁移
+     * @param fromNeuron 起始神经元
+     */
     public void setFromNeuron(Neuron fromNeuron) {
+        boolean stored = payloadKind == LABEL || payloadKind == OBJECT;
+        if (!stored || fromNeuron == this.fromNeuron
+                || (fromNeuron != null && fromNeuron.payloads() == this.fromNeuron.payloads())) {
+            this.fromNeuron = fromNeuron;
+            return;
+        }
+        if (fromNeuron == null) {
+            throw new IllegalStateException("边上保存着信息，起始神经元不能为空");
+        }
+        boolean label = payloadKind == LABEL;
+        Object information = getInformation();
+        release();
+        this.payloadKind = NONE;
         this.fromNeuron = fromNeuron;
+        if (label) {
+            setLabel((String) information);
+        } else {
+            setInformation(information);
+        }
     }
     
     public Neuron getToNeuron() {
@@ -67,29 +227,46 @@ public class Edge {
     }
     
     public Direction getDirection() {
-        return direction;
+        int direction = (relation & 3) - 1;
+        return direction >= 0 ? DIRECTIONS[direction] : null;
     }
     
     public void setDirection(Direction direction) {
-        this.direction = direction;
+        this.relation = (byte) ((relation & ~3) | (direction != null ? direction.ordinal() + 1 : 0));
     }
     
     public RelationshipType getRelationshipType() {
-        return relationshipType;
+        int relationshipType = (relation >> 2) - 1;
+        return relationshipType >= 0 ? RELATIONSHIP_TYPES[relationshipType] : null;
     }
     
     public void setRelationshipType(RelationshipType relationshipType) {
-        this.relationshipType = relationshipType;
+        this.relation = (byte) ((relation & 3) | (relationshipType != null ? (relationshipType.ordinal() + 1) << 2 : 0));
+    }
+    
+    public int getIdleEpochs() {
+        return idleEpochs;
+    }
+    
+    /**
+     * 设置连续未使用的轮数，超过 {@link #MAX_IDLE_EPOCHS} 时按上限记录
+     * @param idleEpochs 轮数
+     */
+    public void setIdleEpochs(int idleEpochs) {
+        if (idleEpochs < 0) {
+            throw new IllegalArgumentException("轮数不能为负数");
+        }
+        this.idleEpochs = (short) Math.min(idleEpochs, MAX_IDLE_EPOCHS);
     }
     
     @Override
     public String toString() {
         return "Edge{" +
-                "information=" + information +
+                "information=" + getInformation() +
                 ", fromNeuron=" + fromNeuron +
                 ", toNeuron=" + toNeuron +
-                ", direction=" + direction +
-                ", relationshipType=" + relationshipType +
+                ", direction=" + getDirection() +
+                ", relationshipType=" + getRelationshipType() +
                 '}';
     }
     
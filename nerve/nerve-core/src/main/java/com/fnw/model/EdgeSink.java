@@ -0,0 +1,26 @@
+package com.fnw.model;
+
+/**
+ * 边接收器
+ * 批量构建网络时按神经元下标逐条接收边，
+ * 使生成器可以直接写入对象模型或紧凑存储，而不必先创建Edge对象。
+ */
+public interface EdgeSink {
+    
+    /**
+     * 开始接收边
+     * @param neuronCount 神经元数量，神经元下标为 0 ~ neuronCount-1
+     * @param expectedEdges 预计边数量，用于预分配存储
+     */
+    void begin(int neuronCount, long expectedEdges);
+    
+    /**
+     * 接收一条边
+     * @param from 起始神经元下标
+     * @param to 目标神经元下标
+     * @param direction 边的方向性
+     * @param relationshipType 关系类型
+     * @param weight 边的权重
+     */
+    void accept(int from, int to, Edge.Direction direction, Edge.RelationshipType relationshipType, double weight);
+}
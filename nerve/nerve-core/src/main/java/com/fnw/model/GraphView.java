@@ -0,0 +1,45 @@
+package com.fnw.model;
+
+import java.util.List;
+
+/**
+ * 图视图
+ * 遍历和分析算法通过此接口访问神经元和边，
+ * 既可以是完整的神经网络，也可以是只包含部分边的子图视图。
+ * 神经元下标与所属神经网络的下标一致。
+ */
+public interface GraphView {
+    
+    /**
+     * 获取神经元数量
+     * @return 神经元数量
+     */
+    int getNeuronCount();
+    
+    /**
+     * 根据下标获取神经元
+     * @param index 神经元下标
+     * @return 神经元
+     */
+    Neuron getNeuron(int index);
+    
+    /**
+     * 获取神经元下标
+     * @param id 神经元ID
+     * @return 神经元下标，不存在时返回-1
+     */
+    int indexOf(String id);
+    
+    /**
+     * 遍历视图中的所有边
+     * @return 边的迭代器
+     */
+    Iterable<Edge> edges();
+    
+    /**
+     * 获取视图中与神经元相关的边
+     * @param neuron 神经元
+     * @return 与该神经元相关的边
+     */
+    List<Edge> getEdgesForNeuron(Neuron neuron);
+}
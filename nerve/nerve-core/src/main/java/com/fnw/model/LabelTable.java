@@ -0,0 +1,131 @@
+package com.fnw.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 关系描述字符串表
+ * 把关系描述（如“是一种”、“具有颜色”）映射为从0开始的整数编码，边上只保存编码，
+ * 相同的描述在同一个网络中只保存一份。每个网络一张表（见 {@link NeuralNetwork#getLabelTable()}），
+ * 编码在表的生命周期内只增不减，表随网络一起被回收。
+ * 只收录通过 {@link Edge#setLabel(String)} 设置、不超过 {@link #MAX_LABEL_LENGTH} 个字符的关系描述，
+ * 其他文本按对象保存在网络的旁表中。
+ * 查找编码是无锁的，只有收录新描述时加锁。
+ */
+public final class LabelTable {
+    
+    /**
+     * 收录的描述的最大长度
+     */
+    public static final int MAX_LABEL_LENGTH = 64;
+    
+    private final Map<String, Integer> codes;
+    
+    // 按编码排列的描述，扩容时整体替换
+    private volatile String[] labels;
+    
+    private int size;
+    
+    LabelTable() {
+        this.codes = new ConcurrentHashMap<>();
+        this.labels = new String[64];
+        this.size = 0;
+    }
+    
+    /**
+     * 判断字符串是否可以收录
+     * @param label 描述
+     * @return 是否可以收录
+     */
+    public static boolean accepts(String label) {
+        return label.length() <= MAX_LABEL_LENGTH;
+    }
+    
+    /**
+     * 获取描述的编码，尚未收录时收录
+     * @param label 描述
+     * @return 编码
+     */
+    public int intern(String label) {
+        if (!accepts(label)) {
+            throw new IllegalArgumentException("描述过长，不能收录: " + label.length() + " 个字符");
+        }
+        Integer code = codes.get(label);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(label);
+            if (code != null) {
+                return code;
+            }
+            // 先写入描述再发布编码，读到编码的线程一定能读到描述
+            String[] current = labels;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                current[size] = label;
+                labels = current;
+            } else {
+                current[size] = label;
+            }
+            codes.put(label, size);
+            return size++;
+        }
+    }
+    
+    /**
+     * 查找描述的编码，不收录新描述
+     * @param label 描述
+     * @return 编码，未收录时返回-1
+     */
+    public int code(String label) {
+        Integer code = codes.get(label);
+        return code != null ? code : -1;
+    }
+    
+    /**
+     * 获取编码对应的描述
+     * @param code 编码
+     * @return 描述
+     */
+    public String get(int code) {
+        String[] current = labels;
+        if (code < 0 || code >= current.length || current[code] == null) {
+            throw new IndexOutOfBoundsException("未知的描述编码: " + code);
+        }
+        return current[code];
+    }
+    
+    /**
+     * 获取已收录的描述数量
+     * @return 描述数量
+     */
+    public int size() {
+        return codes.size();
+    }
+    
+    /**
+     * 估计收录的描述字符串占用的堆内存
+     */
+    long stringBytes(MemoryEstimator estimator) {
+        String[] current = labels;
+        long bytes = 0;
+        for (String label : current) {
+            if (label != null) {
+                bytes += estimator.stringBytes(label);
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * 估计表结构占用的堆内存，不含描述字符串
+     */
+    long estimateMemory(MemoryEstimator estimator) {
+        // 编码表按散列表估计，编码装箱为Integer
+        int count = codes.size();
+        return estimator.objectBytes(2, 4) + estimator.hashMapBytes(count) + count * estimator.objectBytes(0, 4)
+                + estimator.referenceArrayBytes(labels.length);
+    }
+}
@@ -0,0 +1,107 @@
+package com.fnw.model;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 跳过墓碑的只读边列表视图
+ * 不复制边，每次访问时读取网络中的列表，因此随网络的修改而变化；数量取自网络维护的计数。
+ * 没有墓碑时按下标访问为O(1)；有墓碑时按下标访问需要从头跳过墓碑，应改用迭代器遍历。
+ */
+final class LiveEdgeList extends AbstractList<Edge> {
+    
+    private final NeuralNetwork network;
+    
+    // 视图背后的列表，可能含有墓碑，列表不存在时返回null
+    private final Supplier<List<Edge>> source;
+    
+    // 跳过墓碑后的边数量
+    private final IntSupplier counter;
+    
+    LiveEdgeList(NeuralNetwork network, Supplier<List<Edge>> source, IntSupplier counter) {
+        this.network = network;
+        this.source = source;
+        this.counter = counter;
+    }
+    
+    private List<Edge> list() {
+        List<Edge> list = source.get();
+        return list != null ? list : Collections.emptyList();
+    }
+    
+    @Override
+    public int size() {
+        return counter.getAsInt();
+    }
+    
+    @Override
+    public Edge get(int index) {
+        List<Edge> list = list();
+        if (!network.hasTombstones()) {
+            return list.get(index);
+        }
+        if (index >= 0) {
+            int live = 0;
+            for (Edge edge : list) {
+                if (!network.isRemoved(edge) && live++ == index) {
+                    return edge;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("下标越界: " + index);
+    }
+    
+    @Override
+    public Iterator<Edge> iterator() {
+        List<Edge> list = list();
+        if (!network.hasTombstones()) {
+            return Collections.unmodifiableList(list).iterator();
+        }
+        return new LiveIterator(list.iterator());
+    }
+    
+    /**
+     * 跳过墓碑的迭代器
+     */
+    private final class LiveIterator implements Iterator<Edge> {
+        
+        private final Iterator<Edge> iterator;
+        
+        private Edge next;
+        
+        LiveIterator(Iterator<Edge> iterator) {
+            this.iterator = iterator;
+            this.next = seek();
+        }
+        
+        private Edge seek() {
+            while (iterator.hasNext()) {
+                Edge edge = iterator.next();
+                if (!network.isRemoved(edge)) {
+                    return edge;
+                }
+            }
+            return null;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public Edge next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Edge edge = next;
+            next = seek();
+            return edge;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.fnw.model;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 堆内存估计
+ * 按HotSpot的对象布局（对象头、引用宽度、8字节对齐）计算对象模型和紧凑图占用的堆内存，
+ * 不需要堆转储，可以在运行中的网络上调用，也可以按神经元和边的数量预估所需的堆大小。
+ * 集合的容量无法直接读取，按JDK默认的扩容规则推算，因此预先指定容量的集合会有少量偏差。
+ */
+public class MemoryEstimator {
+    
+    // 对象对齐字节数
+    private static final int ALIGNMENT = 8;
+    
+    // 对象头字节数
+    private final int headerBytes;
+    
+    // 数组头字节数（含长度字段和对齐）
+    private final int arrayHeaderBytes;
+    
+    // 引用字节数
+    private final int referenceBytes;
+    
+    // 是否使用紧凑字符串（JDK 9+，Latin-1字符每个占一个字节）
+    private final boolean compactStrings;
+    
+    public MemoryEstimator(boolean compressedOops, boolean compactStrings) {
+        this.headerBytes = compressedOops ? 12 : 16;
+        this.arrayHeaderBytes = compressedOops ? 16 : 24;
+        this.referenceBytes = compressedOops ? 4 : 8;
+        this.compactStrings = compactStrings;
+    }
+    
+    /**
+     * 按当前JVM的参数创建估计器
+     * 无法读取JVM参数时按64位JVM开启压缩指针估计
+     * @return 估计器
+     */
+    public static MemoryEstimator forCurrentJvm() {
+        boolean compressedOops = true;
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            if (hotSpot != null) {
+                compressedOops = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+            }
+        } catch (RuntimeException | LinkageError e) {
+            // 非HotSpot JVM，使用默认布局
+        }
+        boolean compactStrings = !System.getProperty("java.specification.version", "1.8").startsWith("1.");
+        return new MemoryEstimator(compressedOops, compactStrings);
+    }
+    
+    /**
+     * 估计神经网络当前占用的堆内存
+     * @param network 神经网络
+     * @return 内存占用
+     */
+    public MemoryFootprint estimate(NeuralNetwork network) {
+        return network.estimateMemory(this);
+    }
+    
+    /**
+     * 估计紧凑图占用的堆内存
+     * 数组位于堆外时只计图和存储对象本身，堆外字节数见 {@link CompactGraph#getOffHeapBytes()}
+     * @param graph 紧凑图
+     * @return 内存占用
+     */
+    public MemoryFootprint estimate(CompactGraph graph) {
+        if (graph.isOffHeap()) {
+            // 图、存储对象和四个数组段及其页数组，不含直接缓冲区对象本身
+            long segmentBytes = objectBytes(1, 8 + 4 + 4 + 8) + referenceArrayBytes(1);
+            return new MemoryFootprint(0, objectBytes(1, 4) + objectBytes(4, 0) + 4 * segmentBytes, 0, 0);
+        }
+        return projectCompactMode(graph.getNeuronCount(), graph.getEdgeCount());
+    }
+    
+    /**
+     * 预估对象模型的堆内存
+     * 按 {@link NetworkBuilder} 构建的网络估计：神经元ID为下标的字符串形式、没有信息，
+     * 每条边带一个权重（保存在边对象内）、只有一种关系类型，边均匀分布在各个神经元上
+     * @param neurons 神经元数量
+     * @param edges 边数量
+     * @return 内存占用
+     */
+    public MemoryFootprint projectObjectMode(int neurons, long edges) {
+        checkCounts(neurons, edges);
+        long neuronBytes = arrayListBytes(neurons) + neurons * neuronBytes() + decimalIdBytes(neurons);
+        long edgeBytes = arrayListBytes(edges) + edges * edgeBytes();
+        long payloadBytes = 0;
+        
+        long indexBytes = networkBytes() + payloadTableBytes() + indexMapBytes(neurons);
+        indexBytes += arrayListBytes(neurons);
+        if (neurons > 0) {
+            // 每条边出现在两个端点的邻接表中，度数为 2m/n 或 2m/n + 1
+            long endpoints = 2 * edges;
+            long degree = endpoints / neurons;
+            long remainder = endpoints % neurons;
+            indexBytes += (neurons - remainder) * adjacencyBytes(degree) + remainder * adjacencyBytes(degree + 1);
+        }
+        indexBytes += adjacencyBytes(edges);
+        indexBytes += hashMapBytes(0) + listBytes(0);
+        indexBytes += objectBytes(3, 0) + treeMapBytes(0) + hashMapBytes(0);
+        indexBytes += referenceArrayBytes(contentIndexCapacity(neurons));
+        return new MemoryFootprint(neuronBytes, edgeBytes, payloadBytes, indexBytes);
+    }
+    
+    /**
+     * 预估紧凑图的堆内存
+     * 只计构建完成后的数组，不含构建过程中的临时数组
+     * @param neurons 神经元数量
+     * @param edges 边数量
+     * @return 内存占用
+     */
+    public MemoryFootprint projectCompactMode(int neurons, long edges) {
+        checkCounts(neurons, edges);
+        long neuronBytes = arrayBytes(neurons + 1L, 4);
+        long edgeBytes = objectBytes(1, 4) + objectBytes(4, 0) + arrayBytes(edges, 4) + arrayBytes(edges, 1);
+        long payloadBytes = arrayBytes(edges, 4);
+        return new MemoryFootprint(neuronBytes, edgeBytes, payloadBytes, 0);
+    }
+    
+    /**
+     * 估计从网络中移除一条边可以回收的堆内存
+     * 包括边对象，以及边集合、两端的邻接表、按类型分区的边集合和关系描述索引中各一个引用；
+     * 按对象保存的信息留在网络的旁表中，边的信息被替换后才能回收，不计入
+     * @param edge 边
+     * @return 字节数
+     */
+    public long estimateRemoval(Edge edge) {
+        int references = edge.getFromNeuron() == edge.getToNeuron() ? 3 : 4;
+        if (edge.getLabel() != null) {
+            references++;
+        }
+        return edgeBytes() + (long) references * referenceBytes;
+    }
+    
+    private static void checkCounts(int neurons, long edges) {
+        if (neurons < 0 || edges < 0) {
+            throw new IllegalArgumentException("神经元和边的数量不能为负数");
+        }
+    }
+    
+    /**
+     * 下标 0 ~ count-1 的十进制字符串ID占用的字节数
+     */
+    private long decimalIdBytes(int count) {
+        long bytes = 0;
+        long low = 0;
+        for (int digits = 1; low < count; digits++) {
+            long high = Math.min(count, low == 0 ? 10 : low * 10);
+            bytes += (high - low) * stringBytes(digits, false);
+            low = high;
+        }
+        return bytes;
+    }
+    
+    /**
+     * 只含一个分区的邻接表
+     */
+    private long adjacencyBytes(long degree) {
+        if (degree == 0) {
+            return 0;
+        }
+        return typedEdgeListBytes() + arrayListBytes(arrayListCapacity(4, degree));
+    }
+    
+    private static long contentIndexCapacity(int neurons) {
+        long capacity = 16;
+        while (capacity < neurons) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+    
+    /**
+     * 对齐到8字节
+     */
+    long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+    
+    /**
+     * 普通对象的大小
+     * @param references 引用字段数量
+     * @param primitiveBytes 原始类型字段的总字节数
+     * @return 字节数
+     */
+    long objectBytes(int references, int primitiveBytes) {
+        return align(headerBytes + (long) references * referenceBytes + primitiveBytes);
+    }
+    
+    /**
+     * 原始类型数组的大小
+     */
+    long arrayBytes(long length, int elementBytes) {
+        return align(arrayHeaderBytes + length * elementBytes);
+    }
+    
+    long referenceArrayBytes(long length) {
+        return arrayBytes(length, referenceBytes);
+    }
+    
+    long neuronBytes() {
+        // information、id、payloads 和 activated
+        return objectBytes(3, 1);
+    }
+    
+    long edgeBytes() {
+        // fromNeuron、toNeuron，以及 payload、idleEpochs、payloadKind 和 relation
+        return objectBytes(2, 8 + 2 + 1 + 1);
+    }
+    
+    /**
+     * 字符串及其字符数组的大小，null为0
+     */
+    long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean wide = false;
+        if (compactStrings) {
+            for (int i = 0; i < value.length() && !wide; i++) {
+                wide = value.charAt(i) > 0xFF;
+            }
+        }
+        return stringBytes(value.length(), wide);
+    }
+    
+    private long stringBytes(int length, boolean wide) {
+        if (compactStrings) {
+            // value、hash、coder 和 hashIsZero
+            return objectBytes(1, 6) + arrayBytes(length, wide ? 2 : 1);
+        }
+        return objectBytes(1, 4) + arrayBytes(length, 2);
+    }
+    
+    /**
+     * 信息对象的大小
+     * 字符串和常见的装箱类型按实际布局计算，Boolean为共享实例不计，其他类型只计对象头
+     */
+    long payloadBytes(Object information) {
+        if (information == null || information instanceof Boolean) {
+            return 0;
+        }
+        if (information instanceof String) {
+            return stringBytes((String) information);
+        }
+        if (information instanceof Double || information instanceof Long) {
+            return objectBytes(0, 8);
+        }
+        if (information instanceof Number || information instanceof Character) {
+            return objectBytes(0, 4);
+        }
+        return objectBytes(0, 0);
+    }
+    
+    /**
+     * 按默认扩容规则推算ArrayList的容量
+     * @param initialCapacity 初始容量（默认构造为10）
+     * @param size 元素数量
+     * @return 容量
+     */
+    static long arrayListCapacity(long initialCapacity, long size) {
+        if (size == 0) {
+            return 0;
+        }
+        long capacity = Math.max(1, initialCapacity);
+        while (capacity < size) {
+            capacity = Math.max(capacity + 1, capacity + (capacity >> 1));
+        }
+        return capacity;
+    }
+    
+    /**
+     * 指定容量的ArrayList及其数组的大小
+     */
+    long arrayListBytes(long capacity) {
+        // elementData、size 和 modCount
+        return objectBytes(1, 8) + (capacity > 0 ? referenceArrayBytes(capacity) : 0);
+    }
+    
+    /**
+     * 默认构造的ArrayList的大小
+     */
+    long listBytes(long size) {
+        return arrayListBytes(arrayListCapacity(10, size));
+    }
+    
+    /**
+     * 网络对象本身、各分区的墓碑计数和没有墓碑时的墓碑表的大小，不含旁表
+     */
+    long networkBytes() {
+        // 墓碑表为默认容量32的IdentityHashMap，键和值交替存放在长度64的数组中
+        return objectBytes(11, 12) + arrayBytes(TypedEdgeList.UNTYPED + 1, 4) + objectBytes(3, 8) + referenceArrayBytes(64);
+    }
+    
+    /**
+     * 空的旁表的大小
+     */
+    long payloadTableBytes() {
+        // labels、objects、free，以及 freeCount 和 size
+        return objectBytes(3, 8);
+    }
+    
+    /**
+     * HashMap、桶数组和节点的大小，不含键和值
+     */
+    long hashMapBytes(long size) {
+        // table、entrySet、keySet、values 以及 size、modCount、threshold、loadFactor
+        long bytes = objectBytes(4, 16);
+        if (size == 0) {
+            return bytes;
+        }
+        long capacity = 16;
+        while (size > capacity * 3 / 4) {
+            capacity *= 2;
+        }
+        // 节点：hash、key、value 和 next
+        return bytes + referenceArrayBytes(capacity) + size * objectBytes(3, 4);
+    }
+    
+    /**
+     * TreeMap和节点的大小，不含键和值
+     */
+    long treeMapBytes(long size) {
+        // 节点：key、value、left、right、parent 和 color
+        return objectBytes(7, 8) + size * objectBytes(5, 1);
+    }
+    
+    /**
+     * ID到下标的索引，值为装箱的下标，-128 ~ 127 使用缓存的实例
+     */
+    long indexMapBytes(long size) {
+        return hashMapBytes(size) + Math.max(0, size - 128) * objectBytes(0, 4);
+    }
+    
+    /**
+     * 空的按关系类型分区的边列表
+     */
+    long typedEdgeListBytes() {
+        return objectBytes(1, 4) + referenceArrayBytes(TypedEdgeList.UNTYPED + 1);
+    }
+}
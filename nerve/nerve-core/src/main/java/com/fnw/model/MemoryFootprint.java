@@ -0,0 +1,63 @@
+package com.fnw.model;
+
+/**
+ * 内存占用估计结果
+ * 按神经元、边、信息和索引四部分给出估计的堆内存字节数。
+ */
+public class MemoryFootprint {
+    
+    // 神经元对象、神经元ID和神经元集合
+    private final long neuronBytes;
+    
+    // 边对象和边集合
+    private final long edgeBytes;
+    
+    // 神经元和边上的信息（权重、关系描述等）
+    private final long payloadBytes;
+    
+    // 邻接表、ID索引、关系类型分区、关系描述分组和内容索引
+    private final long indexBytes;
+    
+    public MemoryFootprint(long neuronBytes, long edgeBytes, long payloadBytes, long indexBytes) {
+        this.neuronBytes = neuronBytes;
+        this.edgeBytes = edgeBytes;
+        this.payloadBytes = payloadBytes;
+        this.indexBytes = indexBytes;
+    }
+    
+    /**
+     * 获取估计的总字节数
+     * @return 总字节数
+     */
+    public long getTotalBytes() {
+        return neuronBytes + edgeBytes + payloadBytes + indexBytes;
+    }
+    
+    // Getter methods
+    public long getNeuronBytes() {
+        return neuronBytes;
+    }
+    
+    public long getEdgeBytes() {
+        return edgeBytes;
+    }
+    
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+    
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+    
+    @Override
+    public String toString() {
+        return "MemoryFootprint{" +
+                "neuronBytes=" + neuronBytes +
+                ", edgeBytes=" + edgeBytes +
+                ", payloadBytes=" + payloadBytes +
+                ", indexBytes=" + indexBytes +
+                ", totalBytes=" + getTotalBytes() +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+package com.fnw.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 神经网络批量构建器
+ * 按神经元下标接收边，一次性预分配神经元和边集合后批量写入网络。
+ * 神经元ID为其下标的字符串形式，边上的信息为权重。
+ */
+public class NetworkBuilder implements EdgeSink {
+    
+    private Neuron[] neurons;
+    
+    private List<Edge> edges;
+    
+    @Override
+    public void begin(int neuronCount, long expectedEdges) {
+        if (expectedEdges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("边数量超出对象模型容量，请使用CompactGraph: " + expectedEdges);
+        }
+        this.neurons = new Neuron[neuronCount];
+        for (int i = 0; i < neuronCount; i++) {
+            neurons[i] = new Neuron(String.valueOf(i), null);
+        }
+        this.edges = new ArrayList<>((int) expectedEdges);
+    }
+    
+    @Override
+    public void accept(int from, int to, Edge.Direction direction, Edge.RelationshipType relationshipType, double weight) {
+        edges.add(new Edge(neurons[from], neurons[to], direction, relationshipType, weight));
+    }
+    
+    /**
+     * 构建神经网络
+     * @return 神经网络
+     */
+    public NeuralNetwork build() {
+        NeuralNetwork network = new NeuralNetwork(neurons.length, edges.size());
+        network.addNeurons(Arrays.asList(neurons));
+        network.addEdges(edges);
+        return network;
+    }
+}
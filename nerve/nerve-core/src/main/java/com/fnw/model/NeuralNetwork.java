@@ -1,21 +1,94 @@
 package com.fnw.model;
 
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * 神经网络模型
  * 用于管理神经元和边的集合
+ * 每个神经元维护一份按关系类型分区的邻接表，边加入网络后不应再修改其端点和关系类型。
+ * 删除边时立即从两个端点的邻接表中移除，边集合和按类型、按描述的索引中只记下墓碑，
+ * 墓碑积累到一定数量时再一次性压缩，因此频繁增删的耗时只与端点的度数有关；
+ * 边集合和全局索引以跳过墓碑的只读视图返回，读取不复制也不修改网络，各分区的边数量单独计数。
  */
-public class NeuralNetwork {
-    // 神经元集合
-    private Map<String, Neuron> neurons;
+public class NeuralNetwork implements GraphView {
+    // 神经元集合，按加入顺序排列，列表中的位置即神经元下标
+    private List<Neuron> neurons;
+    
+    // 神经元ID到下标的索引
+    private Map<String, Integer> neuronIndex;
     
     // 边集合
     private List<Edge> edges;
     
+    // 每个神经元的邻接表，按神经元下标排列，没有边的神经元为null
+    private List<TypedEdgeList> adjacency;
+    
+    // 按关系类型分区的全部边
+    private TypedEdgeList edgesByType;
+    
+    // 信息为字符串（关系描述）的边，按描述分组
+    private Map<String, List<Edge>> edgesByLabel;
+    
+    // 端点尚未加入网络的边，端点加入后再建立索引
+    private List<Edge> unindexedEdges;
+    
+    // 神经元信息内容索引
+    private ContentIndex contentIndex;
+    
+    // 边上关系描述和信息对象的旁表，交给加入的神经元
+    private final PayloadTable payloads;
+    
+    // 已删除但尚未从边集合和全局索引中压缩掉的边，值表示边是否在按类型和按描述的索引中
+    private Map<Edge, Boolean> tombstones;
+    
+    // 按类型分区的全部边中各分区的墓碑数量
+    private final int[] tombstonesByType;
+    
+    // 结构修改次数，增删神经元或边时增加
+    private int modCount;
+    
+    // 神经元下标的版本，删除神经元时增加
+    private int indexVersion;
+    
+    // 激活状态和边上信息的修改版本
+    private int stateVersion;
+    
+    // 触发自动压缩的最少墓碑数量
+    private static final int MIN_COMPACTION = 64;
+    
     public NeuralNetwork() {
-        this.neurons = new HashMap<>();
+        this.neurons = new ArrayList<>();
+        this.neuronIndex = new HashMap<>();
         this.edges = new ArrayList<>();
+        this.adjacency = new ArrayList<>();
+        this.edgesByType = new TypedEdgeList();
+        this.edgesByLabel = new HashMap<>();
+        this.unindexedEdges = new ArrayList<>();
+        this.contentIndex = new ContentIndex();
+        this.payloads = new PayloadTable();
+        this.tombstones = new IdentityHashMap<>();
+        this.tombstonesByType = new int[TypedEdgeList.UNTYPED + 1];
+    }
+    
+    /**
+     * 按预计规模创建神经网络，避免批量构建时集合反复扩容
+     * @param expectedNeurons 预计神经元数量
+     * @param expectedEdges 预计边数量
+     */
+    public NeuralNetwork(int expectedNeurons, int expectedEdges) {
+        this.neurons = new ArrayList<>(expectedNeurons);
+        this.neuronIndex = new HashMap<>(Math.max(16, (int) (expectedNeurons / 0.75f) + 1));
+        this.edges = new ArrayList<>(expectedEdges);
+        this.adjacency = new ArrayList<>(expectedNeurons);
+        this.edgesByType = new TypedEdgeList();
+        this.edgesByLabel = new HashMap<>();
+        this.unindexedEdges = new ArrayList<>();
+        this.contentIndex = new ContentIndex();
+        this.payloads = new PayloadTable();
+        this.tombstones = new IdentityHashMap<>();
+        this.tombstonesByType = new int[TypedEdgeList.UNTYPED + 1];
     }
     
     /**
@@ -23,7 +96,36 @@ public class NeuralNetwork {
      * @param neuron 神经元
      */
     public void addNeuron(Neuron neuron) {
-        neurons.put(neuron.getId(), neuron);
+        modCount++;
+        neuron.attach(payloads);
+        Integer index = neuronIndex.get(neuron.getId());
+        if (index != null) {
+            // 相同ID的神经元替换原有神经元，下标保持不变
+            neurons.set(index, neuron);
+            contentIndex.update(index, neuron.getInformation());
+        } else {
+            neuronIndex.put(neuron.getId(), neurons.size());
+            neurons.add(neuron);
+            adjacency.add(null);
+            contentIndex.update(neurons.size() - 1, neuron.getInformation());
+            if (!unindexedEdges.isEmpty()) {
+                List<Edge> pending = new ArrayList<>(unindexedEdges);
+                unindexedEdges.clear();
+                for (Edge edge : pending) {
+                    indexEdge(edge);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 批量添加神经元
+     * @param neurons 神经元集合
+     */
+    public void addNeurons(Collection<Neuron> neurons) {
+        for (Neuron neuron : neurons) {
+            addNeuron(neuron);
+        }
     }
     
     /**
@@ -32,7 +134,76 @@ public class NeuralNetwork {
      * @return 神经元
      */
     public Neuron getNeuron(String id) {
-        return neurons.get(id);
+        Integer index = neuronIndex.get(id);
+        return index != null ? neurons.get(index) : null;
+    }
+    
+    /**
+     * 根据下标获取神经元
+     * @param index 神经元下标
+     * @return 神经元
+     */
+    @Override
+    public Neuron getNeuron(int index) {
+        return neurons.get(index);
+    }
+    
+    /**
+     * 获取神经元下标
+     * 神经元下标从0开始按加入顺序连续编号，删除神经元时最后一个神经元补到空出的下标上，
+     * 可用于以数组保存按神经元划分的结果
+     * @param id 神经元ID
+     * @return 神经元下标，不存在时返回-1
+     */
+    @Override
+    public int indexOf(String id) {
+        Integer index = neuronIndex.get(id);
+        return index != null ? index : -1;
+    }
+    
+    /**
+     * 获取结构修改次数
+     * 增删神经元或边时增加，可用于判断缓存的统计结果是否仍然有效；修改边上的信息和压缩墓碑不计入
+     * @return 结构修改次数
+     */
+    public int getModCount() {
+        return modCount;
+    }
+    
+    /**
+     * 获取神经元数量
+     * @return 神经元数量
+     */
+    @Override
+    public int getNeuronCount() {
+        return neurons.size();
+    }
+    
+    /**
+     * 获取神经元下标的版本
+     * 删除神经元后最后一个神经元移到空出的下标上，版本随之增加；
+     * 按下标保存状态的组件发现版本变化后应当清除这些状态
+     * @return 版本号
+     */
+    public int getIndexVersion() {
+        return indexVersion;
+    }
+    
+    /**
+     * 获取激活状态和边上信息的修改版本
+     * 通过网络激活或取消激活神经元，以及训练器写回权重和设置激活状态时增加，可用于判断增量维护的统计是否遗漏了修改；
+     * 直接调用 {@link Neuron} 和 {@link Edge} 的setter不会增加版本，修改后应调用 {@link #markStateChanged()}
+     * @return 版本号
+     */
+    public int getStateVersion() {
+        return stateVersion;
+    }
+    
+    /**
+     * 声明激活状态或边上的信息已被直接修改，使依赖修改版本的统计失效
+     */
+    public void markStateChanged() {
+        stateVersion++;
     }
     
     /**
@@ -40,7 +211,367 @@ public class NeuralNetwork {
      * @param edge 边
      */
     public void addEdge(Edge edge) {
-        edges.add(edge);
+        modCount++;
+        insertEdge(edge);
+    }
+    
+    /**
+     * 批量添加边
+     * @param edges 边集合
+     */
+    public void addEdges(Collection<Edge> edges) {
+        modCount++;
+        for (Edge edge : edges) {
+            insertEdge(edge);
+        }
+    }
+    
+    private void insertEdge(Edge edge) {
+        if (isRemoved(edge)) {
+            revive(edge);
+        } else {
+            edges.add(edge);
+            indexEdge(edge);
+        }
+    }
+    
+    /**
+     * 重新加入尚未压缩掉的已删除边
+     * 边仍在边集合和全局索引中，只需清除墓碑并重新加入两个端点的邻接表，耗时与端点的度数有关
+     * @param edge 边
+     */
+    private void revive(Edge edge) {
+        boolean indexed = tombstones.remove(edge);
+        if (!indexed) {
+            indexEdge(edge);
+            return;
+        }
+        int from = indexOf(edge.getFromNeuron().getId());
+        int to = indexOf(edge.getToNeuron().getId());
+        if (from < 0 || to < 0) {
+            // 端点已随神经元删除，边却仍在全局索引中，压缩后再作为新边加入
+            tombstones.put(edge, Boolean.TRUE);
+            compact();
+            edges.add(edge);
+            indexEdge(edge);
+            return;
+        }
+        tombstonesByType[TypedEdgeList.partitionOf(edge)]--;
+        adjacencyOf(from).add(edge);
+        if (to != from) {
+            adjacencyOf(to).add(edge);
+        }
+    }
+    
+    /**
+     * 把边加入两个端点的邻接表和按类型分区的边集合
+     * @param edge 边
+     */
+    private void indexEdge(Edge edge) {
+        int from = indexOf(edge.getFromNeuron().getId());
+        int to = indexOf(edge.getToNeuron().getId());
+        if (from < 0 || to < 0) {
+            unindexedEdges.add(edge);
+            return;
+        }
+        adjacencyOf(from).add(edge);
+        if (to != from) {
+            adjacencyOf(to).add(edge);
+        }
+        edgesByType.add(edge);
+        String label = edge.getLabel();
+        if (label != null) {
+            edgesByLabel.computeIfAbsent(label, key -> new ArrayList<>()).add(edge);
+        }
+    }
+    
+    /**
+     * 删除边
+     * 从两个端点的邻接表中交换删除，耗时与端点的度数成正比；
+     * 边集合和全局索引中的位置记为墓碑，稍后统一压缩
+     * @param edge 边
+     * @return 边是否在网络中并被删除
+     */
+    public boolean removeEdge(Edge edge) {
+        if (!unlinkEdge(edge)) {
+            return false;
+        }
+        modCount++;
+        compactIfNeeded();
+        return true;
+    }
+    
+    /**
+     * 批量删除边，全部删除后才判断是否需要压缩
+     * @param edges 边集合
+     * @return 实际删除的边数量
+     */
+    public int removeEdges(Collection<Edge> edges) {
+        int removed = 0;
+        for (Edge edge : edges) {
+            if (unlinkEdge(edge)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            modCount++;
+            compactIfNeeded();
+        }
+        return removed;
+    }
+    
+    /**
+     * 删除神经元及与其相关的所有边
+     * 最后一个神经元移到被删除神经元的下标上，其他神经元的下标不变
+     * @param neuronId 神经元ID
+     * @return 神经元是否存在并被删除
+     */
+    public boolean removeNeuron(String neuronId) {
+        if (!unlinkNeuron(neuronId)) {
+            return false;
+        }
+        modCount++;
+        compactIfNeeded();
+        return true;
+    }
+    
+    /**
+     * 批量删除神经元及与其相关的所有边
+     * 每删除一个神经元，最后一个神经元移到其下标上
+     * @param neuronIds 神经元ID集合
+     * @return 实际删除的神经元数量
+     */
+    public int removeNeurons(Collection<String> neuronIds) {
+        int removed = 0;
+        for (String neuronId : neuronIds) {
+            if (unlinkNeuron(neuronId)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            modCount++;
+            compactIfNeeded();
+        }
+        return removed;
+    }
+    
+    /**
+     * 把边从邻接表中移除并记为墓碑
+     */
+    private boolean unlinkEdge(Edge edge) {
+        if (isRemoved(edge)) {
+            return false;
+        }
+        int from = indexOf(edge.getFromNeuron().getId());
+        int to = indexOf(edge.getToNeuron().getId());
+        if (from >= 0 && to >= 0) {
+            if (!removeAdjacent(from, edge)) {
+                return false;
+            }
+            if (to != from) {
+                removeAdjacent(to, edge);
+            }
+            bury(edge, true);
+        } else if (removeUnindexed(edge)) {
+            bury(edge, false);
+        } else {
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * 把边记为墓碑
+     * @param indexed 边是否在按类型和按描述的索引中
+     */
+    private void bury(Edge edge, boolean indexed) {
+        tombstones.put(edge, indexed);
+        if (indexed) {
+            tombstonesByType[TypedEdgeList.partitionOf(edge)]++;
+        }
+    }
+    
+    private boolean removeAdjacent(int index, Edge edge) {
+        TypedEdgeList list = adjacency.get(index);
+        if (list == null || !list.remove(edge)) {
+            return false;
+        }
+        if (list.size() == 0) {
+            adjacency.set(index, null);
+        }
+        return true;
+    }
+    
+    private boolean removeUnindexed(Edge edge) {
+        for (int i = 0; i < unindexedEdges.size(); i++) {
+            if (unindexedEdges.get(i) == edge) {
+                int last = unindexedEdges.size() - 1;
+                unindexedEdges.set(i, unindexedEdges.get(last));
+                unindexedEdges.remove(last);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 删除神经元：相关的边记为墓碑，最后一个神经元移到空出的下标
+     */
+    private boolean unlinkNeuron(String neuronId) {
+        Integer removed = neuronIndex.remove(neuronId);
+        if (removed == null) {
+            return false;
+        }
+        int index = removed;
+        TypedEdgeList list = adjacency.get(index);
+        if (list != null) {
+            for (int partition = 0; partition <= TypedEdgeList.UNTYPED; partition++) {
+                List<Edge> incident = list.partition(partition);
+                if (incident == null) {
+                    continue;
+                }
+                for (Edge edge : incident) {
+                    int from = indexOf(edge.getFromNeuron().getId());
+                    int to = indexOf(edge.getToNeuron().getId());
+                    // 本神经元的ID已从索引中移除，另一个端点即下标有效的一端
+                    int other = from >= 0 ? from : to;
+                    if (other >= 0) {
+                        removeAdjacent(other, edge);
+                    }
+                    bury(edge, true);
+                }
+            }
+        }
+        // 另一个端点尚未加入网络的边
+        for (int i = unindexedEdges.size() - 1; i >= 0; i--) {
+            Edge edge = unindexedEdges.get(i);
+            if (edge.getFromNeuron().getId().equals(neuronId) || edge.getToNeuron().getId().equals(neuronId)) {
+                removeUnindexed(edge);
+                bury(edge, false);
+            }
+        }
+        
+        int last = neurons.size() - 1;
+        indexVersion++;
+        contentIndex.update(index, null);
+        if (index != last) {
+            Neuron moved = neurons.get(last);
+            neurons.set(index, moved);
+            adjacency.set(index, adjacency.get(last));
+            neuronIndex.put(moved.getId(), index);
+            contentIndex.move(last, index);
+        }
+        neurons.remove(last);
+        adjacency.remove(last);
+        return true;
+    }
+    
+    /**
+     * 墓碑超过边数量的四分之一时压缩
+     */
+    private void compactIfNeeded() {
+        if (tombstones.size() >= Math.max(MIN_COMPACTION, edges.size() / 4)) {
+            compact();
+        }
+    }
+    
+    /**
+     * 从边集合和全局索引中压缩掉已删除的边
+     * 删除边或神经元后墓碑足够多时会自动调用，大批删除后可以手动调用以立即释放空间
+     */
+    public void compact() {
+        if (tombstones.isEmpty()) {
+            return;
+        }
+        edges.removeIf(tombstones::containsKey);
+        purge(tombstones.keySet());
+        // 换成新的散列表，释放大批删除后扩容的空间
+        tombstones = new IdentityHashMap<>();
+        Arrays.fill(tombstonesByType, 0);
+    }
+    
+    /**
+     * 从按类型和按描述的索引中移除边
+     */
+    private void purge(Set<Edge> removed) {
+        edgesByType.removeAll(removed);
+        Iterator<List<Edge>> labels = edgesByLabel.values().iterator();
+        while (labels.hasNext()) {
+            List<Edge> list = labels.next();
+            if (list.removeIf(removed::contains) && list.isEmpty()) {
+                labels.remove();
+            }
+        }
+    }
+    
+    /**
+     * 移除满足条件的边，并在原处压缩边集合和各个索引
+     * 条件在多个线程上并行判断，必须是线程安全的；各神经元的邻接表也并行压缩
+     * @param filter 移除条件
+     * @return 被移除的边，按原来的顺序排列
+     */
+    public List<Edge> removeEdgesIf(Predicate<? super Edge> filter) {
+        compact();
+        int count = edges.size();
+        boolean[] remove = new boolean[count];
+        IntStream.range(0, count).parallel().forEach(i -> remove[i] = filter.test(edges.get(i)));
+        
+        // 原处压缩边集合
+        List<Edge> removedEdges = new ArrayList<>();
+        int write = 0;
+        for (int i = 0; i < count; i++) {
+            Edge edge = edges.get(i);
+            if (remove[i]) {
+                removedEdges.add(edge);
+            } else {
+                edges.set(write++, edge);
+            }
+        }
+        if (removedEdges.isEmpty()) {
+            return removedEdges;
+        }
+        modCount++;
+        edges.subList(write, count).clear();
+        if (edges instanceof ArrayList) {
+            ((ArrayList<Edge>) edges).trimToSize();
+        }
+        
+        // 只有被移除边的端点需要压缩邻接表
+        Set<Edge> removed = Collections.newSetFromMap(new IdentityHashMap<>(removedEdges.size() * 2));
+        removed.addAll(removedEdges);
+        BitSet touched = new BitSet(neurons.size());
+        for (Edge edge : removedEdges) {
+            int from = indexOf(edge.getFromNeuron().getId());
+            int to = indexOf(edge.getToNeuron().getId());
+            if (from >= 0) {
+                touched.set(from);
+            }
+            if (to >= 0) {
+                touched.set(to);
+            }
+        }
+        touched.stream().parallel().forEach(index -> {
+            TypedEdgeList list = adjacency.get(index);
+            if (list != null) {
+                list.removeAll(removed);
+                if (list.size() == 0) {
+                    adjacency.set(index, null);
+                }
+            }
+        });
+        
+        purge(removed);
+        unindexedEdges.removeIf(removed::contains);
+        return removedEdges;
+    }
+    
+    private TypedEdgeList adjacencyOf(int index) {
+        TypedEdgeList list = adjacency.get(index);
+        if (list == null) {
+            list = new TypedEdgeList();
+            adjacency.set(index, list);
+        }
+        return list;
     }
     
     /**
@@ -48,15 +579,55 @@ public class NeuralNetwork {
      * @return 神经元集合
      */
     public Collection<Neuron> getNeurons() {
-        return neurons.values();
+        return Collections.unmodifiableList(neurons);
     }
     
     /**
      * 获取所有边
+     * 返回跳过已删除边的只读视图，随网络的修改而变化；有尚未压缩掉的已删除边时应遍历而不是按下标访问
      * @return 边集合
      */
     public List<Edge> getEdges() {
-        return edges;
+        return new LiveEdgeList(this, () -> edges, this::getEdgeCount);
+    }
+    
+    /**
+     * 获取边的数量，不压缩边集合
+     * @return 边的数量
+     */
+    public int getEdgeCount() {
+        return edges.size() - tombstones.size();
+    }
+    
+    /**
+     * 获取指定关系类型的边的数量，O(1)
+     * @param relationshipType 关系类型
+     * @return 边的数量
+     */
+    public int getEdgeCount(Edge.RelationshipType relationshipType) {
+        int partition = relationshipType.ordinal();
+        List<Edge> list = edgesByType.partition(partition);
+        return list != null ? list.size() - tombstonesByType[partition] : 0;
+    }
+    
+    /**
+     * 获取边槽位的数量
+     * 边集合中的位置称为槽位，已删除但尚未压缩掉的边仍占用槽位，槽位在压缩前保持不变；
+     * 按槽位分块可以并行遍历全部边而不复制边集合
+     * @return 槽位数量
+     */
+    public int getEdgeSlotCount() {
+        return edges.size();
+    }
+    
+    /**
+     * 获取槽位上的边
+     * @param slot 槽位
+     * @return 边，已删除时返回null
+     */
+    public Edge getEdgeSlot(int slot) {
+        Edge edge = edges.get(slot);
+        return isRemoved(edge) ? null : edge;
     }
     
     /**
@@ -64,24 +635,167 @@ public class NeuralNetwork {
      * @param neuron 神经元
      * @return 与该神经元相关的边
      */
+    @Override
     public List<Edge> getEdgesForNeuron(Neuron neuron) {
         List<Edge> relatedEdges = new ArrayList<>();
-        for (Edge edge : edges) {
-            if (edge.getFromNeuron().equals(neuron) || edge.getToNeuron().equals(neuron)) {
-                relatedEdges.add(edge);
+        int index = indexOf(neuron.getId());
+        TypedEdgeList list = index >= 0 ? adjacency.get(index) : null;
+        if (list != null) {
+            for (int partition = 0; partition <= TypedEdgeList.UNTYPED; partition++) {
+                addRelated(list.partition(partition), neuron, relatedEdges);
             }
         }
+        addRelated(unindexedEdges, neuron, relatedEdges);
         return relatedEdges;
     }
     
+    private static void addRelated(List<Edge> candidates, Neuron neuron, List<Edge> result) {
+        if (candidates == null) {
+            return;
+        }
+        for (Edge edge : candidates) {
+            if (edge.getFromNeuron().equals(neuron) || edge.getToNeuron().equals(neuron)) {
+                result.add(edge);
+            }
+        }
+    }
+    
+    @Override
+    public Iterable<Edge> edges() {
+        return getEdges();
+    }
+    
+    /**
+     * 创建只包含指定关系类型的子图视图
+     * @param relationshipTypes 关系类型
+     * @return 子图视图
+     */
+    public SubgraphView subgraph(Edge.RelationshipType... relationshipTypes) {
+        EnumSet<Edge.RelationshipType> types = EnumSet.noneOf(Edge.RelationshipType.class);
+        types.addAll(Arrays.asList(relationshipTypes));
+        return new SubgraphView(this, types, EnumSet.allOf(Edge.Direction.class), Double.NEGATIVE_INFINITY);
+    }
+    
+    /**
+     * 创建子图视图
+     * 视图不复制边，只在遍历时跳过不符合条件的边
+     * @param relationshipTypes 允许的关系类型
+     * @param directions 允许的方向性
+     * @param minWeight 最小权重，边上的信息不是数字时视为权重1
+     * @return 子图视图
+     */
+    public SubgraphView subgraph(Set<Edge.RelationshipType> relationshipTypes, Set<Edge.Direction> directions, double minWeight) {
+        return new SubgraphView(this, relationshipTypes, directions, minWeight);
+    }
+    
+    /**
+     * 获取与神经元相关的边
+     * @param neuronIndex 神经元下标
+     * @param relationshipType 关系类型，为null时返回所有类型的边
+     * @return 与该神经元相关的边，指定关系类型时返回只读视图
+     */
+    public List<Edge> getIncidentEdges(int neuronIndex, Edge.RelationshipType relationshipType) {
+        TypedEdgeList list = adjacency.get(neuronIndex);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        if (relationshipType != null) {
+            List<Edge> partition = list.partition(relationshipType.ordinal());
+            return partition != null ? Collections.unmodifiableList(partition) : Collections.emptyList();
+        }
+        List<Edge> result = new ArrayList<>(list.size());
+        for (int partition = 0; partition <= TypedEdgeList.UNTYPED; partition++) {
+            if (list.partition(partition) != null) {
+                result.addAll(list.partition(partition));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取神经元的度数（相关边的数量）
+     * @param neuronIndex 神经元下标
+     * @return 度数
+     */
+    public int getDegree(int neuronIndex) {
+        TypedEdgeList list = adjacency.get(neuronIndex);
+        return list != null ? list.size() : 0;
+    }
+    
+    /**
+     * 获取指定关系类型的所有边
+     * @param relationshipType 关系类型
+     * @return 跳过已删除边的只读视图
+     */
+    public List<Edge> getEdgesByType(Edge.RelationshipType relationshipType) {
+        int partition = relationshipType.ordinal();
+        return new LiveEdgeList(this, () -> edgesByType.partition(partition), () -> getEdgeCount(relationshipType));
+    }
+    
+    /**
+     * 获取加入网络时信息为指定关系描述的边
+     * 训练器会把边上的信息改写为权重，因此返回的是候选边，使用前需要再次核对边上的信息
+     * @param label 关系描述
+     * @return 跳过已删除边的只读候选边视图
+     */
+    public List<Edge> getEdgesByLabel(String label) {
+        return new LiveEdgeList(this, () -> edgesByLabel.get(label), () -> getLabelCount(label));
+    }
+    
+    /**
+     * 获取加入网络时信息为指定关系描述的候选边数量
+     * 没有尚未压缩掉的已删除边时为O(1)，否则需要遍历该描述的候选边：边上的描述可能已被改写，墓碑无法按描述计数
+     * @param label 关系描述
+     * @return 候选边数量
+     */
+    public int getLabelCount(String label) {
+        List<Edge> list = edgesByLabel.get(label);
+        if (list == null) {
+            return 0;
+        }
+        if (tombstones.isEmpty()) {
+            return list.size();
+        }
+        int count = 0;
+        for (Edge edge : list) {
+            if (!tombstones.containsKey(edge)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    boolean hasTombstones() {
+        return !tombstones.isEmpty();
+    }
+    
+    /**
+     * 判断边是否已删除但尚未从边集合和全局索引中压缩掉
+     */
+    boolean isRemoved(Edge edge) {
+        return !tombstones.isEmpty() && tombstones.containsKey(edge);
+    }
+    
+    TypedEdgeList adjacencyAt(int index) {
+        return adjacency.get(index);
+    }
+    
+    /**
+     * 按类型分区的全部边，可能含有已删除的边，遍历时需要用 {@link #isRemoved(Edge)} 跳过
+     */
+    TypedEdgeList edgesByType() {
+        return edgesByType;
+    }
+    
     /**
      * 激活神经元
      * @param neuronId 神经元ID
      */
     public void activateNeuron(String neuronId) {
-        Neuron neuron = neurons.get(neuronId);
-        if (neuron != null) {
+        Neuron neuron = getNeuron(neuronId);
+        if (neuron != null && !neuron.isActivated()) {
             neuron.setActivated(true);
+            stateVersion++;
         }
     }
     
@@ -90,9 +804,10 @@ public class NeuralNetwork {
      * @param neuronId 神经元ID
      */
     public void deactivateNeuron(String neuronId) {
-        Neuron neuron = neurons.get(neuronId);
-        if (neuron != null) {
+        Neuron neuron = getNeuron(neuronId);
+        if (neuron != null && neuron.isActivated()) {
             neuron.setActivated(false);
+            stateVersion++;
         }
     }
     
@@ -103,16 +818,119 @@ public class NeuralNetwork {
      * @return 是否成功录入信息
      */
     public boolean storeInformation(String neuronId, Object information) {
-        Neuron neuron = neurons.get(neuronId);
-        if (neuron != null) {
-            neuron.setInformation(information);
+        int index = indexOf(neuronId);
+        if (index >= 0) {
+            neurons.get(index).setInformation(information);
+            contentIndex.update(index, information);
             return true;
         }
         return false;
     }
     
+    /**
+     * 按信息内容查找神经元
+     * 内容索引由addNeuron和storeInformation维护，直接调用Neuron.setInformation的修改不会被索引
+     * @param query 查询文本
+     * @param mode 匹配方式
+     * @return 匹配的神经元ID，按神经元下标排列
+     */
+    public List<String> findNeuronsByContent(String query, ContentIndex.MatchMode mode) {
+        int[] matched = contentIndex.find(query, mode);
+        List<String> ids = new ArrayList<>(matched.length);
+        for (int index : matched) {
+            ids.add(neurons.get(index).getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * 激活信息内容匹配的神经元，作为联想查询的起点
+     * @param query 查询文本
+     * @param mode 匹配方式
+     * @return 被激活的神经元数量
+     */
+    public int activateByContent(String query, ContentIndex.MatchMode mode) {
+        int[] matched = contentIndex.find(query, mode);
+        for (int index : matched) {
+            neurons.get(index).setActivated(true);
+        }
+        if (matched.length > 0) {
+            stateVersion++;
+        }
+        return matched.length;
+    }
+    
+    /**
+     * 获取关系描述字符串表
+     * 通过 {@link #createConnection} 和 {@link Edge#setLabel(String)} 设置在本网络神经元之间的关系描述收录在这里，
+     * 表随网络一起回收
+     * @return 字符串表
+     */
+    public LabelTable getLabelTable() {
+        return payloads.labels();
+    }
+    
+    /**
+     * 获取神经元信息内容索引
+     * @return 内容索引
+     */
+    public ContentIndex getContentIndex() {
+        return contentIndex;
+    }
+    
+    /**
+     * 估计网络当前占用的堆内存
+     * 按当前JVM的对象布局计算，不需要堆转储；尚未压缩掉的已删除边仍然占用内存，一并计入
+     * @return 按神经元、边、信息和索引划分的内存占用
+     * @see MemoryEstimator
+     */
+    public MemoryFootprint estimateMemory() {
+        return estimateMemory(MemoryEstimator.forCurrentJvm());
+    }
+    
+    MemoryFootprint estimateMemory(MemoryEstimator estimator) {
+        long neuronBytes = estimator.listBytes(neurons.size());
+        long payloadBytes = 0;
+        for (Neuron neuron : neurons) {
+            // ID同时是ID索引的键，只在神经元中计算一次
+            neuronBytes += estimator.neuronBytes() + estimator.stringBytes(neuron.getId());
+            payloadBytes += estimator.payloadBytes(neuron.getInformation());
+        }
+        
+        // 权重保存在边对象内，关系描述在字符串表中只计一次，按对象保存的信息单独计算
+        long edgeBytes = estimator.listBytes(edges.size());
+        Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Edge edge : edges) {
+            edgeBytes += estimator.edgeBytes();
+            Object information = edge.getObjectPayload();
+            if (!(information instanceof String) || shared.add(information)) {
+                payloadBytes += estimator.payloadBytes(information);
+            }
+        }
+        
+        payloadBytes += payloads.labelBytes(estimator);
+        
+        long indexBytes = estimator.networkBytes() + estimator.indexMapBytes(neuronIndex.size());
+        indexBytes += payloads.estimateMemory(estimator);
+        indexBytes += estimator.listBytes(adjacency.size());
+        for (TypedEdgeList list : adjacency) {
+            if (list != null) {
+                indexBytes += list.estimateMemory(estimator);
+            }
+        }
+        indexBytes += edgesByType.estimateMemory(estimator);
+        indexBytes += estimator.hashMapBytes(edgesByLabel.size());
+        for (List<Edge> list : edgesByLabel.values()) {
+            indexBytes += estimator.listBytes(list.size());
+        }
+        indexBytes += estimator.listBytes(unindexedEdges.size());
+        indexBytes += contentIndex.estimateMemory(estimator, neurons);
+        return new MemoryFootprint(neuronBytes, edgeBytes, payloadBytes, indexBytes);
+    }
+    
     /**
      * 创建连接
+     * 字符串信息视为关系描述，按 {@link Edge#setLabel(String)} 编码保存在本网络的字符串表中
      * @param fromNeuronId 起始神经元ID
      * @param toNeuronId 目标神经元ID
      * @param direction 连接方向
@@ -123,12 +941,17 @@ public class NeuralNetwork {
     public boolean createConnection(String fromNeuronId, String toNeuronId, 
                                    Edge.Direction direction, Edge.RelationshipType relationshipType, 
                                    Object information) {
-        Neuron fromNeuron = neurons.get(fromNeuronId);
-        Neuron toNeuron = neurons.get(toNeuronId);
+        Neuron fromNeuron = getNeuron(fromNeuronId);
+        Neuron toNeuron = getNeuron(toNeuronId);
         
         if (fromNeuron != null && toNeuron != null) {
-            Edge edge = new Edge(fromNeuron, toNeuron, direction, relationshipType, information);
-            edges.add(edge);
+            Edge edge = new Edge(fromNeuron, toNeuron, direction, relationshipType);
+            if (information instanceof String) {
+                edge.setLabel((String) information);
+            } else {
+                edge.setInformation(information);
+            }
+            addEdge(edge);
             return true;
         }
         return false;
@@ -151,7 +974,7 @@ public class NeuralNetwork {
     public String toString() {
         return "NeuralNetwork{" +
                 "neurons=" + neurons.size() +
-                ", edges=" + edges.size() +
+                ", edges=" + getEdgeCount() +
                 '}';
     }
 }
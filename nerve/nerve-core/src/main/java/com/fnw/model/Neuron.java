@@ -14,6 +14,9 @@ public class Neuron {
     // 神经元的激活状态
     private boolean activated;
     
+    // 以本神经元为起点的边上信息的旁表，加入网络时取网络的旁表，不在网络中时按需创建
+    private PayloadTable payloads;
+    
     public Neuron() {
         this.activated = false;
     }
@@ -49,6 +52,25 @@ public class Neuron {
         this.activated = activated;
     }
     
+    /**
+     * 获取边上信息的旁表，尚未加入网络时创建自己的旁表
+     */
+    PayloadTable payloads() {
+        if (payloads == null) {
+            payloads = new PayloadTable();
+        }
+        return payloads;
+    }
+    
+    /**
+     * 加入网络时使用网络的旁表；已经有旁表时保留原有的，边上已保存的编号仍然有效
+     */
+    void attach(PayloadTable table) {
+        if (payloads == null) {
+            payloads = table;
+        }
+    }
+    
     @Override
     public String toString() {
         return "Neuron{" +
@@ -0,0 +1,132 @@
+package com.fnw.model;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆外内存区域
+ * 通过 {@link ByteBuffer#allocateDirect(int)} 分配堆外内存，分配出的段归区域所有，
+ * 关闭区域时一次性释放全部段，而不是等待GC回收缓冲区对象。
+ * 分配可以在多个线程中进行；关闭前调用方必须保证没有线程仍在访问区域中的段，
+ * 关闭后访问段会抛出异常。
+ */
+public final class OffHeapArena implements AutoCloseable {
+    
+    // 释放直接缓冲区的方法，JDK 9+ 为 Unsafe.invokeCleaner，不可用时为null（交给GC回收）
+    private static final Method INVOKE_CLEANER;
+    
+    private static final Object UNSAFE;
+    
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // JDK 8 或受限环境，缓冲区在不可达后由GC释放
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+    
+    private final List<OffHeapSegment> segments;
+    
+    // 已分配的字节数
+    private long allocatedBytes;
+    
+    private boolean closed;
+    
+    public OffHeapArena() {
+        this.segments = new ArrayList<>();
+        this.allocatedBytes = 0;
+        this.closed = false;
+    }
+    
+    /**
+     * 分配int数组段
+     * @param length 元素数量
+     * @return 段
+     */
+    public OffHeapSegment allocateInts(long length) {
+        return allocate(Integer.BYTES, length, OffHeapSegment.PAGE_BYTES);
+    }
+    
+    /**
+     * 分配float数组段
+     * @param length 元素数量
+     * @return 段
+     */
+    public OffHeapSegment allocateFloats(long length) {
+        return allocate(Float.BYTES, length, OffHeapSegment.PAGE_BYTES);
+    }
+    
+    /**
+     * 分配byte数组段
+     * @param length 元素数量
+     * @return 段
+     */
+    public OffHeapSegment allocateBytes(long length) {
+        return allocate(Byte.BYTES, length, OffHeapSegment.PAGE_BYTES);
+    }
+    
+    synchronized OffHeapSegment allocate(int elementSize, long length, int pageBytes) {
+        if (closed) {
+            throw new IllegalStateException("堆外内存区域已关闭");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("元素数量不能为负数: " + length);
+        }
+        OffHeapSegment segment = new OffHeapSegment(elementSize, length, pageBytes);
+        segments.add(segment);
+        allocatedBytes += segment.byteSize();
+        return segment;
+    }
+    
+    /**
+     * 获取区域中已分配的字节数
+     * @return 字节数
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+    
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * 释放区域中的所有段，重复关闭没有效果
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (OffHeapSegment segment : segments) {
+            for (ByteBuffer page : segment.detach()) {
+                free(page);
+            }
+        }
+        segments.clear();
+        allocatedBytes = 0;
+    }
+    
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // 释放失败时缓冲区仍会在不可达后由GC回收
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.fnw.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 堆外数组段
+ * 由 {@link OffHeapArena} 分配的定长原始类型数组，按本机字节序分页保存在直接缓冲区中，
+ * 每页不超过1GB，因此长度不受单个缓冲区2GB的限制。元素宽度整除页大小，元素不会跨页。
+ * 段不检查元素类型，调用方按分配时的类型读写。
+ */
+public final class OffHeapSegment {
+    
+    // 默认每页字节数
+    static final int PAGE_BYTES = 1 << 30;
+    
+    private static final ByteBuffer[] DETACHED = new ByteBuffer[0];
+    
+    private final long length;
+    
+    // 元素宽度的二进制位数（1、2、4、8字节分别为0、1、2、3）
+    private final int elementShift;
+    
+    // 页内元素数量的二进制位数
+    private final int pageShift;
+    
+    private final long pageMask;
+    
+    // 区域关闭后替换为空数组，之后的访问会越界
+    private volatile ByteBuffer[] pages;
+    
+    OffHeapSegment(int elementSize, long length, int pageBytes) {
+        if (Integer.bitCount(elementSize) != 1 || elementSize > 8) {
+            throw new IllegalArgumentException("不支持的元素宽度: " + elementSize);
+        }
+        if (Integer.bitCount(pageBytes) != 1 || pageBytes < elementSize) {
+            throw new IllegalArgumentException("页大小必须是不小于元素宽度的2的幂: " + pageBytes);
+        }
+        this.length = length;
+        this.elementShift = Integer.numberOfTrailingZeros(elementSize);
+        this.pageShift = Integer.numberOfTrailingZeros(pageBytes) - elementShift;
+        this.pageMask = (1L << pageShift) - 1;
+        
+        long pageElements = 1L << pageShift;
+        int pageCount = (int) ((length + pageElements - 1) >>> pageShift);
+        ByteBuffer[] allocated = new ByteBuffer[pageCount];
+        for (int p = 0; p < pageCount; p++) {
+            long elements = Math.min(pageElements, length - ((long) p << pageShift));
+            allocated[p] = ByteBuffer.allocateDirect((int) (elements << elementShift)).order(ByteOrder.nativeOrder());
+        }
+        this.pages = allocated;
+    }
+    
+    /**
+     * 获取元素数量
+     * @return 元素数量
+     */
+    public long length() {
+        return length;
+    }
+    
+    /**
+     * 获取占用的堆外字节数
+     * @return 字节数
+     */
+    public long byteSize() {
+        return length << elementShift;
+    }
+    
+    public int getInt(long index) {
+        return page(index).getInt(offset(index));
+    }
+    
+    public void setInt(long index, int value) {
+        page(index).putInt(offset(index), value);
+    }
+    
+    public float getFloat(long index) {
+        return page(index).getFloat(offset(index));
+    }
+    
+    public void setFloat(long index, float value) {
+        page(index).putFloat(offset(index), value);
+    }
+    
+    public byte getByte(long index) {
+        return page(index).get(offset(index));
+    }
+    
+    public void setByte(long index, byte value) {
+        page(index).put(offset(index), value);
+    }
+    
+    /**
+     * 把int数组整体复制到段的开头
+     * @param source 源数组，长度不能超过段的长度
+     */
+    public void copyFrom(int[] source) {
+        checkCopy(source.length, 2);
+        ByteBuffer[] current = pages;
+        for (int from = 0, p = 0; from < source.length; p++) {
+            int count = Math.min(source.length - from, current[p].capacity() >>> 2);
+            current[p].duplicate().order(ByteOrder.nativeOrder()).asIntBuffer().put(source, from, count);
+            from += count;
+        }
+    }
+    
+    /**
+     * 把float数组整体复制到段的开头
+     * @param source 源数组，长度不能超过段的长度
+     */
+    public void copyFrom(float[] source) {
+        checkCopy(source.length, 2);
+        ByteBuffer[] current = pages;
+        for (int from = 0, p = 0; from < source.length; p++) {
+            int count = Math.min(source.length - from, current[p].capacity() >>> 2);
+            current[p].duplicate().order(ByteOrder.nativeOrder()).asFloatBuffer().put(source, from, count);
+            from += count;
+        }
+    }
+    
+    /**
+     * 把byte数组整体复制到段的开头
+     * @param source 源数组，长度不能超过段的长度
+     */
+    public void copyFrom(byte[] source) {
+        checkCopy(source.length, 0);
+        ByteBuffer[] current = pages;
+        for (int from = 0, p = 0; from < source.length; p++) {
+            int count = Math.min(source.length - from, current[p].capacity());
+            current[p].duplicate().put(source, from, count);
+            from += count;
+        }
+    }
+    
+    /**
+     * 从段中取下所有页，供区域释放
+     */
+    ByteBuffer[] detach() {
+        ByteBuffer[] detached = pages;
+        pages = DETACHED;
+        return detached;
+    }
+    
+    private ByteBuffer page(long index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("下标超出堆外数组段范围: " + index);
+        }
+        ByteBuffer[] current = pages;
+        int page = (int) (index >>> pageShift);
+        if (page >= current.length) {
+            throw new IllegalStateException("堆外内存区域已关闭");
+        }
+        return current[page];
+    }
+    
+    private int offset(long index) {
+        return (int) ((index & pageMask) << elementShift);
+    }
+    
+    private void checkCopy(int sourceLength, int expectedShift) {
+        if (elementShift != expectedShift) {
+            throw new IllegalArgumentException("源数组的元素宽度与段不一致");
+        }
+        if (sourceLength > length) {
+            throw new IllegalArgumentException("源数组长度超出段的长度: " + sourceLength);
+        }
+        if (pages.length == 0 && sourceLength > 0) {
+            throw new IllegalStateException("堆外内存区域已关闭");
+        }
+    }
+}
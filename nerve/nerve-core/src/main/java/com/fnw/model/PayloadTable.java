@@ -0,0 +1,133 @@
+package com.fnw.model;
+
+import java.util.Arrays;
+
+/**
+ * 边上信息的旁表
+ * 边对象只在 payload 中保存编号：关系描述按 {@link LabelTable} 编码，其他信息按对象保存在槽位中。
+ * 旁表属于网络，网络把它交给加入的神经元，边通过起始神经元找到旁表，
+ * 因此旁表随网络的神经元和边一起被回收，不在整个JVM中保留。
+ * 信息被替换时立即释放槽位供复用；从网络中删除、信息却未被替换的边，其槽位随旁表一起回收。
+ * 读取是无锁的，写入时加锁。
+ */
+final class PayloadTable {
+    
+    private static final Object[] NO_OBJECTS = new Object[0];
+    
+    private static final int[] NO_SLOTS = new int[0];
+    
+    // 关系描述，第一次收录时创建
+    private volatile LabelTable labels;
+    
+    // 按槽位排列的信息对象，扩容时整体替换
+    private volatile Object[] objects;
+    
+    // 已释放、可以复用的槽位
+    private int[] free;
+    
+    private int freeCount;
+    
+    // 分配过的槽位数量
+    private int size;
+    
+    PayloadTable() {
+        this.objects = NO_OBJECTS;
+        this.free = NO_SLOTS;
+    }
+    
+    /**
+     * 获取关系描述的字符串表，尚未创建时创建
+     */
+    LabelTable labels() {
+        LabelTable table = labels;
+        if (table == null) {
+            synchronized (this) {
+                table = labels;
+                if (table == null) {
+                    table = new LabelTable();
+                    labels = table;
+                }
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * 获取编码对应的关系描述
+     */
+    String label(int code) {
+        return labels().get(code);
+    }
+    
+    /**
+     * 把信息对象存入一个槽位
+     * @param value 信息对象
+     * @return 槽位
+     */
+    synchronized int store(Object value) {
+        if (freeCount > 0) {
+            int slot = free[--freeCount];
+            objects[slot] = value;
+            return slot;
+        }
+        // 先写入对象再发布数组，读到槽位的线程一定能读到对象
+        Object[] current = objects;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, Math.max(16, size * 2));
+            current[size] = value;
+            objects = current;
+        } else {
+            current[size] = value;
+        }
+        return size++;
+    }
+    
+    Object get(int slot) {
+        return objects[slot];
+    }
+    
+    synchronized void replace(int slot, Object value) {
+        objects[slot] = value;
+    }
+    
+    /**
+     * 释放槽位，槽位中的对象随即可以被回收
+     */
+    synchronized void release(int slot) {
+        objects[slot] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, Math.max(16, freeCount * 2));
+        }
+        free[freeCount++] = slot;
+    }
+    
+    /**
+     * 获取正在使用的槽位数量
+     */
+    synchronized int objectCount() {
+        return size - freeCount;
+    }
+    
+    /**
+     * 估计关系描述字符串占用的堆内存
+     */
+    long labelBytes(MemoryEstimator estimator) {
+        LabelTable table = labels;
+        return table != null ? table.stringBytes(estimator) : 0;
+    }
+    
+    /**
+     * 估计旁表结构占用的堆内存，不含信息对象和关系描述字符串
+     */
+    synchronized long estimateMemory(MemoryEstimator estimator) {
+        long bytes = estimator.payloadTableBytes();
+        if (objects.length > 0) {
+            bytes += estimator.referenceArrayBytes(objects.length);
+        }
+        if (free.length > 0) {
+            bytes += estimator.arrayBytes(free.length, 4);
+        }
+        LabelTable table = labels;
+        return table != null ? bytes + table.estimateMemory(estimator) : bytes;
+    }
+}
@@ -0,0 +1,179 @@
+package com.fnw.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 子图视图
+ * 按关系类型、方向性和最小权重筛选神经网络中的边，不复制神经元和边。
+ * 关系类型的筛选直接选取邻接表中对应的分区，遍历时不会访问其他类型的边；
+ * 方向性和权重在遍历时逐条判断。视图始终反映网络的当前状态。
+ * 视图只包含两个端点都已加入网络的边。
+ */
+public class SubgraphView implements GraphView {
+    
+    private final NeuralNetwork network;
+    
+    // 选中的关系类型分区
+    private final int[] partitions;
+    
+    // 按方向性序号记录是否允许
+    private final boolean[] directions;
+    
+    // 最小权重
+    private final double minWeight;
+    
+    SubgraphView(NeuralNetwork network, Set<Edge.RelationshipType> relationshipTypes, Set<Edge.Direction> directions, double minWeight) {
+        this.network = network;
+        this.partitions = new int[relationshipTypes.size()];
+        int k = 0;
+        for (Edge.RelationshipType type : Edge.RelationshipType.values()) {
+            if (relationshipTypes.contains(type)) {
+                partitions[k++] = type.ordinal();
+            }
+        }
+        this.directions = new boolean[Edge.Direction.values().length];
+        for (Edge.Direction direction : directions) {
+            this.directions[direction.ordinal()] = true;
+        }
+        this.minWeight = minWeight;
+    }
+    
+    /**
+     * 判断边是否满足视图的方向性和权重条件
+     * @param edge 边
+     * @return 是否包含在视图中
+     */
+    public boolean accepts(Edge edge) {
+        Edge.Direction direction = edge.getDirection();
+        if (direction == null || !directions[direction.ordinal()]) {
+            return false;
+        }
+        return minWeight == Double.NEGATIVE_INFINITY || edge.getWeight(1.0) >= minWeight;
+    }
+    
+    @Override
+    public int getNeuronCount() {
+        return network.getNeuronCount();
+    }
+    
+    @Override
+    public Neuron getNeuron(int index) {
+        return network.getNeuron(index);
+    }
+    
+    @Override
+    public int indexOf(String id) {
+        return network.indexOf(id);
+    }
+    
+    @Override
+    public Iterable<Edge> edges() {
+        return () -> new PartitionIterator(network.edgesByType());
+    }
+    
+    @Override
+    public List<Edge> getEdgesForNeuron(Neuron neuron) {
+        List<Edge> relatedEdges = new ArrayList<>();
+        int index = network.indexOf(neuron.getId());
+        TypedEdgeList list = index >= 0 ? network.adjacencyAt(index) : null;
+        if (list == null) {
+            return relatedEdges;
+        }
+        for (int partition : partitions) {
+            List<Edge> candidates = list.partition(partition);
+            if (candidates == null) {
+                continue;
+            }
+            for (Edge edge : candidates) {
+                if ((edge.getFromNeuron().equals(neuron) || edge.getToNeuron().equals(neuron)) && accepts(edge)) {
+                    relatedEdges.add(edge);
+                }
+            }
+        }
+        return relatedEdges;
+    }
+    
+    /**
+     * 遍历与神经元相关的边，不创建结果列表
+     * @param neuronIndex 神经元下标
+     * @return 边的迭代器
+     */
+    public Iterable<Edge> edgesForNeuron(int neuronIndex) {
+        return () -> new PartitionIterator(network.adjacencyAt(neuronIndex));
+    }
+    
+    public NeuralNetwork getNetwork() {
+        return network;
+    }
+    
+    @Override
+    public String toString() {
+        return "SubgraphView{" +
+                "network=" + network +
+                ", partitions=" + partitions.length +
+                ", minWeight=" + minWeight +
+                '}';
+    }
+    
+    /**
+     * 依次遍历选中分区中满足条件的边
+     */
+    private class PartitionIterator implements Iterator<Edge> {
+        
+        private final TypedEdgeList source;
+        
+        private int partitionCursor;
+        
+        private List<Edge> current;
+        
+        private int position;
+        
+        private Edge next;
+        
+        PartitionIterator(TypedEdgeList source) {
+            this.source = source;
+            advance();
+        }
+        
+        private void advance() {
+            next = null;
+            if (source == null) {
+                return;
+            }
+            while (true) {
+                if (current != null && position < current.size()) {
+                    Edge edge = current.get(position++);
+                    if (accepts(edge) && !network.isRemoved(edge)) {
+                        next = edge;
+                        return;
+                    }
+                    continue;
+                }
+                if (partitionCursor >= partitions.length) {
+                    return;
+                }
+                current = source.partition(partitions[partitionCursor++]);
+                position = 0;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public Edge next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Edge result = next;
+            advance();
+            return result;
+        }
+    }
+}
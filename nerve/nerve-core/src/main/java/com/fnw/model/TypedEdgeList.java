@@ -0,0 +1,117 @@
+package com.fnw.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 按关系类型分区的边列表
+ * 每种关系类型一个分区，另有一个分区存放未设置关系类型的边。
+ * 分区在第一次写入时才创建，只按某些类型遍历时无需逐条判断类型。
+ */
+class TypedEdgeList {
+    
+    // 未设置关系类型的边所在分区
+    static final int UNTYPED = Edge.RelationshipType.values().length;
+    
+    private final List<Edge>[] partitions;
+    
+    private int size;
+    
+    @SuppressWarnings("unchecked")
+    TypedEdgeList() {
+        this.partitions = (List<Edge>[]) new List<?>[UNTYPED + 1];
+    }
+    
+    static int partitionOf(Edge edge) {
+        Edge.RelationshipType type = edge.getRelationshipType();
+        return type != null ? type.ordinal() : UNTYPED;
+    }
+    
+    void add(Edge edge) {
+        int partition = partitionOf(edge);
+        List<Edge> list = partitions[partition];
+        if (list == null) {
+            list = new ArrayList<>(4);
+            partitions[partition] = list;
+        }
+        list.add(edge);
+        size++;
+    }
+    
+    /**
+     * 获取分区，分区不存在时返回null
+     */
+    List<Edge> partition(int partition) {
+        return partitions[partition];
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * 移除一条边：在其所属分区中按引用查找，用分区的最后一条边填补空位
+     * 分区内的顺序会改变，耗时与分区长度成正比
+     * @param edge 要移除的边
+     * @return 是否找到并移除
+     */
+    boolean remove(Edge edge) {
+        int partition = partitionOf(edge);
+        List<Edge> list = partitions[partition];
+        if (list == null) {
+            return false;
+        }
+        int last = list.size() - 1;
+        for (int i = last; i >= 0; i--) {
+            if (list.get(i) == edge) {
+                list.set(i, list.get(last));
+                list.remove(last);
+                if (last == 0) {
+                    partitions[partition] = null;
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 移除集合中的边并收缩分区，空分区释放为null
+     * @param removed 要移除的边
+     * @return 移除的边数量
+     */
+    int removeAll(Set<Edge> removed) {
+        int before = size;
+        for (int partition = 0; partition < partitions.length; partition++) {
+            ArrayList<Edge> list = (ArrayList<Edge>) partitions[partition];
+            if (list == null) {
+                continue;
+            }
+            int count = list.size();
+            if (list.removeIf(removed::contains)) {
+                size -= count - list.size();
+                if (list.isEmpty()) {
+                    partitions[partition] = null;
+                } else {
+                    list.trimToSize();
+                }
+            }
+        }
+        return before - size;
+    }
+    
+    /**
+     * 估计占用的堆内存，不含边对象
+     */
+    long estimateMemory(MemoryEstimator estimator) {
+        long bytes = estimator.typedEdgeListBytes();
+        for (List<Edge> list : partitions) {
+            if (list != null) {
+                bytes += estimator.arrayListBytes(MemoryEstimator.arrayListCapacity(4, list.size()));
+            }
+        }
+        return bytes;
+    }
+}
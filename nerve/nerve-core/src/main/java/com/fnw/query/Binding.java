@@ -0,0 +1,80 @@
+package com.fnw.query;
+
+import com.fnw.model.Neuron;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 查询结果
+ * 记录每个变量绑定的神经元。
+ */
+public class Binding {
+    
+    // 变量名到槽位的映射，同一查询的所有结果共享
+    private final Map<String, Integer> slots;
+    
+    private final Neuron[] values;
+    
+    Binding(Map<String, Integer> slots, Neuron[] values) {
+        this.slots = slots;
+        this.values = values;
+    }
+    
+    /**
+     * 获取变量绑定的神经元
+     * @param variable 变量名（以“?”开头）
+     * @return 神经元
+     */
+    public Neuron get(String variable) {
+        Integer slot = slots.get(variable);
+        if (slot == null) {
+            throw new IllegalArgumentException("查询中没有变量: " + variable);
+        }
+        return values[slot];
+    }
+    
+    /**
+     * 获取变量绑定的神经元ID
+     * @param variable 变量名（以“?”开头）
+     * @return 神经元ID
+     */
+    public String getId(String variable) {
+        return get(variable).getId();
+    }
+    
+    /**
+     * 转换为变量名到神经元ID的映射
+     * @return 映射
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+            result.put(entry.getKey(), values[entry.getValue()].getId());
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Binding)) {
+            return false;
+        }
+        Binding other = (Binding) o;
+        return slots.equals(other.slots) && Arrays.equals(values, other.values);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+    
+    @Override
+    public String toString() {
+        return "Binding" + toMap();
+    }
+}
@@ -0,0 +1,116 @@
+package com.fnw.query;
+
+import com.fnw.model.Edge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 结构查询
+ * 由若干三元组模式组成，所有模式同时满足时产生一条结果。
+ * 可以用文本描述，模式之间以逗号或“and”分隔，例如：
+ * ?x -[是一种]-> ?y, ?x -[具有颜色]-> ?z
+ * 方括号中为“关系描述:关系类型”，两部分都可以省略。
+ */
+public class Query {
+    
+    private static final Pattern TRIPLE = Pattern.compile("^\\s*(\\S+)\\s*-\\[([^\\]]*)\\]->\\s*(\\S+)\\s*$");
+    
+    private static final Pattern SEPARATOR = Pattern.compile("\\s*,\\s*|\\s+and\\s+");
+    
+    private final List<TriplePattern> patterns;
+    
+    public Query() {
+        this.patterns = new ArrayList<>();
+    }
+    
+    /**
+     * 解析查询文本
+     * @param text 查询文本
+     * @return 查询
+     */
+    public static Query parse(String text) {
+        Query query = new Query();
+        for (String part : SEPARATOR.split(text.trim())) {
+            Matcher matcher = TRIPLE.matcher(part);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("无法解析的三元组模式: " + part);
+            }
+            String spec = matcher.group(2).trim();
+            String label = spec;
+            Edge.RelationshipType type = null;
+            int colon = spec.lastIndexOf(':');
+            if (colon >= 0) {
+                label = spec.substring(0, colon).trim();
+                String typeName = spec.substring(colon + 1).trim();
+                try {
+                    type = Edge.RelationshipType.valueOf(typeName);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("未知的关系类型: " + typeName, e);
+                }
+            }
+            query.add(new TriplePattern(matcher.group(1), label.isEmpty() ? null : label, type, matcher.group(3)));
+        }
+        return query;
+    }
+    
+    /**
+     * 添加三元组模式
+     * @param pattern 三元组模式
+     * @return 当前查询
+     */
+    public Query add(TriplePattern pattern) {
+        patterns.add(pattern);
+        return this;
+    }
+    
+    /**
+     * 添加三元组模式
+     * @param subject 主语
+     * @param label 关系描述，可以为null
+     * @param relationshipType 关系类型，可以为null
+     * @param object 宾语
+     * @return 当前查询
+     */
+    public Query add(String subject, String label, Edge.RelationshipType relationshipType, String object) {
+        return add(new TriplePattern(subject, label, relationshipType, object));
+    }
+    
+    public List<TriplePattern> getPatterns() {
+        return Collections.unmodifiableList(patterns);
+    }
+    
+    /**
+     * 获取查询中的所有变量，按出现顺序排列
+     * @return 变量集合
+     */
+    public Set<String> getVariables() {
+        Set<String> variables = new LinkedHashSet<>();
+        for (TriplePattern pattern : patterns) {
+            if (TriplePattern.isVariable(pattern.getSubject())) {
+                variables.add(pattern.getSubject());
+            }
+            if (TriplePattern.isVariable(pattern.getObject())) {
+                variables.add(pattern.getObject());
+            }
+        }
+        return variables;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (TriplePattern pattern : patterns) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(pattern);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,422 @@
+package com.fnw.query;
+
+import com.fnw.jfr.FlightEvents;
+import com.fnw.jfr.QueryEvent;
+import com.fnw.metrics.Counter;
+import com.fnw.metrics.Histogram;
+import com.fnw.metrics.MetricsRegistry;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 结构查询引擎
+ * 根据关系描述和关系类型的边数量估计每个模式的选择度，按贪心顺序安排模式，
+ * 然后以索引嵌套循环连接逐条产生结果：已绑定端点的模式沿邻接表扩展，
+ * 未绑定端点的模式从关系描述索引或关系类型索引开始。
+ * 单向边只匹配 起始神经元 -> 目标神经元，双向边和无向边两个方向都匹配。
+ */
+public class QueryEngine {
+    
+    private final NeuralNetwork network;
+    
+    // 查询指标，未设置指标注册表时为null
+    private Counter executions;
+    
+    private Counter results;
+    
+    private Histogram latency;
+    
+    public QueryEngine(NeuralNetwork network) {
+        this.network = network;
+    }
+    
+    /**
+     * 把查询次数、结果数量和查询耗时发布到指标注册表
+     * 耗时从开始执行到结果迭代完为止，中途放弃的查询只计入次数
+     * @param registry 指标注册表，为null时不记录
+     */
+    public void setMetrics(MetricsRegistry registry) {
+        if (registry == null) {
+            this.executions = null;
+            this.results = null;
+            this.latency = null;
+            return;
+        }
+        this.executions = registry.counter("query.executions");
+        this.results = registry.counter("query.results");
+        this.latency = registry.histogram("query.latency_nanos");
+    }
+    
+    /**
+     * 生成查询计划
+     * @param query 查询
+     * @return 查询计划
+     */
+    public QueryPlan plan(Query query) {
+        List<TriplePattern> remaining = new ArrayList<>(query.getPatterns());
+        Set<String> bound = new HashSet<>();
+        List<QueryPlan.Step> steps = new ArrayList<>();
+        double rows = 1.0;
+        
+        while (!remaining.isEmpty()) {
+            TriplePattern best = null;
+            double bestEstimate = Double.MAX_VALUE;
+            boolean bestConnected = false;
+            for (TriplePattern pattern : remaining) {
+                boolean connected = steps.isEmpty() || isBound(pattern.getSubject(), bound) || isBound(pattern.getObject(), bound);
+                double estimate = estimate(pattern, bound);
+                // 优先选择与已绑定变量相连的模式，避免笛卡尔积
+                if (best == null || (connected && !bestConnected) || (connected == bestConnected && estimate < bestEstimate)) {
+                    best = pattern;
+                    bestEstimate = estimate;
+                    bestConnected = connected;
+                }
+            }
+            remaining.remove(best);
+            rows *= bestEstimate;
+            steps.add(new QueryPlan.Step(best, accessPath(best, bound), rows));
+            if (TriplePattern.isVariable(best.getSubject())) {
+                bound.add(best.getSubject());
+            }
+            if (TriplePattern.isVariable(best.getObject())) {
+                bound.add(best.getObject());
+            }
+        }
+        return new QueryPlan(steps);
+    }
+    
+    /**
+     * 执行查询
+     * 结果在迭代时逐条产生，不预先计算全部结果；JFR录制开启时，结果迭代完后提交 {@link QueryEvent}
+     * @param query 查询
+     * @return 结果迭代器
+     */
+    public Iterator<Binding> execute(Query query) {
+        QueryEvent event = FlightEvents.AVAILABLE ? QueryEvent.start(query.getPatterns().size()) : null;
+        if (executions == null && event == null) {
+            return new JoinIterator(plan(query), null, null, null);
+        }
+        long start = System.nanoTime();
+        if (executions != null) {
+            executions.increment();
+        }
+        JoinIterator iterator = new JoinIterator(plan(query), latency, results, event);
+        iterator.start(start);
+        return iterator;
+    }
+    
+    /**
+     * 以流的形式执行查询
+     * @param query 查询
+     * @return 结果流
+     */
+    public Stream<Binding> stream(Query query) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(execute(query), Spliterator.ORDERED), false);
+    }
+    
+    /**
+     * 解析并执行查询文本
+     * @param text 查询文本
+     * @return 结果迭代器
+     */
+    public Iterator<Binding> execute(String text) {
+        return execute(Query.parse(text));
+    }
+    
+    private static boolean isBound(String term, Set<String> bound) {
+        return !TriplePattern.isVariable(term) || bound.contains(term);
+    }
+    
+    /**
+     * 估计在已绑定变量下，每个输入行匹配该模式的边数
+     */
+    private double estimate(TriplePattern pattern, Set<String> bound) {
+        double neurons = Math.max(1, network.getNeuronCount());
+        double candidates = network.getEdgeCount();
+        if (pattern.getLabel() != null) {
+            candidates = Math.min(candidates, network.getLabelCount(pattern.getLabel()));
+        }
+        if (pattern.getRelationshipType() != null) {
+            candidates = Math.min(candidates, network.getEdgeCount(pattern.getRelationshipType()));
+        }
+        if (isBound(pattern.getSubject(), bound)) {
+            candidates /= neurons;
+        }
+        if (isBound(pattern.getObject(), bound)) {
+            candidates /= neurons;
+        }
+        return candidates;
+    }
+    
+    private QueryPlan.AccessPath accessPath(TriplePattern pattern, Set<String> bound) {
+        boolean subjectBound = isBound(pattern.getSubject(), bound);
+        boolean objectBound = isBound(pattern.getObject(), bound);
+        if (subjectBound && objectBound) {
+            return QueryPlan.AccessPath.BOUND_ENDPOINTS;
+        }
+        if (subjectBound) {
+            return QueryPlan.AccessPath.SUBJECT_ADJACENCY;
+        }
+        if (objectBound) {
+            return QueryPlan.AccessPath.OBJECT_ADJACENCY;
+        }
+        String label = pattern.getLabel();
+        Edge.RelationshipType type = pattern.getRelationshipType();
+        if (label != null && (type == null
+                || network.getLabelCount(label) <= network.getEdgeCount(type))) {
+            return QueryPlan.AccessPath.LABEL_INDEX;
+        }
+        if (type != null) {
+            return QueryPlan.AccessPath.TYPE_INDEX;
+        }
+        return QueryPlan.AccessPath.FULL_SCAN;
+    }
+    
+    /**
+     * 深度优先的索引嵌套循环连接
+     * 每一层对应计划中的一步，保存当前候选边的位置；回溯时撤销该层绑定的变量
+     */
+    private class JoinIterator implements Iterator<Binding> {
+        
+        private final List<QueryPlan.Step> steps;
+        
+        private final Map<String, Integer> slots;
+        
+        private final Neuron[] values;
+        
+        // 每一层候选边的迭代器和当前的边
+        private final List<Iterator<Edge>> candidates;
+        
+        private final Edge[] currentEdges;
+        
+        // 每一层当前的边的遍历位置：0为正向，1为反向，2表示需要取下一条边
+        private final int[] positions;
+        
+        // 每一层新绑定的槽位，-1表示未绑定
+        private final int[][] boundSlots;
+        
+        private int depth;
+        
+        private Binding next;
+        
+        private boolean finished;
+        
+        // 结果迭代完时记录的指标和JFR事件，不记录时为null
+        private final Histogram latency;
+        
+        private final Counter results;
+        
+        private final QueryEvent event;
+        
+        private long start;
+        
+        private long produced;
+        
+        // 取出的候选边数量
+        private long scanned;
+        
+        JoinIterator(QueryPlan plan, Histogram latency, Counter results, QueryEvent event) {
+            this.latency = latency;
+            this.results = results;
+            this.event = event;
+            this.steps = plan.getSteps();
+            this.slots = new LinkedHashMap<>();
+            Query query = new Query();
+            for (QueryPlan.Step step : steps) {
+                query.add(step.getPattern());
+            }
+            for (String variable : query.getVariables()) {
+                slots.put(variable, slots.size());
+            }
+            this.values = new Neuron[slots.size()];
+            this.candidates = new ArrayList<>(Collections.nCopies(steps.size(), null));
+            this.currentEdges = new Edge[steps.size()];
+            this.positions = new int[steps.size()];
+            this.boundSlots = new int[steps.size()][2];
+            this.depth = 0;
+            this.finished = steps.isEmpty();
+            if (!finished) {
+                enterLevel();
+            }
+            advance();
+        }
+        
+        /**
+         * 开始计时，构造时已经找到第一个结果，没有结果时立即记录
+         */
+        void start(long start) {
+            this.start = start;
+            recordIfExhausted();
+        }
+        
+        private void recordIfExhausted() {
+            if (next != null) {
+                return;
+            }
+            if (latency != null) {
+                latency.record(System.nanoTime() - start);
+                results.add(produced);
+            }
+            if (event != null) {
+                event.finish(produced, scanned);
+            }
+        }
+        
+        private void enterLevel() {
+            candidates.set(depth, candidateEdges(steps.get(depth)).iterator());
+            currentEdges[depth] = null;
+            positions[depth] = 2;
+            boundSlots[depth][0] = -1;
+            boundSlots[depth][1] = -1;
+        }
+        
+        private void advance() {
+            next = null;
+            while (!finished) {
+                unbind(depth);
+                Iterator<Edge> edges = candidates.get(depth);
+                TriplePattern pattern = steps.get(depth).getPattern();
+                boolean matched = false;
+                while (positions[depth] < 2 || edges.hasNext()) {
+                    if (positions[depth] == 2) {
+                        currentEdges[depth] = edges.next();
+                        positions[depth] = 0;
+                        scanned++;
+                    }
+                    Edge edge = currentEdges[depth];
+                    boolean reversed = positions[depth]++ == 1;
+                    if (reversed && edge.getDirection() == Edge.Direction.UNIDIRECTIONAL) {
+                        continue;
+                    }
+                    if (!pattern.matchesEdge(edge)) {
+                        continue;
+                    }
+                    Neuron subject = reversed ? edge.getToNeuron() : edge.getFromNeuron();
+                    Neuron object = reversed ? edge.getFromNeuron() : edge.getToNeuron();
+                    if (reversed && subject == object) {
+                        continue;
+                    }
+                    if (bind(depth, 0, pattern.getSubject(), subject) && bind(depth, 1, pattern.getObject(), object)) {
+                        matched = true;
+                        break;
+                    }
+                    unbind(depth);
+                }
+                
+                if (!matched) {
+                    // 本层候选边已用完，回溯
+                    if (depth == 0) {
+                        finished = true;
+                        return;
+                    }
+                    depth--;
+                    continue;
+                }
+                if (depth == steps.size() - 1) {
+                    next = new Binding(slots, values.clone());
+                    return;
+                }
+                depth++;
+                enterLevel();
+            }
+        }
+        
+        /**
+         * 把一项与神经元匹配；变量未绑定时绑定它
+         */
+        private boolean bind(int level, int position, String term, Neuron neuron) {
+            if (!TriplePattern.isVariable(term)) {
+                return term.equals(neuron.getId());
+            }
+            int slot = slots.get(term);
+            if (values[slot] == null) {
+                values[slot] = neuron;
+                boundSlots[level][position] = slot;
+                return true;
+            }
+            return values[slot].getId().equals(neuron.getId());
+        }
+        
+        private void unbind(int level) {
+            for (int k = 0; k < 2; k++) {
+                if (boundSlots[level][k] >= 0) {
+                    values[boundSlots[level][k]] = null;
+                    boundSlots[level][k] = -1;
+                }
+            }
+        }
+        
+        /**
+         * 按访问路径取出当前绑定下的候选边
+         */
+        private List<Edge> candidateEdges(QueryPlan.Step step) {
+            TriplePattern pattern = step.getPattern();
+            Edge.RelationshipType type = pattern.getRelationshipType();
+            switch (step.getAccessPath()) {
+                case BOUND_ENDPOINTS: {
+                    int subject = resolve(pattern.getSubject());
+                    int object = resolve(pattern.getObject());
+                    if (subject < 0 || object < 0) {
+                        return Collections.emptyList();
+                    }
+                    int smaller = network.getDegree(subject) <= network.getDegree(object) ? subject : object;
+                    return network.getIncidentEdges(smaller, type);
+                }
+                case SUBJECT_ADJACENCY: {
+                    int subject = resolve(pattern.getSubject());
+                    return subject >= 0 ? network.getIncidentEdges(subject, type) : Collections.emptyList();
+                }
+                case OBJECT_ADJACENCY: {
+                    int object = resolve(pattern.getObject());
+                    return object >= 0 ? network.getIncidentEdges(object, type) : Collections.emptyList();
+                }
+                case LABEL_INDEX:
+                    return network.getEdgesByLabel(pattern.getLabel());
+                case TYPE_INDEX:
+                    return network.getEdgesByType(type);
+                default:
+                    return network.getEdges();
+            }
+        }
+        
+        private int resolve(String term) {
+            if (!TriplePattern.isVariable(term)) {
+                return network.indexOf(term);
+            }
+            Neuron neuron = values[slots.get(term)];
+            return neuron != null ? network.indexOf(neuron.getId()) : -1;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public Binding next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Binding result = next;
+            produced++;
+            advance();
+            recordIfExhausted();
+            return result;
+        }
+    }
+}
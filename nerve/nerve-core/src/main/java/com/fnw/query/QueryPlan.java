@@ -0,0 +1,79 @@
+package com.fnw.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 查询计划
+ * 按执行顺序排列的三元组模式，以及每一步使用的访问路径和估计的结果数量。
+ */
+public class QueryPlan {
+    
+    /**
+     * 访问路径枚举
+     */
+    public enum AccessPath {
+        BOUND_ENDPOINTS,     // 主语和宾语都已绑定，遍历度数较小一端的邻接表
+        SUBJECT_ADJACENCY,   // 遍历已绑定主语的邻接表
+        OBJECT_ADJACENCY,    // 遍历已绑定宾语的邻接表
+        LABEL_INDEX,         // 遍历具有该关系描述的边
+        TYPE_INDEX,          // 遍历该关系类型的边
+        FULL_SCAN            // 遍历所有边
+    }
+    
+    /**
+     * 计划中的一步
+     */
+    public static class Step {
+        
+        private final TriplePattern pattern;
+        
+        private final AccessPath accessPath;
+        
+        // 估计的累计结果数量
+        private final double estimatedRows;
+        
+        Step(TriplePattern pattern, AccessPath accessPath, double estimatedRows) {
+            this.pattern = pattern;
+            this.accessPath = accessPath;
+            this.estimatedRows = estimatedRows;
+        }
+        
+        public TriplePattern getPattern() {
+            return pattern;
+        }
+        
+        public AccessPath getAccessPath() {
+            return accessPath;
+        }
+        
+        public double getEstimatedRows() {
+            return estimatedRows;
+        }
+        
+        @Override
+        public String toString() {
+            return pattern + " [" + accessPath + ", rows≈" + String.format("%.1f", estimatedRows) + "]";
+        }
+    }
+    
+    private final List<Step> steps;
+    
+    QueryPlan(List<Step> steps) {
+        this.steps = steps;
+    }
+    
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("QueryPlan{\n");
+        for (Step step : steps) {
+            sb.append("  ").append(step).append("\n");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.fnw.query;
+
+import com.fnw.model.Edge;
+
+/**
+ * 三元组模式
+ * 形如 ?x -[是一种:CAUSALITY]-> ?y，表示从主语到宾语的一条边。
+ * 主语和宾语以“?”开头时为变量，否则为神经元ID；
+ * 关系描述对应边上的信息，关系类型对应边的关系类型，为null时不作限制。
+ */
+public class TriplePattern {
+    
+    private final String subject;
+    
+    private final String label;
+    
+    private final Edge.RelationshipType relationshipType;
+    
+    private final String object;
+    
+    public TriplePattern(String subject, String label, Edge.RelationshipType relationshipType, String object) {
+        if (subject == null || object == null) {
+            throw new IllegalArgumentException("主语和宾语不能为空");
+        }
+        this.subject = subject;
+        this.label = label;
+        this.relationshipType = relationshipType;
+        this.object = object;
+    }
+    
+    /**
+     * 判断一项是否为变量
+     * @param term 主语或宾语
+     * @return 是否为变量
+     */
+    public static boolean isVariable(String term) {
+        return term.startsWith("?");
+    }
+    
+    /**
+     * 判断边的信息和类型是否满足模式（不含端点）
+     * @param edge 边
+     * @return 是否满足
+     */
+    boolean matchesEdge(Edge edge) {
+        if (relationshipType != null && edge.getRelationshipType() != relationshipType) {
+            return false;
+        }
+        return label == null || label.equals(edge.getLabel());
+    }
+    
+    // Getter methods
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public Edge.RelationshipType getRelationshipType() {
+        return relationshipType;
+    }
+    
+    public String getObject() {
+        return object;
+    }
+    
+    @Override
+    public String toString() {
+        return subject + " -[" + (label != null ? label : "")
+                + (relationshipType != null ? ":" + relationshipType : "") + "]-> " + object;
+    }
+}
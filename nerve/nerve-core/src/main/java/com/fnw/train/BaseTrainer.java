@@ -1,9 +1,13 @@
 package com.fnw.train;
 
+import com.fnw.jfr.FlightEvents;
+import com.fnw.jfr.TrainingEpochEvent;
+import com.fnw.jfr.TrainingSampleEvent;
 import com.fnw.model.NeuralNetwork;
 import com.fnw.model.Neuron;
-import com.fnw.model.Edge;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -19,44 +23,195 @@ public class BaseTrainer implements Trainer {
     // 学习率
     protected double learningRate;
     
+    // 学习规则，为null时不调整边的权重
+    protected LearningRule learningRule;
+    
+    // 神经发生，为null时不创建新边
+    protected Neurogenesis neurogenesis;
+    
+    // 突触剪枝，为null时不剪枝
+    protected SynapticPruner pruner;
+    
+    // 最近一次自动剪枝的结果
+    private PruneResult lastPruneResult;
+    
+    // 提前停止条件，为null时总是训练完全部轮数
+    protected EarlyStopping earlyStopping;
+    
+    // 最近一轮的权重变化量，没有更新权重时为NaN
+    private double lastMaxWeightDelta = Double.NaN;
+    
+    private double lastL2WeightDelta = Double.NaN;
+    
+    // 最近一次训练实际完成的轮数
+    private int epochsTrained;
+    
+    // 增量维护的训练指标
+    protected final TrainingMetrics metrics;
+    
+    // 训练监听器，为空时训练过程不生成任何事件
+    private final List<ListenerRegistration> listeners;
+    
+    // 需要样本事件的监听器数量
+    private int sampleListeners;
+    
+    // 本次训练累计处理的样本数量和更新边的次数，随轮次事件发送
+    private long totalSamples;
+    
+    private long totalEdgeUpdates;
+    
+    // 当前训练的轮次
+    private int currentEpoch;
+    
+    // 样本顺序，为null时按数据集中的原始顺序
+    protected SampleOrder sampleOrder;
+    
+    // 已经生成样本顺序的轮数，作为下一轮的轮次
+    private int orderedEpochs;
+    
+    // 本轮是否在录制JFR样本事件
+    private boolean recordSamples;
+    
+    // 当前一轮的JFR事件，未开启录制时为null
+    private TrainingEpochEvent epochEvent;
+    
+    // 当前一轮是否已经开始
+    private boolean epochOpen;
+    
+    // 是否在 train 的主循环中，主循环在剪枝之后自己结束每一轮
+    private boolean inTrainingLoop;
+    
+    // 本轮处理的样本数量
+    private int epochSamples;
+    
+    // 自训练开始以来开始的轮数，作为下一轮的轮次
+    private int startedEpochs;
+    
     public BaseTrainer() {
-        this.random = new Random();
-        this.learningRate = 0.01;
+        this(null, 0.01);
     }
     
     public BaseTrainer(double learningRate) {
+        this(null, learningRate);
+    }
+    
+    public BaseTrainer(LearningRule learningRule, double learningRate) {
         this.random = new Random();
+        this.learningRule = learningRule;
         this.learningRate = learningRate;
+        this.metrics = new TrainingMetrics();
+        this.listeners = new ArrayList<>();
+        this.sampleListeners = 0;
     }
     
     @Override
     public void train(NeuralNetwork network, int epochs) {
-        for (int i = 0; i < epochs; i++) {
-            trainEpoch(network);
-            
-            // 每100轮输出一次训练信息
-            if (i % 100 == 0) {
-                double score = evaluate(network);
-                System.out.println("Epoch: " + i + ", Score: " + score);
-            }
-        }
+        runEpochs(network, null, epochs);
     }
     
     @Override
     public void train(NeuralNetwork network, Dataset dataset, int epochs) {
-        for (int i = 0; i < epochs; i++) {
-            trainEpoch(network, dataset);
-            
-            // 每100轮输出一次训练信息
-            if (i % 100 == 0) {
-                double score = evaluate(network);
-                System.out.println("Epoch: " + i + ", Score: " + score);
+        runEpochs(network, dataset, epochs);
+    }
+    
+    /**
+     * 训练主循环，数据集为null时使用随机训练
+     */
+    private void runEpochs(NeuralNetwork network, Dataset dataset, int epochs) {
+        startTraining();
+        boolean notify = !listeners.isEmpty();
+        if (notify) {
+            fireTrainingStart(network, epochs);
+        }
+        inTrainingLoop = true;
+        try {
+            for (int i = 0; i < epochs; i++) {
+                lastMaxWeightDelta = Double.NaN;
+                lastL2WeightDelta = Double.NaN;
+                long start = notify ? fireEpochStart(i) : 0L;
+                openEpoch();
+                
+                if (dataset == null) {
+                    trainEpoch(network);
+                } else {
+                    trainEpoch(network, dataset);
+                }
+                epochsTrained = i + 1;
+                pruneIfDue(network, i + 1);
+                closeEpoch(network);
+                
+                boolean converged = hasConverged();
+                if (notify) {
+                    int samples = dataset == null || dataset.size() == 0 ? 1 : dataset.size();
+                    fireEpochEnd(network, i, samples, start, converged || i == epochs - 1);
+                }
+                
+                if (converged) {
+                    break;
+                }
             }
+        } finally {
+            inTrainingLoop = false;
+            epochOpen = false;
+            epochEvent = null;
+            recordSamples = false;
+            currentEpoch = 0;
+        }
+        if (notify) {
+            fireTrainingEnd();
+        }
+    }
+    
+    /**
+     * 开始一轮训练并开始记录JFR事件，本轮已经开始时什么也不做
+     * train 的主循环和各个 trainEpoch 实现都经过这里，直接调用 trainEpoch 时同样生成事件
+     */
+    private void openEpoch() {
+        if (epochOpen) {
+            return;
+        }
+        epochOpen = true;
+        currentEpoch = startedEpochs++;
+        epochSamples = 0;
+        epochEvent = FlightEvents.AVAILABLE ? TrainingEpochEvent.start(getClass(), currentEpoch) : null;
+        recordSamples = FlightEvents.AVAILABLE && TrainingSampleEvent.isRecording();
+    }
+    
+    /**
+     * 结束本轮训练并提交JFR事件
+     */
+    private void closeEpoch(NeuralNetwork network) {
+        if (!epochOpen) {
+            return;
+        }
+        epochOpen = false;
+        if (epochEvent != null) {
+            epochEvent.finish(epochSamples, edgeUpdates(network, epochSamples));
+            epochEvent = null;
+        }
+        recordSamples = false;
+    }
+    
+    /**
+     * trainEpoch 结束时调用，在主循环中时由主循环结束本轮
+     */
+    private void closeDirectEpoch(NeuralNetwork network) {
+        if (!inTrainingLoop) {
+            closeEpoch(network);
         }
     }
     
+    /**
+     * 计入在 {@link #endSample(EdgeBatch, int)} 之外处理的样本，只影响JFR事件中的样本数量
+     * @param samples 样本数量
+     */
+    protected final void countSamples(int samples) {
+        epochSamples += samples;
+    }
+    
     @Override
     public void trainEpoch(NeuralNetwork network) {
+        openEpoch();
         // 在基础实现中，我们随机激活一些神经元
         // 在更复杂的实现中，这里会包含实际的训练逻辑
         for (Neuron neuron : network.getNeurons()) {
@@ -67,11 +222,15 @@ public class BaseTrainer implements Trainer {
                 neuron.setActivated(false);
             }
         }
+        network.markStateChanged();
         
-        // 调整边的权重（在基础实现中，我们只是随机调整）
-        for (Edge edge : network.getEdges()) {
-            // 这里可以添加调整边权重的逻辑
-            // 在实际实现中，会根据神经元的激活状态和学习规则来调整
+        // 根据学习规则调整边的权重
+        if (needsBatch()) {
+            applyLearningRule(network);
+        } else {
+            metrics.invalidate();
+            epochSamples++;
+            closeDirectEpoch(network);
         }
     }
     
@@ -83,42 +242,318 @@ public class BaseTrainer implements Trainer {
             return;
         }
         
-        // 遍历数据集中的所有样本
+        // 整轮只编译一次边批次，每个样本只更新激活状态
+        EdgeBatch batch = beginEpoch(network);
+        
+        // 按本轮的样本顺序遍历数据集
+        int[] order = nextOrder(dataset.size());
         for (int i = 0; i < dataset.size(); i++) {
-            Map<String, Boolean> sample = dataset.getSample(i);
+            Map<String, Boolean> sample = dataset.getSample(order != null ? order[i] : i);
             
             // 根据样本数据设置神经元的激活状态
             for (Map.Entry<String, Boolean> entry : sample.entrySet()) {
-                Neuron neuron = network.getNeuron(entry.getKey());
-                if (neuron != null) {
-                    neuron.setActivated(entry.getValue());
+                int index = network.indexOf(entry.getKey());
+                if (index >= 0) {
+                    activate(network, batch, index, entry.getValue());
                 }
             }
             
-            // 应用训练逻辑（在基础实现中，我们只是随机调整）
-            for (Edge edge : network.getEdges()) {
-                // 这里可以添加调整边权重的逻辑
-                // 在实际实现中，会根据神经元的激活状态和学习规则来调整
+            endSample(batch, i);
+        }
+        
+        finishEpoch(network, batch);
+    }
+    
+    /**
+     * 生成下一轮的样本顺序
+     * 轮次在每次训练开始时从0计数，直接调用 trainEpoch 时也会递增
+     * @param size 样本数量
+     * @return 样本下标的排列，按原始顺序时为null
+     */
+    protected int[] nextOrder(int size) {
+        int epoch = orderedEpochs++;
+        if (sampleOrder == null) {
+            return null;
+        }
+        int[] order = sampleOrder.order(size, epoch);
+        if (order.length != size) {
+            throw new IllegalStateException("样本顺序的长度与样本数量不一致: " + order.length);
+        }
+        return order;
+    }
+    
+    /**
+     * 开始一轮按样本的训练
+     * @param network 神经网络
+     * @return 本轮使用的边批次，不需要调整边时为null
+     */
+    protected EdgeBatch beginEpoch(NeuralNetwork network) {
+        openEpoch();
+        if (needsBatch()) {
+            return EdgeBatch.compile(network, metrics);
+        }
+        metrics.invalidate();
+        return null;
+    }
+    
+    /**
+     * 设置一个神经元的激活状态，并同步到边批次
+     * @param network 神经网络
+     * @param batch 边批次，可以为null
+     * @param index 神经元下标
+     * @param activated 是否激活
+     */
+    protected final void activate(NeuralNetwork network, EdgeBatch batch, int index, boolean activated) {
+        network.getNeuron(index).setActivated(activated);
+        network.markStateChanged();
+        if (batch != null) {
+            batch.setActivated(index, activated);
+            metrics.acknowledge();
+        }
+    }
+    
+    /**
+     * 一个样本的激活状态设置完成后，应用学习规则并通知监听器
+     * @param batch 边批次，可以为null
+     * @param sample 样本在本轮中的位置
+     */
+    protected final void endSample(EdgeBatch batch, int sample) {
+        epochSamples++;
+        TrainingSampleEvent event = recordSamples ? TrainingSampleEvent.start(currentEpoch, sample) : null;
+        if (batch != null) {
+            processSample(batch);
+        }
+        if (event != null) {
+            event.finish(batch != null && learningRule != null ? batch.size() : 0);
+        }
+        if (sampleListeners > 0) {
+            fireSampleProcessed(sample);
+        }
+    }
+    
+    /**
+     * 按神经元当前的激活状态对所有边应用一次学习规则，并统计神经发生
+     * @param network 神经网络
+     */
+    protected void applyLearningRule(NeuralNetwork network) {
+        if (!needsBatch()) {
+            return;
+        }
+        openEpoch();
+        EdgeBatch batch = EdgeBatch.compile(network, metrics);
+        processSample(batch);
+        epochSamples++;
+        finishEpoch(network, batch);
+    }
+    
+    private boolean needsBatch() {
+        return learningRule != null || neurogenesis != null || tracksUsage();
+    }
+    
+    private boolean tracksUsage() {
+        return pruner != null && pruner.getUnusedEpochs() > 0;
+    }
+    
+    /**
+     * 对一个样本应用学习规则，并统计共同激活和边的使用情况
+     */
+    private void processSample(EdgeBatch batch) {
+        if (learningRule != null) {
+            learningRule.apply(batch, learningRate);
+        }
+        if (neurogenesis != null) {
+            neurogenesis.observe(batch);
+        }
+        if (tracksUsage()) {
+            batch.markUsed();
+        }
+    }
+    
+    /**
+     * 一轮结束时写回权重，更新边的未使用轮数，并创建新边
+     * @param network 神经网络
+     * @param batch 边批次，为null时只结束本轮
+     */
+    protected final void finishEpoch(NeuralNetwork network, EdgeBatch batch) {
+        if (batch != null) {
+            finishBatch(network, batch);
+        }
+        closeDirectEpoch(network);
+    }
+    
+    private void finishBatch(NeuralNetwork network, EdgeBatch batch) {
+        if (learningRule != null) {
+            batch.writeBack();
+            lastMaxWeightDelta = batch.getMaxWeightDelta();
+            lastL2WeightDelta = batch.getL2WeightDelta();
+        }
+        if (tracksUsage()) {
+            batch.updateIdleEpochs();
+        }
+        // 新边在权重写回之后创建，不参与本轮的权重更新
+        if (neurogenesis != null) {
+            neurogenesis.promote(network);
+        }
+    }
+    
+    /**
+     * 注册训练监听器，每轮都接收事件，不接收样本事件
+     * @param listener 监听器
+     */
+    public void addListener(TrainingListener listener) {
+        addListener(listener, 1, 0);
+    }
+    
+    /**
+     * 注册训练监听器
+     * @param listener 监听器
+     * @param epochInterval 每隔多少轮发送一次轮次事件，必须为正数；训练的最后一轮总会发送轮次结束事件
+     * @param sampleInterval 每隔多少个样本发送一次样本事件，0表示不发送
+     */
+    public void addListener(TrainingListener listener, int epochInterval, int sampleInterval) {
+        if (listener == null) {
+            throw new IllegalArgumentException("监听器不能为null");
+        }
+        if (epochInterval <= 0) {
+            throw new IllegalArgumentException("轮次间隔必须为正数");
+        }
+        if (sampleInterval < 0) {
+            throw new IllegalArgumentException("样本间隔不能为负数");
+        }
+        listeners.add(new ListenerRegistration(listener, epochInterval, sampleInterval));
+        if (sampleInterval > 0) {
+            sampleListeners++;
+        }
+    }
+    
+    /**
+     * 移除训练监听器
+     * @param listener 监听器
+     * @return 是否移除
+     */
+    public boolean removeListener(TrainingListener listener) {
+        for (int i = 0; i < listeners.size(); i++) {
+            ListenerRegistration registration = listeners.get(i);
+            if (registration.listener == listener) {
+                listeners.remove(i);
+                if (registration.sampleInterval > 0) {
+                    sampleListeners--;
+                }
+                return true;
             }
         }
+        return false;
     }
     
-    @Override
-    public double evaluate(NeuralNetwork network) {
-        // 基础评估函数，计算激活神经元的比例
-        int totalNeurons = network.getNeurons().size();
-        if (totalNeurons == 0) {
-            return 0.0;
+    private void fireTrainingStart(NeuralNetwork network, int epochs) {
+        for (ListenerRegistration registration : listeners) {
+            registration.listener.onTrainingStart(network, epochs);
         }
-        
-        int activatedNeurons = 0;
-        for (Neuron neuron : network.getNeurons()) {
-            if (neuron.isActivated()) {
-                activatedNeurons++;
+    }
+    
+    private long fireEpochStart(int epoch) {
+        for (ListenerRegistration registration : listeners) {
+            if (epoch % registration.epochInterval == 0) {
+                registration.listener.onEpochStart(epoch);
             }
         }
-        
-        return (double) activatedNeurons / totalNeurons;
+        return System.nanoTime();
+    }
+    
+    private void fireSampleProcessed(int sample) {
+        for (ListenerRegistration registration : listeners) {
+            if (registration.sampleInterval > 0 && sample % registration.sampleInterval == 0) {
+                registration.listener.onSampleProcessed(currentEpoch, sample);
+            }
+        }
+    }
+    
+    /**
+     * 发送轮次结束事件
+     * 最后一轮总是发送给所有监听器，使间隔大于1的监听器也能拿到完整的累计值
+     */
+    private void fireEpochEnd(NeuralNetwork network, int epoch, int samples, long start, boolean last) {
+        long elapsed = System.nanoTime() - start;
+        long updates = edgeUpdates(network, samples);
+        totalSamples += samples;
+        totalEdgeUpdates += updates;
+        EpochSummary summary = null;
+        for (ListenerRegistration registration : listeners) {
+            if (epoch % registration.epochInterval != 0 && !last) {
+                continue;
+            }
+            // 只在有监听器需要时生成快照
+            if (summary == null) {
+                metrics.synchronize(network);
+                summary = new EpochSummary(epoch, samples, lastMaxWeightDelta, lastL2WeightDelta,
+                        metrics.getMeanWeight(), metrics.getSaturatedFraction(), metrics.getActivatedFraction(),
+                        network.getEdgeCount(), updates, elapsed, totalSamples, totalEdgeUpdates);
+            }
+            registration.listener.onEpochEnd(summary);
+        }
+    }
+    
+    /**
+     * 一轮中学习规则更新的边数量，每个样本更新一遍所有边
+     */
+    private long edgeUpdates(NeuralNetwork network, int samples) {
+        return learningRule != null ? (long) network.getEdgeCount() * samples : 0L;
+    }
+    
+    private void fireTrainingEnd() {
+        for (ListenerRegistration registration : listeners) {
+            registration.listener.onTrainingEnd(epochsTrained);
+        }
+    }
+    
+    /**
+     * 达到剪枝间隔时剪除弱边
+     * @param network 神经网络
+     * @param completedEpochs 已完成的轮数
+     */
+    protected void pruneIfDue(NeuralNetwork network, int completedEpochs) {
+        if (pruner != null && pruner.isDue(completedEpochs)) {
+            lastPruneResult = pruner.prune(network);
+        }
+    }
+    
+    private void startTraining() {
+        epochsTrained = 0;
+        orderedEpochs = 0;
+        startedEpochs = 0;
+        totalSamples = 0L;
+        totalEdgeUpdates = 0L;
+        epochOpen = false;
+        if (learningRule != null) {
+            learningRule.reset();
+        }
+        if (earlyStopping != null) {
+            earlyStopping.reset();
+        }
+    }
+    
+    /**
+     * 根据最近一轮的权重变化量判断是否可以提前停止
+     * @return 是否收敛
+     */
+    protected boolean hasConverged() {
+        return earlyStopping != null && earlyStopping.update(lastMaxWeightDelta, lastL2WeightDelta);
+    }
+    
+    @Override
+    public double evaluate(NeuralNetwork network) {
+        // 基础评估函数，返回激活神经元的比例
+        metrics.synchronize(network);
+        return metrics.getActivatedFraction();
+    }
+    
+    /**
+     * 获取训练指标
+     * 训练过程中增量维护；训练器以外修改网络后，读取前先调用 {@link TrainingMetrics#synchronize(NeuralNetwork)}
+     * @return 训练指标
+     */
+    public TrainingMetrics getMetrics() {
+        return metrics;
     }
     
     // Getter and Setter methods
@@ -129,4 +564,82 @@ public class BaseTrainer implements Trainer {
     public void setLearningRate(double learningRate) {
         this.learningRate = learningRate;
     }
+    
+    public LearningRule getLearningRule() {
+        return learningRule;
+    }
+    
+    public void setLearningRule(LearningRule learningRule) {
+        this.learningRule = learningRule;
+    }
+    
+    public Neurogenesis getNeurogenesis() {
+        return neurogenesis;
+    }
+    
+    public void setNeurogenesis(Neurogenesis neurogenesis) {
+        this.neurogenesis = neurogenesis;
+    }
+    
+    public SynapticPruner getPruner() {
+        return pruner;
+    }
+    
+    public void setPruner(SynapticPruner pruner) {
+        this.pruner = pruner;
+    }
+    
+    public PruneResult getLastPruneResult() {
+        return lastPruneResult;
+    }
+    
+    public SampleOrder getSampleOrder() {
+        return sampleOrder;
+    }
+    
+    public void setSampleOrder(SampleOrder sampleOrder) {
+        this.sampleOrder = sampleOrder;
+    }
+    
+    public EarlyStopping getEarlyStopping() {
+        return earlyStopping;
+    }
+    
+    public void setEarlyStopping(EarlyStopping earlyStopping) {
+        this.earlyStopping = earlyStopping;
+    }
+    
+    /**
+     * 获取最近一次训练实际完成的轮数，提前停止时小于请求的轮数
+     * @return 完成的轮数
+     */
+    public int getEpochsTrained() {
+        return epochsTrained;
+    }
+    
+    public double getLastMaxWeightDelta() {
+        return lastMaxWeightDelta;
+    }
+    
+    public double getLastL2WeightDelta() {
+        return lastL2WeightDelta;
+    }
+    
+    /**
+     * 监听器及其采样间隔
+     */
+    private static class ListenerRegistration {
+        
+        final TrainingListener listener;
+        
+        final int epochInterval;
+        
+        final int sampleInterval;
+        
+        ListenerRegistration(TrainingListener listener, int epochInterval, int sampleInterval) {
+            this.listener = listener;
+            this.epochInterval = epochInterval;
+            this.sampleInterval = sampleInterval;
+        }
+    }
 }
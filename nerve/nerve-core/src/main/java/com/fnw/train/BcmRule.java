@@ -0,0 +1,75 @@
+package com.fnw.train;
+
+import java.util.Arrays;
+
+/**
+ * BCM学习规则
+ * Δw = η·x·y·(y − θ)，θ为目标神经元的滑动阈值，跟随 y² 的滑动平均变化。
+ * 目标神经元越经常被激活，阈值越高，增强越慢。
+ */
+public final class BcmRule implements LearningRule {
+    
+    // 阈值的滑动平均速率
+    private final double thresholdRate;
+    
+    // 每个神经元的滑动阈值
+    private double[] thresholds;
+    
+    // 阈值对应的神经元下标版本
+    private int indexVersion;
+    
+    public BcmRule() {
+        this(0.1);
+    }
+    
+    public BcmRule(double thresholdRate) {
+        if (thresholdRate <= 0.0 || thresholdRate > 1.0) {
+            throw new IllegalArgumentException("阈值速率必须在(0, 1]范围内");
+        }
+        this.thresholdRate = thresholdRate;
+        this.thresholds = new double[0];
+    }
+    
+    @Override
+    public void apply(EdgeBatch batch, double learningRate) {
+        int[] from = batch.getFrom();
+        int[] to = batch.getTo();
+        double[] weights = batch.getWeights();
+        boolean[] active = batch.getActive();
+        if (indexVersion != batch.getIndexVersion()) {
+            // 删除神经元后下标已经变化，原来的阈值不再对应同一个神经元
+            Arrays.fill(thresholds, 0.0);
+            indexVersion = batch.getIndexVersion();
+        }
+        if (thresholds.length < batch.getNeuronCount()) {
+            thresholds = Arrays.copyOf(thresholds, batch.getNeuronCount());
+        }
+        double[] theta = thresholds;
+        
+        for (int i = 0; i < weights.length; i++) {
+            double x = active[from[i]] ? 1.0 : 0.0;
+            double y = active[to[i]] ? 1.0 : 0.0;
+            weights[i] = LearningRule.clamp(weights[i] + learningRate * x * y * (y - theta[to[i]]));
+        }
+        
+        // 激活值只有0和1，y² = y
+        for (int j = 0; j < batch.getNeuronCount(); j++) {
+            double y = active[j] ? 1.0 : 0.0;
+            theta[j] += thresholdRate * (y - theta[j]);
+        }
+    }
+    
+    @Override
+    public void reset() {
+        Arrays.fill(thresholds, 0.0);
+    }
+    
+    /**
+     * 获取神经元的滑动阈值
+     * @param neuron 神经元下标
+     * @return 滑动阈值
+     */
+    public double getThreshold(int neuron) {
+        return neuron < thresholds.length ? thresholds[neuron] : 0.0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.fnw.train;
+
+import com.fnw.model.NeuralNetwork;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 编译后的样本
+ * 神经元ID已经解析为网络中的下标，训练时不再查找映射。网络中不存在的神经元被忽略。
+ */
+final class CompiledSample {
+    
+    // 表示样本结束的标记
+    static final CompiledSample END = new CompiledSample(-1, new int[0], new boolean[0]);
+    
+    // 样本在数据集中的位置
+    final int position;
+    
+    final int[] neurons;
+    
+    final boolean[] activations;
+    
+    CompiledSample(int position, int[] neurons, boolean[] activations) {
+        this.position = position;
+        this.neurons = neurons;
+        this.activations = activations;
+    }
+    
+    /**
+     * 把样本中的神经元ID解析为下标
+     * @param network 神经网络
+     * @param position 样本在数据集中的位置
+     * @param sample 样本数据
+     * @return 编译后的样本
+     */
+    static CompiledSample compile(NeuralNetwork network, int position, Map<String, Boolean> sample) {
+        int[] neurons = new int[sample.size()];
+        boolean[] activations = new boolean[sample.size()];
+        int count = 0;
+        for (Map.Entry<String, Boolean> entry : sample.entrySet()) {
+            int index = network.indexOf(entry.getKey());
+            if (index >= 0) {
+                neurons[count] = index;
+                activations[count] = entry.getValue();
+                count++;
+            }
+        }
+        if (count < neurons.length) {
+            neurons = Arrays.copyOf(neurons, count);
+            activations = Arrays.copyOf(activations, count);
+        }
+        return new CompiledSample(position, neurons, activations);
+    }
+}
@@ -0,0 +1,75 @@
+package com.fnw.train;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 把每轮的指标快照写成CSV，每轮一行
+ */
+public class CsvTrainingListener implements TrainingListener, Closeable {
+    
+    static final String HEADER = "epoch,samples,max_weight_delta,l2_weight_delta,mean_weight,"
+            + "saturated_fraction,activated_fraction,edges,elapsed_ms";
+    
+    private final Writer writer;
+    
+    private boolean headerWritten;
+    
+    public CsvTrainingListener(Writer writer) {
+        this.writer = writer;
+        this.headerWritten = false;
+    }
+    
+    public CsvTrainingListener(Path path) throws IOException {
+        this(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public void onEpochEnd(EpochSummary summary) {
+        try {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+            writer.write(String.format(Locale.ROOT, "%d,%d,%s,%s,%.6f,%.6f,%.6f,%d,%.3f%n",
+                    summary.getEpoch(),
+                    summary.getSamples(),
+                    format(summary.getMaxWeightDelta()),
+                    format(summary.getL2WeightDelta()),
+                    summary.getMeanWeight(),
+                    summary.getSaturatedFraction(),
+                    summary.getActivatedFraction(),
+                    summary.getEdgeCount(),
+                    summary.getElapsedNanos() / 1e6));
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入训练日志失败", e);
+        }
+    }
+    
+    // 没有更新权重的轮次留空
+    private static String format(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.6g", value);
+    }
+    
+    @Override
+    public void onTrainingEnd(int epochsTrained) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入训练日志失败", e);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -31,6 +31,9 @@ public interface Dataset {
     
     /**
      * 随机打乱数据集
+     * @deprecated 会修改数据集本身，无法按轮次复现，也不能在其他线程读取时调用；
+     *             改用 {@link BaseTrainer#setSampleOrder(SampleOrder)} 指定每轮的样本顺序
      */
+    @Deprecated
     void shuffle();
 }
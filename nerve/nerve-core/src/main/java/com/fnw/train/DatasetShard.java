@@ -0,0 +1,59 @@
+package com.fnw.train;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据集分片
+ * 只读视图，按编号间隔选取样本：第 rank 片包含下标为 rank、rank + count、rank + 2·count ... 的样本。
+ */
+public class DatasetShard implements Dataset {
+    
+    private final Dataset dataset;
+    
+    private final int rank;
+    
+    private final int count;
+    
+    public DatasetShard(Dataset dataset, int rank, int count) {
+        if (count <= 0 || rank < 0 || rank >= count) {
+            throw new IllegalArgumentException("分片编号超出范围: " + rank + "/" + count);
+        }
+        this.dataset = dataset;
+        this.rank = rank;
+        this.count = count;
+    }
+    
+    @Override
+    public int size() {
+        int total = dataset.size();
+        return total > rank ? (total - rank + count - 1) / count : 0;
+    }
+    
+    @Override
+    public Map<String, Boolean> getSample(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("样本索引超出范围: " + index);
+        }
+        return dataset.getSample(rank + index * count);
+    }
+    
+    @Override
+    public List<Map<String, Boolean>> getAllSamples() {
+        List<Map<String, Boolean>> samples = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            samples.add(getSample(i));
+        }
+        return samples;
+    }
+    
+    /**
+     * 分片是只读视图，不改变样本顺序
+     * @deprecated 使用 {@link BaseTrainer#setSampleOrder(SampleOrder)}
+     */
+    @Override
+    @Deprecated
+    public void shuffle() {
+    }
+}
@@ -0,0 +1,153 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 数据并行的分布式训练器
+ * 每个进程持有结构相同的网络（边的数量和顺序一致），只训练数据集中属于自己的分片；
+ * 每隔若干轮，各进程计算自上次同步以来权重的稀疏变化量，通过 {@link SocketAllReduce} 求平均，
+ * 再把平均变化量加到上次同步的权重上，同步后所有进程的权重完全相同。
+ * 训练结束时如果还有未同步的轮次，会再同步一次。
+ * 没有数据集时每个进程按自己网络当前的激活状态应用学习规则，同样按间隔同步。
+ * 神经发生、剪枝和提前停止会让各进程的网络结构或轮数不一致，不能与分布式训练同时使用。
+ */
+public class DistributedTrainer extends LearningRuleTrainer {
+    
+    private final SocketAllReduce communicator;
+    
+    // 每隔多少轮同步一次
+    private int syncInterval;
+    
+    // 上次同步时的权重
+    private double[] syncedWeights;
+    
+    // 上次同步以来训练的轮数
+    private int unsyncedEpochs;
+    
+    // 累计同步次数
+    private int synchronizations;
+    
+    public DistributedTrainer(LearningRule learningRule, double learningRate, SocketAllReduce communicator) {
+        super(learningRule, learningRate);
+        this.communicator = communicator;
+        this.syncInterval = 1;
+    }
+    
+    @Override
+    public void train(NeuralNetwork network, int epochs) {
+        train(network, null, epochs);
+    }
+    
+    @Override
+    public void train(NeuralNetwork network, Dataset dataset, int epochs) {
+        if (neurogenesis != null || pruner != null || earlyStopping != null) {
+            throw new IllegalStateException("分布式训练不支持神经发生、剪枝和提前停止");
+        }
+        syncedWeights = readWeights(network);
+        unsyncedEpochs = 0;
+        super.train(network, dataset, epochs);
+        if (unsyncedEpochs > 0) {
+            synchronize(network);
+        }
+    }
+    
+    @Override
+    public void trainEpoch(NeuralNetwork network) {
+        beginSyncEpoch(network);
+        super.trainEpoch(network);
+        endSyncEpoch(network);
+    }
+    
+    @Override
+    public void trainEpoch(NeuralNetwork network, Dataset dataset) {
+        if (dataset == null) {
+            trainEpoch(network);
+            return;
+        }
+        beginSyncEpoch(network);
+        Dataset shard = new DatasetShard(dataset, communicator.getRank(), communicator.getWorldSize());
+        // 没有分到样本的进程本轮不更新权重，但仍参与同步
+        if (shard.size() > 0) {
+            super.trainEpoch(network, shard);
+        }
+        endSyncEpoch(network);
+    }
+    
+    private void beginSyncEpoch(NeuralNetwork network) {
+        if (syncedWeights == null || syncedWeights.length != network.getEdgeCount()) {
+            syncedWeights = readWeights(network);
+        }
+    }
+    
+    private void endSyncEpoch(NeuralNetwork network) {
+        if (++unsyncedEpochs >= syncInterval) {
+            synchronize(network);
+        }
+    }
+    
+    /**
+     * 与其他进程交换权重变化量，并把平均后的权重写回网络
+     * @param network 神经网络
+     */
+    public void synchronize(NeuralNetwork network) {
+        double[] weights = readWeights(network);
+        SparseDelta average;
+        try {
+            average = communicator.average(SparseDelta.between(syncedWeights, weights), weights.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("同步权重失败", e);
+        }
+        
+        double[] merged = syncedWeights.clone();
+        average.addTo(merged);
+        int i = 0;
+        for (Edge edge : network.getEdges()) {
+            merged[i] = LearningRule.clamp(merged[i]);
+            if (merged[i] != weights[i]) {
+                edge.setWeight(merged[i]);
+            }
+            i++;
+        }
+        network.markStateChanged();
+        syncedWeights = merged;
+        unsyncedEpochs = 0;
+        synchronizations++;
+        metrics.invalidate();
+    }
+    
+    /**
+     * 按边集合的遍历顺序读取权重
+     */
+    private static double[] readWeights(NeuralNetwork network) {
+        double[] weights = new double[network.getEdgeCount()];
+        int i = 0;
+        for (Edge edge : network.getEdges()) {
+            weights[i++] = edge.getWeight(0.0);
+        }
+        return weights;
+    }
+    
+    // Getter and Setter methods
+    public SocketAllReduce getCommunicator() {
+        return communicator;
+    }
+    
+    public int getSyncInterval() {
+        return syncInterval;
+    }
+    
+    public void setSyncInterval(int syncInterval) {
+        if (syncInterval <= 0) {
+            throw new IllegalArgumentException("同步间隔必须为正数");
+        }
+        this.syncInterval = syncInterval;
+    }
+    
+    public int getSynchronizations() {
+        return synchronizations;
+    }
+}
@@ -0,0 +1,74 @@
+package com.fnw.train;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 分布式训练示例
+ * 在多个JVM中分别运行，每个进程使用相同种子生成相同的网络和数据集：
+ * java com.fnw.train.DistributedTrainingExample 0 2 9400
+ * java com.fnw.train.DistributedTrainingExample 1 2 9400
+ * 参数依次为进程编号、进程总数、协调者端口，以及可选的协调者主机名（默认localhost）。
+ */
+public class DistributedTrainingExample {
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("用法: DistributedTrainingExample <进程编号> <进程总数> <端口> [主机]");
+            return;
+        }
+        int rank = Integer.parseInt(args[0]);
+        int worldSize = Integer.parseInt(args[1]);
+        int port = Integer.parseInt(args[2]);
+        String host = args.length > 3 ? args[3] : "localhost";
+        
+        NeuralNetwork network = new WattsStrogatzGenerator(500, 6, 0.1, 7L).generateNetwork();
+        SimpleDataset dataset = createDataset(network, 200, 7L);
+        
+        try (SocketAllReduce communicator = SocketAllReduce.join(rank, worldSize,
+                new InetSocketAddress(host, port), 30000)) {
+            DistributedTrainer trainer = new DistributedTrainer(new HebbianRule(), 0.001, communicator);
+            trainer.setSyncInterval(2);
+            trainer.train(network, dataset, 5);
+            
+            System.out.println("进程 " + rank + " 同步次数: " + trainer.getSynchronizations()
+                    + ", 发送字节: " + communicator.getBytesSent()
+                    + ", 接收字节: " + communicator.getBytesReceived());
+            System.out.println("checksum=" + checksum(network));
+        }
+    }
+    
+    /**
+     * 使用固定种子创建数据集，每个样本激活约四分之一的神经元
+     */
+    static SimpleDataset createDataset(NeuralNetwork network, int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SimpleDataset dataset = new SimpleDataset();
+        for (int s = 0; s < size; s++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            for (int k = 0; k < 50; k++) {
+                sample.put(network.getNeuron(random.nextInt(network.getNeuronCount())).getId(), random.nextInt(4) == 0);
+            }
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+    
+    /**
+     * 权重的校验和，用于确认所有进程的权重一致
+     */
+    static long checksum(NeuralNetwork network) {
+        long hash = 1125899906842597L;
+        for (Edge edge : network.getEdges()) {
+            hash = 31 * hash + Double.doubleToLongBits(edge.getWeight(0.0));
+        }
+        return hash;
+    }
+}
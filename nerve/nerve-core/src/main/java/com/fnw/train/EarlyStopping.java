@@ -0,0 +1,84 @@
+package com.fnw.train;
+
+/**
+ * 提前停止条件
+ * 每轮训练结束时检查本轮的权重变化量，连续若干轮不超过容差时认为训练已经收敛。
+ * 权重变化量在写回权重时顺带统计，不需要额外遍历网络。
+ */
+public class EarlyStopping {
+    
+    /**
+     * 权重变化量的度量方式
+     */
+    public enum Metric {
+        MAX,  // 单条边权重变化的最大绝对值
+        L2    // 所有边权重变化的L2范数
+    }
+    
+    // 容差
+    private final double tolerance;
+    
+    // 需要连续满足容差的轮数
+    private final int patience;
+    
+    private final Metric metric;
+    
+    // 已连续满足容差的轮数
+    private int stableEpochs;
+    
+    public EarlyStopping(double tolerance) {
+        this(tolerance, 1, Metric.MAX);
+    }
+    
+    public EarlyStopping(double tolerance, int patience, Metric metric) {
+        if (tolerance < 0.0) {
+            throw new IllegalArgumentException("容差不能为负数");
+        }
+        if (patience <= 0) {
+            throw new IllegalArgumentException("耐心轮数必须为正数");
+        }
+        this.tolerance = tolerance;
+        this.patience = patience;
+        this.metric = metric;
+        this.stableEpochs = 0;
+    }
+    
+    /**
+     * 记录一轮训练的权重变化量
+     * @param maxDelta 权重变化的最大绝对值，本轮没有更新权重时为NaN
+     * @param l2Delta 权重变化的L2范数，本轮没有更新权重时为NaN
+     * @return 是否应该停止训练
+     */
+    public boolean update(double maxDelta, double l2Delta) {
+        double delta = metric == Metric.MAX ? maxDelta : l2Delta;
+        if (Double.isNaN(delta)) {
+            return false;
+        }
+        stableEpochs = delta <= tolerance ? stableEpochs + 1 : 0;
+        return stableEpochs >= patience;
+    }
+    
+    /**
+     * 清除已连续满足容差的轮数，在每次训练开始时调用
+     */
+    public void reset() {
+        stableEpochs = 0;
+    }
+    
+    // Getter methods
+    public double getTolerance() {
+        return tolerance;
+    }
+    
+    public int getPatience() {
+        return patience;
+    }
+    
+    public Metric getMetric() {
+        return metric;
+    }
+    
+    public int getStableEpochs() {
+        return stableEpochs;
+    }
+}
@@ -0,0 +1,275 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 边批次
+ * 把网络中的边编译为端点下标数组和权重数组，供学习规则批量更新。
+ * 边的信息不是数字时权重视为0.0；训练结束后通过 {@link #writeBack()} 把权重写回边的信息。
+ * 端点不在网络中的边会为端点分配额外的下标，位于网络神经元之后。
+ */
+public class EdgeBatch {
+    
+    // 编译批次的网络，写回权重时增加其修改版本
+    private final NeuralNetwork network;
+    
+    private final Edge[] edges;
+    
+    // 下标对应的神经元，网络神经元在前，不在网络中的端点在后
+    private final Neuron[] neurons;
+    
+    // 网络中的神经元数量
+    private final int networkNeuronCount;
+    
+    // 编译时网络的神经元下标版本
+    private final int indexVersion;
+    
+    private final int[] from;
+    
+    private final int[] to;
+    
+    private final double[] weights;
+    
+    private final boolean[] active;
+    
+    // 本轮中两端神经元曾同时激活的边，未记录使用情况时为null
+    private boolean[] used;
+    
+    // 随权重写回和激活状态变化增量更新的训练指标，可以为null
+    private final TrainingMetrics metrics;
+    
+    // 写回时统计的权重变化量
+    private double maxWeightDelta;
+    
+    private double squaredWeightDelta;
+    
+    private EdgeBatch(NeuralNetwork network, Edge[] edges, Neuron[] neurons, int networkNeuronCount, int indexVersion,
+                      int[] from, int[] to, double[] weights, TrainingMetrics metrics) {
+        this.network = network;
+        this.edges = edges;
+        this.neurons = neurons;
+        this.networkNeuronCount = networkNeuronCount;
+        this.indexVersion = indexVersion;
+        this.from = from;
+        this.to = to;
+        this.weights = weights;
+        this.metrics = metrics;
+        this.active = new boolean[neurons.length];
+        loadActivations();
+    }
+    
+    /**
+     * 编译网络中的所有边
+     * @param network 神经网络
+     * @return 边批次
+     */
+    public static EdgeBatch compile(NeuralNetwork network) {
+        return compile(network, null);
+    }
+    
+    /**
+     * 编译网络中的所有边，并在读取权重和激活状态时重新统计训练指标
+     * @param network 神经网络
+     * @param metrics 训练指标，可以为null
+     * @return 边批次
+     */
+    public static EdgeBatch compile(NeuralNetwork network, TrainingMetrics metrics) {
+        if (metrics != null) {
+            metrics.reset(network);
+        }
+        // 边集合是跳过已删除边的视图，直接复制到批次的数组中
+        Edge[] edges = network.getEdges().toArray(new Edge[0]);
+        int edgeCount = edges.length;
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        
+        List<Neuron> neurons = new ArrayList<>(network.getNeurons());
+        Map<Neuron, Integer> foreign = new IdentityHashMap<>();
+        for (int i = 0; i < edgeCount; i++) {
+            Edge edge = edges[i];
+            from[i] = indexOf(network, neurons, foreign, edge.getFromNeuron());
+            to[i] = indexOf(network, neurons, foreign, edge.getToNeuron());
+            if (edge.hasWeight()) {
+                weights[i] = edge.getWeight(0.0);
+                if (metrics != null) {
+                    metrics.addWeight(weights[i]);
+                }
+            }
+        }
+        return new EdgeBatch(network, edges, neurons.toArray(new Neuron[0]), network.getNeuronCount(),
+                network.getIndexVersion(), from, to, weights, metrics);
+    }
+    
+    private static int indexOf(NeuralNetwork network, List<Neuron> neurons, Map<Neuron, Integer> foreign, Neuron neuron) {
+        int index = network.indexOf(neuron.getId());
+        if (index >= 0 && neurons.get(index) == neuron) {
+            return index;
+        }
+        Integer assigned = foreign.get(neuron);
+        if (assigned == null) {
+            assigned = neurons.size();
+            neurons.add(neuron);
+            foreign.put(neuron, assigned);
+        }
+        return assigned;
+    }
+    
+    /**
+     * 从神经元对象重新读取激活状态
+     */
+    public void loadActivations() {
+        int activated = 0;
+        for (int i = 0; i < neurons.length; i++) {
+            active[i] = neurons[i].isActivated();
+            if (active[i] && i < networkNeuronCount) {
+                activated++;
+            }
+        }
+        if (metrics != null) {
+            metrics.setActivation(activated, networkNeuronCount);
+            metrics.acknowledge();
+        }
+    }
+    
+    /**
+     * 设置下标对应神经元在批次中的激活状态（不修改神经元对象）
+     * @param neuron 神经元下标
+     * @param activated 是否激活
+     */
+    public void setActivated(int neuron, boolean activated) {
+        if (metrics != null && neuron < networkNeuronCount) {
+            metrics.activationChanged(active[neuron], activated);
+        }
+        active[neuron] = activated;
+    }
+    
+    /**
+     * 记录当前激活状态下两端神经元同时激活的边
+     */
+    public void markUsed() {
+        if (used == null) {
+            used = new boolean[edges.length];
+        }
+        for (int i = 0; i < edges.length; i++) {
+            used[i] |= active[from[i]] & active[to[i]];
+        }
+    }
+    
+    /**
+     * 根据本轮的使用情况更新每条边连续未使用的轮数
+     */
+    public void updateIdleEpochs() {
+        for (int i = 0; i < edges.length; i++) {
+            Edge edge = edges[i];
+            edge.setIdleEpochs(used != null && used[i] ? 0 : edge.getIdleEpochs() + 1);
+        }
+    }
+    
+    /**
+     * 把权重写回边的信息，同时统计与边上原有权重相比的变化量，并增加网络的修改版本
+     */
+    public void writeBack() {
+        double max = 0.0;
+        double squared = 0.0;
+        for (int i = 0; i < edges.length; i++) {
+            Edge edge = edges[i];
+            boolean numeric = edge.hasWeight();
+            double old = edge.getWeight(0.0);
+            double delta = Math.abs(weights[i] - old);
+            max = Math.max(max, delta);
+            squared += delta * delta;
+            if (metrics != null) {
+                if (numeric) {
+                    metrics.replaceWeight(old, weights[i]);
+                } else {
+                    metrics.addWeight(weights[i]);
+                }
+            }
+            edge.setWeight(weights[i]);
+        }
+        network.markStateChanged();
+        if (metrics != null) {
+            metrics.acknowledge();
+        }
+        maxWeightDelta = max;
+        squaredWeightDelta = squared;
+    }
+    
+    /**
+     * 获取最近一次写回时单条边权重变化的最大绝对值
+     * @return 最大变化量
+     */
+    public double getMaxWeightDelta() {
+        return maxWeightDelta;
+    }
+    
+    /**
+     * 获取最近一次写回时所有边权重变化的L2范数
+     * @return L2变化量
+     */
+    public double getL2WeightDelta() {
+        return Math.sqrt(squaredWeightDelta);
+    }
+    
+    /**
+     * 获取边的数量
+     * @return 边的数量
+     */
+    public int size() {
+        return edges.length;
+    }
+    
+    /**
+     * 获取神经元下标的数量，包括不在网络中的端点
+     * @return 神经元下标的数量
+     */
+    public int getNeuronCount() {
+        return neurons.length;
+    }
+    
+    /**
+     * 获取网络中的神经元数量，下标小于该数量的神经元属于网络
+     * @return 网络中的神经元数量
+     */
+    public int getNetworkNeuronCount() {
+        return networkNeuronCount;
+    }
+    
+    /**
+     * 获取编译时网络的神经元下标版本
+     * 按神经元下标保存状态的学习规则用它判断下标是否因删除神经元而变化
+     * @return 版本号
+     * @see NeuralNetwork#getIndexVersion()
+     */
+    public int getIndexVersion() {
+        return indexVersion;
+    }
+    
+    public Edge getEdge(int index) {
+        return edges[index];
+    }
+    
+    public int[] getFrom() {
+        return from;
+    }
+    
+    public int[] getTo() {
+        return to;
+    }
+    
+    public double[] getWeights() {
+        return weights;
+    }
+    
+    public boolean[] getActive() {
+        return active;
+    }
+}
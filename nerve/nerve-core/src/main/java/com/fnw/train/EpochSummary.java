@@ -0,0 +1,130 @@
+package com.fnw.train;
+
+/**
+ * 一轮训练结束时的指标快照
+ */
+public class EpochSummary {
+    
+    // 轮次，从0开始
+    private final int epoch;
+    
+    // 本轮处理的样本数量
+    private final int samples;
+    
+    // 权重变化量，本轮没有更新权重时为NaN
+    private final double maxWeightDelta;
+    
+    private final double l2WeightDelta;
+    
+    private final double meanWeight;
+    
+    private final double saturatedFraction;
+    
+    private final double activatedFraction;
+    
+    private final int edgeCount;
+    
+    // 本轮学习规则更新边的次数
+    private final long edgeUpdates;
+    
+    // 本轮耗时（纳秒）
+    private final long elapsedNanos;
+    
+    // 本次训练开始以来（含本轮）累计处理的样本数量和更新边的次数，包括没有发送事件的轮次
+    private final long totalSamples;
+    
+    private final long totalEdgeUpdates;
+    
+    public EpochSummary(int epoch, int samples, double maxWeightDelta, double l2WeightDelta, double meanWeight,
+                        double saturatedFraction, double activatedFraction, int edgeCount, long edgeUpdates,
+                        long elapsedNanos) {
+        this(epoch, samples, maxWeightDelta, l2WeightDelta, meanWeight, saturatedFraction, activatedFraction,
+                edgeCount, edgeUpdates, elapsedNanos, samples, edgeUpdates);
+    }
+    
+    public EpochSummary(int epoch, int samples, double maxWeightDelta, double l2WeightDelta, double meanWeight,
+                        double saturatedFraction, double activatedFraction, int edgeCount, long edgeUpdates,
+                        long elapsedNanos, long totalSamples, long totalEdgeUpdates) {
+        this.epoch = epoch;
+        this.samples = samples;
+        this.maxWeightDelta = maxWeightDelta;
+        this.l2WeightDelta = l2WeightDelta;
+        this.meanWeight = meanWeight;
+        this.saturatedFraction = saturatedFraction;
+        this.activatedFraction = activatedFraction;
+        this.edgeCount = edgeCount;
+        this.edgeUpdates = edgeUpdates;
+        this.elapsedNanos = elapsedNanos;
+        this.totalSamples = totalSamples;
+        this.totalEdgeUpdates = totalEdgeUpdates;
+    }
+    
+    // Getter methods
+    public int getEpoch() {
+        return epoch;
+    }
+    
+    public int getSamples() {
+        return samples;
+    }
+    
+    public double getMaxWeightDelta() {
+        return maxWeightDelta;
+    }
+    
+    public double getL2WeightDelta() {
+        return l2WeightDelta;
+    }
+    
+    public double getMeanWeight() {
+        return meanWeight;
+    }
+    
+    public double getSaturatedFraction() {
+        return saturatedFraction;
+    }
+    
+    public double getActivatedFraction() {
+        return activatedFraction;
+    }
+    
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    public long getEdgeUpdates() {
+        return edgeUpdates;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * 本次训练已经完成的轮数（含本轮），包括按间隔跳过、没有发送事件的轮次
+     * @return 轮数
+     */
+    public int getTotalEpochs() {
+        return epoch + 1;
+    }
+    
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+    
+    public long getTotalEdgeUpdates() {
+        return totalEdgeUpdates;
+    }
+    
+    @Override
+    public String toString() {
+        return "EpochSummary{" +
+                "epoch=" + epoch +
+                ", samples=" + samples +
+                ", maxWeightDelta=" + maxWeightDelta +
+                ", meanWeight=" + meanWeight +
+                ", activatedFraction=" + activatedFraction +
+                ", edgeCount=" + edgeCount +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.fnw.train;
+
+/**
+ * Hebb学习规则
+ * 两个神经元都被激活时增强连接，只有一个被激活时减弱连接，
+ * 都没有被激活时轻微减弱连接，权重限制在[-1, 1]范围内。
+ */
+public final class HebbianRule implements LearningRule {
+    
+    @Override
+    public void apply(EdgeBatch batch, double learningRate) {
+        update(batch.getFrom(), batch.getTo(), batch.getWeights(), batch.getActive(), learningRate);
+    }
+    
+    /**
+     * 按给定的激活状态更新权重数组
+     * {@link HogwildTrainer} 的每个线程使用自己的激活状态更新共享的权重数组
+     */
+    static void update(int[] from, int[] to, double[] weights, boolean[] active, double learningRate) {
+        // 按激活的端点数量查表，避免内层循环中的分支
+        double[] delta = {-learningRate * 0.1, -learningRate * 0.5, learningRate};
+        for (int i = 0; i < weights.length; i++) {
+            int activated = (active[from[i]] ? 1 : 0) + (active[to[i]] ? 1 : 0);
+            weights[i] = LearningRule.clamp(weights[i] + delta[activated]);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.fnw.train;
+
+import com.fnw.model.NeuralNetwork;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hogwild式异步Hebb训练器
+ * 每轮把样本顺序分成若干连续的分片，每个线程处理一个分片，
+ * 各线程使用自己的激活状态，不加锁地更新共享的权重数组。
+ * 线程之间的写入可能互相覆盖，结果与顺序训练略有差异且不可复现，
+ * 适合样本很多、可以接受少量误差以换取吞吐量的场景。
+ * 样本只给出部分神经元的状态时，每个分片都从本轮开始时的激活状态累积，与顺序训练的差异会更大。
+ * 单线程时结果与 {@link HebbianTrainer} 完全一致；没有数据集时与其相同，按神经元当前的激活状态应用一次学习规则。
+ * 不支持神经发生和按使用情况剪枝，不发送样本事件。
+ * 轮次结束时每个神经元的激活状态取最后一个给出其状态的样本，与顺序训练相同，不受分片方式影响。
+ * 工作线程由训练器持有，在各轮之间复用；线程为守护线程，不再使用时可以调用 {@link #close()} 立即释放。
+ */
+public class HogwildTrainer extends LearningRuleTrainer implements AutoCloseable {
+    
+    // 线程数量
+    private int threads;
+    
+    // 处理其余分片的工作线程，第一个分片在调用线程上处理；首次需要时创建
+    private ExecutorService executor;
+    
+    public HogwildTrainer(double learningRate) {
+        this(learningRate, Runtime.getRuntime().availableProcessors());
+    }
+    
+    public HogwildTrainer(double learningRate, int threads) {
+        super(new HebbianRule(), learningRate);
+        if (threads <= 0) {
+            throw new IllegalArgumentException("线程数量必须为正数");
+        }
+        this.threads = threads;
+    }
+    
+    @Override
+    public void trainEpoch(NeuralNetwork network, Dataset dataset) {
+        if (dataset == null || dataset.size() == 0) {
+            trainEpoch(network);
+            return;
+        }
+        if (!(learningRule instanceof HebbianRule)) {
+            throw new IllegalStateException("异步训练只支持Hebb学习规则");
+        }
+        if (neurogenesis != null || (pruner != null && pruner.getUnusedEpochs() > 0)) {
+            throw new IllegalStateException("异步训练不支持神经发生和按使用情况剪枝");
+        }
+        
+        int size = dataset.size();
+        int[] order = nextOrder(size);
+        EdgeBatch batch = beginEpoch(network);
+        int count = Math.min(threads, size);
+        Worker[] workers = new Worker[count];
+        for (int w = 0; w < count; w++) {
+            int start = (int) ((long) size * w / count);
+            int end = (int) ((long) size * (w + 1) / count);
+            workers[w] = new Worker(network, dataset, order, start, end, batch, learningRate);
+        }
+        
+        Future<?>[] running = new Future<?>[count];
+        for (int w = 1; w < count; w++) {
+            running[w] = executor().submit(workers[w]);
+        }
+        workers[0].run();
+        for (int w = 1; w < count; w++) {
+            try {
+                running[w].get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待训练线程时被中断", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("训练线程失败", e.getCause());
+            }
+        }
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw new IllegalStateException("训练线程失败", worker.failure);
+            }
+        }
+        
+        // 按分片顺序合并激活状态，后面的分片覆盖前面的分片，与顺序处理全部样本的结果相同
+        for (int i = 0; i < batch.getNetworkNeuronCount(); i++) {
+            for (int w = count - 1; w >= 0; w--) {
+                if (workers[w].touched[i] || w == 0) {
+                    activate(network, batch, i, workers[w].active[i]);
+                    break;
+                }
+            }
+        }
+        countSamples(size);
+        finishEpoch(network, batch);
+    }
+    
+    private ExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger created = new AtomicInteger(1);
+            executor = Executors.newFixedThreadPool(Math.max(1, threads - 1), task -> {
+                Thread thread = new Thread(task, "nerve-hogwild-" + created.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+    
+    /**
+     * 停止工作线程，之后再训练时重新创建
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+    
+    /**
+     * 处理一个分片的样本
+     */
+    private static class Worker implements Runnable {
+        
+        private final NeuralNetwork network;
+        
+        private final Dataset dataset;
+        
+        private final int[] order;
+        
+        private final int start;
+        
+        private final int end;
+        
+        private final int[] from;
+        
+        private final int[] to;
+        
+        // 所有线程共享的权重数组
+        private final double[] weights;
+        
+        // 本线程的激活状态
+        final boolean[] active;
+        
+        // 本分片的样本给出过状态的神经元
+        final boolean[] touched;
+        
+        private final double learningRate;
+        
+        volatile Throwable failure;
+        
+        Worker(NeuralNetwork network, Dataset dataset, int[] order, int start, int end, EdgeBatch batch,
+               double learningRate) {
+            this.network = network;
+            this.dataset = dataset;
+            this.order = order;
+            this.start = start;
+            this.end = end;
+            this.from = batch.getFrom();
+            this.to = batch.getTo();
+            this.weights = batch.getWeights();
+            this.active = batch.getActive().clone();
+            this.touched = new boolean[active.length];
+            this.learningRate = learningRate;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                for (int i = start; i < end; i++) {
+                    int position = order != null ? order[i] : i;
+                    CompiledSample sample = CompiledSample.compile(network, position, dataset.getSample(position));
+                    for (int j = 0; j < sample.neurons.length; j++) {
+                        active[sample.neurons[j]] = sample.activations[j];
+                        touched[sample.neurons[j]] = true;
+                    }
+                    HebbianRule.update(from, to, weights, active, learningRate);
+                }
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            }
+        }
+    }
+    
+    // Getter and Setter methods
+    public int getThreads() {
+        return threads;
+    }
+    
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("线程数量必须为正数");
+        }
+        if (threads != this.threads) {
+            close();
+        }
+        this.threads = threads;
+    }
+}
@@ -47,6 +47,7 @@ public class InformationUnitDataset implements Dataset {
     }
     
     @Override
+    @Deprecated
     public void shuffle() {
         Collections.shuffle(samples, random);
     }
@@ -0,0 +1,33 @@
+package com.fnw.train;
+
+/**
+ * 学习规则接口
+ * 规则一次处理整批边的权重数组，而不是逐条边调用，
+ * 这样每个规则的内层循环只有一个实现，JIT可以内联并向量化。
+ * 新增规则只需实现该接口，不会影响已有规则的内层循环。
+ */
+public interface LearningRule {
+    
+    /**
+     * 根据当前激活状态更新整批边的权重
+     * @param batch 边批次，权重直接写入 {@link EdgeBatch#getWeights()}
+     * @param learningRate 学习率
+     */
+    void apply(EdgeBatch batch, double learningRate);
+    
+    /**
+     * 清除规则内部的状态（例如上一个样本的激活状态）
+     * 在每次训练开始时调用
+     */
+    default void reset() {
+    }
+    
+    /**
+     * 把权重限制在[-1, 1]范围内
+     * @param weight 权重
+     * @return 限制后的权重
+     */
+    static double clamp(double weight) {
+        return Math.max(-1.0, Math.min(1.0, weight));
+    }
+}
@@ -0,0 +1,26 @@
+package com.fnw.train;
+
+import com.fnw.model.NeuralNetwork;
+
+/**
+ * 学习规则训练器
+ * 不随机激活神经元，直接按神经元当前的激活状态应用学习规则
+ */
+public class LearningRuleTrainer extends BaseTrainer {
+    
+    public LearningRuleTrainer(LearningRule learningRule) {
+        this(learningRule, 0.01);
+    }
+    
+    public LearningRuleTrainer(LearningRule learningRule, double learningRate) {
+        super(learningRule, learningRate);
+        if (learningRule == null) {
+            throw new IllegalArgumentException("学习规则不能为空");
+        }
+    }
+    
+    @Override
+    public void trainEpoch(NeuralNetwork network) {
+        applyLearningRule(network);
+    }
+}
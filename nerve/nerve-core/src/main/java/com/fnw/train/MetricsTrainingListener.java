@@ -0,0 +1,94 @@
+package com.fnw.train;
+
+import com.fnw.metrics.Counter;
+import com.fnw.metrics.Gauge;
+import com.fnw.metrics.Histogram;
+import com.fnw.metrics.MetricsRegistry;
+import com.fnw.model.NeuralNetwork;
+
+/**
+ * 把每轮的指标快照发布到指标注册表
+ * 指标名称以给定前缀开头，例如 training.epochs、training.mean_weight；
+ * 每轮只更新一次，不在样本或边的循环中增加开销。
+ * 计数器按快照中的累计值递增，注册时的轮次间隔大于1也包括跳过的轮次；度量值只反映发送事件的那一轮。
+ */
+public class MetricsTrainingListener implements TrainingListener {
+    
+    private final Counter epochs;
+    
+    private final Counter samples;
+    
+    private final Counter edgeUpdates;
+    
+    private final Gauge samplesPerSecond;
+    
+    private final Gauge edgeUpdatesPerSecond;
+    
+    private final Gauge maxWeightDelta;
+    
+    private final Gauge meanWeight;
+    
+    private final Gauge saturatedFraction;
+    
+    private final Gauge activatedFraction;
+    
+    private final Gauge edges;
+    
+    // 每轮耗时（纳秒）
+    private final Histogram epochLatency;
+    
+    // 本次训练中已经计入计数器的累计值
+    private int countedEpochs;
+    
+    private long countedSamples;
+    
+    private long countedEdgeUpdates;
+    
+    public MetricsTrainingListener(MetricsRegistry registry) {
+        this(registry, "training");
+    }
+    
+    public MetricsTrainingListener(MetricsRegistry registry, String prefix) {
+        this.epochs = registry.counter(prefix + ".epochs");
+        this.samples = registry.counter(prefix + ".samples");
+        this.edgeUpdates = registry.counter(prefix + ".edge_updates");
+        this.samplesPerSecond = registry.gauge(prefix + ".samples_per_second");
+        this.edgeUpdatesPerSecond = registry.gauge(prefix + ".edge_updates_per_second");
+        this.maxWeightDelta = registry.gauge(prefix + ".max_weight_delta");
+        this.meanWeight = registry.gauge(prefix + ".mean_weight");
+        this.saturatedFraction = registry.gauge(prefix + ".saturated_fraction");
+        this.activatedFraction = registry.gauge(prefix + ".activated_fraction");
+        this.edges = registry.gauge(prefix + ".edges");
+        this.epochLatency = registry.histogram(prefix + ".epoch_latency_nanos");
+    }
+    
+    @Override
+    public void onTrainingStart(NeuralNetwork network, int epochs) {
+        countedEpochs = 0;
+        countedSamples = 0L;
+        countedEdgeUpdates = 0L;
+    }
+    
+    @Override
+    public void onEpochEnd(EpochSummary summary) {
+        epochs.add(summary.getTotalEpochs() - countedEpochs);
+        samples.add(summary.getTotalSamples() - countedSamples);
+        edgeUpdates.add(summary.getTotalEdgeUpdates() - countedEdgeUpdates);
+        countedEpochs = summary.getTotalEpochs();
+        countedSamples = summary.getTotalSamples();
+        countedEdgeUpdates = summary.getTotalEdgeUpdates();
+        double seconds = summary.getElapsedNanos() / 1e9;
+        if (seconds > 0.0) {
+            samplesPerSecond.set(summary.getSamples() / seconds);
+            edgeUpdatesPerSecond.set(summary.getEdgeUpdates() / seconds);
+        }
+        if (!Double.isNaN(summary.getMaxWeightDelta())) {
+            maxWeightDelta.set(summary.getMaxWeightDelta());
+        }
+        meanWeight.set(summary.getMeanWeight());
+        saturatedFraction.set(summary.getSaturatedFraction());
+        activatedFraction.set(summary.getActivatedFraction());
+        edges.set(summary.getEdgeCount());
+        epochLatency.record(summary.getElapsedNanos());
+    }
+}
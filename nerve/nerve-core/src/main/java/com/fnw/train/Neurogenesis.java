@@ -0,0 +1,230 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 神经发生
+ * 统计训练样本中同时激活的神经元对，共同激活次数达到阈值且尚未连接时，在两个神经元之间创建新边。
+ * 计数使用 {@link SpaceSavingSketch}，内存只与计数器数量有关；
+ * 每个样本最多统计固定数量的神经元对，激活神经元很多时随机抽取神经元对并按比例放大计数，
+ * 避免对每个样本枚举 O(激活数²) 个神经元对。
+ * 计数按神经元下标记录，删除神经元使下标变化后清空计数。
+ */
+public class Neurogenesis {
+    
+    // 创建新边所需的共同激活次数
+    private double threshold;
+    
+    // 每个样本最多统计的神经元对数量
+    private int pairBudget;
+    
+    // 新边的方向
+    private Edge.Direction direction;
+    
+    // 新边的关系类型
+    private Edge.RelationshipType relationshipType;
+    
+    // 新边的初始权重
+    private double initialWeight;
+    
+    private final SpaceSavingSketch sketch;
+    
+    private final SplittableRandom random;
+    
+    // 当前样本中激活的神经元下标
+    private int[] activeNeurons;
+    
+    // 计数对应的神经元下标版本
+    private int indexVersion;
+    
+    // 累计创建的边数量
+    private long createdEdges;
+    
+    public Neurogenesis(double threshold, int capacity) {
+        this(threshold, capacity, 0L);
+    }
+    
+    public Neurogenesis(double threshold, int capacity, long seed) {
+        if (threshold <= 0.0) {
+            throw new IllegalArgumentException("共同激活阈值必须为正数");
+        }
+        this.threshold = threshold;
+        this.pairBudget = 1024;
+        this.direction = Edge.Direction.UNDIRECTED;
+        this.relationshipType = Edge.RelationshipType.ASSOCIATION;
+        this.initialWeight = 0.0;
+        this.sketch = new SpaceSavingSketch(capacity);
+        this.random = new SplittableRandom(seed);
+        this.activeNeurons = new int[16];
+        this.createdEdges = 0;
+    }
+    
+    /**
+     * 统计一个样本中同时激活的神经元对
+     * @param batch 边批次，只统计网络中的神经元
+     */
+    public void observe(EdgeBatch batch) {
+        checkIndexVersion(batch.getIndexVersion());
+        boolean[] active = batch.getActive();
+        int count = 0;
+        for (int i = 0; i < batch.getNetworkNeuronCount(); i++) {
+            if (active[i]) {
+                if (count == activeNeurons.length) {
+                    activeNeurons = Arrays.copyOf(activeNeurons, count * 2);
+                }
+                activeNeurons[count++] = i;
+            }
+        }
+        if (count < 2) {
+            return;
+        }
+        
+        long pairs = (long) count * (count - 1) / 2;
+        if (pairs <= pairBudget) {
+            for (int a = 0; a < count; a++) {
+                for (int b = a + 1; b < count; b++) {
+                    sketch.add(pairKey(activeNeurons[a], activeNeurons[b]), 1.0);
+                }
+            }
+            return;
+        }
+        
+        // 随机抽取神经元对，每次抽取代表 pairs / pairBudget 个神经元对
+        double weight = (double) pairs / pairBudget;
+        for (int k = 0; k < pairBudget; k++) {
+            int a = random.nextInt(count);
+            int b = random.nextInt(count - 1);
+            if (b >= a) {
+                b++;
+            }
+            sketch.add(pairKey(activeNeurons[a], activeNeurons[b]), weight);
+        }
+    }
+    
+    /**
+     * 为共同激活次数达到阈值的神经元对创建新边
+     * 已经相连的神经元对不再创建边；创建边后该神经元对的计数清零
+     * @param network 神经网络
+     * @return 新创建的边数量
+     */
+    public int promote(NeuralNetwork network) {
+        checkIndexVersion(network.getIndexVersion());
+        int created = 0;
+        List<Long> candidates = sketch.keysAtLeast(threshold);
+        for (long key : candidates) {
+            sketch.remove(key);
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            if (a >= network.getNeuronCount() || b >= network.getNeuronCount() || isConnected(network, a, b)) {
+                continue;
+            }
+            Neuron from = network.getNeuron(a);
+            Neuron to = network.getNeuron(b);
+            network.addEdge(new Edge(from, to, direction, relationshipType, initialWeight));
+            created++;
+        }
+        createdEdges += created;
+        return created;
+    }
+    
+    /**
+     * 神经元下标变化后清空按原下标记录的计数
+     */
+    private void checkIndexVersion(int version) {
+        if (version != indexVersion) {
+            sketch.clear();
+            indexVersion = version;
+        }
+    }
+    
+    private static boolean isConnected(NeuralNetwork network, int a, int b) {
+        int scan = network.getDegree(a) <= network.getDegree(b) ? a : b;
+        Neuron other = network.getNeuron(scan == a ? b : a);
+        for (Edge edge : network.getIncidentEdges(scan, null)) {
+            if (edge.getFromNeuron() == other || edge.getToNeuron() == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long pairKey(int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * 获取神经元对的保证共同激活次数
+     * @param a 神经元下标
+     * @param b 神经元下标
+     * @return 共同激活次数的下界
+     */
+    public double getCoactivation(int a, int b) {
+        return sketch.guaranteed(pairKey(a, b));
+    }
+    
+    /**
+     * 清空共同激活计数
+     */
+    public void reset() {
+        sketch.clear();
+    }
+    
+    // Getter and Setter methods
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    public void setThreshold(double threshold) {
+        if (threshold <= 0.0) {
+            throw new IllegalArgumentException("共同激活阈值必须为正数");
+        }
+        this.threshold = threshold;
+    }
+    
+    public int getPairBudget() {
+        return pairBudget;
+    }
+    
+    public void setPairBudget(int pairBudget) {
+        if (pairBudget <= 0) {
+            throw new IllegalArgumentException("神经元对数量必须为正数");
+        }
+        this.pairBudget = pairBudget;
+    }
+    
+    public Edge.Direction getDirection() {
+        return direction;
+    }
+    
+    public void setDirection(Edge.Direction direction) {
+        this.direction = direction;
+    }
+    
+    public Edge.RelationshipType getRelationshipType() {
+        return relationshipType;
+    }
+    
+    public void setRelationshipType(Edge.RelationshipType relationshipType) {
+        this.relationshipType = relationshipType;
+    }
+    
+    public double getInitialWeight() {
+        return initialWeight;
+    }
+    
+    public void setInitialWeight(double initialWeight) {
+        this.initialWeight = initialWeight;
+    }
+    
+    public long getCreatedEdges() {
+        return createdEdges;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fnw.train;
+
+/**
+ * Oja学习规则
+ * Δw = η·y·(x − y·w)，x为起始神经元的激活值，y为目标神经元的激活值。
+ * 与Hebb规则相比，y·w项使权重自行归一化，不会无限增长。
+ */
+public final class OjaRule implements LearningRule {
+    
+    @Override
+    public void apply(EdgeBatch batch, double learningRate) {
+        int[] from = batch.getFrom();
+        int[] to = batch.getTo();
+        double[] weights = batch.getWeights();
+        boolean[] active = batch.getActive();
+        
+        for (int i = 0; i < weights.length; i++) {
+            double x = active[from[i]] ? 1.0 : 0.0;
+            double y = active[to[i]] ? 1.0 : 0.0;
+            double w = weights[i];
+            weights[i] = LearningRule.clamp(w + learningRate * y * (x - y * w));
+        }
+    }
+}
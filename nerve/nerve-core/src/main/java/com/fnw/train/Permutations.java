@@ -0,0 +1,66 @@
+package com.fnw.train;
+
+import java.util.SplittableRandom;
+
+/**
+ * 生成排列的工具方法
+ */
+final class Permutations {
+    
+    private Permutations() {
+    }
+    
+    /**
+     * 为指定轮次创建随机数生成器
+     * 种子和轮次先经过混合，相邻轮次的随机序列互不相关
+     */
+    static SplittableRandom random(long seed, int epoch) {
+        return new SplittableRandom(mix(seed + (epoch + 1) * 0x9E3779B97F4A7C15L));
+    }
+    
+    static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+    
+    /**
+     * Fisher-Yates打乱数组的 [from, to) 区间
+     */
+    static void shuffle(int[] values, int from, int to, SplittableRandom random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+    
+    static int[] blocked(int size, int blockSize, SplittableRandom random) {
+        int blocks = (size + blockSize - 1) / blockSize;
+        int[] blockOrder = identity(blocks);
+        shuffle(blockOrder, 0, blocks, random);
+        
+        int[] order = new int[size];
+        int position = 0;
+        for (int block : blockOrder) {
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, size);
+            int from = position;
+            for (int i = start; i < end; i++) {
+                order[position++] = i;
+            }
+            shuffle(order, from, position, random);
+        }
+        return order;
+    }
+    
+    // MurmurHash3 的64位混合函数
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,140 @@
+package com.fnw.train;
+
+import com.fnw.model.NeuralNetwork;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 流水线训练器
+ * 每轮启动一个预取线程，按 {@link #setSampleOrder(SampleOrder)} 设置的顺序读取样本、把神经元ID解析为下标，放入有界缓冲区；
+ * 训练线程从缓冲区取出编译后的样本并更新权重。
+ * 数据集从磁盘读取或解析较慢时，读取和解析与权重更新重叠执行。
+ * 样本顺序相同时，训练结果与 {@link BaseTrainer} 完全一致。
+ */
+public class PipelinedTrainer extends BaseTrainer {
+    
+    // 缓冲区容量（样本数）
+    private int bufferSize;
+    
+    public PipelinedTrainer(LearningRule learningRule, double learningRate) {
+        this(learningRule, learningRate, 256);
+    }
+    
+    public PipelinedTrainer(LearningRule learningRule, double learningRate, int bufferSize) {
+        super(learningRule, learningRate);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区容量必须为正数");
+        }
+        this.bufferSize = bufferSize;
+    }
+    
+    @Override
+    public void trainEpoch(NeuralNetwork network, Dataset dataset) {
+        if (dataset == null || dataset.size() == 0) {
+            trainEpoch(network);
+            return;
+        }
+        
+        int[] order = nextOrder(dataset.size());
+        BlockingQueue<CompiledSample> queue = new ArrayBlockingQueue<>(bufferSize);
+        Producer producer = new Producer(network, dataset, order, queue);
+        Thread thread = new Thread(producer, "nerve-sample-prefetch");
+        thread.setDaemon(true);
+        
+        EdgeBatch batch = beginEpoch(network);
+        thread.start();
+        try {
+            for (int i = 0; ; i++) {
+                CompiledSample sample = queue.take();
+                if (sample == CompiledSample.END) {
+                    break;
+                }
+                for (int j = 0; j < sample.neurons.length; j++) {
+                    activate(network, batch, sample.neurons[j], sample.activations[j]);
+                }
+                endSample(batch, i);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待样本时被中断", e);
+        } finally {
+            // 训练线程出错时停止预取线程
+            thread.interrupt();
+            join(thread);
+        }
+        
+        if (producer.failure != null) {
+            throw new IllegalStateException("预取样本失败", producer.failure);
+        }
+        finishEpoch(network, batch);
+    }
+    
+    private static void join(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 预取线程，读取并编译样本，最后放入结束标记
+     */
+    private static class Producer implements Runnable {
+        
+        private final NeuralNetwork network;
+        
+        private final Dataset dataset;
+        
+        private final int[] order;
+        
+        private final BlockingQueue<CompiledSample> queue;
+        
+        volatile Throwable failure;
+        
+        Producer(NeuralNetwork network, Dataset dataset, int[] order, BlockingQueue<CompiledSample> queue) {
+            this.network = network;
+            this.dataset = dataset;
+            this.order = order;
+            this.queue = queue;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                try {
+                    int size = dataset.size();
+                    for (int i = 0; i < size; i++) {
+                        int position = order != null ? order[i] : i;
+                        queue.put(CompiledSample.compile(network, position, dataset.getSample(position)));
+                    }
+                } catch (RuntimeException | Error e) {
+                    failure = e;
+                }
+                queue.put(CompiledSample.END);
+            } catch (InterruptedException e) {
+                // 训练线程已经停止，不再需要样本
+            }
+        }
+    }
+    
+    // Getter and Setter methods
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区容量必须为正数");
+        }
+        this.bufferSize = bufferSize;
+    }
+}
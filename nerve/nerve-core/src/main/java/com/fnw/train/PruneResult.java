@@ -0,0 +1,53 @@
+package com.fnw.train;
+
+/**
+ * 剪枝结果
+ */
+public class PruneResult {
+    
+    // 移除的边数量
+    private final int removedEdges;
+    
+    // 剩余的边数量
+    private final int remainingEdges;
+    
+    // 估计回收的内存字节数
+    private final long reclaimedBytes;
+    
+    // 耗时（纳秒）
+    private final long elapsedNanos;
+    
+    public PruneResult(int removedEdges, int remainingEdges, long reclaimedBytes, long elapsedNanos) {
+        this.removedEdges = removedEdges;
+        this.remainingEdges = remainingEdges;
+        this.reclaimedBytes = reclaimedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    // Getter methods
+    public int getRemovedEdges() {
+        return removedEdges;
+    }
+    
+    public int getRemainingEdges() {
+        return remainingEdges;
+    }
+    
+    public long getReclaimedBytes() {
+        return reclaimedBytes;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "PruneResult{" +
+                "removedEdges=" + removedEdges +
+                ", remainingEdges=" + remainingEdges +
+                ", reclaimedBytes=" + reclaimedBytes +
+                ", elapsedMillis=" + elapsedNanos / 1_000_000 +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.fnw.train;
+
+/**
+ * 每轮的样本顺序
+ * 训练器按返回的下标排列依次读取样本，数据集本身不被修改，可以同时被其他线程读取。
+ * 相同的种子和轮次总是得到相同的顺序，不依赖之前各轮的随机数状态。
+ */
+public interface SampleOrder {
+    
+    /**
+     * 生成一轮的样本顺序
+     * @param size 样本数量
+     * @param epoch 轮次，从0开始
+     * @return 长度为size的排列
+     */
+    int[] order(int size, int epoch);
+    
+    /**
+     * 按数据集中的原始顺序
+     * @return 样本顺序
+     */
+    static SampleOrder sequential() {
+        return (size, epoch) -> Permutations.identity(size);
+    }
+    
+    /**
+     * 每轮完全打乱
+     * @param seed 随机种子
+     * @return 样本顺序
+     */
+    static SampleOrder shuffled(long seed) {
+        return (size, epoch) -> {
+            int[] order = Permutations.identity(size);
+            Permutations.shuffle(order, 0, size, Permutations.random(seed, epoch));
+            return order;
+        };
+    }
+    
+    /**
+     * 分块打乱
+     * 把样本按原始顺序分成固定大小的块，打乱块的顺序和块内顺序，但不跨块交换样本。
+     * 同一时间只访问一个块内的样本，从磁盘读取的数据集仍然接近顺序读取。
+     * @param seed 随机种子
+     * @param blockSize 每块的样本数量
+     * @return 样本顺序
+     */
+    static SampleOrder blocked(long seed, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数");
+        }
+        return (size, epoch) -> Permutations.blocked(size, blockSize, Permutations.random(seed, epoch));
+    }
+}
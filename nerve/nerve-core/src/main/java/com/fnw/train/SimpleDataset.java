@@ -43,6 +43,7 @@ public class SimpleDataset implements Dataset {
     }
     
     @Override
+    @Deprecated
     public void shuffle() {
         Collections.shuffle(samples, random);
     }
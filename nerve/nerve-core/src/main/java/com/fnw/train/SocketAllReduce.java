@@ -0,0 +1,245 @@
+package com.fnw.train;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * 基于套接字的权重变化量平均
+ * 0号进程作为协调者监听端口，其他进程连接到协调者。每次交换时各进程发送自己的稀疏变化量，
+ * 协调者求和后除以进程数，把平均变化量发回所有进程，所有进程得到完全相同的结果。
+ * 协调者之外的进程只与协调者通信，进程数较少时足够使用。
+ */
+public class SocketAllReduce implements Closeable {
+    
+    private static final int MAGIC = 0x4E455256;
+    
+    private final int rank;
+    
+    private final int worldSize;
+    
+    private final ServerSocket server;
+    
+    // 协调者保存所有其他进程的连接，其他进程只保存到协调者的连接
+    private final Socket[] sockets;
+    
+    private final DataInputStream[] inputs;
+    
+    private final DataOutputStream[] outputs;
+    
+    // 累计发送和接收的字节数（不含协议头）
+    private long bytesSent;
+    
+    private long bytesReceived;
+    
+    private SocketAllReduce(int rank, int worldSize, ServerSocket server, Socket[] sockets) throws IOException {
+        this.rank = rank;
+        this.worldSize = worldSize;
+        this.server = server;
+        this.sockets = sockets;
+        this.inputs = new DataInputStream[sockets.length];
+        this.outputs = new DataOutputStream[sockets.length];
+        for (int i = 0; i < sockets.length; i++) {
+            if (sockets[i] != null) {
+                inputs[i] = new DataInputStream(new BufferedInputStream(sockets[i].getInputStream()));
+                outputs[i] = new DataOutputStream(new BufferedOutputStream(sockets[i].getOutputStream()));
+            }
+        }
+    }
+    
+    /**
+     * 加入一组进程，阻塞直到所有进程都已连接
+     * @param rank 本进程的编号，0号进程为协调者
+     * @param worldSize 进程总数
+     * @param coordinator 协调者的地址，协调者绑定在该地址上监听，需要监听所有网卡时协调者可以传入通配地址
+     * @param timeoutMillis 等待连接和每次读取数据的超时时间（毫秒），应大于两次同步之间的训练耗时
+     * @return 已连接的实例
+     * @throws IOException 连接失败或超时
+     */
+    public static SocketAllReduce join(int rank, int worldSize, InetSocketAddress coordinator, int timeoutMillis)
+            throws IOException {
+        if (worldSize <= 0 || rank < 0 || rank >= worldSize) {
+            throw new IllegalArgumentException("进程编号超出范围: " + rank + "/" + worldSize);
+        }
+        if (rank == 0) {
+            return accept(worldSize, coordinator, timeoutMillis);
+        }
+        return connect(rank, worldSize, coordinator, timeoutMillis);
+    }
+    
+    private static SocketAllReduce accept(int worldSize, InetSocketAddress address, int timeoutMillis)
+            throws IOException {
+        ServerSocket server = new ServerSocket();
+        Socket[] sockets = new Socket[worldSize];
+        try {
+            server.setReuseAddress(true);
+            server.bind(address);
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            int connected = 1;
+            while (connected < worldSize) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new SocketTimeoutException("等待进程连接超时: " + connected + "/" + worldSize);
+                }
+                server.setSoTimeout((int) remaining);
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                int peer = handshake(socket, worldSize);
+                if (peer <= 0 || sockets[peer] != null) {
+                    // 不属于本进程组的连接直接丢弃，继续等待其他进程
+                    socket.close();
+                    continue;
+                }
+                sockets[peer] = socket;
+                connected++;
+            }
+            return new SocketAllReduce(0, worldSize, server, sockets);
+        } catch (IOException e) {
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+            server.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 读取连接的握手信息
+     * @return 对方的进程编号，握手超时、协议或进程组配置不一致时返回-1
+     */
+    private static int handshake(Socket socket, int worldSize) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            if (in.readInt() != MAGIC || in.readInt() != worldSize) {
+                return -1;
+            }
+            int peer = in.readInt();
+            return peer > 0 && peer < worldSize ? peer : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+    
+    private static SocketAllReduce connect(int rank, int worldSize, InetSocketAddress address, int timeoutMillis)
+            throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(address, timeoutMillis);
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeInt(MAGIC);
+                out.writeInt(worldSize);
+                out.writeInt(rank);
+                out.flush();
+                Socket[] sockets = new Socket[1];
+                sockets[0] = socket;
+                return new SocketAllReduce(rank, worldSize, null, sockets);
+            } catch (ConnectException e) {
+                // 协调者可能还没有开始监听，稍后重试
+                socket.close();
+                if (System.currentTimeMillis() >= deadline) {
+                    throw e;
+                }
+                sleep(50);
+            }
+        }
+    }
+    
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待连接时被中断", e);
+        }
+    }
+    
+    /**
+     * 计算所有进程变化量的平均值
+     * 所有进程必须以相同的顺序调用，且权重数量相同
+     * @param local 本进程的变化量
+     * @param dimension 权重数量
+     * @return 平均变化量
+     * @throws IOException 通信失败或权重数量不一致
+     */
+    public SparseDelta average(SparseDelta local, int dimension) throws IOException {
+        if (worldSize == 1) {
+            return local;
+        }
+        if (rank != 0) {
+            DataOutputStream out = outputs[0];
+            out.writeInt(dimension);
+            local.write(out);
+            out.flush();
+            bytesSent += local.encodedSize();
+            SparseDelta result = SparseDelta.read(inputs[0]);
+            bytesReceived += result.encodedSize();
+            return result;
+        }
+        
+        double[] sum = new double[dimension];
+        local.addTo(sum);
+        for (int peer = 1; peer < worldSize; peer++) {
+            int peerDimension = inputs[peer].readInt();
+            if (peerDimension != dimension) {
+                throw new IOException("进程 " + peer + " 的权重数量不一致: " + peerDimension + " != " + dimension);
+            }
+            SparseDelta delta = SparseDelta.read(inputs[peer]);
+            bytesReceived += delta.encodedSize();
+            delta.addTo(sum);
+        }
+        for (int i = 0; i < dimension; i++) {
+            sum[i] /= worldSize;
+        }
+        SparseDelta result = SparseDelta.of(sum);
+        for (int peer = 1; peer < worldSize; peer++) {
+            result.write(outputs[peer]);
+            outputs[peer].flush();
+            bytesSent += result.encodedSize();
+        }
+        return result;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        for (Socket socket : sockets) {
+            if (socket != null) {
+                socket.close();
+            }
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    // Getter methods
+    public int getRank() {
+        return rank;
+    }
+    
+    public int getWorldSize() {
+        return worldSize;
+    }
+    
+    public long getBytesSent() {
+        return bytesSent;
+    }
+    
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+}
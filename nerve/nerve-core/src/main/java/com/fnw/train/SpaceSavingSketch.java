@@ -0,0 +1,190 @@
+package com.fnw.train;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving频繁项统计
+ * 最多保存固定数量的计数器，内存与输入的不同项数量无关。
+ * 新项在计数器已满时替换计数最小的项，并把被替换的计数记为误差，
+ * 因此 计数 − 误差 是真实计数的下界，计数是真实计数的上界。
+ * 计数器按计数组织为最小堆，每次更新为 O(log m)。
+ */
+public class SpaceSavingSketch {
+    
+    private final int capacity;
+    
+    // 堆中每个位置的键、计数和误差
+    private final long[] keys;
+    
+    private final double[] counts;
+    
+    private final double[] errors;
+    
+    // 键到堆位置的映射
+    private final Map<Long, Integer> positions;
+    
+    private int size;
+    
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("计数器数量必须为正数");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new double[capacity];
+        this.errors = new double[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+        this.size = 0;
+    }
+    
+    /**
+     * 增加一个键的计数
+     * @param key 键
+     * @param weight 增加量，必须为正数
+     */
+    public void add(long key, double weight) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = weight;
+            errors[size] = 0.0;
+            positions.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        // 替换计数最小的项，新项继承其计数作为误差
+        positions.remove(keys[0]);
+        double minimum = counts[0];
+        keys[0] = key;
+        counts[0] = minimum + weight;
+        errors[0] = minimum;
+        positions.put(key, 0);
+        siftDown(0);
+    }
+    
+    /**
+     * 获取键的估计计数（上界），未保存的键返回0
+     * @param key 键
+     * @return 估计计数
+     */
+    public double estimate(long key) {
+        Integer position = positions.get(key);
+        return position != null ? counts[position] : 0.0;
+    }
+    
+    /**
+     * 获取键的保证计数（下界），未保存的键返回0
+     * @param key 键
+     * @return 保证计数
+     */
+    public double guaranteed(long key) {
+        Integer position = positions.get(key);
+        return position != null ? counts[position] - errors[position] : 0.0;
+    }
+    
+    /**
+     * 移除一个键
+     * @param key 键
+     * @return 是否移除
+     */
+    public boolean remove(long key) {
+        Integer position = positions.remove(key);
+        if (position == null) {
+            return false;
+        }
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            siftDown(position);
+            siftUp(position);
+        }
+        return true;
+    }
+    
+    /**
+     * 获取保证计数不小于阈值的所有键
+     * @param threshold 阈值
+     * @return 键列表
+     */
+    public List<Long> keysAtLeast(double threshold) {
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (counts[i] - errors[i] >= threshold) {
+                result.add(keys[i]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 清空所有计数器
+     */
+    public void clear() {
+        positions.clear();
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[parent] <= counts[position]) {
+                break;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+    }
+    
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(smallest, position);
+            position = smallest;
+        }
+    }
+    
+    private void swap(int a, int b) {
+        long key = keys[a];
+        double count = counts[a];
+        double error = errors[a];
+        move(b, a);
+        keys[b] = key;
+        counts[b] = count;
+        errors[b] = error;
+        positions.put(key, b);
+    }
+    
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        counts[to] = counts[from];
+        errors[to] = errors[from];
+        positions.put(keys[to], to);
+    }
+}
@@ -0,0 +1,171 @@
+package com.fnw.train;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 稀疏权重变化量
+ * 只记录发生变化的边。编码时边下标按差值写成变长整数，变化量写成单精度浮点数，
+ * 每条变化的边通常只占5到6个字节。
+ */
+public final class SparseDelta {
+    
+    private final int[] indices;
+    
+    private final float[] values;
+    
+    SparseDelta(int[] indices, float[] values) {
+        this.indices = indices;
+        this.values = values;
+    }
+    
+    /**
+     * 计算两组权重之间的变化量
+     * @param base 基准权重
+     * @param current 当前权重
+     * @return 变化量，只包含变化不为0的边
+     */
+    public static SparseDelta between(double[] base, double[] current) {
+        if (base.length != current.length) {
+            throw new IllegalArgumentException("权重数量不一致: " + base.length + " != " + current.length);
+        }
+        return collect(base, current);
+    }
+    
+    /**
+     * 从稠密的变化量创建稀疏变化量
+     * @param deltas 每条边的变化量
+     * @return 变化量，只包含不为0的边
+     */
+    public static SparseDelta of(double[] deltas) {
+        return collect(null, deltas);
+    }
+    
+    private static SparseDelta collect(double[] base, double[] current) {
+        int[] indices = new int[16];
+        float[] values = new float[16];
+        int count = 0;
+        for (int i = 0; i < current.length; i++) {
+            float delta = (float) (base != null ? current[i] - base[i] : current[i]);
+            if (delta != 0.0f) {
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, count * 2);
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                indices[count] = i;
+                values[count] = delta;
+                count++;
+            }
+        }
+        return new SparseDelta(Arrays.copyOf(indices, count), Arrays.copyOf(values, count));
+    }
+    
+    /**
+     * 把变化量加到权重上
+     * @param weights 权重
+     */
+    public void addTo(double[] weights) {
+        for (int i = 0; i < indices.length; i++) {
+            weights[indices[i]] += values[i];
+        }
+    }
+    
+    /**
+     * 写出编码后的变化量
+     * @param out 输出流
+     * @throws IOException 写入失败
+     */
+    public void write(DataOutputStream out) throws IOException {
+        writeVarInt(out, indices.length);
+        int previous = -1;
+        for (int index : indices) {
+            writeVarInt(out, index - previous);
+            previous = index;
+        }
+        for (float value : values) {
+            out.writeFloat(value);
+        }
+    }
+    
+    /**
+     * 读取编码后的变化量
+     * @param in 输入流
+     * @return 变化量
+     * @throws IOException 读取失败
+     */
+    public static SparseDelta read(DataInputStream in) throws IOException {
+        int count = readVarInt(in);
+        int[] indices = new int[count];
+        float[] values = new float[count];
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            previous += readVarInt(in);
+            indices[i] = previous;
+        }
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readFloat();
+        }
+        return new SparseDelta(indices, values);
+    }
+    
+    /**
+     * 获取编码后的字节数
+     * @return 字节数
+     */
+    public int encodedSize() {
+        int size = varIntSize(indices.length) + 4 * values.length;
+        int previous = -1;
+        for (int index : indices) {
+            size += varIntSize(index - previous);
+            previous = index;
+        }
+        return size;
+    }
+    
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+    
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("变长整数格式错误");
+    }
+    
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+    
+    /**
+     * 获取变化的边数量
+     * @return 边数量
+     */
+    public int size() {
+        return indices.length;
+    }
+    
+    public int getIndex(int i) {
+        return indices[i];
+    }
+    
+    public float getValue(int i) {
+        return values[i];
+    }
+}
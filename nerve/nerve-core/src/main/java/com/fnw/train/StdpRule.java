@@ -0,0 +1,68 @@
+package com.fnw.train;
+
+import java.util.Arrays;
+
+/**
+ * 类STDP学习规则
+ * 以相邻两个样本作为前后两个时刻：起始神经元先激活、目标神经元后激活时增强连接，
+ * 目标神经元先激活、起始神经元后激活时减弱连接。
+ */
+public final class StdpRule implements LearningRule {
+    
+    // 增强幅度（相对学习率）
+    private final double potentiation;
+    
+    // 减弱幅度（相对学习率）
+    private final double depression;
+    
+    // 上一个时刻的激活状态
+    private boolean[] previous;
+    
+    // 激活状态对应的神经元下标版本
+    private int indexVersion;
+    
+    public StdpRule() {
+        this(1.0, 1.0);
+    }
+    
+    public StdpRule(double potentiation, double depression) {
+        if (potentiation < 0.0 || depression < 0.0) {
+            throw new IllegalArgumentException("增强和减弱幅度不能为负数");
+        }
+        this.potentiation = potentiation;
+        this.depression = depression;
+        this.previous = new boolean[0];
+    }
+    
+    @Override
+    public void apply(EdgeBatch batch, double learningRate) {
+        int[] from = batch.getFrom();
+        int[] to = batch.getTo();
+        double[] weights = batch.getWeights();
+        boolean[] active = batch.getActive();
+        if (indexVersion != batch.getIndexVersion()) {
+            // 删除神经元后下标已经变化，上一个时刻的激活状态不再对应同一个神经元
+            Arrays.fill(previous, false);
+            indexVersion = batch.getIndexVersion();
+        }
+        if (previous.length < batch.getNeuronCount()) {
+            previous = Arrays.copyOf(previous, batch.getNeuronCount());
+        }
+        boolean[] before = previous;
+        double up = learningRate * potentiation;
+        double down = learningRate * depression;
+        
+        for (int i = 0; i < weights.length; i++) {
+            double causal = before[from[i]] && active[to[i]] ? up : 0.0;
+            double acausal = before[to[i]] && active[from[i]] ? down : 0.0;
+            weights[i] = LearningRule.clamp(weights[i] + causal - acausal);
+        }
+        
+        System.arraycopy(active, 0, before, 0, batch.getNeuronCount());
+    }
+    
+    @Override
+    public void reset() {
+        Arrays.fill(previous, false);
+    }
+}
@@ -0,0 +1,116 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.MemoryEstimator;
+import com.fnw.model.NeuralNetwork;
+
+import java.util.List;
+
+/**
+ * 突触剪枝
+ * 移除权重低于阈值的边，或连续多轮没有被使用（两端神经元没有同时激活）的边，
+ * 并在原处压缩网络的边集合和邻接索引。
+ * 信息不是数字的边（例如关系描述）没有权重，不会因权重被移除。
+ * 可以随时调用 {@link #prune(NeuralNetwork)}，也可以交给 {@link BaseTrainer} 每隔若干轮调用一次。
+ */
+public class SynapticPruner {
+    
+    // 按当前JVM的对象布局估计回收的内存
+    private static final MemoryEstimator ESTIMATOR = MemoryEstimator.forCurrentJvm();
+    
+    // 权重阈值，低于该值的边被移除
+    private double weightThreshold;
+    
+    // 连续未使用的轮数阈值，0表示不按使用情况剪枝
+    private int unusedEpochs;
+    
+    // 训练时每隔多少轮剪枝一次，0表示训练时不自动剪枝
+    private int interval;
+    
+    public SynapticPruner(double weightThreshold) {
+        this(weightThreshold, 0, 0);
+    }
+    
+    public SynapticPruner(double weightThreshold, int unusedEpochs, int interval) {
+        if (unusedEpochs < 0 || interval < 0) {
+            throw new IllegalArgumentException("轮数不能为负数");
+        }
+        if (unusedEpochs > Edge.MAX_IDLE_EPOCHS) {
+            throw new IllegalArgumentException("未使用轮数不能超过 " + Edge.MAX_IDLE_EPOCHS);
+        }
+        this.weightThreshold = weightThreshold;
+        this.unusedEpochs = unusedEpochs;
+        this.interval = interval;
+    }
+    
+    /**
+     * 判断边是否应被剪除
+     * @param edge 边
+     * @return 是否剪除
+     */
+    public boolean shouldPrune(Edge edge) {
+        if (edge.hasWeight() && edge.getWeight(0.0) < weightThreshold) {
+            return true;
+        }
+        return unusedEpochs > 0 && edge.getIdleEpochs() >= unusedEpochs;
+    }
+    
+    /**
+     * 剪除网络中的弱边
+     * @param network 神经网络
+     * @return 剪枝结果
+     */
+    public PruneResult prune(NeuralNetwork network) {
+        long start = System.nanoTime();
+        List<Edge> removed = network.removeEdgesIf(this::shouldPrune);
+        
+        long reclaimed = 0;
+        for (Edge edge : removed) {
+            reclaimed += ESTIMATOR.estimateRemoval(edge);
+        }
+        return new PruneResult(removed.size(), network.getEdgeCount(), reclaimed, System.nanoTime() - start);
+    }
+    
+    /**
+     * 判断训练到第几轮后是否应该剪枝
+     * @param completedEpochs 已完成的轮数
+     * @return 是否剪枝
+     */
+    boolean isDue(int completedEpochs) {
+        return interval > 0 && completedEpochs % interval == 0;
+    }
+    
+    // Getter and Setter methods
+    public double getWeightThreshold() {
+        return weightThreshold;
+    }
+    
+    public void setWeightThreshold(double weightThreshold) {
+        this.weightThreshold = weightThreshold;
+    }
+    
+    public int getUnusedEpochs() {
+        return unusedEpochs;
+    }
+    
+    public void setUnusedEpochs(int unusedEpochs) {
+        if (unusedEpochs < 0) {
+            throw new IllegalArgumentException("轮数不能为负数");
+        }
+        if (unusedEpochs > Edge.MAX_IDLE_EPOCHS) {
+            throw new IllegalArgumentException("未使用轮数不能超过 " + Edge.MAX_IDLE_EPOCHS);
+        }
+        this.unusedEpochs = unusedEpochs;
+    }
+    
+    public int getInterval() {
+        return interval;
+    }
+    
+    public void setInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("轮数不能为负数");
+        }
+        this.interval = interval;
+    }
+}
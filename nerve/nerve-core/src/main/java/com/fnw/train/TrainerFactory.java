@@ -11,7 +11,10 @@ public class TrainerFactory {
      */
     public enum TrainerType {
         BASE,      // 基础训练器
-        HEBBIAN    // Hebb学习规则训练器
+        HEBBIAN,   // Hebb学习规则训练器
+        OJA,       // Oja学习规则训练器
+        BCM,       // BCM学习规则训练器
+        STDP       // 类STDP学习规则训练器
     }
     
     /**
@@ -25,6 +28,12 @@ public class TrainerFactory {
                 return new BaseTrainer();
             case HEBBIAN:
                 return new HebbianTrainer();
+            case OJA:
+                return new LearningRuleTrainer(new OjaRule());
+            case BCM:
+                return new LearningRuleTrainer(new BcmRule());
+            case STDP:
+                return new LearningRuleTrainer(new StdpRule());
             default:
                 throw new IllegalArgumentException("未知的训练器类型: " + type);
         }
@@ -42,6 +51,12 @@ public class TrainerFactory {
                 return new BaseTrainer(learningRate);
             case HEBBIAN:
                 return new HebbianTrainer(learningRate);
+            case OJA:
+                return new LearningRuleTrainer(new OjaRule(), learningRate);
+            case BCM:
+                return new LearningRuleTrainer(new BcmRule(), learningRate);
+            case STDP:
+                return new LearningRuleTrainer(new StdpRule(), learningRate);
             default:
                 throw new IllegalArgumentException("未知的训练器类型: " + type);
         }
@@ -0,0 +1,50 @@
+package com.fnw.train;
+
+import com.fnw.model.NeuralNetwork;
+
+/**
+ * 训练进度监听器
+ * 所有方法都有空的默认实现，只需覆盖关心的事件。
+ * 通过 {@link BaseTrainer#addListener(TrainingListener, int, int)} 注册时可以指定事件的采样间隔；
+ * 没有注册监听器时训练过程不构造任何事件对象。
+ */
+public interface TrainingListener {
+    
+    /**
+     * 训练开始
+     * @param network 神经网络
+     * @param epochs 请求的训练轮数
+     */
+    default void onTrainingStart(NeuralNetwork network, int epochs) {
+    }
+    
+    /**
+     * 一轮训练开始
+     * @param epoch 轮次，从0开始
+     */
+    default void onEpochStart(int epoch) {
+    }
+    
+    /**
+     * 处理完一个样本
+     * @param epoch 轮次，从0开始
+     * @param sample 样本在本轮样本顺序中的位置，打乱顺序时不是样本在数据集中的下标
+     */
+    default void onSampleProcessed(int epoch, int sample) {
+    }
+    
+    /**
+     * 一轮训练结束
+     * 按间隔跳过的轮次不发送此事件，它们的样本数量和更新次数计入下一次事件的累计值
+     * @param summary 本轮的指标快照
+     */
+    default void onEpochEnd(EpochSummary summary) {
+    }
+    
+    /**
+     * 训练结束
+     * @param epochsTrained 实际完成的轮数
+     */
+    default void onTrainingEnd(int epochsTrained) {
+    }
+}
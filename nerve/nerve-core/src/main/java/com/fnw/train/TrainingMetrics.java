@@ -0,0 +1,216 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+
+import java.util.Arrays;
+
+/**
+ * 训练指标
+ * 以累计和的形式维护边权重的均值、直方图、饱和边比例和神经元激活比例，读取为 O(1)。
+ * 每轮编译边批次时顺带重新统计，之后由训练器写回权重和设置激活状态时增量更新；
+ * 训练器以外对网络结构的修改，以及经由网络对激活状态和边权重的修改（见 {@link NeuralNetwork#getStateVersion()}）都会使指标失效，
+ * {@link #synchronize(NeuralNetwork)} 在失效时重新统计。
+ */
+public class TrainingMetrics {
+    
+    // 直方图覆盖[-1, 1]，超出范围的权重计入两端的区间
+    public static final int HISTOGRAM_BINS = 20;
+    
+    // 权重绝对值与1的差不超过该值时视为饱和
+    private static final double SATURATION_EPSILON = 1e-9;
+    
+    // 指标对应的网络及其结构修改次数
+    private NeuralNetwork network;
+    
+    private int modCount;
+    
+    // 指标最近一次与激活状态和权重一致时的修改版本
+    private int stateVersion;
+    
+    private boolean valid;
+    
+    // 信息为数字的边
+    private long weightedEdges;
+    
+    private double weightSum;
+    
+    private long saturatedEdges;
+    
+    private final long[] histogram;
+    
+    private int neuronCount;
+    
+    private int activatedNeurons;
+    
+    public TrainingMetrics() {
+        this.histogram = new long[HISTOGRAM_BINS];
+    }
+    
+    /**
+     * 遍历网络重新统计所有指标
+     * @param network 神经网络
+     */
+    public void rebuild(NeuralNetwork network) {
+        reset(network);
+        for (Edge edge : network.getEdges()) {
+            if (edge.hasWeight()) {
+                addWeight(edge.getWeight(0.0));
+            }
+        }
+        int activated = 0;
+        for (Neuron neuron : network.getNeurons()) {
+            if (neuron.isActivated()) {
+                activated++;
+            }
+        }
+        setActivation(activated, network.getNeuronCount());
+    }
+    
+    /**
+     * 清空指标并绑定到网络的当前状态
+     */
+    void reset(NeuralNetwork network) {
+        this.network = network;
+        this.modCount = network.getModCount();
+        this.stateVersion = network.getStateVersion();
+        this.valid = true;
+        this.weightedEdges = 0;
+        this.weightSum = 0.0;
+        this.saturatedEdges = 0;
+        Arrays.fill(histogram, 0);
+        this.neuronCount = 0;
+        this.activatedNeurons = 0;
+    }
+    
+    /**
+     * 训练器的修改已增量计入指标，把当前修改版本记为已同步
+     */
+    void acknowledge() {
+        stateVersion = network.getStateVersion();
+    }
+    
+    /**
+     * 标记指标失效，下次读取前重新统计
+     */
+    void invalidate() {
+        valid = false;
+    }
+    
+    /**
+     * 判断指标是否反映网络的当前状态
+     * @param network 神经网络
+     * @return 是否同步
+     */
+    public boolean isSynchronized(NeuralNetwork network) {
+        return valid && this.network == network && modCount == network.getModCount()
+                && stateVersion == network.getStateVersion();
+    }
+    
+    /**
+     * 指标与网络不同步时重新统计
+     * @param network 神经网络
+     */
+    public void synchronize(NeuralNetwork network) {
+        if (!isSynchronized(network)) {
+            rebuild(network);
+        }
+    }
+    
+    void addWeight(double weight) {
+        weightedEdges++;
+        weightSum += weight;
+        histogram[binOf(weight)]++;
+        if (isSaturated(weight)) {
+            saturatedEdges++;
+        }
+    }
+    
+    void replaceWeight(double oldWeight, double newWeight) {
+        weightSum += newWeight - oldWeight;
+        int oldBin = binOf(oldWeight);
+        int newBin = binOf(newWeight);
+        if (oldBin != newBin) {
+            histogram[oldBin]--;
+            histogram[newBin]++;
+        }
+        if (isSaturated(oldWeight) != isSaturated(newWeight)) {
+            saturatedEdges += isSaturated(newWeight) ? 1 : -1;
+        }
+    }
+    
+    void setActivation(int activated, int neurons) {
+        this.activatedNeurons = activated;
+        this.neuronCount = neurons;
+    }
+    
+    void activationChanged(boolean oldState, boolean newState) {
+        if (oldState != newState) {
+            activatedNeurons += newState ? 1 : -1;
+        }
+    }
+    
+    private static int binOf(double weight) {
+        int bin = (int) Math.floor((weight + 1.0) / 2.0 * HISTOGRAM_BINS);
+        return Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin));
+    }
+    
+    private static boolean isSaturated(double weight) {
+        return Math.abs(weight) >= 1.0 - SATURATION_EPSILON;
+    }
+    
+    /**
+     * 获取信息为数字的边的平均权重
+     * @return 平均权重，没有这样的边时返回0
+     */
+    public double getMeanWeight() {
+        return weightedEdges > 0 ? weightSum / weightedEdges : 0.0;
+    }
+    
+    /**
+     * 获取权重达到上下限的边所占比例
+     * @return 饱和边比例
+     */
+    public double getSaturatedFraction() {
+        return weightedEdges > 0 ? (double) saturatedEdges / weightedEdges : 0.0;
+    }
+    
+    /**
+     * 获取激活神经元所占比例
+     * @return 激活比例
+     */
+    public double getActivatedFraction() {
+        return neuronCount > 0 ? (double) activatedNeurons / neuronCount : 0.0;
+    }
+    
+    /**
+     * 获取权重直方图，第i个区间为[-1 + 2i/n, -1 + 2(i+1)/n)
+     * @return 直方图副本
+     */
+    public long[] getWeightHistogram() {
+        return histogram.clone();
+    }
+    
+    public long getWeightedEdges() {
+        return weightedEdges;
+    }
+    
+    public long getSaturatedEdges() {
+        return saturatedEdges;
+    }
+    
+    public int getActivatedNeurons() {
+        return activatedNeurons;
+    }
+    
+    @Override
+    public String toString() {
+        return "TrainingMetrics{" +
+                "meanWeight=" + getMeanWeight() +
+                ", saturatedFraction=" + getSaturatedFraction() +
+                ", activatedFraction=" + getActivatedFraction() +
+                ", weightedEdges=" + weightedEdges +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package com.fnw.analysis;
+
+import com.fnw.generator.BarabasiAlbertGenerator;
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 连通分量和社区发现测试类
+ */
+public class GraphAnalysisTest {
+    
+    /**
+     * 创建与示例数据集相同的动物、植物、食物三组网络
+     */
+    private NeuralNetwork createTopicNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        String[] information = {"狗", "哺乳动物", "宠物", "玫瑰", "花", "植物", "苹果", "水果", "红色"};
+        for (int i = 1; i <= 9; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), information[i - 1]));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("1", "3", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是");
+        network.createConnection("4", "5", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("4", "6", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("7", "8", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("7", "9", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "具有颜色");
+        return network;
+    }
+    
+    @Test
+    public void testConnectedComponentsOfTopicNetwork() {
+        NeuralNetwork network = createTopicNetwork();
+        Partition components = ConnectedComponents.compute(network);
+        
+        assertEquals(3, components.getCount());
+        assertArrayEquals(new int[]{0, 0, 0, 1, 1, 1, 2, 2, 2}, components.getComponentOf());
+        assertArrayEquals(new int[]{3, 3, 3}, components.getSizes());
+    }
+    
+    @Test
+    public void testIsolatedNeuronsFormOwnComponents() {
+        NeuralNetwork network = createTopicNetwork();
+        network.addNeuron(new Neuron("10", "孤立"));
+        
+        Partition components = ConnectedComponents.compute(network);
+        assertEquals(4, components.getCount());
+        assertEquals(3, components.componentOf(network.indexOf("10")));
+    }
+    
+    @Test
+    public void testConnectedComponentsOfCompactGraph() {
+        // 无重连的环形格子是一个连通分量
+        CompactGraph ring = new WattsStrogatzGenerator(10000, 4, 0.0, 1L).generateCompact();
+        assertEquals(1, ConnectedComponents.compute(ring).getCount());
+        
+        // 两个互不相连的部分
+        CompactGraph.Builder builder = CompactGraph.builder(6, 4);
+        builder.accept(0, 1, Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        builder.accept(1, 2, Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        builder.accept(3, 5, Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        builder.accept(5, 4, Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        Partition components = ConnectedComponents.compute(builder.build());
+        assertArrayEquals(new int[]{0, 0, 0, 1, 1, 1}, components.getComponentOf());
+    }
+    
+    @Test
+    public void testCompactAndObjectModelAgree() {
+        WattsStrogatzGenerator generator = new WattsStrogatzGenerator(2000, 2, 0.5, 9L);
+        Partition fromCompact = ConnectedComponents.compute(generator.generateCompact());
+        Partition fromNetwork = ConnectedComponents.compute(generator.generateNetwork());
+        
+        assertEquals(fromCompact.getCount(), fromNetwork.getCount());
+        assertArrayEquals(fromCompact.getComponentOf(), fromNetwork.getComponentOf());
+    }
+    
+    @Test
+    public void testLabelPropagationFindsTopicClusters() {
+        NeuralNetwork network = createTopicNetwork();
+        Partition communities = new LabelPropagation().detect(network);
+        
+        assertEquals(3, communities.getCount());
+        assertEquals(communities.componentOf(0), communities.componentOf(1));
+        assertEquals(communities.componentOf(3), communities.componentOf(5));
+        assertNotEquals(communities.componentOf(0), communities.componentOf(6));
+    }
+    
+    @Test
+    public void testLabelPropagationUsesWeights() {
+        // 两个强联结的小团，由一条弱边和一条被削弱（负权重）的边相连
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 0; i < 8; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), null));
+        }
+        for (int group = 0; group < 2; group++) {
+            for (int a = 0; a < 4; a++) {
+                for (int b = a + 1; b < 4; b++) {
+                    network.createConnection(String.valueOf(group * 4 + a), String.valueOf(group * 4 + b),
+                            Edge.Direction.UNDIRECTED, Edge.RelationshipType.SIMILARITY, 0.9);
+                }
+            }
+        }
+        network.createConnection("3", "4", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.05);
+        network.createConnection("0", "7", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, -0.8);
+        
+        assertEquals(1, ConnectedComponents.compute(network).getCount());
+        
+        Partition communities = new LabelPropagation(20, 3L).detect(network);
+        assertEquals(2, communities.getCount());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1, 1, 1, 1}, communities.getComponentOf());
+    }
+    
+    @Test
+    public void testLabelPropagationIsReproducibleAcrossThreadCounts() throws Exception {
+        CompactGraph graph = new BarabasiAlbertGenerator(5000, 3, 21L).generateCompact();
+        LabelPropagation propagation = new LabelPropagation(20, 7L);
+        int[] expected = propagation.detect(graph).getComponentOf();
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 3; run++) {
+                assertArrayEquals(expected, pool.submit(() -> propagation.detect(graph)).get().getComponentOf());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
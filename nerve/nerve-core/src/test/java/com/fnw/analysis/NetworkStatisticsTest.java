@@ -0,0 +1,108 @@
+package com.fnw.analysis;
+
+import com.fnw.generator.BarabasiAlbertGenerator;
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 网络统计测试类
+ */
+public class NetworkStatisticsTest {
+    
+    @Test
+    public void testStatisticsOfNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 6; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("1", "3", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是");
+        network.createConnection("1", "4", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.5);
+        network.createConnection("2", "3", Edge.Direction.BIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, -3.0);
+        network.createConnection("4", "4", Edge.Direction.UNDIRECTED, null, 0.95);
+        network.activateNeuron("1");
+        network.activateNeuron("2");
+        network.activateNeuron("3");
+        
+        NetworkStatistics statistics = NetworkStatistics.compute(network);
+        assertEquals(6, statistics.getNeuronCount());
+        assertEquals(5, statistics.getEdgeCount());
+        assertEquals(0.5, statistics.getActivationRatio());
+        
+        // 度数：1有3条边，2、3、4各2条（自环只计一次），5、6孤立
+        assertEquals(2, statistics.getIsolatedCount());
+        assertArrayEquals(new long[]{2, 0, 3, 1}, statistics.getDegreeDistribution());
+        assertEquals(3, statistics.getMaxDegree());
+        assertEquals(9.0 / 6, statistics.getMeanDegree(), 1e-9);
+        
+        assertEquals(2, statistics.getDirectionCount(Edge.Direction.UNIDIRECTIONAL));
+        assertEquals(1, statistics.getDirectionCount(Edge.Direction.BIDIRECTIONAL));
+        assertEquals(2, statistics.getDirectionCount(Edge.Direction.UNDIRECTED));
+        
+        // 关系描述不是权重，只计入边数量
+        NetworkStatistics.WeightHistogram causality = statistics.getWeightHistogram(Edge.RelationshipType.CAUSALITY);
+        assertEquals(2, causality.getCount());
+        assertEquals(0, causality.getWeightedCount());
+        assertTrue(Double.isNaN(causality.getMax()));
+        
+        // 超出范围的权重计入最低的区间
+        NetworkStatistics.WeightHistogram association = statistics.getWeightHistogram(Edge.RelationshipType.ASSOCIATION);
+        assertEquals(2, association.getWeightedCount());
+        assertEquals(-1.25, association.getMean(), 1e-9);
+        assertEquals(-3.0, association.getMin());
+        assertEquals(0.5, association.getMax());
+        assertEquals(1, association.getBins()[0]);
+        assertEquals(1, association.getBins()[15]);
+        assertEquals(0.5, NetworkStatistics.WeightHistogram.lowerBound(15), 1e-9);
+        
+        NetworkStatistics.WeightHistogram untyped = statistics.getWeightHistogram(null);
+        assertEquals(1, untyped.getBins()[NetworkStatistics.WEIGHT_BINS - 1]);
+        assertEquals((0.5 - 3.0 + 0.95) / 3, statistics.getMeanWeight(), 1e-9);
+    }
+    
+    @Test
+    public void testEmptyNetwork() {
+        NetworkStatistics statistics = NetworkStatistics.compute(new NeuralNetwork());
+        assertEquals(0, statistics.getNeuronCount());
+        assertEquals(0, statistics.getEdgeCount());
+        assertEquals(0.0, statistics.getActivationRatio());
+        assertEquals(0.0, statistics.getMeanWeight());
+        assertArrayEquals(new long[]{0}, statistics.getDegreeDistribution());
+    }
+    
+    @Test
+    public void testStatisticsOfCompactGraph() {
+        // 无重连的环形格子中每个神经元的度数都是4
+        CompactGraph ring = new WattsStrogatzGenerator(1000, 4, 0.0, 1L).generateCompact();
+        NetworkStatistics statistics = NetworkStatistics.compute(ring);
+        assertEquals(2000, statistics.getEdgeCount());
+        assertEquals(0, statistics.getIsolatedCount());
+        assertEquals(4, statistics.getMaxDegree());
+        assertEquals(1000, statistics.getDegreeDistribution()[4]);
+        assertEquals(0, statistics.getActivatedCount());
+    }
+    
+    @Test
+    public void testCompactGraphMatchesObjectModel() {
+        CompactGraph graph = new BarabasiAlbertGenerator(3000, 3, 9L).generateCompact();
+        NetworkStatistics compact = NetworkStatistics.compute(graph);
+        NetworkStatistics object = NetworkStatistics.compute(graph.toNetwork());
+        
+        assertEquals(object.getEdgeCount(), compact.getEdgeCount());
+        assertArrayEquals(object.getDegreeDistribution(), compact.getDegreeDistribution());
+        assertEquals(object.getIsolatedCount(), compact.getIsolatedCount());
+        for (Edge.Direction direction : Edge.Direction.values()) {
+            assertEquals(object.getDirectionCount(direction), compact.getDirectionCount(direction));
+        }
+        for (Edge.RelationshipType type : Edge.RelationshipType.values()) {
+            assertArrayEquals(object.getWeightHistogram(type).getBins(), compact.getWeightHistogram(type).getBins());
+            assertEquals(object.getWeightHistogram(type).getMean(), compact.getWeightHistogram(type).getMean(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.fnw.generator;
+
+import com.fnw.model.CompactGraph;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 网络生成器测试类
+ */
+public class NetworkGeneratorTest {
+    
+    @Test
+    public void testWattsStrogatzEdgeCount() {
+        WattsStrogatzGenerator generator = new WattsStrogatzGenerator(1000, 6, 0.1, 42L);
+        CompactGraph graph = generator.generateCompact();
+        
+        // 每个神经元恰好有 degree/2 条出边
+        assertEquals(1000, graph.getNeuronCount());
+        assertEquals(3000, graph.getEdgeCount());
+        for (int i = 0; i < graph.getNeuronCount(); i++) {
+            assertEquals(3, graph.outDegree(i));
+            for (int e = graph.offset(i); e < graph.offset(i + 1); e++) {
+                assertNotEquals(i, graph.target(e));
+            }
+        }
+    }
+    
+    @Test
+    public void testWattsStrogatzWithoutRewiringIsRingLattice() {
+        CompactGraph graph = new WattsStrogatzGenerator(10, 4, 0.0, 1L).generateCompact();
+        
+        // 神经元9连接0和1（环形）
+        assertEquals(0, graph.target(graph.offset(9)));
+        assertEquals(1, graph.target(graph.offset(9) + 1));
+    }
+    
+    @Test
+    public void testSameSeedGeneratesSameGraph() {
+        CompactGraph first = new BarabasiAlbertGenerator(500, 3, 7L).generateCompact();
+        CompactGraph second = new BarabasiAlbertGenerator(500, 3, 7L).generateCompact();
+        CompactGraph other = new BarabasiAlbertGenerator(500, 3, 8L).generateCompact();
+        
+        boolean differs = false;
+        for (int e = 0; e < first.getEdgeCount(); e++) {
+            assertEquals(first.target(e), second.target(e));
+            differs |= first.target(e) != other.target(e);
+        }
+        assertTrue(differs);
+    }
+    
+    @Test
+    public void testBarabasiAlbertPreferentialAttachment() {
+        BarabasiAlbertGenerator generator = new BarabasiAlbertGenerator(5000, 2, 3L);
+        CompactGraph graph = generator.generateCompact();
+        assertEquals(generator.edgeCount(), graph.getEdgeCount());
+        
+        int[] degrees = new int[graph.getNeuronCount()];
+        for (int i = 0; i < graph.getNeuronCount(); i++) {
+            for (int e = graph.offset(i); e < graph.offset(i + 1); e++) {
+                degrees[i]++;
+                degrees[graph.target(e)]++;
+            }
+        }
+        
+        // 无标度网络中存在度数远大于平均值（约4）的枢纽神经元
+        int maxDegree = 0;
+        for (int degree : degrees) {
+            maxDegree = Math.max(maxDegree, degree);
+        }
+        assertTrue(maxDegree > 40, "最大度数: " + maxDegree);
+    }
+    
+    @Test
+    public void testMixedDirectionsAndRelationshipTypes() {
+        WattsStrogatzGenerator generator = new WattsStrogatzGenerator(200, 4, 0.2, 11L);
+        generator.setDirections(Edge.Direction.UNIDIRECTIONAL, Edge.Direction.BIDIRECTIONAL);
+        generator.setRelationshipTypes(Edge.RelationshipType.values());
+        generator.setWeightRange(-0.5, 0.5);
+        
+        NeuralNetwork network = generator.generateNetwork();
+        assertEquals(200, network.getNeurons().size());
+        assertEquals(400, network.getEdges().size());
+        
+        Set<Edge.Direction> directions = EnumSet.noneOf(Edge.Direction.class);
+        Set<Edge.RelationshipType> types = EnumSet.noneOf(Edge.RelationshipType.class);
+        for (Edge edge : network.getEdges()) {
+            directions.add(edge.getDirection());
+            types.add(edge.getRelationshipType());
+            double weight = ((Number) edge.getInformation()).doubleValue();
+            assertTrue(weight >= -0.5 && weight <= 0.5);
+        }
+        assertEquals(EnumSet.of(Edge.Direction.UNIDIRECTIONAL, Edge.Direction.BIDIRECTIONAL), directions);
+        assertEquals(EnumSet.allOf(Edge.RelationshipType.class), types);
+    }
+    
+    @Test
+    public void testCompactGraphMatchesNetwork() {
+        WattsStrogatzGenerator generator = new WattsStrogatzGenerator(100, 4, 0.3, 5L);
+        generator.setRelationshipTypes(Edge.RelationshipType.CAUSALITY, Edge.RelationshipType.SIMILARITY);
+        CompactGraph graph = generator.generateCompact();
+        NeuralNetwork network = generator.generateNetwork();
+        
+        for (int e = 0; e < graph.getEdgeCount(); e++) {
+            Edge edge = network.getEdges().get(e);
+            assertEquals(String.valueOf(graph.target(e)), edge.getToNeuron().getId());
+            assertEquals(graph.relationshipType(e), edge.getRelationshipType());
+        }
+    }
+    
+    @Test
+    public void testCompactBuilderSortsOutOfOrderEdges() {
+        CompactGraph.Builder builder = CompactGraph.builder(3, 2);
+        builder.accept(2, 0, Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, 0.5);
+        builder.accept(0, 1, Edge.Direction.BIDIRECTIONAL, Edge.RelationshipType.SIMILARITY, 0.25);
+        builder.accept(2, 1, Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        CompactGraph graph = builder.build();
+        
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(1, graph.outDegree(0));
+        assertEquals(0, graph.outDegree(1));
+        assertEquals(2, graph.outDegree(2));
+        assertEquals(1, graph.target(0));
+        assertEquals(Edge.Direction.BIDIRECTIONAL, graph.direction(0));
+        assertEquals(0.25f, graph.weight(0));
+        assertEquals(0, graph.target(1));
+        assertEquals(Edge.RelationshipType.ASSOCIATION, graph.relationshipType(2));
+    }
+}
@@ -0,0 +1,137 @@
+package com.fnw.jfr;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import com.fnw.query.Query;
+import com.fnw.query.QueryEngine;
+import com.fnw.train.HebbianTrainer;
+import com.fnw.train.SimpleDataset;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JFR事件测试类
+ */
+public class FlightEventsTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 4; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, 0.5);
+        network.createConnection("2", "3", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, 0.5);
+        network.createConnection("3", "4", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "导致");
+        return network;
+    }
+    
+    private SimpleDataset createDataset() {
+        SimpleDataset dataset = new SimpleDataset();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            sample.put("1", true);
+            sample.put("2", i % 2 == 0);
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+    
+    @Test
+    public void testTrainingAndQueryEvents() throws IOException {
+        assertTrue(FlightEvents.AVAILABLE);
+        NeuralNetwork network = createNetwork();
+        Path file = Files.createTempFile("nerve", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TrainingEpochEvent.class);
+            recording.enable(TrainingSampleEvent.class);
+            recording.enable(QueryEvent.class);
+            recording.start();
+            
+            long matched = new QueryEngine(network).stream(Query.parse("?x -[导致]-> ?y")).count();
+            new HebbianTrainer(0.1).train(network, createDataset(), 3);
+            
+            recording.stop();
+            recording.dump(file);
+            
+            Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                    .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+            
+            List<RecordedEvent> epochs = events.get("com.fnw.TrainingEpoch");
+            assertEquals(3, epochs.size());
+            RecordedEvent epoch = epochs.get(2);
+            assertEquals(2, epoch.getInt("epoch"));
+            assertEquals(5, epoch.getInt("samples"));
+            assertEquals(15, epoch.getLong("edgesTouched"));
+            assertEquals(HebbianTrainer.class.getName(), epoch.getClass("trainer").getName());
+            
+            List<RecordedEvent> samples = events.get("com.fnw.TrainingSample");
+            assertEquals(15, samples.size());
+            assertEquals(3, samples.get(0).getLong("edgesTouched"));
+            
+            List<RecordedEvent> queries = events.get("com.fnw.Query");
+            assertEquals(1, queries.size());
+            assertEquals(1, queries.get(0).getInt("patterns"));
+            assertEquals(1, matched);
+            assertEquals(matched, queries.get(0).getLong("results"));
+            assertEquals(1, queries.get(0).getLong("edgesTouched"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void testEventsFromDirectTrainEpoch() throws IOException {
+        NeuralNetwork network = createNetwork();
+        Path file = Files.createTempFile("nerve", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TrainingEpochEvent.class);
+            recording.enable(TrainingSampleEvent.class);
+            recording.start();
+            
+            HebbianTrainer trainer = new HebbianTrainer(0.1);
+            trainer.trainEpoch(network, createDataset());
+            trainer.trainEpoch(network, createDataset());
+            trainer.trainEpoch(network);
+            
+            recording.stop();
+            recording.dump(file);
+            
+            Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                    .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+            
+            List<RecordedEvent> epochs = events.get("com.fnw.TrainingEpoch");
+            assertEquals(3, epochs.size());
+            assertEquals(1, epochs.get(1).getInt("epoch"));
+            assertEquals(5, epochs.get(1).getInt("samples"));
+            assertEquals(1, epochs.get(2).getInt("samples"));
+            assertEquals(3, epochs.get(2).getLong("edgesTouched"));
+            
+            List<RecordedEvent> samples = events.get("com.fnw.TrainingSample");
+            assertEquals(10, samples.size());
+            assertEquals(1, samples.get(9).getInt("epoch"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void testNoEventsWithoutRecording() {
+        assertNull(TrainingEpochEvent.start(HebbianTrainer.class, 0));
+        assertNull(TrainingSampleEvent.start(0, 0));
+        assertFalse(TrainingSampleEvent.isRecording());
+        assertNull(QueryEvent.start(1));
+    }
+}
@@ -0,0 +1,124 @@
+package com.fnw.metrics;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 指标注册表测试类
+ */
+public class MetricsRegistryTest {
+    
+    @Test
+    public void testHistogramPercentilesWithinRelativeError() {
+        Histogram histogram = new Histogram();
+        SplittableRandom random = new SplittableRandom(1L);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 + random.nextInt(1_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        
+        assertEquals(10000, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        for (double percentile : new double[]{50.0, 90.0, 99.0}) {
+            long exact = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact * (1.0 + 1.0 / 32), percentile + ": " + estimate + " vs " + exact);
+        }
+        
+        // 小于32的值精确记录
+        Histogram small = new Histogram();
+        small.record(3);
+        small.record(-5);
+        assertEquals(0, small.getValueAtPercentile(50.0));
+        assertEquals(3, small.getValueAtPercentile(100.0));
+    }
+    
+    @Test
+    public void testTextExposition() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("training.samples").add(12);
+        registry.gauge("training.mean_weight").set(0.25);
+        registry.histogram("query.latency_nanos").record(100);
+        
+        String text = TextExposition.format(registry);
+        assertTrue(text.contains("# TYPE training_samples counter\ntraining_samples 12\n"));
+        assertTrue(text.contains("# TYPE training_mean_weight gauge\ntraining_mean_weight 0.25\n"));
+        assertTrue(text.contains("query_latency_nanos{quantile=\"0.5\"} 100\n"));
+        assertFalse(text.contains("\r"));
+        assertTrue(text.contains("query_latency_nanos_count 1\n"));
+        assertEquals("_9lives", TextExposition.sanitize("9lives"));
+    }
+    
+    @Test
+    public void testNetworkGaugesAndJmx() throws Exception {
+        NeuralNetwork network = new NeuralNetwork();
+        network.addNeuron(new Neuron("1", "神经元1"));
+        network.addNeuron(new Neuron("2", "神经元2"));
+        MetricsRegistry registry = new MetricsRegistry();
+        NetworkMetrics.bind(registry, network, "network");
+        assertEquals(2.0, registry.getGauges().get("network.neurons").get(), 0.0);
+        assertThrows(IllegalStateException.class, () -> registry.gauge("network.neurons"));
+        assertThrows(IllegalStateException.class, () -> registry.getGauges().get("network.neurons").set(1.0));
+        
+        // 同一前缀绑定到另一个网络后读取新的网络
+        NeuralNetwork replacement = new NeuralNetwork();
+        replacement.addNeuron(new Neuron("3", "神经元3"));
+        NetworkMetrics.bind(registry, replacement, "network");
+        assertEquals(1.0, registry.getGauges().get("network.neurons").get(), 0.0);
+        NetworkMetrics.bind(registry, network, "network");
+        
+        // 名称已注册为另一种度量值
+        registry.gauge("training.mean_weight").set(0.5);
+        assertThrows(IllegalStateException.class, () -> registry.gauge("training.mean_weight", () -> 1.0));
+        
+        ObjectName name = JmxExporter.register(registry, "com.fnw:type=Metrics,name=test");
+        try {
+            network.createConnection("1", "2", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+            assertEquals(1.0, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "network.edges"));
+            ReflectionException error = assertThrows(ReflectionException.class,
+                    () -> ManagementFactory.getPlatformMBeanServer().invoke(name, "reset", new Object[0], new String[0]));
+            assertTrue(error.getTargetException() instanceof NoSuchMethodException);
+        } finally {
+            JmxExporter.unregister(name);
+        }
+    }
+    
+    @Test
+    public void testHttpEndpoint() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("query.executions").increment();
+        try (MetricsHttpServer server = MetricsHttpServer.start(registry, new InetSocketAddress("localhost", 0))) {
+            URL url = new URL("http://localhost:" + server.getPort() + "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(TextExposition.CONTENT_TYPE, connection.getContentType());
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    body.write(buffer, 0, read);
+                }
+            }
+            assertTrue(new String(body.toByteArray(), StandardCharsets.UTF_8).contains("query_executions 1\n"));
+        }
+    }
+}
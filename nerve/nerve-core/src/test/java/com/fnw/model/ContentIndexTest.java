@@ -0,0 +1,103 @@
+package com.fnw.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 神经元信息内容索引测试类
+ */
+public class ContentIndexTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 9; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), null));
+        }
+        network.storeInformation("1", "狗");
+        network.storeInformation("2", "哺乳动物");
+        network.storeInformation("3", "宠物");
+        network.storeInformation("4", "玫瑰");
+        network.storeInformation("5", "花");
+        network.storeInformation("6", "植物");
+        network.storeInformation("7", "苹果");
+        network.storeInformation("8", "水果");
+        network.storeInformation("9", "红色");
+        return network;
+    }
+    
+    @Test
+    public void testExactMatch() {
+        NeuralNetwork network = createNetwork();
+        
+        assertEquals(Collections.singletonList("1"), network.findNeuronsByContent("狗", ContentIndex.MatchMode.EXACT));
+        assertEquals(Collections.singletonList("7"), network.findNeuronsByContent("苹果", ContentIndex.MatchMode.EXACT));
+        assertTrue(network.findNeuronsByContent("苹", ContentIndex.MatchMode.EXACT).isEmpty());
+    }
+    
+    @Test
+    public void testPrefixMatch() {
+        NeuralNetwork network = createNetwork();
+        network.addNeuron(new Neuron("10", "苹果树"));
+        
+        assertEquals(Arrays.asList("7", "10"), network.findNeuronsByContent("苹果", ContentIndex.MatchMode.PREFIX));
+        assertEquals(Collections.singletonList("2"), network.findNeuronsByContent("哺乳", ContentIndex.MatchMode.PREFIX));
+        
+        // 内容顺序与下标顺序不同时按下标排列
+        network.addNeuron(new Neuron("11", "苹"));
+        assertEquals(Arrays.asList("7", "10", "11"), network.findNeuronsByContent("苹", ContentIndex.MatchMode.PREFIX));
+    }
+    
+    @Test
+    public void testNgramMatch() {
+        NeuralNetwork network = createNetwork();
+        
+        // 单字查询
+        assertEquals(Arrays.asList("2", "3", "6"), network.findNeuronsByContent("物", ContentIndex.MatchMode.NGRAM));
+        assertEquals(Arrays.asList("7", "8"), network.findNeuronsByContent("果", ContentIndex.MatchMode.NGRAM));
+        
+        // 多字查询
+        assertEquals(Collections.singletonList("2"), network.findNeuronsByContent("乳动物", ContentIndex.MatchMode.NGRAM));
+        assertTrue(network.findNeuronsByContent("动乳", ContentIndex.MatchMode.NGRAM).isEmpty());
+    }
+    
+    @Test
+    public void testNgramMatchSupplementaryCharacters() {
+        NeuralNetwork network = createNetwork();
+        // 扩展B区汉字 U+20000、U+20001 各占两个char
+        network.addNeuron(new Neuron("10", "\uD840\uDC00\uD840\uDC01"));
+        network.addNeuron(new Neuron("11", "\uD840\uDC01山"));
+        
+        assertEquals(Arrays.asList("10", "11"), network.findNeuronsByContent("\uD840\uDC01", ContentIndex.MatchMode.NGRAM));
+        assertEquals(Collections.singletonList("11"), network.findNeuronsByContent("\uD840\uDC01山", ContentIndex.MatchMode.NGRAM));
+        // 单独的代理字符不作为一个字建索引
+        assertTrue(network.findNeuronsByContent("\uD840", ContentIndex.MatchMode.NGRAM).isEmpty());
+    }
+    
+    @Test
+    public void testIndexFollowsStoreInformation() {
+        NeuralNetwork network = createNetwork();
+        network.storeInformation("1", "猫");
+        
+        assertTrue(network.findNeuronsByContent("狗", ContentIndex.MatchMode.EXACT).isEmpty());
+        assertEquals(Collections.singletonList("1"), network.findNeuronsByContent("猫", ContentIndex.MatchMode.NGRAM));
+        
+        // 替换同ID的神经元时更新索引
+        network.addNeuron(new Neuron("1", "小狗"));
+        assertTrue(network.findNeuronsByContent("猫", ContentIndex.MatchMode.EXACT).isEmpty());
+        assertEquals(Collections.singletonList("1"), network.findNeuronsByContent("狗", ContentIndex.MatchMode.NGRAM));
+    }
+    
+    @Test
+    public void testActivateByContent() {
+        NeuralNetwork network = createNetwork();
+        
+        assertEquals(2, network.activateByContent("果", ContentIndex.MatchMode.NGRAM));
+        assertTrue(network.getNeuron("7").isActivated());
+        assertTrue(network.getNeuron("8").isActivated());
+        assertFalse(network.getNeuron("9").isActivated());
+    }
+}
@@ -0,0 +1,258 @@
+package com.fnw.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 删除边和神经元测试类
+ */
+public class EdgeRemovalTest {
+    
+    private NeuralNetwork createNetwork(int size) {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 0; i < size; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "概念" + i));
+        }
+        return network;
+    }
+    
+    private Edge connect(NeuralNetwork network, int from, int to, Edge.RelationshipType type, Object information) {
+        Edge edge = new Edge(network.getNeuron(String.valueOf(from)), network.getNeuron(String.valueOf(to)),
+                Edge.Direction.UNIDIRECTIONAL, type, information);
+        network.addEdge(edge);
+        return edge;
+    }
+    
+    @Test
+    public void testRemoveEdge() {
+        NeuralNetwork network = createNetwork(3);
+        Edge first = connect(network, 0, 1, Edge.RelationshipType.CAUSALITY, "导致");
+        Edge second = connect(network, 1, 2, Edge.RelationshipType.CAUSALITY, "导致");
+        Edge third = connect(network, 0, 2, Edge.RelationshipType.ASSOCIATION, 0.5);
+        int modCount = network.getModCount();
+        
+        assertTrue(network.removeEdge(first));
+        assertFalse(network.removeEdge(first));
+        assertTrue(network.getModCount() > modCount);
+        
+        // 邻接表立即更新，边集合和全局索引读取时跳过墓碑
+        assertEquals(1, network.getDegree(0));
+        assertEquals(1, network.getDegree(1));
+        assertEquals(Collections.singletonList(third), network.getEdgesForNeuron(network.getNeuron("0")));
+        assertEquals(2, network.getEdgeCount());
+        assertEquals(Arrays.asList(second, third), network.getEdges());
+        assertEquals(Collections.singletonList(second), network.getEdgesByType(Edge.RelationshipType.CAUSALITY));
+        assertEquals(Collections.singletonList(second), network.getEdgesByLabel("导致"));
+        
+        // 不在网络中的边
+        Edge foreign = new Edge(network.getNeuron("0"), network.getNeuron("1"),
+                Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY);
+        assertFalse(network.removeEdge(foreign));
+        
+        // 删除后重新加入
+        assertTrue(network.removeEdge(third));
+        network.addEdge(third);
+        assertEquals(2, network.getEdgeCount());
+        assertEquals(Arrays.asList(second, third), network.getEdges());
+        assertEquals(1, network.getDegree(0));
+        assertEquals(2, network.getDegree(2));
+    }
+    
+    @Test
+    public void testReadsSkipTombstonesWithoutCompacting() {
+        NeuralNetwork network = createNetwork(3);
+        Edge first = connect(network, 0, 1, Edge.RelationshipType.CAUSALITY, "导致");
+        Edge second = connect(network, 1, 2, Edge.RelationshipType.CAUSALITY, "导致");
+        Edge third = connect(network, 0, 2, Edge.RelationshipType.ASSOCIATION, 0.5);
+        assertTrue(network.removeEdge(first));
+        long edgeBytes = network.estimateMemory().getEdgeBytes();
+        
+        List<Edge> iterated = new ArrayList<>();
+        network.edges().forEach(iterated::add);
+        assertEquals(Arrays.asList(second, third), iterated);
+        List<Edge> causal = new ArrayList<>();
+        network.subgraph(Edge.RelationshipType.CAUSALITY).edges().forEach(causal::add);
+        assertEquals(Collections.singletonList(second), causal);
+        assertEquals(Arrays.asList(second, third), network.getEdges());
+        assertEquals(Collections.singletonList(second), network.getEdgesByLabel("导致"));
+        assertEquals(1, network.getEdgeCount(Edge.RelationshipType.CAUSALITY));
+        assertEquals(1, network.getLabelCount("导致"));
+        assertEquals(3, network.getEdgeSlotCount());
+        assertNull(network.getEdgeSlot(0));
+        assertSame(second, network.getEdgeSlot(1));
+        
+        // 读取返回的是视图，随后的修改立即可见
+        List<Edge> causalView = network.getEdgesByType(Edge.RelationshipType.CAUSALITY);
+        assertTrue(network.removeEdge(second));
+        assertTrue(causalView.isEmpty());
+        assertFalse(causalView.iterator().hasNext());
+        assertEquals(0, network.getLabelCount("导致"));
+        assertThrows(UnsupportedOperationException.class, () -> network.getEdges().remove(third));
+        network.addEdge(second);
+        assertEquals(Collections.singletonList(second), causalView);
+        
+        // 读取不压缩，墓碑仍然占用边集合中的位置
+        assertEquals(edgeBytes, network.estimateMemory().getEdgeBytes());
+        network.compact();
+        assertTrue(network.estimateMemory().getEdgeBytes() < edgeBytes);
+        assertEquals(Arrays.asList(second, third), network.getEdges());
+    }
+    
+    @Test
+    public void testReaddTombstonedEdgeWithoutCompacting() {
+        NeuralNetwork network = createNetwork(3);
+        Edge first = connect(network, 0, 1, Edge.RelationshipType.CAUSALITY, "导致");
+        Edge second = connect(network, 1, 2, Edge.RelationshipType.CAUSALITY, "导致");
+        Edge third = connect(network, 0, 2, Edge.RelationshipType.ASSOCIATION, null);
+        assertTrue(network.removeEdge(first));
+        assertTrue(network.removeEdge(third));
+        
+        // 重新加入只清除自己的墓碑，另一条已删除的边仍占用槽位
+        network.addEdges(Collections.singletonList(third));
+        assertEquals(3, network.getEdgeSlotCount());
+        assertNull(network.getEdgeSlot(0));
+        assertEquals(Arrays.asList(second, third), network.getEdges());
+        assertEquals(1, network.getEdgeCount(Edge.RelationshipType.ASSOCIATION));
+        assertEquals(Collections.singletonList(third), network.getIncidentEdges(0, null));
+        assertEquals(2, network.getDegree(2));
+        
+        network.addEdge(first);
+        assertEquals(3, network.getEdgeSlotCount());
+        assertEquals(Arrays.asList(first, second, third), network.getEdges());
+        assertEquals(2, network.getEdgeCount(Edge.RelationshipType.CAUSALITY));
+        assertEquals(2, network.getLabelCount("导致"));
+        assertEquals(2, network.getDegree(0));
+        
+        // 端点已删除的边重新加入时等端点加入后再建立索引
+        Neuron removed = network.getNeuron("2");
+        assertTrue(network.removeNeuron("2"));
+        network.addEdge(second);
+        assertEquals(1, network.getEdgeCount(Edge.RelationshipType.CAUSALITY));
+        assertEquals(1, network.getDegree(1));
+        network.addNeuron(removed);
+        assertEquals(2, network.getEdgeCount(Edge.RelationshipType.CAUSALITY));
+        assertEquals(2, network.getDegree(1));
+    }
+    
+    @Test
+    public void testRemoveUnindexedEdge() {
+        NeuralNetwork network = createNetwork(1);
+        Neuron pending = new Neuron("待加入", "待加入");
+        Edge edge = new Edge(network.getNeuron("0"), pending, Edge.Direction.UNIDIRECTIONAL, null);
+        network.addEdge(edge);
+        
+        assertTrue(network.removeEdge(edge));
+        assertEquals(0, network.getEdgeCount());
+        network.addNeuron(pending);
+        assertEquals(0, network.getDegree(1));
+        assertTrue(network.getEdges().isEmpty());
+    }
+    
+    @Test
+    public void testRemoveNeuron() {
+        NeuralNetwork network = createNetwork(4);
+        connect(network, 0, 1, Edge.RelationshipType.SIMILARITY, null);
+        connect(network, 1, 2, Edge.RelationshipType.SIMILARITY, null);
+        connect(network, 1, 1, Edge.RelationshipType.SIMILARITY, null);
+        Edge kept = connect(network, 2, 3, Edge.RelationshipType.CAUSALITY, null);
+        Neuron last = network.getNeuron("3");
+        
+        assertTrue(network.removeNeuron("1"));
+        assertFalse(network.removeNeuron("1"));
+        
+        // 最后一个神经元补到空出的下标上
+        assertEquals(3, network.getNeuronCount());
+        assertNull(network.getNeuron("1"));
+        assertEquals(-1, network.indexOf("1"));
+        assertEquals(1, network.indexOf("3"));
+        assertSame(last, network.getNeuron(1));
+        assertEquals(Collections.singletonList(kept), network.getIncidentEdges(1, null));
+        
+        // 相关的边全部删除，内容索引随下标移动
+        assertEquals(Collections.singletonList(kept), network.getEdges());
+        assertEquals(0, network.getDegree(0));
+        assertEquals(1, network.getDegree(2));
+        assertEquals(Collections.singletonList("3"),
+                network.findNeuronsByContent("概念3", ContentIndex.MatchMode.EXACT));
+        assertTrue(network.findNeuronsByContent("概念1", ContentIndex.MatchMode.EXACT).isEmpty());
+        
+        // 删除最后一个神经元
+        assertTrue(network.removeNeuron("3"));
+        assertEquals(2, network.getNeuronCount());
+        assertTrue(network.getEdges().isEmpty());
+        assertEquals(Arrays.asList("0", "2"), network.findNeuronsByContent("概念", ContentIndex.MatchMode.PREFIX));
+    }
+    
+    @Test
+    public void testBulkRemoval() {
+        NeuralNetwork network = createNetwork(5);
+        List<Edge> ring = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ring.add(connect(network, i, (i + 1) % 5, Edge.RelationshipType.ASSOCIATION, null));
+        }
+        
+        assertEquals(2, network.removeEdges(Arrays.asList(ring.get(0), ring.get(2), ring.get(0))));
+        assertEquals(3, network.getEdgeCount());
+        assertEquals(2, network.removeNeurons(Arrays.asList("3", "4", "9")));
+        assertEquals(3, network.getNeuronCount());
+        assertEquals(Collections.singletonList(ring.get(1)), network.getEdges());
+    }
+    
+    @Test
+    public void testChurnKeepsIndexesConsistent() {
+        int size = 200;
+        NeuralNetwork network = createNetwork(size);
+        Random random = new Random(11L);
+        List<Edge> live = new ArrayList<>();
+        for (int step = 0; step < 20000; step++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                Edge.RelationshipType type = Edge.RelationshipType.values()[random.nextInt(4)];
+                live.add(connect(network, random.nextInt(size), random.nextInt(size), type, null));
+            } else {
+                int position = random.nextInt(live.size());
+                Edge edge = live.get(position);
+                live.set(position, live.get(live.size() - 1));
+                live.remove(live.size() - 1);
+                assertTrue(network.removeEdge(edge));
+            }
+            assertEquals(live.size(), network.getEdgeCount());
+        }
+        
+        int[] degrees = new int[size];
+        for (Edge edge : live) {
+            int from = network.indexOf(edge.getFromNeuron().getId());
+            int to = network.indexOf(edge.getToNeuron().getId());
+            degrees[from]++;
+            if (to != from) {
+                degrees[to]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            assertEquals(degrees[i], network.getDegree(i));
+        }
+        Set<Edge> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        expected.addAll(live);
+        assertEquals(live.size(), network.getEdges().size());
+        assertTrue(expected.containsAll(network.getEdges()));
+        int typed = 0;
+        for (Edge.RelationshipType type : Edge.RelationshipType.values()) {
+            int iterated = 0;
+            for (Edge edge : network.getEdgesByType(type)) {
+                assertSame(type, edge.getRelationshipType());
+                iterated++;
+            }
+            assertEquals(iterated, network.getEdgeCount(type));
+            typed += iterated;
+        }
+        assertEquals(live.size(), typed);
+    }
+}
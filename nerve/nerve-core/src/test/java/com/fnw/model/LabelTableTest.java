@@ -0,0 +1,62 @@
+package com.fnw.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 关系描述字符串表测试类
+ */
+public class LabelTableTest {
+    
+    @Test
+    public void testIntern() {
+        LabelTable table = new LabelTable();
+        int code = table.intern("是一种");
+        assertEquals(0, code);
+        assertEquals(code, table.intern(new String("是一种")));
+        assertEquals(1, table.intern("具有颜色"));
+        assertEquals("具有颜色", table.get(1));
+        assertEquals(-1, table.code("是"));
+        assertEquals(2, table.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(2));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.intern(String.join("", Collections.nCopies(LabelTable.MAX_LABEL_LENGTH + 1, "长"))));
+    }
+    
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        LabelTable table = new LabelTable();
+        int labels = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    int[] codes = new int[labels];
+                    for (int i = 0; i < labels; i++) {
+                        codes[i] = table.intern("关系" + i);
+                    }
+                    return codes;
+                }));
+            }
+            int[] expected = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                assertArrayEquals(expected, future.get());
+            }
+            assertEquals(labels, table.size());
+            for (int i = 0; i < labels; i++) {
+                assertEquals("关系" + i, table.get(expected[i]));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.fnw.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 堆内存估计测试类
+ * 与实际测量的堆占用比较时容差较宽，测量值受GC时机影响
+ */
+public class MemoryEstimatorTest {
+    
+    private static final int NEURONS = 20_000;
+    
+    private static final int EDGES = 200_000;
+    
+    private static final double TOLERANCE = 0.1;
+    
+    @Test
+    public void testObjectModeProjectionMatchesMeasurement() {
+        MemoryEstimator estimator = MemoryEstimator.forCurrentJvm();
+        long before = usedHeap();
+        NeuralNetwork network = buildNetwork(NEURONS, EDGES);
+        long measured = usedHeap() - before;
+        
+        long projected = estimator.projectObjectMode(NEURONS, EDGES).getTotalBytes();
+        long estimated = network.estimateMemory().getTotalBytes();
+        assertWithin(measured, projected);
+        assertWithin(measured, estimated);
+        assertEquals(EDGES, network.getEdges().size());
+    }
+    
+    @Test
+    public void testCompactModeProjectionMatchesMeasurement() {
+        MemoryEstimator estimator = MemoryEstimator.forCurrentJvm();
+        int neurons = 100_000;
+        int edges = 2_000_000;
+        long before = usedHeap();
+        CompactGraph graph = buildCompactGraph(neurons, edges);
+        long measured = usedHeap() - before;
+        
+        assertWithin(measured, estimator.projectCompactMode(neurons, edges).getTotalBytes());
+        assertEquals(estimator.projectCompactMode(neurons, edges).getTotalBytes(), estimator.estimate(graph).getTotalBytes());
+    }
+    
+    @Test
+    public void testBreakdown() {
+        MemoryEstimator estimator = new MemoryEstimator(true, true);
+        NeuralNetwork network = new NeuralNetwork();
+        network.addNeuron(new Neuron("a", "苹果"));
+        network.addNeuron(new Neuron("b", "水果"));
+        MemoryFootprint empty = estimator.estimate(network);
+        assertEquals(0, empty.getEdgeBytes() - estimator.listBytes(0));
+        
+        String label = "属于";
+        for (int i = 0; i < 10; i++) {
+            network.createConnection("a", "b", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, label);
+        }
+        MemoryFootprint footprint = estimator.estimate(network);
+        // 边对象：对象头12 + 2个引用8 + payload 8 + idleEpochs 2 + payloadKind、relation 2 = 32
+        assertEquals(10 * 32, footprint.getEdgeBytes() - estimator.listBytes(10));
+        // 关系描述按编码保存在网络的字符串表中，只计一次
+        assertEquals(empty.getPayloadBytes() + estimator.stringBytes(label), footprint.getPayloadBytes());
+        // 移除时回收边对象，以及边集合、两端邻接表、类型分区和关系描述索引中的引用
+        assertEquals(32 + 5 * 4, estimator.estimateRemoval(network.getEdges().get(0)));
+        
+        // 超长的文本按对象保存，同一个对象只计一次
+        String description = String.join("", Collections.nCopies(LabelTable.MAX_LABEL_LENGTH + 1, "长"));
+        network.createConnection("b", "a", Edge.Direction.UNIDIRECTIONAL, null, description);
+        network.createConnection("a", "b", Edge.Direction.UNIDIRECTIONAL, null, description);
+        assertEquals(footprint.getPayloadBytes() + estimator.stringBytes(description), estimator.estimate(network).getPayloadBytes());
+        assertTrue(footprint.getIndexBytes() > empty.getIndexBytes());
+        assertEquals(footprint.getNeuronBytes() + footprint.getEdgeBytes() + footprint.getPayloadBytes() + footprint.getIndexBytes(),
+                footprint.getTotalBytes());
+        
+        // 紧凑图每条边9字节，远小于对象模型
+        MemoryFootprint objectMode = estimator.projectObjectMode(1_000, 100_000);
+        MemoryFootprint compactMode = estimator.projectCompactMode(1_000, 100_000);
+        assertTrue(compactMode.getTotalBytes() * 5 < objectMode.getTotalBytes());
+        assertEquals(0, compactMode.getIndexBytes());
+        assertThrows(IllegalArgumentException.class, () -> estimator.projectObjectMode(-1, 0));
+    }
+    
+    private static void assertWithin(long measured, long estimated) {
+        double error = Math.abs(estimated - measured) / (double) measured;
+        assertTrue(error < TOLERANCE, "估计 " + estimated + " 字节，实测 " + measured + " 字节");
+    }
+    
+    private static NeuralNetwork buildNetwork(int neurons, int edges) {
+        NetworkBuilder builder = new NetworkBuilder();
+        builder.begin(neurons, edges);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int e = 0; e < edges; e++) {
+            int from = random.nextInt(neurons);
+            int to = (from + 1 + random.nextInt(neurons - 1)) % neurons;
+            builder.accept(from, to, Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, random.nextDouble());
+        }
+        return builder.build();
+    }
+    
+    private static CompactGraph buildCompactGraph(int neurons, int edges) {
+        CompactGraph.Builder builder = CompactGraph.builder(neurons, edges);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int e = 0; e < edges; e++) {
+            int from = (int) ((long) e * neurons / edges);
+            builder.accept(from, random.nextInt(neurons), Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, random.nextDouble());
+        }
+        return builder.build();
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
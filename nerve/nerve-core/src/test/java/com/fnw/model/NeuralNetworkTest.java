@@ -40,6 +40,61 @@ public class NeuralNetworkTest {
         assertEquals("连接信息", edge.getInformation());
     }
     
+    @Test
+    public void testEdgePayloadEncoding() {
+        Neuron neuron1 = new Neuron("1", "神经元1");
+        Neuron neuron2 = new Neuron("2", "神经元2");
+        
+        // 权重按原始类型保存，读取时仍是Double
+        Edge weighted = new Edge(neuron1, neuron2, Edge.Direction.UNDIRECTED, null, 0.25);
+        assertTrue(weighted.hasWeight());
+        assertEquals(0.25, weighted.getWeight(0.0));
+        assertEquals(0.25, weighted.getInformation());
+        assertNull(weighted.getLabel());
+        assertNull(weighted.getRelationshipType());
+        
+        // 相同的关系描述在同一个网络的边上共用一份
+        NeuralNetwork network = new NeuralNetwork();
+        network.addNeuron(neuron1);
+        network.addNeuron(neuron2);
+        Edge first = new Edge(neuron1, neuron2, Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY);
+        first.setLabel(new String("是一种"));
+        network.createConnection("2", "1", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, new String("是一种"));
+        Edge second = network.getEdges().get(0);
+        assertEquals("是一种", first.getInformation());
+        assertSame(first.getLabel(), second.getLabel());
+        assertEquals(1, network.getLabelTable().size());
+        assertFalse(first.hasWeight());
+        assertEquals(1.0, first.getWeight(1.0));
+        
+        // 字符串表属于网络，其他网络的描述不会收录进来
+        NeuralNetwork other = new NeuralNetwork();
+        other.addNeuron(new Neuron("a", "甲"));
+        other.addNeuron(new Neuron("b", "乙"));
+        other.createConnection("a", "b", Edge.Direction.UNIDIRECTIONAL, null, "具有颜色");
+        assertEquals(-1, network.getLabelTable().code("具有颜色"));
+        assertEquals("具有颜色", other.getEdges().get(0).getLabel());
+        
+        // 其他途径设置的文本按对象保存在旁表中，不进入字符串表
+        String text = "只出现一次的说明 " + System.nanoTime();
+        Edge described = new Edge(neuron1, neuron2, Edge.Direction.UNIDIRECTIONAL, null, text);
+        assertSame(text, described.getInformation());
+        assertSame(text, described.getLabel());
+        assertEquals(-1, network.getLabelTable().code(text));
+        
+        // 其他类型的信息按原样保存
+        Edge counted = new Edge(neuron1, neuron2, Edge.Direction.BIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, 3);
+        assertEquals(3, counted.getInformation());
+        assertTrue(counted.hasWeight());
+        assertEquals(3.0, counted.getWeight(0.0));
+        counted.setWeight(0.5);
+        assertEquals(0.5, counted.getInformation());
+        counted.setInformation(null);
+        assertNull(counted.getInformation());
+        assertFalse(counted.hasWeight());
+        assertEquals(Edge.Direction.BIDIRECTIONAL, counted.getDirection());
+    }
+    
     @Test
     public void testNeuralNetwork() {
         // 创建神经网络
@@ -0,0 +1,90 @@
+package com.fnw.model;
+
+import com.fnw.analysis.ConnectedComponents;
+import com.fnw.generator.BarabasiAlbertGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 堆外紧凑图测试类
+ */
+public class OffHeapGraphTest {
+    
+    @Test
+    public void testOffHeapGraphMatchesHeapGraph() {
+        CompactGraph heap = new BarabasiAlbertGenerator(2000, 3, 5L).generateCompact();
+        try (OffHeapArena arena = new OffHeapArena()) {
+            CompactGraph offHeap = heap.toOffHeap(arena);
+            assertTrue(offHeap.isOffHeap());
+            assertFalse(heap.isOffHeap());
+            assertEquals(0, heap.getOffHeapBytes());
+            assertEquals(heap.getNeuronCount(), offHeap.getNeuronCount());
+            assertEquals(heap.getEdgeCount(), offHeap.getEdgeCount());
+            for (int i = 0; i < heap.getNeuronCount(); i++) {
+                assertEquals(heap.offset(i), offHeap.offset(i));
+                assertEquals(heap.outDegree(i), offHeap.outDegree(i));
+            }
+            for (int e = 0; e < heap.getEdgeCount(); e++) {
+                assertEquals(heap.target(e), offHeap.target(e));
+                assertEquals(heap.weight(e), offHeap.weight(e));
+                assertEquals(heap.direction(e), offHeap.direction(e));
+                assertEquals(heap.relationshipType(e), offHeap.relationshipType(e));
+            }
+            
+            // 每条边4字节目标、4字节权重、1字节属性，另加 n + 1 个偏移
+            long expected = 4L * (heap.getNeuronCount() + 1) + 9L * heap.getEdgeCount();
+            assertEquals(expected, offHeap.getOffHeapBytes());
+            assertEquals(expected, arena.getAllocatedBytes());
+            assertTrue(MemoryEstimator.forCurrentJvm().estimate(offHeap).getTotalBytes() < 1024);
+            
+            // 分析算法不区分存储位置
+            assertEquals(ConnectedComponents.compute(heap).getCount(),
+                    ConnectedComponents.compute(offHeap).getCount());
+            assertEquals(heap.toNetwork().getEdges().size(), offHeap.toNetwork().getEdges().size());
+            
+            offHeap.setWeight(0, 0.75f);
+            assertEquals(0.75f, offHeap.weight(0));
+            assertNotEquals(0.75f, heap.weight(0));
+        }
+    }
+    
+    @Test
+    public void testPagedSegment() {
+        try (OffHeapArena arena = new OffHeapArena()) {
+            // 每页64字节（16个int），1000个元素跨越63页
+            OffHeapSegment ints = arena.allocate(Integer.BYTES, 1000, 64);
+            int[] values = new int[1000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i * 31;
+            }
+            ints.copyFrom(values);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], ints.getInt(i));
+            }
+            ints.setInt(999, -1);
+            assertEquals(-1, ints.getInt(999));
+            assertThrows(IndexOutOfBoundsException.class, () -> ints.getInt(1000));
+            
+            OffHeapSegment bytes = arena.allocate(Byte.BYTES, 100, 16);
+            bytes.copyFrom(new byte[]{1, 2, 3});
+            assertEquals(3, bytes.getByte(2));
+            assertEquals(0, bytes.getByte(99));
+            assertThrows(IllegalArgumentException.class, () -> bytes.copyFrom(new int[1]));
+            assertThrows(IllegalArgumentException.class, () -> bytes.copyFrom(new byte[101]));
+        }
+    }
+    
+    @Test
+    public void testClosedArena() {
+        CompactGraph heap = new BarabasiAlbertGenerator(100, 2, 1L).generateCompact();
+        OffHeapArena arena = new OffHeapArena();
+        CompactGraph offHeap = heap.toOffHeap(arena);
+        arena.close();
+        arena.close();
+        assertTrue(arena.isClosed());
+        assertEquals(0, arena.getAllocatedBytes());
+        assertThrows(IllegalStateException.class, () -> offHeap.target(0));
+        assertThrows(IllegalStateException.class, () -> heap.toOffHeap(arena));
+    }
+}
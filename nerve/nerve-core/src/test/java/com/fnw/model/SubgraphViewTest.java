@@ -0,0 +1,101 @@
+package com.fnw.model;
+
+import com.fnw.analysis.ConnectedComponents;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 子图视图测试类
+ */
+public class SubgraphViewTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 4; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, 0.8);
+        network.createConnection("2", "3", Edge.Direction.BIDIRECTIONAL, Edge.RelationshipType.SIMILARITY, 0.2);
+        network.createConnection("3", "4", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, -0.5);
+        network.createConnection("1", "4", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, "关联");
+        return network;
+    }
+    
+    private static List<Edge> toList(Iterable<Edge> edges) {
+        List<Edge> result = new ArrayList<>();
+        edges.forEach(result::add);
+        return result;
+    }
+    
+    @Test
+    public void testFilterByRelationshipType() {
+        NeuralNetwork network = createNetwork();
+        SubgraphView causality = network.subgraph(Edge.RelationshipType.CAUSALITY);
+        
+        List<Edge> edges = toList(causality.edges());
+        assertEquals(2, edges.size());
+        for (Edge edge : edges) {
+            assertEquals(Edge.RelationshipType.CAUSALITY, edge.getRelationshipType());
+        }
+        
+        assertEquals(1, causality.getEdgesForNeuron(network.getNeuron("1")).size());
+        assertEquals(0, network.subgraph(Edge.RelationshipType.EQUIVALENCE).getEdgesForNeuron(network.getNeuron("1")).size());
+        assertEquals(2, network.getEdgesForNeuron(network.getNeuron("1")).size());
+    }
+    
+    @Test
+    public void testFilterByDirectionAndWeight() {
+        NeuralNetwork network = createNetwork();
+        SubgraphView view = network.subgraph(EnumSet.allOf(Edge.RelationshipType.class),
+                EnumSet.of(Edge.Direction.UNIDIRECTIONAL, Edge.Direction.UNDIRECTED), 0.0);
+        
+        // 负权重的边被排除，信息不是数字的边视为权重1
+        List<Edge> edges = toList(view.edges());
+        assertEquals(2, edges.size());
+        assertEquals(1, view.getEdgesForNeuron(network.getNeuron("4")).size());
+        assertEquals(2, toList(view.edgesForNeuron(network.indexOf("1"))).size());
+    }
+    
+    @Test
+    public void testViewReflectsNetworkChanges() {
+        NeuralNetwork network = createNetwork();
+        SubgraphView similarity = network.subgraph(Edge.RelationshipType.SIMILARITY);
+        assertEquals(1, toList(similarity.edges()).size());
+        
+        network.createConnection("1", "3", Edge.Direction.BIDIRECTIONAL, Edge.RelationshipType.SIMILARITY, 0.6);
+        assertEquals(2, toList(similarity.edges()).size());
+    }
+    
+    @Test
+    public void testAnalysisAcceptsViews() {
+        NeuralNetwork network = createNetwork();
+        assertEquals(1, ConnectedComponents.compute(network).getCount());
+        
+        // 只看因果关系时，{1,2} 和 {3,4} 互不相连
+        assertArrayEquals(new int[]{0, 0, 1, 1},
+                ConnectedComponents.compute(network.subgraph(Edge.RelationshipType.CAUSALITY)).getComponentOf());
+    }
+    
+    @Test
+    public void testEdgesAddedBeforeNeurons() {
+        NeuralNetwork network = new NeuralNetwork();
+        Neuron neuron1 = new Neuron("1", "神经元1");
+        Neuron neuron2 = new Neuron("2", "神经元2");
+        Edge edge = new Edge(neuron1, neuron2, Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY);
+        network.addEdge(edge);
+        
+        // 端点不在网络中时仍可按神经元查到边
+        assertEquals(1, network.getEdgesForNeuron(neuron1).size());
+        assertEquals(0, toList(network.subgraph(Edge.RelationshipType.CAUSALITY).edges()).size());
+        
+        network.addNeuron(neuron1);
+        network.addNeuron(neuron2);
+        assertEquals(1, network.getEdgesForNeuron(neuron2).size());
+        assertEquals(1, toList(network.subgraph(Edge.RelationshipType.CAUSALITY).edges()).size());
+    }
+}
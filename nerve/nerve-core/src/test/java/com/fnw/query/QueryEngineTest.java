@@ -0,0 +1,139 @@
+package com.fnw.query;
+
+import com.fnw.metrics.MetricsRegistry;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 结构查询引擎测试类
+ */
+public class QueryEngineTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        String[] information = {"狗", "哺乳动物", "宠物", "玫瑰", "花", "植物", "苹果", "水果", "红色"};
+        for (int i = 1; i <= 9; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), information[i - 1]));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("1", "3", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是");
+        network.createConnection("4", "5", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("4", "6", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("7", "8", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        network.createConnection("7", "9", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "具有颜色");
+        return network;
+    }
+    
+    private List<Binding> collect(Iterator<Binding> iterator) {
+        List<Binding> results = new ArrayList<>();
+        iterator.forEachRemaining(results::add);
+        return results;
+    }
+    
+    @Test
+    public void testParse() {
+        Query query = Query.parse("?x -[是一种]-> ?y, ?x -[具有颜色:CAUSALITY]-> ?z and 1 -[]-> ?w");
+        
+        assertEquals(3, query.getPatterns().size());
+        TriplePattern second = query.getPatterns().get(1);
+        assertEquals("?x", second.getSubject());
+        assertEquals("具有颜色", second.getLabel());
+        assertEquals(Edge.RelationshipType.CAUSALITY, second.getRelationshipType());
+        assertNull(query.getPatterns().get(2).getLabel());
+        assertEquals("[?x, ?y, ?z, ?w]", query.getVariables().toString());
+        
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("?x -> ?y"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("?x -[是:UNKNOWN]-> ?y"));
+    }
+    
+    @Test
+    public void testJoinOnSharedVariable() {
+        QueryEngine engine = new QueryEngine(createNetwork());
+        
+        List<Binding> results = collect(engine.execute("?x -[是一种]-> ?y, ?x -[具有颜色]-> ?z"));
+        assertEquals(1, results.size());
+        Binding binding = results.get(0);
+        assertEquals("7", binding.getId("?x"));
+        assertEquals("8", binding.getId("?y"));
+        assertEquals("9", binding.getId("?z"));
+        assertEquals("苹果", binding.get("?x").getInformation());
+    }
+    
+    @Test
+    public void testSingleLabelAndConstants() {
+        QueryEngine engine = new QueryEngine(createNetwork());
+        
+        List<String> subjects = engine.stream(Query.parse("?x -[是一种]-> ?y"))
+                .map(b -> b.getId("?x") + "->" + b.getId("?y"))
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(4, subjects.size());
+        assertEquals("[1->2, 4->5, 4->6, 7->8]", subjects.toString());
+        
+        // 常量端点
+        List<Binding> fromFour = collect(engine.execute("4 -[是一种]-> ?y"));
+        assertEquals(2, fromFour.size());
+        // 单向边不能反向匹配
+        assertTrue(collect(engine.execute("2 -[是一种]-> ?y")).isEmpty());
+        // 不存在的神经元没有结果
+        assertTrue(collect(engine.execute("100 -[是一种]-> ?y")).isEmpty());
+    }
+    
+    @Test
+    public void testUndirectedEdgesMatchBothWays() {
+        NeuralNetwork network = createNetwork();
+        network.createConnection("3", "5", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, "相关");
+        QueryEngine engine = new QueryEngine(network);
+        
+        List<Binding> results = collect(engine.execute("?a -[相关]-> ?b"));
+        assertEquals(2, results.size());
+        assertEquals(1, collect(engine.execute("5 -[相关]-> 3")).size());
+        
+        // 关系类型过滤
+        assertEquals(2, collect(engine.execute("?a -[:ASSOCIATION]-> ?b")).size());
+        assertTrue(collect(engine.execute("?a -[相关:CAUSALITY]-> ?b")).isEmpty());
+    }
+    
+    @Test
+    public void testPlanPrefersSelectivePatterns() {
+        QueryEngine engine = new QueryEngine(createNetwork());
+        
+        QueryPlan plan = engine.plan(Query.parse("?x -[是一种]-> ?y, ?x -[具有颜色]-> ?z"));
+        List<QueryPlan.Step> steps = plan.getSteps();
+        assertEquals(2, steps.size());
+        // “具有颜色”只有一条边，先执行；第二步沿已绑定的 ?x 的邻接表扩展
+        assertEquals("具有颜色", steps.get(0).getPattern().getLabel());
+        assertEquals(QueryPlan.AccessPath.LABEL_INDEX, steps.get(0).getAccessPath());
+        assertEquals(QueryPlan.AccessPath.SUBJECT_ADJACENCY, steps.get(1).getAccessPath());
+        
+        QueryPlan typed = engine.plan(Query.parse("?x -[:CAUSALITY]-> ?y"));
+        assertEquals(QueryPlan.AccessPath.TYPE_INDEX, typed.getSteps().get(0).getAccessPath());
+        QueryPlan scan = engine.plan(Query.parse("?x -[]-> ?y"));
+        assertEquals(QueryPlan.AccessPath.FULL_SCAN, scan.getSteps().get(0).getAccessPath());
+    }
+    
+    @Test
+    public void testMetricsRecordedWhenResultsExhausted() {
+        QueryEngine engine = new QueryEngine(createNetwork());
+        MetricsRegistry registry = new MetricsRegistry();
+        engine.setMetrics(registry);
+        
+        collect(engine.execute("?x -[是一种]-> ?y, ?x -[具有颜色]-> ?z"));
+        collect(engine.execute("?x -[不存在]-> ?y"));
+        // 没有迭代完的查询只计入次数
+        engine.execute("?x -[]-> ?y");
+        
+        assertEquals(3L, registry.counter("query.executions").get());
+        assertEquals(1L, registry.counter("query.results").get());
+        assertEquals(2L, registry.histogram("query.latency_nanos").getCount());
+    }
+}
@@ -0,0 +1,244 @@
+package com.fnw.train;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.NeuralNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分布式训练测试类
+ */
+public class DistributedTrainerTest {
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private static NeuralNetwork createNetwork() {
+        return new WattsStrogatzGenerator(500, 6, 0.1, 7L).generateNetwork();
+    }
+    
+    private static List<NeuralNetwork> trainInProcess(int worldSize, int epochs, int syncInterval) throws Exception {
+        return trainInProcess(worldSize, epochs, syncInterval, true);
+    }
+    
+    /**
+     * 在当前JVM中用多个线程模拟多个进程训练，返回每个进程训练后的网络
+     * @param withDataset 为false时各进程激活不同的神经元，不使用数据集训练
+     */
+    private static List<NeuralNetwork> trainInProcess(int worldSize, int epochs, int syncInterval,
+                                                      boolean withDataset) throws Exception {
+        int port = freePort();
+        ExecutorService executor = Executors.newFixedThreadPool(worldSize);
+        try {
+            List<Future<NeuralNetwork>> futures = new ArrayList<>();
+            for (int rank = 0; rank < worldSize; rank++) {
+                int current = rank;
+                futures.add(executor.submit(() -> {
+                    NeuralNetwork network = createNetwork();
+                    SimpleDataset dataset = DistributedTrainingExample.createDataset(network, 200, 7L);
+                    try (SocketAllReduce communicator = SocketAllReduce.join(current, worldSize,
+                            new InetSocketAddress("localhost", port), 10000)) {
+                        DistributedTrainer trainer = new DistributedTrainer(new HebbianRule(), 0.001, communicator);
+                        trainer.setSyncInterval(syncInterval);
+                        if (withDataset) {
+                            trainer.train(network, dataset, epochs);
+                        } else {
+                            for (int i = current; i < network.getNeuronCount(); i += worldSize) {
+                                network.getNeuron(i).setActivated(true);
+                            }
+                            trainer.train(network, epochs);
+                        }
+                        assertEquals((epochs + syncInterval - 1) / syncInterval, trainer.getSynchronizations());
+                    }
+                    return network;
+                }));
+            }
+            List<NeuralNetwork> networks = new ArrayList<>();
+            for (Future<NeuralNetwork> future : futures) {
+                networks.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return networks;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testSparseDeltaRoundTrip() throws IOException {
+        double[] base = new double[1000];
+        double[] current = base.clone();
+        current[3] = 0.25;
+        current[200] = -0.5;
+        current[999] = 0.125;
+        SparseDelta delta = SparseDelta.between(base, current);
+        assertEquals(3, delta.size());
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        delta.write(new DataOutputStream(bytes));
+        assertEquals(delta.encodedSize(), bytes.size());
+        // 3条边：数量1字节，下标差值1 + 2 + 2字节，变化量各4字节
+        assertEquals(18, bytes.size());
+        
+        SparseDelta decoded = SparseDelta.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        double[] restored = base.clone();
+        decoded.addTo(restored);
+        assertArrayEquals(current, restored, 0.0);
+    }
+    
+    @Test
+    public void testAveragesShardDeltas() throws Exception {
+        List<NeuralNetwork> networks = trainInProcess(3, 1, 1);
+        
+        // 参考结果：每个分片单独训练一轮，再平均权重变化量
+        NeuralNetwork initial = createNetwork();
+        double[] expected = new double[initial.getEdges().size()];
+        for (int rank = 0; rank < 3; rank++) {
+            NeuralNetwork local = createNetwork();
+            SimpleDataset dataset = DistributedTrainingExample.createDataset(local, 200, 7L);
+            new HebbianTrainer(0.001).trainEpoch(local, new DatasetShard(dataset, rank, 3));
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] += (local.getEdges().get(i).getWeight(0.0) - initial.getEdges().get(i).getWeight(0.0)) / 3;
+            }
+        }
+        for (NeuralNetwork network : networks) {
+            for (int i = 0; i < expected.length; i++) {
+                double actual = network.getEdges().get(i).getWeight(0.0) - initial.getEdges().get(i).getWeight(0.0);
+                assertEquals(expected[i], actual, 1e-6);
+            }
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testShardShuffleKeepsOrder() {
+        NeuralNetwork network = createNetwork();
+        DatasetShard shard = new DatasetShard(DistributedTrainingExample.createDataset(network, 20, 7L), 1, 3);
+        List<Map<String, Boolean>> before = shard.getAllSamples();
+        shard.shuffle();
+        assertEquals(before, shard.getAllSamples());
+    }
+    
+    /**
+     * 连接到协调者，协调者还没有开始监听时重试
+     */
+    private static Socket connect(InetSocketAddress address) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            try {
+                return new Socket(address.getAddress(), address.getPort());
+            } catch (ConnectException e) {
+                assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(20);
+            }
+        }
+    }
+    
+    @Test
+    public void testCoordinatorDropsForeignConnections() throws Exception {
+        InetSocketAddress address = new InetSocketAddress("localhost", freePort());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SocketAllReduce> coordinator = executor.submit(() -> SocketAllReduce.join(0, 2, address, 10000));
+            // 协议不一致的连接被丢弃，之后的进程仍然可以加入
+            try (Socket foreign = connect(address)) {
+                DataOutputStream out = new DataOutputStream(foreign.getOutputStream());
+                out.writeInt(0x12345678);
+                out.flush();
+            }
+            Future<SocketAllReduce> worker = executor.submit(() -> SocketAllReduce.join(1, 2, address, 10000));
+            try (SocketAllReduce first = coordinator.get(30, TimeUnit.SECONDS);
+                 SocketAllReduce second = worker.get(30, TimeUnit.SECONDS)) {
+                Future<SparseDelta> remote = executor.submit(() -> second.average(SparseDelta.of(new double[]{0.0, 1.0}), 2));
+                double[] average = new double[2];
+                first.average(SparseDelta.of(new double[]{1.0, 0.0}), 2).addTo(average);
+                assertArrayEquals(new double[]{0.5, 0.5}, average, 1e-6);
+                double[] received = new double[2];
+                remote.get(30, TimeUnit.SECONDS).addTo(received);
+                assertArrayEquals(average, received, 0.0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testProcessesEndWithIdenticalWeights() throws Exception {
+        List<NeuralNetwork> networks = trainInProcess(2, 5, 2);
+        long checksum = DistributedTrainingExample.checksum(networks.get(0));
+        assertEquals(checksum, DistributedTrainingExample.checksum(networks.get(1)));
+        assertNotEquals(DistributedTrainingExample.checksum(createNetwork()), checksum);
+    }
+    
+    @Test
+    public void testTrainWithoutDatasetSynchronizes() throws Exception {
+        List<NeuralNetwork> networks = trainInProcess(2, 3, 2, false);
+        long checksum = DistributedTrainingExample.checksum(networks.get(0));
+        assertEquals(checksum, DistributedTrainingExample.checksum(networks.get(1)));
+        assertNotEquals(DistributedTrainingExample.checksum(createNetwork()), checksum);
+        
+        // 不随机激活神经元
+        NeuralNetwork first = networks.get(0);
+        for (int i = 0; i < first.getNeuronCount(); i++) {
+            assertEquals(i % 2 == 0, first.getNeuron(i).isActivated());
+        }
+    }
+    
+    @Test
+    public void testSeparateJvmsOnLocalhost() throws Exception {
+        int port = freePort();
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<Process> processes = new ArrayList<>();
+        for (int rank = 0; rank < 2; rank++) {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    DistributedTrainingExample.class.getName(), String.valueOf(rank), "2", String.valueOf(port));
+            builder.redirectErrorStream(true);
+            processes.add(builder.start());
+        }
+        
+        List<String> checksums = new ArrayList<>();
+        for (Process process : processes) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("checksum=")) {
+                        checksums.add(line.substring("checksum=".length()));
+                    }
+                }
+            }
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+            assertEquals(0, process.exitValue());
+        }
+        
+        assertEquals(2, checksums.size());
+        assertEquals(checksums.get(0), checksums.get(1));
+        // 与同一JVM中两个线程的训练结果一致
+        List<NeuralNetwork> networks = trainInProcess(2, 5, 2);
+        assertEquals(String.valueOf(DistributedTrainingExample.checksum(networks.get(0))), checksums.get(0));
+    }
+}
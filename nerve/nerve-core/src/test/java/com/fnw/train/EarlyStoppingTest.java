@@ -0,0 +1,74 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 提前停止测试类
+ */
+public class EarlyStoppingTest {
+    
+    private NeuralNetwork createActiveNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 3; i++) {
+            Neuron neuron = new Neuron(String.valueOf(i), "神经元" + i);
+            neuron.setActivated(true);
+            network.addNeuron(neuron);
+        }
+        network.createConnection("1", "2", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+        network.createConnection("2", "3", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+        return network;
+    }
+    
+    @Test
+    public void testWeightDeltaTrackedDuringWriteBack() {
+        NeuralNetwork network = createActiveNetwork();
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        trainer.train(network, 1);
+        
+        assertEquals(0.1, trainer.getLastMaxWeightDelta(), 1e-12);
+        assertEquals(Math.sqrt(2) * 0.1, trainer.getLastL2WeightDelta(), 1e-12);
+    }
+    
+    @Test
+    public void testStopsAfterWeightsSaturate() {
+        NeuralNetwork network = createActiveNetwork();
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        trainer.setEarlyStopping(new EarlyStopping(1e-9, 3, EarlyStopping.Metric.MAX));
+        trainer.train(network, 1000);
+        
+        // 10轮后权重达到上限1.0，再连续3轮没有变化后停止
+        assertEquals(13, trainer.getEpochsTrained());
+        assertEquals(1.0, network.getEdges().get(0).getWeight(0.0), 1e-12);
+    }
+    
+    @Test
+    public void testL2MetricAndPatience() {
+        EarlyStopping stopping = new EarlyStopping(0.05, 2, EarlyStopping.Metric.L2);
+        assertFalse(stopping.update(0.01, 0.1));
+        assertFalse(stopping.update(0.01, 0.01));
+        // 变化量回升时重新计数
+        assertFalse(stopping.update(0.01, 0.2));
+        assertFalse(stopping.update(0.01, 0.01));
+        // 没有更新权重的轮次不计入
+        assertFalse(stopping.update(Double.NaN, Double.NaN));
+        assertTrue(stopping.update(0.01, 0.01));
+        
+        assertThrows(IllegalArgumentException.class, () -> new EarlyStopping(0.1, 0, EarlyStopping.Metric.MAX));
+    }
+    
+    @Test
+    public void testTrainerWithoutRuleRunsAllEpochs() {
+        NeuralNetwork network = createActiveNetwork();
+        BaseTrainer trainer = new BaseTrainer(0.1);
+        trainer.setEarlyStopping(new EarlyStopping(1.0));
+        trainer.train(network, 5);
+        
+        assertEquals(5, trainer.getEpochsTrained());
+        assertTrue(Double.isNaN(trainer.getLastMaxWeightDelta()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.fnw.train;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.NeuralNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hogwild训练器测试类
+ */
+public class HogwildTrainerTest {
+    
+    private NeuralNetwork createNetwork() {
+        return new WattsStrogatzGenerator(200, 4, 0.1, 1L).generateNetwork();
+    }
+    
+    /**
+     * 创建数据集
+     * @param complete 为true时每个样本给出所有神经元的状态，激活状态不依赖之前的样本
+     */
+    private SimpleDataset createDataset(NeuralNetwork network, int size, boolean complete) {
+        SplittableRandom random = new SplittableRandom(5L);
+        SimpleDataset dataset = new SimpleDataset();
+        for (int s = 0; s < size; s++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            int count = complete ? network.getNeuronCount() : 20;
+            for (int k = 0; k < count; k++) {
+                int index = complete ? k : random.nextInt(network.getNeuronCount());
+                sample.put(network.getNeuron(index).getId(), random.nextInt(3) == 0);
+            }
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+    
+    @Test
+    public void testSingleThreadMatchesHebbianTrainer() {
+        NeuralNetwork sequential = createNetwork();
+        SimpleDataset dataset = createDataset(sequential, 100, false);
+        new HebbianTrainer(0.001).train(sequential, dataset, 2);
+        
+        NeuralNetwork hogwild = createNetwork();
+        new HogwildTrainer(0.001, 1).train(hogwild, dataset, 2);
+        
+        for (int i = 0; i < sequential.getEdges().size(); i++) {
+            assertEquals(sequential.getEdges().get(i).getWeight(0.0), hogwild.getEdges().get(i).getWeight(0.0), 0.0);
+        }
+    }
+    
+    @Test
+    public void testWithoutDatasetMatchesHebbianTrainer() {
+        NeuralNetwork sequential = createNetwork();
+        NeuralNetwork hogwild = createNetwork();
+        for (int i = 0; i < sequential.getNeuronCount(); i += 3) {
+            sequential.getNeuron(i).setActivated(true);
+            hogwild.getNeuron(i).setActivated(true);
+        }
+        new HebbianTrainer(0.01).train(sequential, 3);
+        new HogwildTrainer(0.01, 2).train(hogwild, 3);
+        
+        // 不随机激活神经元，激活状态保持不变
+        for (int i = 0; i < sequential.getNeuronCount(); i++) {
+            assertEquals(i % 3 == 0, hogwild.getNeuron(i).isActivated());
+        }
+        for (int i = 0; i < sequential.getEdges().size(); i++) {
+            assertEquals(sequential.getEdges().get(i).getWeight(0.0), hogwild.getEdges().get(i).getWeight(0.0), 0.0);
+        }
+    }
+    
+    @Test
+    public void testMultiThreadStaysCloseToSequential() {
+        NeuralNetwork sequential = createNetwork();
+        SimpleDataset dataset = createDataset(sequential, 400, true);
+        new HebbianTrainer(0.001).train(sequential, dataset, 1);
+        
+        NeuralNetwork hogwild = createNetwork();
+        HogwildTrainer trainer = new HogwildTrainer(0.001, 4);
+        trainer.train(hogwild, dataset, 1);
+        
+        // 样本给出完整的激活状态时，差异只来自线程之间丢失的写入
+        double error = 0.0;
+        double scale = 0.0;
+        for (int i = 0; i < sequential.getEdges().size(); i++) {
+            double expected = sequential.getEdges().get(i).getWeight(0.0);
+            double actual = hogwild.getEdges().get(i).getWeight(0.0);
+            assertTrue(actual >= -1.0 && actual <= 1.0);
+            error += Math.abs(expected - actual);
+            scale += Math.abs(expected);
+        }
+        assertTrue(error / scale < 0.2, "相对误差: " + error / scale);
+        TrainingMetrics rebuilt = new TrainingMetrics();
+        rebuilt.rebuild(hogwild);
+        assertEquals(rebuilt.getMeanWeight(), trainer.getMetrics().getMeanWeight(), 1e-9);
+    }
+    
+    @Test
+    public void testFinalActivationsMatchSequential() {
+        NeuralNetwork sequential = createNetwork();
+        SimpleDataset dataset = createDataset(sequential, 100, false);
+        new HebbianTrainer(0.001).train(sequential, dataset, 2);
+        
+        // 每个样本只给出部分神经元的状态，结束时的激活状态仍与分片方式无关
+        NeuralNetwork hogwild = createNetwork();
+        try (HogwildTrainer trainer = new HogwildTrainer(0.001, 3)) {
+            trainer.train(hogwild, dataset, 2);
+        }
+        for (int i = 0; i < sequential.getNeuronCount(); i++) {
+            assertEquals(sequential.getNeuron(i).isActivated(), hogwild.getNeuron(i).isActivated());
+        }
+    }
+    
+    @Test
+    public void testRejectsUnsupportedFeatures() {
+        NeuralNetwork network = createNetwork();
+        SimpleDataset dataset = createDataset(network, 10, false);
+        HogwildTrainer trainer = new HogwildTrainer(0.01, 2);
+        trainer.setNeurogenesis(new Neurogenesis(2.0, 64));
+        assertThrows(IllegalStateException.class, () -> trainer.train(network, dataset, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HogwildTrainer(0.01, 0));
+    }
+}
@@ -0,0 +1,186 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 学习规则测试类
+ */
+public class LearningRuleTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        network.addNeuron(new Neuron("1", "神经元1"));
+        network.addNeuron(new Neuron("2", "神经元2"));
+        network.createConnection("1", "2", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, 0.0);
+        return network;
+    }
+    
+    private double weightOf(NeuralNetwork network) {
+        return ((Number) network.getEdges().get(0).getInformation()).doubleValue();
+    }
+    
+    @Test
+    public void testHebbianRuleMatchesPerEdgeUpdate() {
+        SplittableRandom random = new SplittableRandom(7L);
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 0; i < 50; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), null));
+        }
+        for (int i = 0; i < 300; i++) {
+            Object information = random.nextBoolean() ? (Object) (random.nextDouble() * 2 - 1) : "标签";
+            network.createConnection(String.valueOf(random.nextInt(50)), String.valueOf(random.nextInt(50)),
+                    Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, information);
+        }
+        for (Neuron neuron : network.getNeurons()) {
+            neuron.setActivated(random.nextBoolean());
+        }
+        
+        // 逐条边计算期望的权重
+        double learningRate = 0.3;
+        double[] expected = new double[network.getEdges().size()];
+        for (int i = 0; i < expected.length; i++) {
+            Edge edge = network.getEdges().get(i);
+            double weight = edge.getWeight(0.0);
+            boolean from = edge.getFromNeuron().isActivated();
+            boolean to = edge.getToNeuron().isActivated();
+            if (from && to) {
+                weight += learningRate;
+            } else if (from || to) {
+                weight -= learningRate * 0.5;
+            } else {
+                weight -= learningRate * 0.1;
+            }
+            expected[i] = Math.max(-1.0, Math.min(1.0, weight));
+        }
+        
+        new HebbianTrainer(learningRate).trainEpoch(network);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], network.getEdges().get(i).getWeight(Double.NaN), 1e-12);
+        }
+    }
+    
+    @Test
+    public void testEdgesWithEndpointsOutsideNetwork() {
+        NeuralNetwork network = createNetwork();
+        Neuron outside = new Neuron("外部", null);
+        outside.setActivated(true);
+        network.getNeuron("1").setActivated(true);
+        Edge edge = new Edge(network.getNeuron("1"), outside, Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, 0.0);
+        network.addEdge(edge);
+        
+        EdgeBatch batch = EdgeBatch.compile(network);
+        assertEquals(3, batch.getNeuronCount());
+        assertEquals(2, batch.getTo()[1]);
+        
+        new HebbianTrainer(0.1).trainEpoch(network);
+        assertEquals(0.1, ((Number) edge.getInformation()).doubleValue(), 1e-12);
+    }
+    
+    @Test
+    public void testOjaRuleIsSelfNormalizing() {
+        NeuralNetwork network = createNetwork();
+        network.getNeuron("1").setActivated(true);
+        network.getNeuron("2").setActivated(true);
+        
+        // x = y = 1 时 Δw = η(1 − w)，权重收敛到1而不是被截断
+        Trainer trainer = TrainerFactory.createTrainer(TrainerFactory.TrainerType.OJA, 0.5);
+        trainer.trainEpoch(network);
+        assertEquals(0.5, weightOf(network), 1e-12);
+        trainer.trainEpoch(network);
+        assertEquals(0.75, weightOf(network), 1e-12);
+        
+        // 目标神经元未激活时权重不变
+        network.getNeuron("2").setActivated(false);
+        trainer.trainEpoch(network);
+        assertEquals(0.75, weightOf(network), 1e-12);
+    }
+    
+    @Test
+    public void testBcmThresholdSlowsPotentiation() {
+        NeuralNetwork network = createNetwork();
+        network.getNeuron("1").setActivated(true);
+        network.getNeuron("2").setActivated(true);
+        
+        BcmRule rule = new BcmRule(0.5);
+        Trainer trainer = new LearningRuleTrainer(rule, 0.1);
+        trainer.trainEpoch(network);
+        double first = weightOf(network);
+        assertEquals(0.1, first, 1e-12);
+        assertEquals(0.5, rule.getThreshold(1), 1e-12);
+        
+        trainer.trainEpoch(network);
+        double second = weightOf(network) - first;
+        assertEquals(0.05, second, 1e-12);
+        
+        assertThrows(IllegalArgumentException.class, () -> new BcmRule(0.0));
+    }
+    
+    @Test
+    public void testStdpRuleUsesActivationOrder() {
+        SimpleDataset causal = new SimpleDataset();
+        causal.addSample(sample(true, false));
+        causal.addSample(sample(false, true));
+        
+        NeuralNetwork network = createNetwork();
+        Trainer trainer = TrainerFactory.createTrainer(TrainerFactory.TrainerType.STDP, 0.1);
+        trainer.train(network, causal, 1);
+        assertEquals(0.1, weightOf(network), 1e-12);
+        
+        // 先激活目标神经元再激活起始神经元时减弱连接
+        SimpleDataset acausal = new SimpleDataset();
+        acausal.addSample(sample(false, true));
+        acausal.addSample(sample(true, false));
+        network = createNetwork();
+        trainer.train(network, acausal, 1);
+        assertEquals(-0.1, weightOf(network), 1e-12);
+    }
+    
+    @Test
+    public void testRulesResetStateWhenNeuronIndicesMove() {
+        // 阈值和上一时刻的激活状态都记在下标1（神经元2）上，删除神经元2后神经元3移到下标1
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 3; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        network.createConnection("1", "3", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, 0.0);
+        network.getNeuron("2").setActivated(true);
+        BcmRule bcm = new BcmRule(0.5);
+        Trainer bcmTrainer = new LearningRuleTrainer(bcm, 0.1);
+        bcmTrainer.trainEpoch(network);
+        bcmTrainer.trainEpoch(network);
+        assertEquals(0.75, bcm.getThreshold(1), 1e-12);
+        StdpRule stdp = new StdpRule();
+        Trainer stdpTrainer = new LearningRuleTrainer(stdp, 0.1);
+        stdpTrainer.trainEpoch(network);
+        
+        assertTrue(network.removeNeuron("2"));
+        assertEquals(1, network.indexOf("3"));
+        
+        // 神经元3没有激活过，不应继承神经元2的激活状态
+        network.getNeuron("1").setActivated(true);
+        stdpTrainer.trainEpoch(network);
+        assertEquals(0.0, weightOf(network), 1e-12);
+        
+        // 神经元3的阈值从0开始
+        network.getNeuron("3").setActivated(true);
+        bcmTrainer.trainEpoch(network);
+        assertEquals(0.1, weightOf(network), 1e-12);
+        assertEquals(0.5, bcm.getThreshold(1), 1e-12);
+    }
+    
+    private Map<String, Boolean> sample(boolean first, boolean second) {
+        Map<String, Boolean> sample = new HashMap<>();
+        sample.put("1", first);
+        sample.put("2", second);
+        return sample;
+    }
+}
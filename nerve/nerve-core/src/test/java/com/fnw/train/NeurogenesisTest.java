@@ -0,0 +1,147 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 神经发生测试类
+ */
+public class NeurogenesisTest {
+    
+    private NeuralNetwork createNetwork(int neuronCount) {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= neuronCount; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        return network;
+    }
+    
+    private Map<String, Boolean> sample(String... activeIds) {
+        Map<String, Boolean> sample = new HashMap<>();
+        for (int i = 1; i <= 4; i++) {
+            sample.put(String.valueOf(i), false);
+        }
+        for (String id : activeIds) {
+            sample.put(id, true);
+        }
+        return sample;
+    }
+    
+    @Test
+    public void testFrequentPairsBecomeEdges() {
+        NeuralNetwork network = createNetwork(4);
+        SimpleDataset dataset = new SimpleDataset();
+        dataset.addSample(sample("1", "2"));
+        dataset.addSample(sample("1", "2", "3"));
+        dataset.addSample(sample("1", "2"));
+        dataset.addSample(sample("4"));
+        
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        Neurogenesis neurogenesis = new Neurogenesis(3, 64);
+        trainer.setNeurogenesis(neurogenesis);
+        trainer.trainEpoch(network, dataset);
+        
+        // 只有1和2共同激活了3次
+        assertEquals(1, network.getEdges().size());
+        Edge edge = network.getEdges().get(0);
+        assertEquals("1", edge.getFromNeuron().getId());
+        assertEquals("2", edge.getToNeuron().getId());
+        assertEquals(Edge.RelationshipType.ASSOCIATION, edge.getRelationshipType());
+        assertEquals(1, neurogenesis.getCreatedEdges());
+        
+        // 1和3、2和3的计数保留到下一轮，已连接的1和2不再重复创建
+        assertEquals(1.0, neurogenesis.getCoactivation(0, 2), 1e-12);
+        trainer.trainEpoch(network, dataset);
+        assertEquals(1, network.getEdges().size());
+        trainer.trainEpoch(network, dataset);
+        assertEquals(3, network.getEdges().size());
+        assertEquals(3, neurogenesis.getCreatedEdges());
+    }
+    
+    @Test
+    public void testExistingEdgesAreNotDuplicated() {
+        NeuralNetwork network = createNetwork(4);
+        network.createConnection("2", "1", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, 0.5);
+        SimpleDataset dataset = new SimpleDataset();
+        for (int i = 0; i < 5; i++) {
+            dataset.addSample(sample("1", "2"));
+        }
+        
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        trainer.setNeurogenesis(new Neurogenesis(2, 64));
+        trainer.trainEpoch(network, dataset);
+        assertEquals(1, network.getEdges().size());
+    }
+    
+    @Test
+    public void testCountsClearedWhenNeuronIndicesMove() {
+        NeuralNetwork network = createNetwork(4);
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        Neurogenesis neurogenesis = new Neurogenesis(2, 64);
+        trainer.setNeurogenesis(neurogenesis);
+        SimpleDataset before = new SimpleDataset();
+        before.addSample(sample("1", "2"));
+        trainer.trainEpoch(network, before);
+        assertEquals(1.0, neurogenesis.getCoactivation(0, 1), 1e-12);
+        
+        // 删除神经元1后神经元4移到下标0，原来1和2的计数不能算到4和2上
+        assertTrue(network.removeNeuron("1"));
+        SimpleDataset after = new SimpleDataset();
+        after.addSample(sample("2", "4"));
+        trainer.trainEpoch(network, after);
+        assertEquals(1.0, neurogenesis.getCoactivation(0, 1), 1e-12);
+        assertEquals(0, network.getEdges().size());
+        assertEquals(0, neurogenesis.getCreatedEdges());
+    }
+    
+    @Test
+    public void testDenseSamplesUsePairBudget() {
+        // 200个神经元全部激活时有19900个神经元对，只抽取100个
+        NeuralNetwork network = createNetwork(200);
+        for (Neuron neuron : network.getNeurons()) {
+            neuron.setActivated(true);
+        }
+        Neurogenesis neurogenesis = new Neurogenesis(1000, 64, 3L);
+        neurogenesis.setPairBudget(100);
+        EdgeBatch batch = EdgeBatch.compile(network);
+        neurogenesis.observe(batch);
+        
+        // 抽取的每个神经元对代表 19900 / 100 = 199 个神经元对
+        assertTrue(neurogenesis.getCoactivation(0, 1) == 0.0 || neurogenesis.getCoactivation(0, 1) >= 199.0);
+        assertEquals(0, neurogenesis.promote(network));
+        assertThrows(IllegalArgumentException.class, () -> neurogenesis.setPairBudget(0));
+    }
+    
+    @Test
+    public void testSpaceSavingFindsHeavyHitters() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(32);
+        SplittableRandom random = new SplittableRandom(11L);
+        for (int i = 0; i < 20000; i++) {
+            // 键1和键2各占约10%，其余为大量不同的键
+            int choice = random.nextInt(10);
+            long key = choice == 0 ? 1L : choice == 1 ? 2L : 100L + random.nextInt(100000);
+            sketch.add(key, 1.0);
+        }
+        
+        assertEquals(32, sketch.size());
+        List<Long> heavy = sketch.keysAtLeast(1000);
+        assertTrue(heavy.contains(1L));
+        assertTrue(heavy.contains(2L));
+        assertEquals(2, heavy.size());
+        assertTrue(sketch.estimate(1L) >= sketch.guaranteed(1L));
+        
+        assertTrue(sketch.remove(1L));
+        assertFalse(sketch.remove(1L));
+        assertEquals(0.0, sketch.estimate(1L));
+        assertEquals(31, sketch.size());
+    }
+}
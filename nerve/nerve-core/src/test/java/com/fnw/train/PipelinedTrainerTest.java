@@ -0,0 +1,110 @@
+package com.fnw.train;
+
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流水线训练器测试类
+ */
+public class PipelinedTrainerTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 0; i < 10; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            network.createConnection(String.valueOf(i), String.valueOf((i + 1) % 10),
+                    Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+            network.createConnection(String.valueOf(i), String.valueOf((i + 3) % 10),
+                    Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.ASSOCIATION, 0.0);
+        }
+        return network;
+    }
+    
+    private SimpleDataset createDataset() {
+        SimpleDataset dataset = new SimpleDataset();
+        for (int s = 0; s < 50; s++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                sample.put(String.valueOf(i), (i * 7 + s) % 3 == 0);
+            }
+            // 网络中不存在的神经元被忽略
+            sample.put("missing", true);
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+    
+    private void assertSameWeights(NeuralNetwork expected, NeuralNetwork actual, double tolerance) {
+        assertEquals(expected.getEdges().size(), actual.getEdges().size());
+        for (int i = 0; i < expected.getEdges().size(); i++) {
+            assertEquals(expected.getEdges().get(i).getWeight(0.0), actual.getEdges().get(i).getWeight(0.0), tolerance);
+        }
+    }
+    
+    @Test
+    public void testMatchesSequentialTraining() {
+        NeuralNetwork sequential = createNetwork();
+        new HebbianTrainer(0.01).train(sequential, createDataset(), 5);
+        
+        NeuralNetwork pipelined = createNetwork();
+        PipelinedTrainer trainer = new PipelinedTrainer(new HebbianRule(), 0.01, 2);
+        trainer.train(pipelined, createDataset(), 5);
+        
+        assertSameWeights(sequential, pipelined, 0.0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sequential.getNeuron(i).isActivated(), pipelined.getNeuron(i).isActivated());
+        }
+    }
+    
+    @Test
+    public void testShuffledEpochVisitsEverySample() {
+        NeuralNetwork sequential = createNetwork();
+        new HebbianTrainer(0.001).train(sequential, createDataset(), 3);
+        
+        NeuralNetwork pipelined = createNetwork();
+        PipelinedTrainer trainer = new PipelinedTrainer(new HebbianRule(), 0.001, 4);
+        trainer.setSampleOrder(SampleOrder.shuffled(42L));
+        AtomicInteger samples = new AtomicInteger();
+        trainer.addListener(new TrainingListener() {
+            @Override
+            public void onSampleProcessed(int epoch, int sample) {
+                samples.incrementAndGet();
+            }
+        }, 1, 1);
+        trainer.train(pipelined, createDataset(), 3);
+        
+        // 权重没有达到上下限时，Hebb更新与样本顺序无关
+        assertEquals(150, samples.get());
+        assertSameWeights(sequential, pipelined, 1e-12);
+    }
+    
+    @Test
+    public void testProducerFailurePropagates() {
+        SimpleDataset broken = new SimpleDataset(createDataset().getAllSamples()) {
+            @Override
+            public Map<String, Boolean> getSample(int index) {
+                if (index == 20) {
+                    throw new IllegalArgumentException("损坏的样本");
+                }
+                return super.getSample(index);
+            }
+        };
+        NeuralNetwork network = createNetwork();
+        PipelinedTrainer trainer = new PipelinedTrainer(new HebbianRule(), 0.01, 2);
+        
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> trainer.train(network, broken, 1));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        // 出错的轮次不写回权重
+        assertEquals(0.0, network.getEdges().get(0).getWeight(0.0), 0.0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.fnw.train;
+
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 样本顺序测试类
+ */
+public class SampleOrderTest {
+    
+    private static void assertPermutation(int[] order) {
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i]);
+        }
+    }
+    
+    @Test
+    public void testShuffledIsReproduciblePerEpoch() {
+        SampleOrder order = SampleOrder.shuffled(7L);
+        int[] epoch0 = order.order(100, 0);
+        int[] epoch1 = order.order(100, 1);
+        
+        assertPermutation(epoch0);
+        assertPermutation(epoch1);
+        // 同一轮次总是得到相同的顺序，不同轮次的顺序不同
+        assertArrayEquals(epoch0, SampleOrder.shuffled(7L).order(100, 0));
+        assertFalse(Arrays.equals(epoch0, epoch1));
+        assertFalse(Arrays.equals(epoch0, SampleOrder.shuffled(8L).order(100, 0)));
+        assertArrayEquals(new int[]{0, 1, 2}, SampleOrder.sequential().order(3, 5));
+    }
+    
+    @Test
+    public void testBlockedKeepsBlocksContiguous() {
+        int[] order = SampleOrder.blocked(3L, 10).order(95, 2);
+        assertPermutation(order);
+        
+        // 每个原始块在排列中恰好是一段连续的区间
+        List<Integer> runs = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || order[i] / 10 != order[i - 1] / 10) {
+                runs.add(order[i] / 10);
+            }
+        }
+        assertEquals(10, runs.size());
+        assertEquals(10, new HashSet<>(runs).size());
+        // 块的顺序也被打乱
+        assertNotEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), runs);
+        assertThrows(IllegalArgumentException.class, () -> SampleOrder.blocked(3L, 0));
+    }
+    
+    @Test
+    public void testTrainerFollowsOrderWithoutMutatingDataset() {
+        NeuralNetwork network = new NeuralNetwork();
+        List<Integer> visited = new ArrayList<>();
+        SimpleDataset dataset = new SimpleDataset() {
+            @Override
+            public Map<String, Boolean> getSample(int index) {
+                visited.add(index);
+                return super.getSample(index);
+            }
+        };
+        for (int i = 0; i < 20; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+            Map<String, Boolean> sample = new HashMap<>();
+            sample.put(String.valueOf(i), true);
+            dataset.addSample(sample);
+        }
+        List<Map<String, Boolean>> before = dataset.getAllSamples();
+        
+        BaseTrainer trainer = new BaseTrainer();
+        trainer.setSampleOrder(SampleOrder.shuffled(11L));
+        trainer.train(network, dataset, 3);
+        
+        List<Integer> expected = new ArrayList<>();
+        for (int epoch = 0; epoch < 3; epoch++) {
+            for (int index : SampleOrder.shuffled(11L).order(20, epoch)) {
+                expected.add(index);
+            }
+        }
+        assertEquals(expected, visited);
+        assertEquals(before, dataset.getAllSamples());
+    }
+}
@@ -0,0 +1,98 @@
+package com.fnw.train;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.Edge;
+import com.fnw.model.MemoryEstimator;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 突触剪枝测试类
+ */
+public class SynapticPrunerTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 3; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.5);
+        network.createConnection("1", "3", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, -0.95);
+        network.createConnection("2", "3", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        return network;
+    }
+    
+    @Test
+    public void testPruneByWeight() {
+        NeuralNetwork network = createNetwork();
+        Edge weak = network.getEdges().get(1);
+        PruneResult result = new SynapticPruner(-0.9).prune(network);
+        
+        assertEquals(1, result.getRemovedEdges());
+        assertEquals(2, result.getRemainingEdges());
+        assertEquals(MemoryEstimator.forCurrentJvm().estimateRemoval(weak), result.getReclaimedBytes());
+        
+        // 邻接索引与边集合保持一致，关系描述不会因为没有权重被移除
+        assertEquals(1, network.getDegree(network.indexOf("1")));
+        assertEquals(2, network.getDegree(network.indexOf("2")));
+        assertEquals(1, network.getEdgesForNeuron(network.getNeuron("3")).size());
+        assertEquals(1, network.getEdgesByType(Edge.RelationshipType.ASSOCIATION).size());
+        assertEquals(1, network.getEdgesByLabel("是一种").size());
+        
+        assertEquals(0, new SynapticPruner(-0.9).prune(network).getRemovedEdges());
+    }
+    
+    @Test
+    public void testPruneUnusedEdgesDuringTraining() {
+        NeuralNetwork network = createNetwork();
+        SimpleDataset dataset = new SimpleDataset();
+        Map<String, Boolean> sample = new HashMap<>();
+        sample.put("1", true);
+        sample.put("2", true);
+        sample.put("3", false);
+        dataset.addSample(sample);
+        
+        // 不按权重剪枝，连续2轮未使用的边每2轮剪除一次
+        HebbianTrainer trainer = new HebbianTrainer(0.01);
+        trainer.setPruner(new SynapticPruner(-2.0, 2, 2));
+        trainer.train(network, dataset, 1);
+        assertEquals(3, network.getEdges().size());
+        assertEquals(1, network.getEdges().get(1).getIdleEpochs());
+        
+        trainer.train(network, dataset, 2);
+        assertEquals(1, network.getEdges().size());
+        assertEquals("2", network.getEdges().get(0).getToNeuron().getId());
+        assertEquals(2, trainer.getLastPruneResult().getRemovedEdges());
+    }
+    
+    @Test
+    public void testParallelPruneKeepsIndexesConsistent() {
+        NeuralNetwork network = new WattsStrogatzGenerator(5000, 8, 0.2, 5L).generateNetwork();
+        SplittableRandom random = new SplittableRandom(5L);
+        for (Edge edge : network.getEdges()) {
+            edge.setInformation(random.nextDouble() * 2 - 1);
+        }
+        int before = network.getEdges().size();
+        
+        PruneResult result = new SynapticPruner(0.0).prune(network);
+        assertEquals(before, result.getRemovedEdges() + result.getRemainingEdges());
+        assertTrue(result.getRemovedEdges() > before / 3);
+        
+        long degreeSum = 0;
+        for (int i = 0; i < network.getNeuronCount(); i++) {
+            degreeSum += network.getDegree(i);
+            for (Edge edge : network.getIncidentEdges(i, null)) {
+                assertTrue(edge.getWeight(0.0) >= 0.0);
+            }
+        }
+        assertEquals(2L * network.getEdges().size(), degreeSum);
+        assertEquals(network.getEdges().size(), network.getEdgesByType(Edge.RelationshipType.ASSOCIATION).size());
+    }
+}
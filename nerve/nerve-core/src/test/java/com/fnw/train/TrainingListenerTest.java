@@ -0,0 +1,172 @@
+package com.fnw.train;
+
+import com.fnw.metrics.MetricsRegistry;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 训练监听器测试类
+ */
+public class TrainingListenerTest {
+    
+    private NeuralNetwork createNetwork() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 3; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), "神经元" + i));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+        network.createConnection("2", "3", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+        return network;
+    }
+    
+    private SimpleDataset createDataset(int size) {
+        SimpleDataset dataset = new SimpleDataset();
+        for (int i = 0; i < size; i++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            sample.put("1", true);
+            sample.put("2", true);
+            sample.put("3", i % 2 == 0);
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+    
+    /**
+     * 记录收到的事件
+     */
+    private static class RecordingListener implements TrainingListener {
+        
+        final List<String> events = new ArrayList<>();
+        
+        final List<EpochSummary> summaries = new ArrayList<>();
+        
+        @Override
+        public void onTrainingStart(NeuralNetwork network, int epochs) {
+            events.add("start:" + epochs);
+        }
+        
+        @Override
+        public void onEpochStart(int epoch) {
+            events.add("epoch:" + epoch);
+        }
+        
+        @Override
+        public void onSampleProcessed(int epoch, int sample) {
+            events.add("sample:" + epoch + ":" + sample);
+        }
+        
+        @Override
+        public void onEpochEnd(EpochSummary summary) {
+            events.add("end:" + summary.getEpoch());
+            summaries.add(summary);
+        }
+        
+        @Override
+        public void onTrainingEnd(int epochsTrained) {
+            events.add("finish:" + epochsTrained);
+        }
+    }
+    
+    @Test
+    public void testEventsFollowSamplingIntervals() {
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        RecordingListener listener = new RecordingListener();
+        trainer.addListener(listener, 2, 2);
+        trainer.train(createNetwork(), createDataset(3), 3);
+        
+        assertEquals(Arrays.asList(
+                "start:3",
+                "epoch:0", "sample:0:0", "sample:0:2", "end:0",
+                "sample:1:0", "sample:1:2",
+                "epoch:2", "sample:2:0", "sample:2:2", "end:2",
+                "finish:3"), listener.events);
+    }
+    
+    @Test
+    public void testEpochSummaryCarriesMetrics() {
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        RecordingListener listener = new RecordingListener();
+        trainer.addListener(listener);
+        trainer.train(createNetwork(), createDataset(2), 2);
+        
+        assertEquals(2, listener.summaries.size());
+        EpochSummary first = listener.summaries.get(0);
+        assertEquals(2, first.getSamples());
+        assertEquals(2, first.getEdgeCount());
+        // 边1-2两个样本都加强，边2-3一个样本加强、一个样本减弱
+        assertEquals(0.2, first.getMaxWeightDelta(), 1e-12);
+        assertEquals((0.2 + 0.05) / 2, first.getMeanWeight(), 1e-12);
+        assertTrue(first.getElapsedNanos() >= 0);
+    }
+    
+    @Test
+    public void testRemovedListenerReceivesNothing() {
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        RecordingListener listener = new RecordingListener();
+        trainer.addListener(listener, 1, 1);
+        assertTrue(trainer.removeListener(listener));
+        assertFalse(trainer.removeListener(listener));
+        trainer.train(createNetwork(), createDataset(2), 2);
+        
+        assertTrue(listener.events.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> trainer.addListener(listener, 0, 0));
+    }
+    
+    @Test
+    public void testCsvAndMetricsListeners() {
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        StringWriter writer = new StringWriter();
+        MetricsRegistry registry = new MetricsRegistry();
+        trainer.addListener(new CsvTrainingListener(writer));
+        trainer.addListener(new MetricsTrainingListener(registry));
+        trainer.train(createNetwork(), createDataset(4), 3);
+        
+        String[] lines = writer.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(CsvTrainingListener.HEADER, lines[0]);
+        assertTrue(lines[1].startsWith("0,4,"));
+        
+        Map<String, Number> snapshot = registry.snapshot();
+        assertEquals(3L, snapshot.get("training.epochs"));
+        assertEquals(12L, snapshot.get("training.samples"));
+        assertEquals(2.0, snapshot.get("training.edges").doubleValue(), 1e-12);
+        assertEquals(trainer.getMetrics().getMeanWeight(), snapshot.get("training.mean_weight").doubleValue(), 1e-12);
+    }
+    
+    @Test
+    public void testMetricsCountersIncludeSkippedEpochs() {
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        MetricsRegistry registry = new MetricsRegistry();
+        RecordingListener listener = new RecordingListener();
+        trainer.addListener(new MetricsTrainingListener(registry), 3, 0);
+        trainer.addListener(listener, 3, 0);
+        trainer.train(createNetwork(), createDataset(4), 5);
+        
+        // 第0、3轮按间隔发送，第4轮是最后一轮
+        assertEquals(3, listener.summaries.size());
+        EpochSummary last = listener.summaries.get(2);
+        assertEquals(4, last.getEpoch());
+        assertEquals(5, last.getTotalEpochs());
+        assertEquals(20L, last.getTotalSamples());
+        assertEquals(40L, last.getTotalEdgeUpdates());
+        
+        Map<String, Number> snapshot = registry.snapshot();
+        assertEquals(5L, snapshot.get("training.epochs"));
+        assertEquals(20L, snapshot.get("training.samples"));
+        assertEquals(40L, snapshot.get("training.edge_updates"));
+        
+        trainer.train(createNetwork(), createDataset(4), 1);
+        assertEquals(6L, registry.snapshot().get("training.epochs"));
+    }
+}
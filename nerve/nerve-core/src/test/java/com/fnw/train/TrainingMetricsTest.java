@@ -0,0 +1,147 @@
+package com.fnw.train;
+
+import com.fnw.generator.WattsStrogatzGenerator;
+import com.fnw.model.Edge;
+import com.fnw.model.NeuralNetwork;
+import com.fnw.model.Neuron;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 训练指标测试类
+ */
+public class TrainingMetricsTest {
+    
+    private SimpleDataset randomDataset(NeuralNetwork network, int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SimpleDataset dataset = new SimpleDataset();
+        for (int s = 0; s < samples; s++) {
+            Map<String, Boolean> sample = new HashMap<>();
+            for (int k = 0; k < 20; k++) {
+                sample.put(network.getNeuron(random.nextInt(network.getNeuronCount())).getId(), random.nextInt(3) == 0);
+            }
+            dataset.addSample(sample);
+        }
+        return dataset;
+    }
+    
+    @Test
+    public void testIncrementalMetricsMatchFullScan() {
+        NeuralNetwork network = new WattsStrogatzGenerator(200, 6, 0.1, 9L).generateNetwork();
+        network.createConnection("0", "1", Edge.Direction.UNIDIRECTIONAL, Edge.RelationshipType.CAUSALITY, "是一种");
+        HebbianTrainer trainer = new HebbianTrainer(0.2);
+        trainer.train(network, randomDataset(network, 30, 9L), 5);
+        
+        TrainingMetrics incremental = trainer.getMetrics();
+        assertTrue(incremental.isSynchronized(network));
+        TrainingMetrics scanned = new TrainingMetrics();
+        scanned.rebuild(network);
+        
+        assertEquals(scanned.getMeanWeight(), incremental.getMeanWeight(), 1e-9);
+        assertEquals(scanned.getWeightedEdges(), incremental.getWeightedEdges());
+        assertEquals(scanned.getSaturatedEdges(), incremental.getSaturatedEdges());
+        assertArrayEquals(scanned.getWeightHistogram(), incremental.getWeightHistogram());
+        assertEquals(scanned.getActivatedNeurons(), incremental.getActivatedNeurons());
+        assertEquals(scanned.getMeanWeight(), trainer.evaluate(network), 1e-9);
+    }
+    
+    @Test
+    public void testHistogramAndSaturation() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 3; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), null));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        network.createConnection("2", "3", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, -1.0);
+        network.createConnection("1", "3", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.05);
+        network.createConnection("3", "1", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, "关系");
+        
+        TrainingMetrics metrics = new TrainingMetrics();
+        metrics.rebuild(network);
+        long[] histogram = metrics.getWeightHistogram();
+        assertEquals(TrainingMetrics.HISTOGRAM_BINS, histogram.length);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[TrainingMetrics.HISTOGRAM_BINS / 2]);
+        assertEquals(1, histogram[TrainingMetrics.HISTOGRAM_BINS - 1]);
+        assertEquals(3, metrics.getWeightedEdges());
+        assertEquals(2.0 / 3, metrics.getSaturatedFraction(), 1e-12);
+        assertEquals(0.05 / 3, metrics.getMeanWeight(), 1e-12);
+    }
+    
+    @Test
+    public void testStructuralChangesInvalidateMetrics() {
+        NeuralNetwork network = new WattsStrogatzGenerator(50, 4, 0.0, 1L).generateNetwork();
+        HebbianTrainer trainer = new HebbianTrainer(0.1);
+        trainer.train(network, randomDataset(network, 5, 1L), 2);
+        assertTrue(trainer.getMetrics().isSynchronized(network));
+        
+        network.createConnection("0", "25", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 1.0);
+        assertFalse(trainer.getMetrics().isSynchronized(network));
+        
+        TrainingMetrics scanned = new TrainingMetrics();
+        scanned.rebuild(network);
+        assertEquals(scanned.getMeanWeight(), trainer.evaluate(network), 1e-12);
+        assertTrue(trainer.getMetrics().isSynchronized(network));
+    }
+    
+    @Test
+    public void testActivatedFractionFollowsSamples() {
+        NeuralNetwork network = new NeuralNetwork();
+        for (int i = 1; i <= 4; i++) {
+            network.addNeuron(new Neuron(String.valueOf(i), null));
+        }
+        network.createConnection("1", "2", Edge.Direction.UNDIRECTED, Edge.RelationshipType.ASSOCIATION, 0.0);
+        SimpleDataset dataset = new SimpleDataset();
+        Map<String, Boolean> first = new HashMap<>();
+        first.put("1", true);
+        first.put("2", true);
+        first.put("3", true);
+        Map<String, Boolean> second = new HashMap<>();
+        second.put("3", false);
+        dataset.addSample(first);
+        dataset.addSample(second);
+        
+        BaseTrainer trainer = new LearningRuleTrainer(new HebbianRule(), 0.1);
+        trainer.trainEpoch(network, dataset);
+        assertEquals(0.5, trainer.getMetrics().getActivatedFraction(), 1e-12);
+        assertEquals(0.5, trainer.evaluate(network), 1e-12);
+    }
+    
+    @Test
+    public void testExternalStateChangesInvalidateMetrics() {
+        NeuralNetwork network = new WattsStrogatzGenerator(50, 4, 0.0, 2L).generateNetwork();
+        LearningRuleTrainer trainer = new LearningRuleTrainer(new HebbianRule(), 0.1);
+        trainer.train(network, randomDataset(network, 5, 2L), 2);
+        assertTrue(trainer.getMetrics().isSynchronized(network));
+        
+        // 修改版本属于各个网络，修改其他网络不影响指标
+        NeuralNetwork other = new WattsStrogatzGenerator(10, 2, 0.0, 3L).generateNetwork();
+        other.activateNeuron(other.getNeuron(0).getId());
+        other.markStateChanged();
+        assertTrue(trainer.getMetrics().isSynchronized(network));
+        
+        // 训练器以外经由网络修改激活状态
+        for (Neuron neuron : network.getNeurons()) {
+            network.deactivateNeuron(neuron.getId());
+        }
+        network.activateNeuron(network.getNeuron(0).getId());
+        assertFalse(trainer.getMetrics().isSynchronized(network));
+        assertEquals(1.0 / 50, trainer.evaluate(network), 1e-12);
+        assertTrue(trainer.getMetrics().isSynchronized(network));
+        
+        // 直接修改权重后声明修改
+        for (Edge edge : network.getEdges()) {
+            edge.setWeight(0.75);
+        }
+        assertTrue(trainer.getMetrics().isSynchronized(network));
+        network.markStateChanged();
+        assertFalse(trainer.getMetrics().isSynchronized(network));
+        trainer.getMetrics().synchronize(network);
+        assertEquals(0.75, trainer.getMetrics().getMeanWeight(), 1e-12);
+    }
+}